@@ -0,0 +1,269 @@
+package NEW;
+
+/**
+ * Dense component storage for every entity of one archetype (one fixed set of components)
+ * Each component field is a primitive column indexed by row; columns of components the archetype lacks stay null
+ * Rows 0 .. count-1 are live, so systems walk the columns linearly with no per-entity objects or iterators
+ * Removal marks rows dead and compact() closes the gaps in one order-preserving pass per frame
+ * A SWARM row stands for several co-moving units in one horizontal line (same y, velocity and per-unit damage):
+ * member k sits at x + spread * k, the row's damage is the members' combined damage, and split() turns it back into
+ * one row per unit when the units have to be handled one by one
+ */
+final class Archetype {
+    // Component bits
+    static final int POSITION = 1;        // x, y (top-left corner)
+    static final int SIZE = 1 << 1;       // w, h
+    static final int VELOCITY = 1 << 2;   // vx, vy (pixels per frame)
+    static final int HEALTH = 1 << 3;     // hp, maxHp
+    static final int CHARGE = 1 << 4;     // charge, maxCharge (bullets collected / required)
+    static final int SPRITE = 1 << 5;     // kind (selects sprite, colors and rules of the row)
+    static final int DAMAGE = 1 << 6;     // damage (health a hit takes from its target)
+    static final int FLAGS = 1 << 7;      // flags (per-row rule state bits, meaning defined by the archetype's rules)
+    static final int FORMATION = 1 << 8;  // group (consecutive rows spawned together share it: broad-phase boxes)
+    static final int BOSS_AI = 1 << 9;    // roarTimer, attackTimer (TimerWheel handles), due (abilities to run)
+    static final int SWARM = 1 << 10;     // units, members, spread, span (one row = a line of co-moving units)
+
+    final String name;       // Archetype name (logs, tools)
+    final int components;    // Component bits present in this archetype
+    final int capacity;      // Maximum number of rows
+
+    // Columns (null when the component is absent)
+    final double[] x, y;
+    final double[] w, h;
+    final double[] vx, vy;
+    final double[] hp, maxHp;
+    final int[] charge, maxCharge;
+    final int[] kind;
+    final double[] damage;
+    final int[] flags;
+    final int[] group;
+    final long[] roarTimer, attackTimer;
+    final int[] due;
+    final int[] units;         // Live members of the row (1 for a single unit)
+    final long[] members;      // Bit k set = member k is alive (a single unit is member 0)
+    final double[] spread;     // X distance between neighboring members
+    final double[] span;       // X offset of the last live member (right edge of the row's line)
+
+    int count = 0;                     // Live rows
+    private final boolean[] dead;      // Rows marked by remove(), dropped by the next compact()
+    private int deadCount = 0;
+
+    /**
+     * Constructor for Archetype
+     * @param name Archetype name
+     * @param components Component bits (POSITION | SIZE | ...)
+     * @param capacity Maximum number of entities
+     */
+    Archetype(String name, int components, int capacity) {
+        this.name = name;
+        this.components = components;
+        this.capacity = capacity;
+        x = column(POSITION);
+        y = column(POSITION);
+        w = column(SIZE);
+        h = column(SIZE);
+        vx = column(VELOCITY);
+        vy = column(VELOCITY);
+        hp = column(HEALTH);
+        maxHp = column(HEALTH);
+        charge = intColumn(CHARGE);
+        maxCharge = intColumn(CHARGE);
+        kind = intColumn(SPRITE);
+        damage = column(DAMAGE);
+        flags = intColumn(FLAGS);
+        group = intColumn(FORMATION);
+        roarTimer = longColumn(BOSS_AI);
+        attackTimer = longColumn(BOSS_AI);
+        due = intColumn(BOSS_AI);
+        units = intColumn(SWARM);
+        members = longColumn(SWARM);
+        spread = column(SWARM);
+        span = column(SWARM);
+        dead = new boolean[capacity];
+    }
+
+    private double[] column(int component) {
+        return has(component) ? new double[capacity] : null;
+    }
+
+    private int[] intColumn(int component) {
+        return has(component) ? new int[capacity] : null;
+    }
+
+    private long[] longColumn(int component) {
+        return has(component) ? new long[capacity] : null;
+    }
+
+    /**
+     * @param component Component bit(s)
+     * @return True if this archetype has all of them
+     */
+    boolean has(int component) {
+        return (components & component) == component;
+    }
+
+    /**
+     * @return True if no row is free
+     */
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    /**
+     * Append a row with every column zeroed (callers fill in the components they need)
+     * @return Row index of the new entity, or -1 when the archetype is full
+     */
+    int add() {
+        if (count == capacity) {
+            return -1;
+        }
+        int row = count++;
+        if (x != null) { x[row] = 0; y[row] = 0; }
+        if (w != null) { w[row] = 0; h[row] = 0; }
+        if (vx != null) { vx[row] = 0; vy[row] = 0; }
+        if (hp != null) { hp[row] = 0; maxHp[row] = 0; }
+        if (charge != null) { charge[row] = 0; maxCharge[row] = 0; }
+        if (kind != null) { kind[row] = 0; }
+        if (damage != null) { damage[row] = 0; }
+        if (flags != null) { flags[row] = 0; }
+        if (group != null) { group[row] = 0; }
+        if (due != null) { roarTimer[row] = 0; attackTimer[row] = 0; due[row] = 0; }
+        if (units != null) { units[row] = 0; members[row] = 0; spread[row] = 0; span[row] = 0; }
+        dead[row] = false;
+        return row;
+    }
+
+    /**
+     * Mark a row for removal (it stays readable until compact())
+     * @param row Row index
+     */
+    void remove(int row) {
+        if (!dead[row]) {
+            dead[row] = true;
+            deadCount++;
+        }
+    }
+
+    /**
+     * @return True if the row was removed since the last compact()
+     */
+    boolean isRemoved(int row) {
+        return dead[row];
+    }
+
+    /**
+     * @param row SWARM row
+     * @param member Member index (bit of members)
+     * @return X coordinate of the member
+     */
+    double memberX(int row, int member) {
+        return x[row] + spread[row] * member;
+    }
+
+    /**
+     * @param row SWARM row with at least one live member
+     * @return Damage of one member (the combined damage is shared equally)
+     */
+    double unitDamage(int row) {
+        return damage[row] / units[row];
+    }
+
+    /**
+     * Remove one member of a SWARM row: Its share of the combined damage goes with it, and the row itself is
+     * removed with its last member
+     * @param row SWARM row
+     * @param member Live member index
+     */
+    void removeMember(int row, int member) {
+        damage[row] -= unitDamage(row);
+        units[row]--;
+        members[row] &= ~(1L << member);
+        if (members[row] == 0) {
+            remove(row);
+        } else {
+            span[row] = spread[row] * (63 - Long.numberOfLeadingZeros(members[row]));
+        }
+    }
+
+    /**
+     * Split a SWARM row back into one row per live member, in place: The members take the row's place in member
+     * order and the rows behind it move down, so loops in row order still meet the units in the order they were
+     * spawned. Each unit row copies the row's columns, with the member's own position and damage
+     * @param row SWARM row (rows behind it may be removed ones: they move along)
+     * @return Number of rows the members now occupy (row .. row + n - 1)
+     */
+    int split(int row) {
+        int n = units[row];
+        if (count + n - 1 > capacity) {
+            throw new IllegalStateException(name + ": no room to split a row of " + n + " units");
+        }
+        for (int r = count - 1; r > row; r--) {
+            move(r, r + n - 1);
+            dead[r + n - 1] = dead[r];
+        }
+        count += n - 1;
+        double left = x[row], step = spread[row], unit = unitDamage(row);
+        long live = members[row];
+        for (int r = row + n - 1; r >= row; r--) {
+            int member = 63 - Long.numberOfLeadingZeros(live); // Highest first: The row itself is written last
+            live &= ~(1L << member);
+            if (r != row) {
+                move(row, r);
+                dead[r] = false;
+            }
+            x[r] = left + step * member;
+            damage[r] = unit;
+            units[r] = 1;
+            members[r] = 1;
+            spread[r] = 0;
+            span[r] = 0;
+        }
+        return n;
+    }
+
+    void clear() {
+        count = 0;
+        deadCount = 0;
+    }
+
+    /**
+     * Drop every removed row in one pass (surviving rows keep their order)
+     */
+    void compact() {
+        if (deadCount == 0) {
+            return;
+        }
+        int kept = 0;
+        for (int row = 0; row < count; row++) {
+            if (dead[row]) {
+                dead[row] = false;
+                continue;
+            }
+            if (kept != row) {
+                move(row, kept);
+            }
+            kept++;
+        }
+        count = kept;
+        deadCount = 0;
+    }
+
+    private void move(int from, int to) {
+        if (x != null) { x[to] = x[from]; y[to] = y[from]; }
+        if (w != null) { w[to] = w[from]; h[to] = h[from]; }
+        if (vx != null) { vx[to] = vx[from]; vy[to] = vy[from]; }
+        if (hp != null) { hp[to] = hp[from]; maxHp[to] = maxHp[from]; }
+        if (charge != null) { charge[to] = charge[from]; maxCharge[to] = maxCharge[from]; }
+        if (kind != null) { kind[to] = kind[from]; }
+        if (damage != null) { damage[to] = damage[from]; }
+        if (flags != null) { flags[to] = flags[from]; }
+        if (group != null) { group[to] = group[from]; }
+        if (due != null) { roarTimer[to] = roarTimer[from]; attackTimer[to] = attackTimer[from]; due[to] = due[from]; }
+        if (units != null) {
+            units[to] = units[from];
+            members[to] = members[from];
+            spread[to] = spread[from];
+            span[to] = span[from];
+        }
+    }
+}
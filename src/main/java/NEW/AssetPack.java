@@ -0,0 +1,433 @@
+package NEW;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Pre-decoded asset pack: Every sprite as premultiplied ARGB pixels and every sound as PCM samples in one file
+ * The build step (main) decodes the PNGs and WAVs once; at runtime the pack is memory-mapped and images wrap the mapped
+ * pixels directly (PixelBuffer), so startup decodes nothing and pages are read in only when a sprite is first drawn
+ * Each entry records its source file's size, modification time and CRC32: isFresh() compares them with the source
+ * on the classpath, so an edited PNG is decoded again instead of the stale pack copy being shown
+ *
+ * File layout (little endian):
+ * <pre>
+ *     Header (32 bytes): magic "TFAP", version, entry count, index offset (int), data offset (int)
+ *     Index (ENTRY_SIZE bytes per entry): name (NAME_SIZE bytes UTF-8, zero padded), type, a, b, c (int),
+ *         data offset (long), data length (long), source size (long), source modification time (long, ms),
+ *         source CRC32 (int), reserved (int)
+ *         IMAGE: a = width, b = height (pixels: int[width * height], premultiplied ARGB, row-major)
+ *         PCM:   a = sample rate, b = channels, c = bits per sample (signed, little endian frames)
+ *     Data: Each entry starts on a DATA_ALIGN boundary
+ * </pre>
+ *
+ * Usage (build): java NEW.AssetPack [out=assets.tfap] [resources=src/main/resources] [sounds=Shoot.wav,...]
+ */
+public final class AssetPack {
+    static final int MAGIC = 0x50414654;   // "TFAP"
+    static final int VERSION = 2;          // 2: Source size, modification time and CRC32 per entry
+    static final int HEADER_SIZE = 32;
+    static final int NAME_SIZE = 64;
+    static final int ENTRY_SIZE = NAME_SIZE + 4 * 4 + 4 * 8 + 2 * 4; // 120
+    static final int DATA_ALIGN = 64;      // Cache line (int views of the pixels are always aligned)
+    static final int IMAGE = 1;
+    static final int PCM = 2;
+    static final String DEFAULT_FILE = "assets.tfap";
+
+    private final MappedByteBuffer map;
+    private final Map<String, Integer> index = new HashMap<>(); // Name -> entry
+    private final int[] type, a, b, c;
+    private final long[] offset, length;
+    private final long[] sourceSize, sourceModified;
+    private final int[] sourceCrc;
+    private final byte[] freshness;        // Per entry: UNCHECKED, FRESH or STALE (checked once, on first use)
+    private static final byte UNCHECKED = 0, FRESH = 1, STALE = 2;
+
+    private AssetPack(MappedByteBuffer map, String source) throws IOException {
+        this.map = map;
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            throw new IOException(source + " is not a version " + VERSION + " asset pack");
+        }
+        int entries = map.getInt(8);
+        int indexOffset = map.getInt(12);
+        this.type = new int[entries];
+        this.a = new int[entries];
+        this.b = new int[entries];
+        this.c = new int[entries];
+        this.offset = new long[entries];
+        this.length = new long[entries];
+        this.sourceSize = new long[entries];
+        this.sourceModified = new long[entries];
+        this.sourceCrc = new int[entries];
+        this.freshness = new byte[entries];
+        byte[] name = new byte[NAME_SIZE];
+        for (int e = 0; e < entries; e++) {
+            int p = indexOffset + e * ENTRY_SIZE;
+            map.get(p, name); // Absolute bulk get: The buffer position stays 0
+            int len = 0;
+            while (len < NAME_SIZE && name[len] != 0) {
+                len++;
+            }
+            index.put(new String(name, 0, len, StandardCharsets.UTF_8), e);
+            type[e] = map.getInt(p + NAME_SIZE);
+            a[e] = map.getInt(p + NAME_SIZE + 4);
+            b[e] = map.getInt(p + NAME_SIZE + 8);
+            c[e] = map.getInt(p + NAME_SIZE + 12);
+            offset[e] = map.getLong(p + NAME_SIZE + 16);
+            length[e] = map.getLong(p + NAME_SIZE + 24);
+            sourceSize[e] = map.getLong(p + NAME_SIZE + 32);
+            sourceModified[e] = map.getLong(p + NAME_SIZE + 40);
+            sourceCrc[e] = map.getInt(p + NAME_SIZE + 48);
+            if (offset[e] < 0 || offset[e] + length[e] > map.capacity()) {
+                throw new IOException(source + ": entry " + e + " lies outside the file");
+            }
+        }
+    }
+
+    /**
+     * Map an asset pack (the index is read now, asset data only when used)
+     * Mapped read-only: The pixels are shared with the page cache and the file never changes
+     * @param file Pack file
+     * @return Opened pack
+     * @throws IOException If the file cannot be mapped or is not an asset pack
+     */
+    static AssetPack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new AssetPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.toString());
+        }
+    }
+
+    boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * Does the pack still hold what the asset's source holds?
+     * The source is the classpath resource of the same name (e.g. /boss.png); without one the pack is all there is,
+     * so the entry counts as fresh. Size and modification time are compared first; only when they differ is the
+     * source read and its CRC32 compared (a touched or copied file with the same bytes keeps using the pack)
+     * The answer is cached per entry; a stale entry is reported once
+     * @param name Asset name (must be in the pack)
+     * @return False if the source changed since the pack was built (decode the source instead)
+     */
+    boolean isFresh(String name) {
+        Integer e = index.get(name);
+        if (e == null) {
+            throw new IllegalArgumentException("Not in pack: " + name);
+        }
+        if (freshness[e] == UNCHECKED) {
+            boolean fresh;
+            try {
+                fresh = matchesSource(e, AssetPack.class.getResource("/" + name));
+            } catch (IOException ex) {
+                fresh = false; // Unreadable source: Let the decoder report it
+            }
+            if (!fresh) {
+                System.out.println("Asset pack entry out of date (decoding the source instead): " + name);
+            }
+            freshness[e] = fresh ? FRESH : STALE;
+        }
+        return freshness[e] == FRESH;
+    }
+
+    private boolean matchesSource(int e, URL source) throws IOException {
+        if (source == null) {
+            return true;
+        }
+        URLConnection connection = source.openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            long size = connection.getContentLengthLong();
+            if (size == sourceSize[e] && connection.getLastModified() == sourceModified[e]) {
+                return true;
+            }
+            byte[] bytes = in.readAllBytes();
+            return bytes.length == sourceSize[e] && crc(bytes) == sourceCrc[e];
+        }
+    }
+
+    static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private int entry(String name, int expectedType) {
+        Integer e = index.get(name);
+        if (e == null || type[e] != expectedType) {
+            throw new IllegalArgumentException("No " + (expectedType == IMAGE ? "image" : "sound") + " in pack: " + name);
+        }
+        return e;
+    }
+
+    int width(String name) {
+        return a[entry(name, IMAGE)];
+    }
+
+    int height(String name) {
+        return b[entry(name, IMAGE)];
+    }
+
+    /**
+     * @param name Image name (file name of the source PNG, e.g. "boss.png")
+     * @return Premultiplied ARGB pixels (row-major view onto the mapped file, no copy)
+     */
+    IntBuffer pixels(String name) {
+        int e = entry(name, IMAGE);
+        return slice(e).asIntBuffer();
+    }
+
+    /**
+     * Copy a region of an image's pixels
+     * @return Premultiplied ARGB pixels of the region (w * h, row-major)
+     */
+    int[] region(String name, int x, int y, int w, int h) {
+        int e = entry(name, IMAGE);
+        if (x < 0 || y < 0 || w <= 0 || h <= 0 || x + w > a[e] || y + h > b[e]) {
+            throw new IllegalArgumentException("Region outside " + name + ": " + x + "," + y + "," + w + "," + h);
+        }
+        IntBuffer src = slice(e).asIntBuffer();
+        int[] out = new int[w * h];
+        for (int row = 0; row < h; row++) {
+            src.position((y + row) * a[e] + x);
+            src.get(out, row * w, w);
+        }
+        return out;
+    }
+
+    /**
+     * Wrap an image's mapped pixels into a JavaFX image (no decoding, no copy on the Java side)
+     * @param name Image name
+     * @return Image backed by the pack
+     */
+    Image image(String name) {
+        int e = entry(name, IMAGE);
+        PixelBuffer<IntBuffer> buffer = new PixelBuffer<>(a[e], b[e], slice(e).asIntBuffer(),
+                PixelFormat.getIntArgbPreInstance());
+        return new WritableImage(buffer);
+    }
+
+    /**
+     * @param name Sound name (file name of the source WAV, e.g. "Shoot.wav")
+     * @return PCM frames (view onto the mapped file, format: audioFormat(name))
+     */
+    ByteBuffer pcm(String name) {
+        return slice(entry(name, PCM));
+    }
+
+    AudioFormat audioFormat(String name) {
+        int e = entry(name, PCM);
+        return new AudioFormat(a[e], c[e], b[e], true, false);
+    }
+
+    private ByteBuffer slice(int e) {
+        ByteBuffer view = map.duplicate();
+        view.position((int) offset[e]).limit((int) (offset[e] + length[e]));
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN); // Native order on x86 and ARM (what PixelBuffer reads)
+    }
+
+    // --- Build step ---
+
+    /**
+     * One decoded asset waiting to be written
+     */
+    static final class Decoded {
+        final String name;
+        final int type, a, b, c;
+        final ByteBuffer data;
+        long sourceSize, sourceModified; // Source file stamp (see stamp())
+        int sourceCrc;
+
+        Decoded(String name, int type, int a, int b, int c, ByteBuffer data) {
+            this.name = name;
+            this.type = type;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.data = data;
+        }
+
+        /**
+         * Record the source file's size, modification time and CRC32 (checked by isFresh() at runtime)
+         * @return This asset
+         */
+        Decoded stamp(Path source) throws IOException {
+            byte[] bytes = Files.readAllBytes(source);
+            sourceSize = bytes.length;
+            sourceModified = Files.getLastModifiedTime(source).toMillis();
+            sourceCrc = crc(bytes);
+            return this;
+        }
+    }
+
+    /**
+     * Decode a PNG into premultiplied ARGB pixels
+     */
+    static Decoded decodeImage(Path png) throws IOException {
+        BufferedImage img = ImageIO.read(png.toFile());
+        if (img == null) {
+            throw new IOException("Not a readable image: " + png);
+        }
+        int w = img.getWidth(), h = img.getHeight();
+        int[] argb = img.getRGB(0, 0, w, h, null, 0, w);
+        ByteBuffer data = ByteBuffer.allocate(w * h * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int p : argb) {
+            data.putInt(premultiply(p));
+        }
+        data.flip();
+        return new Decoded(png.getFileName().toString(), IMAGE, w, h, 0, data);
+    }
+
+    static int premultiply(int argb) {
+        int alpha = argb >>> 24;
+        if (alpha == 255) {
+            return argb;
+        }
+        int r = ((argb >> 16) & 0xFF) * alpha + 127;
+        int g = ((argb >> 8) & 0xFF) * alpha + 127;
+        int b = (argb & 0xFF) * alpha + 127;
+        return alpha << 24 | (r / 255) << 16 | (g / 255) << 8 | (b / 255);
+    }
+
+    /**
+     * Decode a sound file into signed little-endian PCM frames (converted if stored otherwise)
+     */
+    static Decoded decodeSound(Path file) throws IOException {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file.toFile())) {
+            AudioFormat src = in.getFormat();
+            int bits = src.getSampleSizeInBits() > 8 ? 16 : 8;
+            AudioFormat pcm = new AudioFormat(src.getSampleRate(), bits, src.getChannels(), true, false);
+            try (InputStream frames = AudioSystem.getAudioInputStream(pcm, in)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                frames.transferTo(bytes);
+                return new Decoded(file.getFileName().toString(), PCM, Math.round(pcm.getSampleRate()),
+                        pcm.getChannels(), bits, ByteBuffer.wrap(bytes.toByteArray()));
+            }
+        } catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+            throw new IOException("Not a convertible sound: " + file + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Write decoded assets into a pack file
+     * @param out Pack file (replaced)
+     * @param assets Decoded images and sounds (names must be unique)
+     */
+    static void write(Path out, List<Decoded> assets) throws IOException {
+        int indexOffset = HEADER_SIZE;
+        long dataOffset = align(indexOffset + (long) assets.size() * ENTRY_SIZE);
+        ByteBuffer head = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+        head.putInt(0, MAGIC);
+        head.putInt(4, VERSION);
+        head.putInt(8, assets.size());
+        head.putInt(12, indexOffset);
+        head.putInt(16, (int) dataOffset);
+        long pos = dataOffset;
+        for (int e = 0; e < assets.size(); e++) {
+            Decoded d = assets.get(e);
+            byte[] name = d.name.getBytes(StandardCharsets.UTF_8);
+            if (name.length >= NAME_SIZE) {
+                throw new IOException("Asset name too long for the pack index: " + d.name);
+            }
+            int p = indexOffset + e * ENTRY_SIZE;
+            head.put(p, name);
+            head.putInt(p + NAME_SIZE, d.type);
+            head.putInt(p + NAME_SIZE + 4, d.a);
+            head.putInt(p + NAME_SIZE + 8, d.b);
+            head.putInt(p + NAME_SIZE + 12, d.c);
+            head.putLong(p + NAME_SIZE + 16, pos);
+            head.putLong(p + NAME_SIZE + 24, d.data.remaining());
+            head.putLong(p + NAME_SIZE + 32, d.sourceSize);
+            head.putLong(p + NAME_SIZE + 40, d.sourceModified);
+            head.putInt(p + NAME_SIZE + 48, d.sourceCrc);
+            pos = align(pos + d.data.remaining());
+        }
+
+        Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(head, 0);
+            for (int e = 0; e < assets.size(); e++) {
+                ByteBuffer data = assets.get(e).data.duplicate();
+                long at = head.getLong(indexOffset + e * ENTRY_SIZE + NAME_SIZE + 16);
+                while (data.hasRemaining()) {
+                    at += channel.write(data, at);
+                }
+            }
+            if (channel.size() < pos) {
+                channel.write(ByteBuffer.allocate(1), pos - 1); // Pad the last entry to its alignment
+            }
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING); // Readers never see half a pack
+    }
+
+    private static long align(long pos) {
+        return (pos + DATA_ALIGN - 1) / DATA_ALIGN * DATA_ALIGN;
+    }
+
+    /**
+     * Build step: Pack every PNG of the resources directory plus the given sounds
+     * @param args Optional output file, resources directory and comma-separated sound files
+     */
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get(args.length > 0 ? args[0] : DEFAULT_FILE);
+        Path resources = Paths.get(args.length > 1 ? args[1] : "src/main/resources");
+        String[] sounds = (args.length > 2 ? args[2] : "Shoot.wav").split(",");
+
+        long t0 = System.nanoTime();
+        List<Decoded> assets = new ArrayList<>();
+        List<Path> pngs;
+        try (Stream<Path> files = Files.list(resources)) {
+            pngs = files.filter(p -> p.getFileName().toString().endsWith(".png")).sorted().collect(Collectors.toList());
+        }
+        for (Path png : pngs) {
+            assets.add(decodeImage(png).stamp(png));
+        }
+        for (String sound : sounds) {
+            Path file = Paths.get(sound.trim());
+            if (Files.exists(file)) {
+                assets.add(decodeSound(file).stamp(file));
+            } else {
+                System.out.println("Skipping missing sound: " + file);
+            }
+        }
+        write(out, assets);
+        for (Decoded d : assets) {
+            System.out.printf("  %-20s %s %6d x %-6d %9d bytes%n", d.name, d.type == IMAGE ? "image" : "pcm  ",
+                    d.a, d.type == IMAGE ? d.b : d.c, d.data.remaining());
+        }
+        System.out.printf("Wrote %s: %d assets, %d bytes in %.0f ms%n",
+                out, assets.size(), Files.size(out), (System.nanoTime() - t0) / 1e6);
+    }
+}
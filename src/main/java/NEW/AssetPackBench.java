@@ -0,0 +1,128 @@
+package NEW;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start benchmark: Decoding the PNG sprites vs mapping the pre-decoded asset pack
+ * Every run is a fresh JVM (nothing cached in the process, as at game startup); each child loads all sprites one way
+ * and touches every pixel, then reports its load time; the parent also times the whole child process
+ * "png" decodes with ImageIO and premultiplies (the work JavaFX's Image does on load), "pack" opens the pack and
+ * checks each entry against its source and reads the mapped pixels (what the game does when assets.tfap exists)
+ * Run from the project root after building the pack (java NEW.AssetPack)
+ *
+ * Usage: java NEW.AssetPackBench [runs=7] [pack=assets.tfap] [resources=src/main/resources]
+ */
+public final class AssetPackBench {
+    private static final String CHILD = "--child";
+
+    private AssetPackBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional runs per mode, pack file and resources directory
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(CHILD)) {
+            child(args[1], Paths.get(args[2]), Paths.get(args[3]));
+            return;
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        Path pack = Paths.get(args.length > 1 ? args[1] : AssetPack.DEFAULT_FILE);
+        Path resources = Paths.get(args.length > 2 ? args[2] : "src/main/resources");
+        if (!Files.isRegularFile(pack)) {
+            System.out.println("No asset pack at " + pack + ": Build it first with java NEW.AssetPack " + pack);
+            return;
+        }
+
+        System.out.printf("%d fresh JVMs per mode, median of each%n", runs);
+        System.out.println("mode   sprites      pixels   load ms   process ms");
+        for (String mode : new String[] {"png", "pack"}) {
+            double[] load = new double[runs];
+            double[] process = new double[runs];
+            String[] result = null;
+            for (int run = 0; run < runs; run++) {
+                long t0 = System.nanoTime();
+                result = runChild(mode, pack, resources);
+                process[run] = (System.nanoTime() - t0) / 1e6;
+                load[run] = Double.parseDouble(result[2]);
+            }
+            System.out.printf("%-5s %8s %11s %9.1f %12.1f%n", mode, result[0], result[1], median(load), median(process));
+        }
+    }
+
+    /**
+     * Run one child JVM with the same classpath
+     * @return The child's result line split: sprites, pixels, load ms
+     */
+    private static String[] runChild(String mode, Path pack, Path resources) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                AssetPackBench.class.getName(), CHILD, mode, pack.toString(), resources.toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        String line;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            line = out.readLine();
+        }
+        if (process.waitFor() != 0 || line == null) {
+            throw new IOException("Child JVM failed (" + mode + ")");
+        }
+        return line.trim().split(" ");
+    }
+
+    /**
+     * Child side: Load every sprite one way and print "sprites pixels loadMs"
+     */
+    private static void child(String mode, Path pack, Path resources) throws IOException {
+        long t0 = System.nanoTime();
+        List<Path> pngs;
+        try (Stream<Path> files = Files.list(resources)) {
+            pngs = files.filter(p -> p.getFileName().toString().endsWith(".png")).sorted().collect(Collectors.toList());
+        }
+        long pixels = 0;
+        long checksum = 0;
+        if (mode.equals("png")) {
+            for (Path png : pngs) {
+                AssetPack.Decoded image = AssetPack.decodeImage(png); // Decode + premultiply
+                IntBuffer argb = image.data.asIntBuffer();
+                for (int i = 0; i < argb.limit(); i++) {
+                    checksum += argb.get(i);
+                }
+                pixels += argb.limit();
+            }
+        } else {
+            AssetPack assets = AssetPack.open(pack);
+            for (Path png : pngs) {
+                String name = png.getFileName().toString();
+                if (!assets.contains(name) || !assets.isFresh(name)) { // Freshness check as in the game
+                    continue;
+                }
+                IntBuffer argb = assets.pixels(name); // Touch every pixel: Pages are faulted in like a first draw
+                for (int i = 0; i < argb.limit(); i++) {
+                    checksum += argb.get(i);
+                }
+                pixels += argb.limit();
+            }
+        }
+        double ms = (System.nanoTime() - t0) / 1e6;
+        System.out.println(pngs.size() + " " + pixels + " " + ms + (checksum == 42 ? " " : ""));
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
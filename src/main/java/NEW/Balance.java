@@ -0,0 +1,172 @@
+package NEW;
+
+import java.util.Arrays;
+
+/**
+ * Tunable balance constants of a run (the defaults are the shipped game)
+ * Encapsulates BOSS trigger, Buff duration, enemy and BOSS health and the gate charge requirement as one immutable
+ * value, so headless tools can play the same seed under different rules (OOP: Encapsulation + immutability)
+ * Text form: "name=value;name=value" with any subset of NAMES (missing names keep their default); the game reads it
+ * from -Dthunder.balance, the sweep engine passes it to its workers and writes it into its result files
+ *
+ * Rules driven by the values:
+ *   BOSS spawns at cycle score >= bossTriggerScore
+ *   Enemy HP = (enemyHpBase + cycleScore / enemyHpScoreDivisor) * difficultyMultiplier
+ *   BOSS HP = bossHp * difficultyMultiplier
+ *   Gate charge requirement = min(gateReqMax, gateReqBase + cycleScore / gateReqScoreDivisor) (integer division)
+ *   Damage and Giant Buffs last buffDuration shots, the Scatter Buff twice as long
+ */
+final class Balance {
+    // Value indices
+    static final int BOSS_TRIGGER_SCORE = 0;
+    static final int BUFF_DURATION = 1;
+    static final int ENEMY_HP_BASE = 2;
+    static final int ENEMY_HP_SCORE_DIVISOR = 3;
+    static final int BOSS_HP = 4;
+    static final int GATE_REQ_BASE = 5;
+    static final int GATE_REQ_SCORE_DIVISOR = 6;
+    static final int GATE_REQ_MAX = 7;
+
+    static final String[] NAMES = {
+            "bossTriggerScore", "buffDuration", "enemyHpBase", "enemyHpScoreDivisor",
+            "bossHp", "gateReqBase", "gateReqScoreDivisor", "gateReqMax"
+    };
+    private static final double[] DEFAULTS = {3000, 420, 1.2, 150, 2500, 10, 120, 35};
+    private static final boolean[] INTEGER = {true, true, false, false, false, true, true, true}; // Rounded on parse
+
+    static final Balance DEFAULT = new Balance(DEFAULTS.clone());
+
+    private final double[] values;
+
+    private Balance(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Parse the text form
+     * @param text "name=value;..." (null or empty = defaults)
+     * @return Balance with the given values
+     * @throws IllegalArgumentException If a name is unknown or a value is not a positive number
+     */
+    static Balance parse(String text) {
+        Balance balance = DEFAULT;
+        if (text == null || text.trim().isEmpty()) {
+            return balance;
+        }
+        for (String pair : text.split(";")) {
+            if (pair.trim().isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected name=value in balance: " + pair);
+            }
+            try {
+                balance = balance.with(pair.substring(0, eq).trim(), Double.parseDouble(pair.substring(eq + 1).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number in balance: " + pair);
+            }
+        }
+        return balance;
+    }
+
+    /**
+     * @param name Value name (one of NAMES)
+     * @return Index of the value
+     * @throws IllegalArgumentException If the name is unknown
+     */
+    static int indexOf(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown balance value: " + name + " (known: " + String.join(", ", NAMES) + ")");
+    }
+
+    /**
+     * Copy with one value changed
+     * @param name Value name
+     * @param value New value (integer values are rounded)
+     * @return New Balance (this one is unchanged)
+     */
+    Balance with(String name, double value) {
+        int i = indexOf(name);
+        if (!(value > 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Balance value must be positive: " + name + "=" + value);
+        }
+        double[] copy = values.clone();
+        copy[i] = INTEGER[i] ? Math.max(1, Math.round(value)) : value;
+        return new Balance(copy);
+    }
+
+    double get(int index) {
+        return values[index];
+    }
+
+    int bossTriggerScore() {
+        return (int) values[BOSS_TRIGGER_SCORE];
+    }
+
+    int buffDuration() {
+        return (int) values[BUFF_DURATION];
+    }
+
+    /**
+     * @param cycleScore Score gained in the current cycle
+     * @param difficultyMultiplier Current difficulty multiplier
+     * @return Health of a newly spawned normal enemy
+     */
+    double enemyHp(int cycleScore, double difficultyMultiplier) {
+        return (values[ENEMY_HP_BASE] + (cycleScore / values[ENEMY_HP_SCORE_DIVISOR])) * difficultyMultiplier;
+    }
+
+    /**
+     * @param difficultyMultiplier Current difficulty multiplier
+     * @return Health of a newly spawned BOSS
+     */
+    double bossHp(double difficultyMultiplier) {
+        return values[BOSS_HP] * difficultyMultiplier;
+    }
+
+    /**
+     * @param cycleScore Score gained in the current cycle
+     * @return Charge a new purple gate needs before it triggers
+     */
+    int gateRequirement(int cycleScore) {
+        return Math.min((int) values[GATE_REQ_MAX],
+                (int) values[GATE_REQ_BASE] + (cycleScore / (int) values[GATE_REQ_SCORE_DIVISOR]));
+    }
+
+    /**
+     * @return Text form with every value (parse(toString()) gives an equal Balance)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NAMES.length; i++) {
+            if (i > 0) {
+                sb.append(';');
+            }
+            sb.append(NAMES[i]).append('=').append(format(i, values[i]));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return A value as written in the text form (integers without a fraction)
+     */
+    static String format(int index, double value) {
+        return INTEGER[index] ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Balance && Arrays.equals(values, ((Balance) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+}
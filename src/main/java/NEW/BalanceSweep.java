@@ -0,0 +1,492 @@
+package NEW;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Balance parameter sweep: Plays scripted-bot games headlessly for every point of a parameter grid
+ * The grid (the cartesian product of the value lists, see Balance.NAMES) times the seeds gives one job per game;
+ * jobs are handed out one at a time to a pool of worker JVMs (one per core), so fast and slow games balance out and
+ * throughput grows with the number of cores (workers share nothing but the job queue of this coordinator)
+ * Each game is played by the autopilot without god mode until victory, game over or the time limit
+ *
+ * Results stream into a journal (one line per finished game, appended and flushed as it arrives) and the merged
+ * table (one row per grid point: win rate, time to BOSS, peak entity counts) is rewritten whenever a point completes
+ * Resuming: Games already in the journal (same balance and seed) are not played again, so a crashed or interrupted
+ * sweep restarts where it stopped; a line cut short by a crash is dropped; a worker JVM that dies is restarted and
+ * its game is played again (a game that kills MAX_ATTEMPTS workers is reported and skipped)
+ * System properties starting with "thunder." are forwarded to the workers (e.g. -Dthunder.flock=true)
+ *
+ * Journal (out.results, tab-separated): balance, seed, outcome (WIN / LOSS / TIMEOUT), BOSS frame (-1 = never),
+ *     end frame, score, peak forces, peak enemies, peak BOSS bullets
+ * Table (out.tsv, tab-separated): Swept values, games, win %, loss %, timeout %, BOSS reached %,
+ *     mean time to BOSS (s), mean game length (s), mean score, peak forces, peak enemies, peak BOSS bullets
+ *
+ * Usage: java NEW.BalanceSweep [--workers=cores] [--seeds=8] [--minutes=15] [--out=sweep] name=v1,v2,... name=from:to:step ...
+ *   e.g. java NEW.BalanceSweep bossHp=1500:3500:500 bossTriggerScore=2000,3000,4000
+ */
+public final class BalanceSweep {
+    private static final String WORKER = "--worker";
+    private static final int MAX_ATTEMPTS = 3;        // Worker crashes tolerated per game
+    private static final String[] OUTCOMES = {"WIN", "LOSS", "TIMEOUT"};
+
+    private BalanceSweep() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * One game of the sweep (grid point + seed)
+     */
+    private static final class Job {
+        final Balance balance;
+        final long seed;
+        int attempts = 0;
+
+        Job(Balance balance, long seed) {
+            this.balance = balance;
+            this.seed = seed;
+        }
+
+        String key() {
+            return balance + "\t" + seed;
+        }
+    }
+
+    /**
+     * Merged results of one grid point
+     */
+    private static final class Row {
+        final Balance balance;
+        int games, expected;
+        final int[] outcomes = new int[OUTCOMES.length];
+        int bossReached;
+        long bossFrames, endFrames, scores;
+        int peakForces, peakEnemies, peakBossShots;
+
+        Row(Balance balance, int expected) {
+            this.balance = balance;
+            this.expected = expected;
+        }
+
+        /**
+         * Merge one journal line (fields after balance and seed)
+         */
+        void add(String[] f) {
+            games++;
+            for (int o = 0; o < OUTCOMES.length; o++) {
+                if (OUTCOMES[o].equals(f[2])) {
+                    outcomes[o]++;
+                }
+            }
+            long bossFrame = Long.parseLong(f[3]);
+            if (bossFrame >= 0) {
+                bossReached++;
+                bossFrames += bossFrame;
+            }
+            endFrames += Long.parseLong(f[4]);
+            scores += Long.parseLong(f[5]);
+            peakForces = Math.max(peakForces, Integer.parseInt(f[6]));
+            peakEnemies = Math.max(peakEnemies, Integer.parseInt(f[7]));
+            peakBossShots = Math.max(peakBossShots, Integer.parseInt(f[8]));
+        }
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Options and grid axes (see class comment)
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(WORKER)) {
+            worker(Long.parseLong(args[1]));
+            return;
+        }
+        int workers = Runtime.getRuntime().availableProcessors();
+        int seeds = 8;
+        double minutes = 15;
+        String out = "sweep";
+        List<String> names = new ArrayList<>();
+        List<double[]> axes = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--workers=")) {
+                workers = Integer.parseInt(arg.substring(10));
+            } else if (arg.startsWith("--seeds=")) {
+                seeds = Integer.parseInt(arg.substring(8));
+            } else if (arg.startsWith("--minutes=")) {
+                minutes = Double.parseDouble(arg.substring(10));
+            } else if (arg.startsWith("--out=")) {
+                out = arg.substring(6);
+            } else {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Expected name=values or an option: " + arg);
+                }
+                Balance.indexOf(arg.substring(0, eq)); // Fails early on unknown names
+                names.add(arg.substring(0, eq));
+                axes.add(parseAxis(arg.substring(eq + 1)));
+            }
+        }
+        long maxFrames = (long) (minutes * 60 * 60);
+
+        // Grid points (last axis varies fastest) x seeds
+        List<Row> rows = new ArrayList<>();
+        List<Job> jobs = new ArrayList<>();
+        Map<String, Row> byBalance = new HashMap<>();
+        int points = 1;
+        for (double[] axis : axes) {
+            points *= axis.length;
+        }
+        for (int p = 0; p < points; p++) {
+            Balance balance = Balance.DEFAULT;
+            for (int a = axes.size() - 1, rest = p; a >= 0; a--) {
+                balance = balance.with(names.get(a), axes.get(a)[rest % axes.get(a).length]);
+                rest /= axes.get(a).length;
+            }
+            Row row = new Row(balance, seeds);
+            rows.add(row);
+            byBalance.put(balance.toString(), row);
+            for (int s = 0; s < seeds; s++) {
+                jobs.add(new Job(balance, s + 1));
+            }
+        }
+
+        // Resume: Merge the journal of an earlier run, queue only the missing games
+        Path journalFile = Paths.get(out + ".results");
+        Path tableFile = Paths.get(out + ".tsv");
+        Set<String> done = new HashSet<>();
+        int resumed = readJournal(journalFile, byBalance, done);
+        ConcurrentLinkedQueue<Job> queue = new ConcurrentLinkedQueue<>();
+        for (Job job : jobs) {
+            if (!done.contains(job.key())) {
+                queue.add(job);
+            }
+        }
+        int pending = queue.size();
+        workers = Math.max(1, Math.min(workers, pending));
+        System.out.printf("%d grid points x %d seeds = %d games (%d resumed from %s), %d worker JVM(s), limit %.1f min%n",
+                points, seeds, jobs.size(), resumed, journalFile, pending == 0 ? 0 : workers, minutes);
+
+        long t0 = System.nanoTime();
+        try (Writer journal = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            Coordinator coordinator = new Coordinator(queue, byBalance, rows, names, journal, tableFile, pending);
+            writeTable(tableFile, names, rows);
+            Thread[] threads = new Thread[pending == 0 ? 0 : workers];
+            for (int w = 0; w < threads.length; w++) {
+                int id = w;
+                threads[w] = new Thread(() -> coordinator.drive(id, maxFrames), "sweep-worker-" + w);
+                threads[w].start();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+            writeTable(tableFile, names, rows);
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("Played %d games in %.1f s (%.2f games/s); table: %s%n",
+                pending, seconds, pending / Math.max(seconds, 1e-9), tableFile);
+        printTable(names, rows);
+    }
+
+    /**
+     * Parse one axis: "v1,v2,..." or "from:to:step" (inclusive)
+     */
+    private static double[] parseAxis(String spec) {
+        if (spec.contains(":")) {
+            String[] r = spec.split(":");
+            if (r.length != 3) {
+                throw new IllegalArgumentException("Expected from:to:step: " + spec);
+            }
+            double from = Double.parseDouble(r[0]), to = Double.parseDouble(r[1]), step = Double.parseDouble(r[2]);
+            if (!(step > 0) || to < from) {
+                throw new IllegalArgumentException("Empty range: " + spec);
+            }
+            int n = (int) Math.floor((to - from) / step + 1e-9) + 1;
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = from + i * step;
+            }
+            return values;
+        }
+        String[] parts = spec.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+        }
+        return values;
+    }
+
+    /**
+     * Read the journal of an earlier run into the rows; a partial last line (crash mid-write) is cut off
+     * @return Games merged from the journal
+     */
+    private static int readJournal(Path file, Map<String, Row> byBalance, Set<String> done) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long end = raf.length();
+            while (end > 0) {
+                raf.seek(end - 1);
+                if (raf.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            raf.setLength(end); // Appends continue on a clean line
+        }
+        int merged = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] f = line.split("\t");
+            if (f.length != 9) {
+                continue;
+            }
+            String key = f[0] + "\t" + f[1];
+            Row row = byBalance.get(f[0]);
+            if (row == null || Long.parseLong(f[1]) > row.expected || !done.add(key)) {
+                continue; // Another grid, more seeds or a duplicate: Kept in the journal, not part of this table
+            }
+            row.add(f);
+            merged++;
+        }
+        return merged;
+    }
+
+    /**
+     * Job dispatch and result merging (shared by the threads that drive the worker JVMs)
+     */
+    private static final class Coordinator {
+        private final ConcurrentLinkedQueue<Job> queue;
+        private final Map<String, Row> byBalance;
+        private final List<Row> rows;
+        private final List<String> names;
+        private final Writer journal;
+        private final Path tableFile;
+        private final int total;
+        private int finished = 0;
+
+        Coordinator(ConcurrentLinkedQueue<Job> queue, Map<String, Row> byBalance, List<Row> rows, List<String> names,
+                    Writer journal, Path tableFile, int total) {
+            this.queue = queue;
+            this.byBalance = byBalance;
+            this.rows = rows;
+            this.names = names;
+            this.journal = journal;
+            this.tableFile = tableFile;
+            this.total = total;
+        }
+
+        /**
+         * Keep one worker JVM busy until the queue is empty (restarting it if it dies)
+         */
+        void drive(int id, long maxFrames) {
+            Job job = queue.poll();
+            while (job != null) {
+                Process process = null;
+                try {
+                    process = startWorker(maxFrames);
+                    BufferedWriter toWorker = new BufferedWriter(
+                            new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+                    BufferedReader fromWorker = new BufferedReader(
+                            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+                    while (job != null) {
+                        toWorker.write(job.balance + "\t" + job.seed + "\n");
+                        toWorker.flush();
+                        String result = fromWorker.readLine();
+                        if (result == null) {
+                            throw new IOException("worker exited (code " + process.waitFor() + ")");
+                        }
+                        record(job, result);
+                        job = queue.poll();
+                    }
+                    toWorker.close(); // End of input: The worker exits
+                    process.waitFor();
+                } catch (IOException | InterruptedException | RuntimeException e) {
+                    if (process != null) {
+                        process.destroyForcibly();
+                    }
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (++job.attempts >= MAX_ATTEMPTS) {
+                        System.out.printf("Skipping %s seed %d after %d failed attempts: %s%n",
+                                job.balance, job.seed, job.attempts, e.getMessage());
+                        job = queue.poll();
+                    } else {
+                        System.out.printf("Worker %d failed (%s), restarting%n", id, e.getMessage());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Append one game to the journal and merge it; rewrites the table when its grid point is complete
+         */
+        private synchronized void record(Job job, String result) throws IOException {
+            String line = job.key() + "\t" + result;
+            String[] f = line.split("\t");
+            if (f.length != 9) {
+                throw new IOException("Malformed worker result: " + result);
+            }
+            journal.write(line + "\n");
+            journal.flush(); // On disk before the game counts as done (resume point)
+            Row row = byBalance.get(f[0]);
+            row.add(f);
+            finished++;
+            System.out.printf("[%d/%d] %s seed %d: %s after %.1f s, score %s%n", finished, total,
+                    describe(names, row), job.seed, f[2], Long.parseLong(f[4]) / 60.0, f[5]);
+            if (row.games == row.expected) {
+                writeTable(tableFile, names, rows);
+            }
+        }
+    }
+
+    /**
+     * Launch a worker JVM running this class with the same classpath
+     */
+    private static Process startWorker(long maxFrames) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:+UseSerialGC"); // One GC thread per worker: Workers do not compete for cores
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("thunder.")) {
+                command.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BalanceSweep.class.getName());
+        command.add(WORKER);
+        command.add(Long.toString(maxFrames));
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    /**
+     * Worker side: Read "balance<TAB>seed" lines, play each game, answer with one result line per game
+     * Game output (e.g. JMX registration notes) goes to stderr, stdout carries results only
+     */
+    private static void worker(long maxFrames) throws IOException {
+        PrintStream results = new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8");
+        System.setOut(System.err);
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] f = line.split("\t");
+            results.println(play(Balance.parse(f[0]), Long.parseLong(f[1]), maxFrames));
+        }
+    }
+
+    /**
+     * Play one headless game with the autopilot
+     * @return Result fields: outcome, BOSS frame (-1 = never), end frame, score, peak forces, peak enemies,
+     *         peak BOSS bullets (tab-separated)
+     */
+    static String play(Balance balance, long seed, long maxFrames) {
+        ThunderFighter game = new ThunderFighter(seed);
+        game.setHeadless(true);
+        game.setBalance(balance);
+        long bossFrame = -1;
+        int peakForces = 0, peakEnemies = 0, peakBossShots = 0;
+        long frame = 0;
+        while (frame < maxFrames && !game.isFinished()) {
+            frame++;
+            game.setCannonX(game.autopilotX());
+            game.runFrame(frame * ThunderFighter.FRAME_NANOS);
+            if (bossFrame < 0 && game.isBossSpawned()) {
+                bossFrame = frame;
+            }
+            peakForces = Math.max(peakForces, game.playerUnitCount());
+            peakEnemies = Math.max(peakEnemies, game.enemyCount());
+            peakBossShots = Math.max(peakBossShots, game.bossShots().count);
+        }
+        String outcome = game.isVictory() ? "WIN" : game.isFinished() ? "LOSS" : "TIMEOUT";
+        return outcome + "\t" + bossFrame + "\t" + frame + "\t" + game.score() + "\t"
+                + peakForces + "\t" + peakEnemies + "\t" + peakBossShots;
+    }
+
+    private static String describe(List<String> names, Row row) {
+        StringBuilder sb = new StringBuilder();
+        for (int a = 0; a < names.size(); a++) {
+            sb.append(a > 0 ? " " : "").append(names.get(a)).append('=')
+                    .append(Balance.format(Balance.indexOf(names.get(a)), row.balance.get(Balance.indexOf(names.get(a)))));
+        }
+        return sb.length() == 0 ? "defaults" : sb.toString();
+    }
+
+    private static String header(List<String> names) {
+        return String.join("\t", names) + (names.isEmpty() ? "" : "\t") + "games\twin%\tloss%\ttimeout%\tboss%"
+                + "\tbossSec\tlengthSec\tscore\tpeakForces\tpeakEnemies\tpeakBossShots";
+    }
+
+    private static String format(List<String> names, Row r) {
+        StringBuilder sb = new StringBuilder();
+        for (int a = 0; a < names.size(); a++) {
+            int i = Balance.indexOf(names.get(a));
+            sb.append(Balance.format(i, r.balance.get(i))).append('\t');
+        }
+        double n = Math.max(1, r.games);
+        sb.append(String.format(Locale.ROOT, "%d\t%.1f\t%.1f\t%.1f\t%.1f\t%s\t%.1f\t%.0f\t%d\t%d\t%d", r.games,
+                100 * r.outcomes[0] / n, 100 * r.outcomes[1] / n, 100 * r.outcomes[2] / n, 100 * r.bossReached / n,
+                r.bossReached == 0 ? "-" : String.format(Locale.ROOT, "%.1f", r.bossFrames / 60.0 / r.bossReached),
+                r.endFrames / 60.0 / n, r.scores / n, r.peakForces, r.peakEnemies, r.peakBossShots));
+        return sb.toString();
+    }
+
+    /**
+     * Rewrite the merged table (temporary file + atomic move: Readers never see a half-written table)
+     */
+    private static void writeTable(Path file, List<String> names, List<Row> rows) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        List<String> lines = new ArrayList<>();
+        lines.add(header(names));
+        for (Row r : rows) {
+            lines.add(format(names, r));
+        }
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void printTable(List<String> names, List<Row> rows) {
+        String[] columns = header(names).split("\t");
+        for (String column : columns) {
+            System.out.print(pad(column, column));
+        }
+        System.out.println();
+        for (Row r : rows) {
+            String[] values = format(names, r).split("\t");
+            for (int c = 0; c < values.length; c++) {
+                System.out.print(pad(values[c], columns[c]));
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Left-align a cell to its column (at least 12 characters, 2 more than the header)
+     */
+    private static String pad(String value, String column) {
+        return String.format("%-" + Math.max(12, column.length() + 2) + "s", value);
+    }
+}
@@ -0,0 +1,203 @@
+package NEW;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Frame-time benchmark: Per-entity glow (one translucent oval per bullet) vs the BloomPass post-process
+ * Draws the same moving bullet field plus the engine flame (it glows every frame in the game) with both techniques
+ * and forces every frame to be rasterized with a snapshot of the canvas (render + present); reports mean, p99 and
+ * worst frame time per bullet count (0 bullets = flame only: The bloom's lit rect is a small patch)
+ * A third row times what the game draws at HIGH quality on this renderer (BloomPass.preferred: bloom on a hardware
+ * pipeline, per-entity glow on the software renderer; -Dthunder.bloom=true/false forces either)
+ * With --cpu the JavaFX toolkit is not started: Only the bloom's CPU side (emit + blur + pack) is timed
+ *
+ * Usage: java NEW.BloomBench [bullets=0,600,5000] [frames=600] [threads=min(4, cores)] [--cpu]
+ */
+public final class BloomBench {
+    private static final int WARM_UP_FRAMES = 200; // Frames drawn before timing starts (JIT, texture caches)
+    private static final double BULLET_SIZE = 10;
+    private static final Color LASER = Color.rgb(255, 50, 50); // Normal bullet color
+    private static final Color FLAME_OUTER = Color.rgb(255, 105, 97); // Bright engine flame (drawPlayer)
+    private static final Color FLAME_CORE = Color.rgb(255, 165, 0);
+    private static final double FLAME_X = ThunderFighter.WIDTH / 2.0 - 2, FLAME_Y = ThunderFighter.HEIGHT - 40;
+
+    private BloomBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Bullet field: Random positions, moving up and wrapping (the same sequence for both techniques)
+     */
+    private static final class Field {
+        final double[] x, y;
+
+        Field(int n) {
+            Random random = new Random(42);
+            x = new double[n];
+            y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = random.nextDouble() * ThunderFighter.WIDTH;
+                y[i] = random.nextDouble() * ThunderFighter.HEIGHT;
+            }
+        }
+
+        void step() {
+            for (int i = 0; i < y.length; i++) {
+                y[i] -= 10;
+                if (y[i] < 0) {
+                    y[i] += ThunderFighter.HEIGHT;
+                }
+            }
+        }
+    }
+
+    /**
+     * Time one technique (must run on the JavaFX application thread)
+     * @param bloom Bloom pass to use, or null for the per-entity glow
+     * @return Frame times in milliseconds
+     */
+    private static double[] measure(int bullets, int frames, BloomPass bloom) {
+        Canvas canvas = new Canvas(ThunderFighter.WIDTH, ThunderFighter.HEIGHT);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        WritableImage window = new WritableImage(ThunderFighter.WIDTH, ThunderFighter.HEIGHT);
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.BLACK);
+        Field field = new Field(bullets);
+
+        double[] times = new double[frames];
+        for (int frame = 1; frame <= WARM_UP_FRAMES + frames; frame++) {
+            long t0 = System.nanoTime();
+            gc.setFill(Color.BLACK);
+            gc.fillRect(0, 0, ThunderFighter.WIDTH, ThunderFighter.HEIGHT);
+            if (bloom != null) {
+                bloom.begin();
+                bloom.emitOval(FLAME_X - 17, FLAME_Y, 40, 50, FLAME_OUTER, 0.4);
+                bloom.emitOval(FLAME_X - 12, FLAME_Y + 5, 30, 45, FLAME_CORE, 0.7);
+            } else {
+                // Previous flame: Two translucent ovals
+                gc.save();
+                gc.setGlobalAlpha(0.4);
+                gc.setFill(FLAME_OUTER);
+                gc.fillOval(FLAME_X - 17, FLAME_Y, 40, 50);
+                gc.setGlobalAlpha(0.7);
+                gc.setFill(FLAME_CORE);
+                gc.fillOval(FLAME_X - 12, FLAME_Y + 5, 30, 45);
+                gc.restore();
+            }
+            double glow = BULLET_SIZE + 10;
+            for (int i = 0; i < bullets; i++) {
+                double px = field.x[i], py = field.y[i];
+                if (bloom != null) {
+                    bloom.emitPoint(px, py, glow, LASER, 0.4);
+                } else {
+                    // Previous per-entity glow (player bullet drawing before the bloom pass)
+                    gc.save();
+                    gc.setGlobalAlpha(0.4);
+                    gc.setFill(LASER);
+                    gc.fillOval(px - glow / 2, py - glow / 2, glow, glow);
+                    gc.restore();
+                }
+                gc.setFill(LASER);
+                gc.fillOval(px - BULLET_SIZE / 2, py - BULLET_SIZE / 2, BULLET_SIZE, BULLET_SIZE); // Bullet body
+            }
+            if (bloom != null) {
+                bloom.composite(gc);
+            }
+            canvas.snapshot(params, window); // Force rasterization of the frame
+            field.step();
+            long dt = System.nanoTime() - t0;
+            if (frame > WARM_UP_FRAMES) {
+                times[frame - WARM_UP_FRAMES - 1] = dt / 1e6;
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Time the bloom's CPU side only (no JavaFX toolkit needed)
+     * @return Frame times in milliseconds
+     */
+    private static double[] measureCpu(int bullets, int frames, BloomPass bloom) {
+        Field field = new Field(bullets);
+        double[] times = new double[frames];
+        long checksum = 0;
+        for (int frame = 1; frame <= WARM_UP_FRAMES + frames; frame++) {
+            long t0 = System.nanoTime();
+            bloom.begin();
+            bloom.emitOval(FLAME_X - 17, FLAME_Y, 40, 50, FLAME_OUTER, 0.4);
+            bloom.emitOval(FLAME_X - 12, FLAME_Y + 5, 30, 45, FLAME_CORE, 0.7);
+            for (int i = 0; i < bullets; i++) {
+                bloom.emitPoint(field.x[i], field.y[i], BULLET_SIZE + 10, LASER, 0.4);
+            }
+            bloom.resolve();
+            long dt = System.nanoTime() - t0;
+            checksum += bloom.pixels()[BloomPass.W * BloomPass.H / 2];
+            field.step();
+            if (frame > WARM_UP_FRAMES) {
+                times[frame - WARM_UP_FRAMES - 1] = dt / 1e6;
+            }
+        }
+        if (checksum == 42) {
+            System.out.println(); // Keeps the result alive
+        }
+        return times;
+    }
+
+    private static void report(String label, int bullets, double[] times) {
+        double mean = Arrays.stream(times).average().orElse(0);
+        Arrays.sort(times);
+        System.out.printf("%-22s %7d %9.3f %9.3f %9.3f%n", label, bullets, mean,
+                times[(int) Math.min(times.length - 1, Math.ceil(times.length * 0.99) - 1)], times[times.length - 1]);
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional comma-separated bullet counts, frames per run, blur threads and --cpu
+     */
+    public static void main(String[] args) throws Exception {
+        boolean cpuOnly = Arrays.asList(args).contains("--cpu");
+        String[] positional = Arrays.stream(args).filter(a -> !a.startsWith("--")).toArray(String[]::new);
+        int[] counts = Arrays.stream((positional.length > 0 ? positional[0] : "0,600,5000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int frames = positional.length > 1 ? Integer.parseInt(positional[1]) : 600;
+        int threads = positional.length > 2 ? Integer.parseInt(positional[2])
+                : Math.min(4, Runtime.getRuntime().availableProcessors());
+
+        System.out.printf("%d frames per run, bloom %dx%d with %d blur thread(s)%n",
+                frames, BloomPass.W, BloomPass.H, threads);
+        System.out.println("technique              bullets   mean ms    p99 ms    max ms");
+        if (cpuOnly) {
+            try (BloomPass bloom = new BloomPass(threads)) {
+                for (int n : counts) {
+                    report("bloom (CPU side)", n, measureCpu(n, frames, bloom));
+                }
+            }
+            return;
+        }
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Platform.startup(() -> {
+            try (BloomPass bloom = new BloomPass(threads)) {
+                boolean preferred = BloomPass.preferred();
+                for (int n : counts) {
+                    report("per-entity glow", n, measure(n, frames, null));
+                    report("bloom post-process", n, measure(n, frames, bloom));
+                    report(preferred ? "game (bloom)" : "game (per-entity)", n, measure(n, frames, preferred ? bloom : null));
+                }
+                done.complete(null);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        });
+        done.get();
+        Platform.exit();
+    }
+}
@@ -0,0 +1,354 @@
+package NEW;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import javafx.application.ConditionalFeature;
+import javafx.application.Platform;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.BlendMode;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Post-process bloom: Emissive entities deposit light into a low-resolution buffer, which is blurred once per frame
+ * and added onto the frame in one draw call
+ * The buffer is a quarter of the world size on each axis (120x200) and keeps one float array per color channel;
+ * an emitter costs a few array writes instead of a translucent shape on the canvas, so the per-frame glow cost is
+ * the blur (separable Gaussian: horizontal then vertical pass, rows split into bands across worker threads)
+ * plus one scaled image draw, whatever the number of glowing bullets
+ * Only the lit rectangle (bounds of this frame's light plus the blur radius) is blurred, packed and drawn: A frame
+ * where only the engine flame glows blurs and blends a small patch instead of the whole screen
+ * Each output pixel is summed in the same order whatever the banding: The result does not depend on the thread count
+ * The ADD-blended draw is a texture blend on a GPU pipeline but a read-modify-write of every lit screen pixel on the
+ * software renderer, where it costs more than the per-entity glow it replaces: The game only uses the pass where
+ * preferred() says so
+ */
+final class BloomPass implements AutoCloseable {
+    static final int SCALE = 4;                          // World pixels per bloom pixel (per axis)
+    static final int W = ThunderFighter.WIDTH / SCALE;   // 120
+    static final int H = ThunderFighter.HEIGHT / SCALE;  // 200
+    private static final int RADIUS = 5;                 // Blur kernel radius (bloom pixels; 20 world pixels)
+    private static final double SIGMA = 2.0;             // Gaussian spread (bloom pixels)
+    private static final float[] KERNEL = gaussian(RADIUS, SIGMA);
+    private static final double AREA_PER_PIXEL = SCALE * SCALE; // World area covered by one bloom pixel
+
+    // Emitted light (cleared every frame), then the blurred result; one array per channel
+    private final float[] red = new float[W * H];
+    private final float[] green = new float[W * H];
+    private final float[] blue = new float[W * H];
+    // After the horizontal pass
+    private final float[] tmpRed = new float[W * H];
+    private final float[] tmpGreen = new float[W * H];
+    private final float[] tmpBlue = new float[W * H];
+    private final int[] pixels = new int[W * H];         // Blurred light as opaque ARGB (black outside the lit rect)
+    private WritableImage image;                         // Created on the first composite (JavaFX only when drawing)
+    private boolean lit = false;                         // Something was emitted this frame (else the pass is skipped)
+    // Lit pixels of this frame (inclusive bounds), and the rect they light after blurring (exclusive ends)
+    private int litX0, litY0, litX1, litY1;
+    private int rectX0, rectY0, rectX1, rectY1;
+
+    // Blur bands: Band 0 runs on the calling thread, band b > 0 on workers[b - 1] (threads started once)
+    private final int[] bandStart;                       // Rows of band b: [bandStart[b], bandStart[b + 1])
+    private final Thread[] workers;
+    private final AtomicInteger pending = new AtomicInteger(); // Worker bands still running in the current pass
+    private volatile int pass = 0;                       // Raised to start a pass: odd = horizontal, even = vertical
+    private volatile Thread caller;                      // Thread waiting for the pass (woken by the last band)
+    private volatile Throwable failure;                  // First exception of a worker band (rethrown by resolve())
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor for BloomPass
+     * @param threads Blur threads (1 = blur on the render thread)
+     */
+    BloomPass(int threads) {
+        threads = Math.max(1, Math.min(threads, H));
+        bandStart = new int[threads + 1];
+        for (int b = 0; b <= threads; b++) {
+            bandStart[b] = H * b / threads;
+        }
+        workers = new Thread[threads - 1];
+        for (int b = 1; b < threads; b++) {
+            int band = b;
+            workers[b - 1] = new Thread(() -> work(band), "bloom-blur-" + b);
+            workers[b - 1].setDaemon(true);
+            workers[b - 1].start();
+        }
+        Arrays.fill(pixels, 0xFF000000);
+    }
+
+    /**
+     * Should glow go through a bloom pass on the running renderer? Only the hardware pipelines (es2, d3d) support
+     * 3D, so SCENE3D tells them apart from the software renderer; -Dthunder.bloom=true/false overrides the check
+     * Call with the JavaFX toolkit running
+     * @return True for bloom, false for per-entity glow
+     */
+    static boolean preferred() {
+        String forced = System.getProperty("thunder.bloom");
+        if (forced != null) {
+            return Boolean.parseBoolean(forced);
+        }
+        return Platform.isSupported(ConditionalFeature.SCENE3D);
+    }
+
+    /**
+     * Start a frame: Clear last frame's light
+     */
+    void begin() {
+        if (lit) {
+            // Last frame's light (and its blurred result) lies inside its rect: Clear only that
+            for (int y = rectY0; y < rectY1; y++) {
+                int row = y * W;
+                Arrays.fill(red, row + rectX0, row + rectX1, 0);
+                Arrays.fill(green, row + rectX0, row + rectX1, 0);
+                Arrays.fill(blue, row + rectX0, row + rectX1, 0);
+                Arrays.fill(pixels, row + rectX0, row + rectX1, 0xFF000000);
+            }
+            lit = false;
+        }
+    }
+
+    /**
+     * Emit a small round glow centered on (x, y) (bullets): Its light lands on the nearest bloom pixels (bilinear)
+     * @param x Center X (world pixels)
+     * @param y Center Y (world pixels)
+     * @param diameter Glow diameter (world pixels)
+     * @param color Glow color
+     * @param alpha Glow opacity (light emitted per unit of area)
+     */
+    void emitPoint(double x, double y, double diameter, Color color, double alpha) {
+        double energy = alpha * Math.PI / 4 * diameter * diameter / AREA_PER_PIXEL;
+        double fx = x / SCALE - 0.5;
+        double fy = y / SCALE - 0.5;
+        int ix = (int) Math.floor(fx);
+        int iy = (int) Math.floor(fy);
+        double ax = fx - ix;
+        double ay = fy - iy;
+        deposit(ix, iy, energy * (1 - ax) * (1 - ay), color);
+        deposit(ix + 1, iy, energy * ax * (1 - ay), color);
+        deposit(ix, iy + 1, energy * (1 - ax) * ay, color);
+        deposit(ix + 1, iy + 1, energy * ax * ay, color);
+    }
+
+    /**
+     * Emit an oval glow spread evenly over the bloom pixels under its bounding box (flames, muzzle flashes)
+     * @param x Left edge (world pixels, like fillOval)
+     * @param y Top edge (world pixels)
+     * @param w Width (world pixels)
+     * @param h Height (world pixels)
+     * @param color Glow color
+     * @param alpha Glow opacity (light emitted per unit of area)
+     */
+    void emitOval(double x, double y, double w, double h, Color color, double alpha) {
+        int x0 = (int) Math.floor(x / SCALE), x1 = (int) Math.floor((x + w) / SCALE);
+        int y0 = (int) Math.floor(y / SCALE), y1 = (int) Math.floor((y + h) / SCALE);
+        double each = alpha * Math.PI / 4 * w * h / AREA_PER_PIXEL / ((x1 - x0 + 1) * (y1 - y0 + 1));
+        for (int py = y0; py <= y1; py++) {
+            for (int px = x0; px <= x1; px++) {
+                deposit(px, py, each, color);
+            }
+        }
+    }
+
+    private void deposit(int px, int py, double energy, Color color) {
+        if (px < 0 || px >= W || py < 0 || py >= H || energy <= 0) {
+            return;
+        }
+        int i = py * W + px;
+        red[i] += (float) (energy * color.getRed());
+        green[i] += (float) (energy * color.getGreen());
+        blue[i] += (float) (energy * color.getBlue());
+        if (!lit) {
+            litX0 = litX1 = px;
+            litY0 = litY1 = py;
+            lit = true;
+        } else {
+            litX0 = Math.min(litX0, px);
+            litX1 = Math.max(litX1, px);
+            litY0 = Math.min(litY0, py);
+            litY1 = Math.max(litY1, py);
+        }
+        // Blur spreads light RADIUS pixels; one more keeps the rect's border black (smoothing samples past it)
+        rectX0 = Math.max(0, litX0 - RADIUS - 1);
+        rectY0 = Math.max(0, litY0 - RADIUS - 1);
+        rectX1 = Math.min(W, litX1 + RADIUS + 2);
+        rectY1 = Math.min(H, litY1 + RADIUS + 2);
+    }
+
+    /**
+     * Blur this frame's light and convert it to ARGB pixels (no JavaFX; composite() draws them)
+     * @return False if nothing was emitted this frame (no pixels produced)
+     */
+    boolean resolve() {
+        if (!lit) {
+            return false;
+        }
+        if (workers.length == 0) {
+            blurRows(0, H);
+            blurColumns(0, H);
+            return true;
+        }
+        // The vertical pass reads rows of other bands: It starts after every horizontal band is done
+        runPass(); // Horizontal
+        runPass(); // Vertical
+        return true;
+    }
+
+    /**
+     * Run the next pass on every band (band 0 here) and wait for the workers (no allocation, no task objects)
+     */
+    private void runPass() {
+        caller = Thread.currentThread();
+        pending.set(workers.length);
+        int p = pass + 1;
+        pass = p; // Volatile write: Publishes this frame's light and rect to the workers
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        blurBand(p, 0);
+        while (pending.get() != 0) {
+            LockSupport.park(this);
+        }
+        Throwable t = failure;
+        if (t != null) {
+            failure = null;
+            throw new IllegalStateException("Bloom blur failed", t);
+        }
+    }
+
+    /**
+     * Worker loop: Sleep until a pass starts, blur this band, wake the caller when the last band is done
+     */
+    private void work(int band) {
+        int done = 0;
+        while (!closed) {
+            int p = pass;
+            if (p == done) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                blurBand(p, band);
+            } catch (Throwable t) {
+                if (failure == null) {
+                    failure = t;
+                }
+            }
+            done = p;
+            if (pending.decrementAndGet() == 0) {
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+
+    private void blurBand(int p, int band) {
+        if ((p & 1) == 1) {
+            blurRows(bandStart[band], bandStart[band + 1]);
+        } else {
+            blurColumns(bandStart[band], bandStart[band + 1]);
+        }
+    }
+
+    /**
+     * Blur, then add the light onto the frame (one image draw, scaled up to the world size with smoothing)
+     * @param gc GraphicsContext of the frame (world coordinates)
+     */
+    void composite(GraphicsContext gc) {
+        if (!resolve()) {
+            return;
+        }
+        if (image == null) {
+            image = new WritableImage(W, H);
+        }
+        image.getPixelWriter().setPixels(0, 0, W, H, PixelFormat.getIntArgbInstance(), pixels, 0, W);
+        int w = rectX1 - rectX0, h = rectY1 - rectY0;
+        gc.save();
+        gc.setGlobalBlendMode(BlendMode.ADD); // Light adds up: Black bloom pixels leave the frame unchanged
+        gc.drawImage(image, rectX0, rectY0, w, h, rectX0 * SCALE, rectY0 * SCALE, w * SCALE, h * SCALE); // Lit rect only
+        gc.restore();
+    }
+
+    /**
+     * Horizontal pass over the lit rows in [from, to): emitted light -> tmp (light past the edges is dropped)
+     */
+    private void blurRows(int from, int to) {
+        for (int y = Math.max(from, litY0); y < Math.min(to, litY1 + 1); y++) {
+            int row = y * W;
+            for (int x = rectX0; x < rectX1; x++) {
+                int k0 = Math.max(-RADIUS, -x), k1 = Math.min(RADIUS, W - 1 - x);
+                float r = 0, g = 0, b = 0;
+                for (int k = k0; k <= k1; k++) {
+                    float weight = KERNEL[k + RADIUS];
+                    int i = row + x + k;
+                    r += weight * red[i];
+                    g += weight * green[i];
+                    b += weight * blue[i];
+                }
+                tmpRed[row + x] = r;
+                tmpGreen[row + x] = g;
+                tmpBlue[row + x] = b;
+            }
+        }
+    }
+
+    /**
+     * Vertical pass over the rows of the lit rect in [from, to): tmp -> light, then pack the rows into ARGB pixels
+     * Loops run along rows (contiguous), accumulating one kernel tap for the whole row at a time; taps outside the
+     * lit rows are skipped (their tmp rows were not written this frame and hold no light)
+     */
+    private void blurColumns(int from, int to) {
+        for (int y = Math.max(from, rectY0); y < Math.min(to, rectY1); y++) {
+            int row = y * W;
+            Arrays.fill(red, row + rectX0, row + rectX1, 0);
+            Arrays.fill(green, row + rectX0, row + rectX1, 0);
+            Arrays.fill(blue, row + rectX0, row + rectX1, 0);
+            int k0 = Math.max(-RADIUS, litY0 - y), k1 = Math.min(RADIUS, litY1 - y);
+            for (int k = k0; k <= k1; k++) {
+                float weight = KERNEL[k + RADIUS];
+                int src = row + k * W;
+                for (int x = rectX0; x < rectX1; x++) {
+                    red[row + x] += weight * tmpRed[src + x];
+                    green[row + x] += weight * tmpGreen[src + x];
+                    blue[row + x] += weight * tmpBlue[src + x];
+                }
+            }
+            for (int x = rectX0; x < rectX1; x++) {
+                pixels[row + x] = 0xFF000000 | channel(red[row + x]) << 16 | channel(green[row + x]) << 8
+                        | channel(blue[row + x]);
+            }
+        }
+    }
+
+    private static int channel(float v) {
+        return v >= 1 ? 255 : v <= 0 ? 0 : (int) (v * 255 + 0.5f);
+    }
+
+    /**
+     * Normalized 1D Gaussian kernel (weights sum to 1: Blurring keeps the emitted light)
+     */
+    private static float[] gaussian(int radius, double sigma) {
+        float[] k = new float[2 * radius + 1];
+        double sum = 0;
+        for (int i = -radius; i <= radius; i++) {
+            sum += Math.exp(-i * i / (2 * sigma * sigma));
+        }
+        for (int i = -radius; i <= radius; i++) {
+            k[i + radius] = (float) (Math.exp(-i * i / (2 * sigma * sigma)) / sum);
+        }
+        return k;
+    }
+
+    /** @return Blurred light as opaque ARGB pixels (W x H, valid after resolve(); black outside the lit rect) */
+    int[] pixels() {
+        return pixels;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+}
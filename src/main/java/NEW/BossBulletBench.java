@@ -0,0 +1,71 @@
+package NEW;
+
+import java.util.Random;
+
+/**
+ * Benchmark: BOSS bullet field with thousands of live bullets (update + grid rebuild + player hit query per frame)
+ * Keeps the field topped up to the target count from the real phase-3 patterns plus random refills,
+ * and reports the per-frame cost against the 60 FPS frame budget
+ *
+ * Usage: java NEW.BossBulletBench [bullets=5000] [frames=20000]
+ */
+public final class BossBulletBench {
+    private static final double FRAME_BUDGET_MS = 1000.0 / 60; // One frame at 60 FPS
+    private static final double BUDGET_SHARE = 0.1;            // BOSS bullets may use 10% of a frame
+
+    private BossBulletBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional live bullet count and number of measured frames
+     */
+    public static void main(String[] args) {
+        int bullets = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+
+        BossBulletField field = new BossBulletField(bullets);
+        BossPatternEngine engine = new BossPatternEngine();
+        Random random = new Random(1);
+        int[] candidates = new int[bullets];
+        double cannonX = ThunderFighter.WIDTH / 2.0;
+        long checksum = 0;
+
+        // Warm-up pass (JIT), then measured pass
+        double frameMs = 0;
+        double worstMs = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            long total = 0;
+            long worst = 0;
+            for (int f = 0; f < frames; f++) {
+                // Refill outside the timed section: Phase 3 patterns first, random bullets for the rest
+                engine.update(cannonX, 250, cannonX, ThunderFighter.HEIGHT - 70, 0.1, 1, field);
+                while (field.count < bullets) {
+                    double angle = random.nextDouble() * Math.PI;
+                    field.spawn(random.nextDouble() * ThunderFighter.WIDTH, random.nextDouble() * ThunderFighter.HEIGHT,
+                            Math.cos(angle) * 3, Math.sin(angle) * 3, random.nextInt(4) == 0 ? 60 : 0);
+                }
+                cannonX = ThunderFighter.WIDTH / 2.0 + Math.sin(f / 40.0) * 180; // Plane sweeps across the screen
+
+                long t0 = System.nanoTime();
+                field.update(cannonX);
+                int n = field.query(cannonX - 47.5, ThunderFighter.HEIGHT - 75, cannonX + 12.5,
+                        ThunderFighter.HEIGHT, candidates);
+                long dt = System.nanoTime() - t0;
+                checksum += n;
+                total += dt;
+                worst = Math.max(worst, dt);
+            }
+            frameMs = total / 1e6 / frames;
+            worstMs = worst / 1e6;
+        }
+
+        double budgetMs = FRAME_BUDGET_MS * BUDGET_SHARE;
+        System.out.printf("%d BOSS bullets: %.3f ms/frame mean, %.3f ms worst (budget %.2f ms = %.0f%% of a 60 FPS frame) -> %s  [checksum %d]%n",
+                bullets, frameMs, worstMs, budgetMs, BUDGET_SHARE * 100, frameMs <= budgetMs ? "OK" : "OVER BUDGET", checksum);
+        if (frameMs > budgetMs) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package NEW;
+
+/**
+ * All BOSS bullets in structure-of-arrays form (positions, velocities, homing timers in primitive arrays)
+ * update() advances every bullet in one tight loop, drops bullets that left the screen by compaction,
+ * and rebuilds a uniform grid (counting sort by cell) used for the player hit test
+ * Capacity is fixed at construction: The field never grows (hard memory ceiling)
+ */
+final class BossBulletField {
+    static final double SIZE = 35;            // Drawn size of a BOSS bullet (pixels)
+    private static final int CELL = 40;       // Grid cell size (pixels)
+    private static final int GRID_W = ThunderFighter.WIDTH / CELL;   // 12 columns
+    private static final int GRID_H = ThunderFighter.HEIGHT / CELL;  // 20 rows
+    private static final double HOMING_ACCEL = 0.12; // Max horizontal steering per tick for homing bullets
+    private static final double HOMING_MAX_VX = 4.0; // Max horizontal speed of homing bullets
+
+    final int capacity;
+    final double[] x, y;          // Top-left corner of each bullet (like the sprite is drawn)
+    final double[] vx, vy;        // Velocity (pixels per tick)
+    final int[] homingTicks;      // Remaining steering ticks (0 = flies straight)
+    int count = 0;                // Live bullets: indices [0, count)
+
+    // Uniform grid over the playfield (bullets are binned by their top-left corner, clamped to the border cells)
+    private final int[] cellStart = new int[GRID_W * GRID_H + 1]; // Bullets of cell c: cellItems[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellItems;
+    private final int[] itemCell;                                 // Cell of each bullet (scratch for the counting sort)
+
+    /**
+     * Constructor for BossBulletField
+     * @param capacity Maximum number of live BOSS bullets
+     */
+    BossBulletField(int capacity) {
+        this.capacity = capacity;
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.vx = new double[capacity];
+        this.vy = new double[capacity];
+        this.homingTicks = new int[capacity];
+        this.cellItems = new int[capacity];
+        this.itemCell = new int[capacity];
+    }
+
+    /**
+     * Fire one bullet
+     * @return False if the field is full (the bullet is dropped)
+     */
+    boolean spawn(double x, double y, double vx, double vy, int homingTicks) {
+        if (count == capacity) {
+            return false;
+        }
+        this.x[count] = x;
+        this.y[count] = y;
+        this.vx[count] = vx;
+        this.vy[count] = vy;
+        this.homingTicks[count] = homingTicks;
+        count++;
+        return true;
+    }
+
+    void clear() {
+        count = 0;
+        java.util.Arrays.fill(cellStart, 0);
+    }
+
+    /**
+     * Advance all bullets one tick, remove the ones that left the screen and rebuild the grid
+     * @param targetX X coordinate homing bullets steer toward (the plane's center)
+     */
+    void update(double targetX) {
+        int[] cellCount = cellStart; // Counting pass reuses cellStart (shifted into starts below)
+        java.util.Arrays.fill(cellCount, 0);
+
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            double bvx = vx[i];
+            int homing = homingTicks[i];
+            if (homing > 0) {
+                // Steer horizontally toward the player (bounded acceleration and speed)
+                double dx = targetX - (x[i] + SIZE / 2);
+                bvx += Math.max(-HOMING_ACCEL, Math.min(HOMING_ACCEL, dx * 0.01));
+                bvx = Math.max(-HOMING_MAX_VX, Math.min(HOMING_MAX_VX, bvx));
+                homing--;
+            }
+            double bx = x[i] + bvx;
+            double by = y[i] + vy[i];
+            // Off-screen (bottom, top or sides): drop by not copying it forward
+            if (by > ThunderFighter.HEIGHT || by < -SIZE || bx < -SIZE || bx > ThunderFighter.WIDTH) {
+                continue;
+            }
+            x[kept] = bx;
+            y[kept] = by;
+            vx[kept] = bvx;
+            vy[kept] = vy[i];
+            homingTicks[kept] = homing;
+            int cell = cellOf(bx, by);
+            itemCell[kept] = cell;
+            cellCount[cell + 1]++;
+            kept++;
+        }
+        count = kept;
+
+        // Prefix sums turn counts into cell start offsets, then scatter bullet indices into their cells
+        for (int c = 0; c < GRID_W * GRID_H; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        for (int i = 0; i < count; i++) {
+            int c = itemCell[i];
+            cellItems[cellStart[c]++] = i;
+        }
+        // Scattering advanced each start to the next cell's start: shift back by one cell
+        for (int c = GRID_W * GRID_H; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    /**
+     * Collect the bullets whose top-left corner lies in the grid cells covering a query box
+     * (a superset of the bullets inside the box; callers apply the exact test)
+     * @param out Receives bullet indices (must hold up to capacity entries)
+     * @return Number of candidates written to out
+     */
+    int query(double left, double top, double right, double bottom, int[] out) {
+        int c0 = clampCol(left), c1 = clampCol(right);
+        int r0 = clampRow(top), r1 = clampRow(bottom);
+        int n = 0;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * GRID_W + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    out[n++] = cellItems[k];
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Remove one bullet (swap with the last one); the grid is stale until the next update()
+     */
+    void remove(int i) {
+        count--;
+        x[i] = x[count];
+        y[i] = y[count];
+        vx[i] = vx[count];
+        vy[i] = vy[count];
+        homingTicks[i] = homingTicks[count];
+    }
+
+    private static int cellOf(double bx, double by) {
+        return clampRow(by) * GRID_W + clampCol(bx);
+    }
+
+    private static int clampCol(double px) {
+        return Math.max(0, Math.min(GRID_W - 1, (int) Math.floor(px / CELL)));
+    }
+
+    private static int clampRow(double py) {
+        return Math.max(0, Math.min(GRID_H - 1, (int) Math.floor(py / CELL)));
+    }
+}
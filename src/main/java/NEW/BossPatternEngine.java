@@ -0,0 +1,119 @@
+package NEW;
+
+/**
+ * Plays the BOSS's bullet-hell phases into a BossBulletField
+ * Each phase is a list of BulletPatterns (declared as data below) that loops while the BOSS's health is in its range
+ * Patterns are compiled to emission tables once; per tick the engine only walks a cursor through the current table
+ */
+final class BossPatternEngine {
+
+    // --- Phase Table (data): Lower HP bound (fraction of max HP) + patterns played in a loop ---
+    private static final double[] PHASE_MIN_HP = {0.66, 0.33, 0.0};
+    private static final String[] PHASE_NAMES = {"PATTERN_1", "PATTERN_2", "PATTERN_3"};
+    private static final BulletPattern[][] PHASES = {
+            { // Phase 1 (HP > 66%): Aimed fans and slow rings, easy to read
+                    BulletPattern.aimedFan(5, 3, 12, 4.0, 40, 50),
+                    BulletPattern.ring(24, 2, 20, 2.5, 7.5, 60)
+            },
+            { // Phase 2 (33% - 66%): Spiral arms and dense rotating rings
+                    BulletPattern.spiral(4, 60, 3, 3.0, 6, 40),
+                    BulletPattern.ring(36, 4, 15, 2.8, 5, 30),
+                    BulletPattern.aimedFan(7, 2, 10, 4.5, 50, 40)
+            },
+            { // Phase 3 (< 33%): Dense spiral, homing volleys and rings (thousands of bullets on screen)
+                    BulletPattern.spiral(12, 120, 2, 2.5, 4, 10),
+                    BulletPattern.homing(9, 4, 20, 3.0, 120, 90, 20),
+                    BulletPattern.ring(48, 6, 10, 3.2, 3.75, 30)
+            }
+    };
+    private static final BulletPattern.Table[][] TABLES = compileAll();
+
+    private int phase = -1;        // Current phase (-1 = not started)
+    private int patternIndex = 0;  // Pattern inside the phase
+    private int tick = 0;          // Ticks since the current pattern started
+    private int cursor = 0;        // Next row of the current emission table
+
+    private static BulletPattern.Table[][] compileAll() {
+        BulletPattern.Table[][] tables = new BulletPattern.Table[PHASES.length][];
+        for (int p = 0; p < PHASES.length; p++) {
+            tables[p] = new BulletPattern.Table[PHASES[p].length];
+            for (int i = 0; i < PHASES[p].length; i++) {
+                tables[p][i] = PHASES[p][i].compile();
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Restart from phase 1 (new BOSS)
+     */
+    void reset() {
+        phase = -1;
+        patternIndex = 0;
+        tick = 0;
+        cursor = 0;
+    }
+
+    /**
+     * Advance one tick and emit every bullet due in this tick
+     * @param originX X coordinate bullets are fired from (BOSS center)
+     * @param originY Y coordinate bullets are fired from (BOSS bottom edge)
+     * @param targetX Player X coordinate (aim point for aimed/homing patterns)
+     * @param targetY Player Y coordinate
+     * @param hpFraction BOSS health as a fraction of its max HP (selects the phase)
+     * @param hp BOSS health (reported with phase changes)
+     * @param field Receives the bullets
+     * @return Number of bullets fired this tick
+     */
+    int update(double originX, double originY, double targetX, double targetY, double hpFraction, double hp,
+               BossBulletField field) {
+        int newPhase = 0;
+        while (newPhase < PHASE_MIN_HP.length - 1 && hpFraction <= PHASE_MIN_HP[newPhase]) {
+            newPhase++;
+        }
+        if (newPhase != phase) {
+            phase = newPhase;
+            patternIndex = 0;
+            tick = 0;
+            cursor = 0;
+            GameFlightEvents.bossPhase(PHASE_NAMES[phase], hp);
+        }
+
+        BulletPattern.Table table = TABLES[phase][patternIndex];
+        // Aim direction (only used by aimed tables): Rotation from "straight right" to "toward the player"
+        double aimCos = 1, aimSin = 0;
+        if (table.aimed) {
+            double dx = targetX - originX, dy = targetY - originY;
+            double len = Math.hypot(dx, dy);
+            if (len > 0) {
+                aimCos = dx / len;
+                aimSin = dy / len;
+            }
+        }
+        double half = BossBulletField.SIZE / 2; // Bullets are stored by their sprite's top-left corner
+        int fired = 0;
+        while (cursor < table.ticks.length && table.ticks[cursor] == tick) {
+            double vx = table.vx[cursor], vy = table.vy[cursor];
+            if (table.aimed) {
+                double rx = vx * aimCos - vy * aimSin;
+                vy = vx * aimSin + vy * aimCos;
+                vx = rx;
+            }
+            if (field.spawn(originX - half, originY - half, vx, vy, table.homingTicks)) {
+                fired++;
+            }
+            cursor++;
+        }
+
+        // Pattern finished (all bullets fired and rest elapsed): Move to the next pattern of the phase
+        if (++tick > table.length) {
+            patternIndex = (patternIndex + 1) % TABLES[phase].length;
+            tick = 0;
+            cursor = 0;
+        }
+        if (fired > 0) {
+            GameFlightEvents.spawnBurst("BOSS_SHOT", fired);
+        }
+        return fired;
+    }
+}
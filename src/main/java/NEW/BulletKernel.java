@@ -0,0 +1,73 @@
+package NEW;
+
+/**
+ * Bullet integration kernel over structure-of-arrays coordinates (OOP: Abstraction)
+ * Two implementations with identical results: this scalar loop, and BulletKernelVector (jdk.incubator.vector,
+ * several lanes per instruction); INSTANCE picks the vector kernel when the incubator module is present
+ * (run with --add-modules jdk.incubator.vector; -Dthunder.simd=false forces the scalar kernel)
+ * Rules are those of the player bullets (movement and cleanup lines in handlePlayerUnits, via EntityWorld.integrate):
+ * x += vx, y += vy, vx flips when the new x is left of the left wall or right of the right wall,
+ * and a bullet is out of bounds when its new y is above the top line or below the bottom line
+ */
+class BulletKernel {
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /** Kernel used by the game (chosen once at class initialization) */
+    static final BulletKernel INSTANCE = select();
+
+    /**
+     * Pick the vector kernel if the Vector API is available and not disabled
+     * @return Kernel instance
+     */
+    private static BulletKernel select() {
+        boolean simd = Boolean.parseBoolean(System.getProperty("thunder.simd", "true"));
+        if (simd && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                // Loaded by name: Without the module this class is never linked, so the scalar path still runs
+                return (BulletKernel) Class.forName("NEW.BulletKernelVector").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.out.println("Vector bullet kernel unavailable, using scalar: " + e);
+            }
+        }
+        return new BulletKernel();
+    }
+
+    /**
+     * @return Short name of the kernel (for benchmarks and logs)
+     */
+    String name() {
+        return "scalar";
+    }
+
+    /**
+     * Full step: Integrate both axes, bounce at the side walls, flag bullets that left the playfield vertically
+     * @param x X coordinates (updated)
+     * @param y Y coordinates (updated)
+     * @param vx Horizontal velocities (flipped on bounce)
+     * @param vy Vertical velocities
+     * @param n Number of bullets
+     * @param left Left wall
+     * @param right Right wall
+     * @param top Top line (out when y < top)
+     * @param bottom Bottom line (out when y > bottom)
+     * @param out Receives true for every bullet out of bounds
+     * @return Number of bullets out of bounds
+     */
+    int integrate(double[] x, double[] y, double[] vx, double[] vy, int n,
+                  double left, double right, double top, double bottom, boolean[] out) {
+        int gone = 0;
+        for (int i = 0; i < n; i++) {
+            double px = x[i] + vx[i];
+            double py = y[i] + vy[i];
+            x[i] = px;
+            y[i] = py;
+            if (px < left || px > right) {
+                vx[i] = -vx[i];
+            }
+            boolean o = py < top || py > bottom;
+            out[i] = o;
+            gone += o ? 1 : 0;
+        }
+        return gone;
+    }
+}
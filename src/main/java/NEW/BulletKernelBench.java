@@ -0,0 +1,179 @@
+package NEW;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark: Bullet movement + cleanup per frame, object path vs archetype columns
+ * Object path: ArrayList of bullet objects (the entity-per-object layout the game used before its archetypes),
+ * update() per unit and Iterator.remove() at the cleanup lines (handlePlayerUnits)
+ * SoA path: EntityWorld.integrate + compact() on a bullet archetype (as handlePlayerUnits does) with the scalar
+ * kernel and with the vector kernel (if jdk.incubator.vector is loaded)
+ * Every round restores the same starting field (untimed) and then times STEPS frames; all paths must end in the
+ * same state (the vector kernel is checked bit for bit against the scalar one)
+ *
+ * Usage: java --add-modules jdk.incubator.vector NEW.BulletKernelBench [counts=10000,100000] [rounds=40]
+ */
+public final class BulletKernelBench {
+    private static final int STEPS = 50;   // Frames per timed round
+    private static final double LEFT = 0, RIGHT = ThunderFighter.WIDTH - 10;
+    private static final double TOP = 50, BOTTOM = ThunderFighter.HEIGHT; // TOP_CLEANUP_LINE, HEIGHT
+
+    private BulletKernelBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * One bullet as an object (same movement rules as the kernels)
+     */
+    private static final class Bullet {
+        double x, y, vx, vy;
+
+        Bullet(double x, double y, double vx, double vy) {
+            this.x = x;
+            this.y = y;
+            this.vx = vx;
+            this.vy = vy;
+        }
+
+        void update() {
+            x += vx;
+            y += vy;
+            if (x < LEFT || x > RIGHT) {
+                vx = -vx; // Bounce off the side walls
+            }
+        }
+    }
+
+    /**
+     * Starting field: Scatter-like bullets all over the playfield (some bounce, some leave within a round)
+     */
+    private static double[][] field(int n) {
+        Random random = new Random(n);
+        double[][] f = new double[4][n];
+        for (int i = 0; i < n; i++) {
+            f[0][i] = random.nextDouble() * ThunderFighter.WIDTH;
+            f[1][i] = TOP + random.nextDouble() * (BOTTOM - TOP);
+            f[2][i] = random.nextInt(3) == 0 ? 0 : (random.nextDouble() - 0.5) * 6;
+            f[3][i] = -1 - random.nextDouble() * 2;
+        }
+        return f;
+    }
+
+    private static void load(Archetype bullets, double[][] f) {
+        bullets.clear();
+        for (int i = 0; i < f[0].length; i++) {
+            int row = bullets.add();
+            bullets.x[row] = f[0][i];
+            bullets.y[row] = f[1][i];
+            bullets.vx[row] = f[2][i];
+            bullets.vy[row] = f[3][i];
+        }
+    }
+
+    /**
+     * One frame of the SoA path: Kernel pass, then close the gaps of the removed rows
+     */
+    private static void step(EntityWorld world, Archetype bullets, BulletKernel kernel) {
+        world.integrate(bullets, kernel, LEFT, RIGHT, TOP, BOTTOM);
+        bullets.compact();
+    }
+
+    private static long digest(double[] x, double[] y, double[] vx, int n) {
+        long h = n;
+        for (int i = 0; i < n; i++) {
+            h = h * 31 + Double.doubleToLongBits(x[i]);
+            h = h * 31 + Double.doubleToLongBits(y[i]);
+            h = h * 31 + Double.doubleToLongBits(vx[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional comma-separated bullet counts and number of rounds
+     */
+    public static void main(String[] args) {
+        String[] counts = (args.length > 0 ? args[0] : "10000,100000").split(",");
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        BulletKernel scalar = new BulletKernel();
+        BulletKernel vector = BulletKernel.INSTANCE.getClass() != BulletKernel.class ? BulletKernel.INSTANCE : null;
+        if (vector == null) {
+            System.out.println("Vector kernel not loaded (run with --add-modules jdk.incubator.vector): scalar paths only");
+        }
+
+        for (String c : counts) {
+            int n = Integer.parseInt(c.trim());
+            double[][] f = field(n);
+            EntityWorld world = new EntityWorld();
+            Archetype bullets = world.createArchetype("bullet", Archetype.POSITION | Archetype.VELOCITY, n);
+            List<Bullet> units = new ArrayList<>(n);
+            long objectNanos = Long.MAX_VALUE, scalarNanos = Long.MAX_VALUE, vectorNanos = Long.MAX_VALUE;
+            long objectDigest = 0, scalarDigest = 0, vectorDigest = 0;
+            int left = 0;
+
+            for (int r = 0; r < rounds; r++) {
+                // Object path
+                units.clear();
+                for (int i = 0; i < n; i++) {
+                    units.add(new Bullet(f[0][i], f[1][i], f[2][i], f[3][i]));
+                }
+                long t0 = System.nanoTime();
+                for (int s = 0; s < STEPS; s++) {
+                    Iterator<Bullet> it = units.iterator();
+                    while (it.hasNext()) {
+                        Bullet u = it.next();
+                        u.update();
+                        if (u.y < TOP || u.y > BOTTOM) {
+                            it.remove();
+                        }
+                    }
+                }
+                objectNanos = Math.min(objectNanos, System.nanoTime() - t0);
+                double[] ox = new double[units.size()], oy = new double[units.size()], ovx = new double[units.size()];
+                for (int i = 0; i < units.size(); i++) {
+                    ox[i] = units.get(i).x;
+                    oy[i] = units.get(i).y;
+                    ovx[i] = units.get(i).vx;
+                }
+                objectDigest = digest(ox, oy, ovx, units.size());
+
+                // SoA columns, scalar kernel
+                load(bullets, f);
+                t0 = System.nanoTime();
+                for (int s = 0; s < STEPS; s++) {
+                    step(world, bullets, scalar);
+                }
+                scalarNanos = Math.min(scalarNanos, System.nanoTime() - t0);
+                scalarDigest = digest(bullets.x, bullets.y, bullets.vx, bullets.count);
+                left = bullets.count;
+
+                // SoA columns, vector kernel
+                if (vector != null) {
+                    load(bullets, f);
+                    t0 = System.nanoTime();
+                    for (int s = 0; s < STEPS; s++) {
+                        step(world, bullets, vector);
+                    }
+                    vectorNanos = Math.min(vectorNanos, System.nanoTime() - t0);
+                    vectorDigest = digest(bullets.x, bullets.y, bullets.vx, bullets.count);
+                }
+            }
+
+            double perFrame = STEPS * 1e3;
+            System.out.printf("%,d bullets (%,d left after %d frames): object %.1f us/frame, SoA scalar %.1f us/frame (x%.1f)",
+                    n, left, STEPS, objectNanos / perFrame, scalarNanos / perFrame, (double) objectNanos / scalarNanos);
+            if (vector != null) {
+                System.out.printf(", SoA %s %.1f us/frame (x%.1f)", vector.name(), vectorNanos / perFrame,
+                        (double) objectNanos / vectorNanos);
+            }
+            boolean same = objectDigest == scalarDigest && (vector == null || vectorDigest == scalarDigest);
+            System.out.println(same ? ", results identical" : ", RESULTS DIFFER");
+            if (!same) {
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package NEW;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of BulletKernel: Processes SPECIES.length() bullets per step, scalar loop for the tail
+ * Uses only lane-wise add, compare, negate and blend, so every result is bit-identical to the scalar kernel;
+ * no mask leaves the loop, so the compiled loop allocates nothing (the out-of-bounds flags are a scalar pass)
+ * Compile and run with --add-modules jdk.incubator.vector (loaded by name from BulletKernel.select())
+ */
+final class BulletKernelVector extends BulletKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    String name() {
+        return "vector x" + SPECIES.length();
+    }
+
+    @Override
+    int integrate(double[] x, double[] y, double[] vx, double[] vy, int n,
+                  double left, double right, double top, double bottom, boolean[] out) {
+        if (n < SPECIES.length()) { // No full vector: A profile of only such calls would leave the vector loop a trap
+            return super.integrate(x, y, vx, vy, n, left, right, top, bottom, out);
+        }
+        int gone = 0;
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, vx, i);
+            DoubleVector px = DoubleVector.fromArray(SPECIES, x, i).add(v);
+            DoubleVector py = DoubleVector.fromArray(SPECIES, y, i).add(DoubleVector.fromArray(SPECIES, vy, i));
+            px.intoArray(x, i);
+            py.intoArray(y, i);
+            VectorMask<Double> bounce = px.compare(VectorOperators.LT, left).or(px.compare(VectorOperators.GT, right));
+            v.blend(v.neg(), bounce).intoArray(vx, i);
+        }
+        // Flags in a plain loop over the y just stored: On JDK 17 every in-lane form boxes the mask per step
+        // (VectorMask.toLong, VectorMask.intoArray(boolean[]), convertShape(D2B) + ByteVector.intoArray) and runs slower
+        for (int j = 0; j < i; j++) {
+            double py = y[j];
+            boolean o = py < top || py > bottom;
+            out[j] = o;
+            gone += o ? 1 : 0;
+        }
+        for (; i < n; i++) {
+            double px = x[i] + vx[i];
+            double py = y[i] + vy[i];
+            x[i] = px;
+            y[i] = py;
+            if (px < left || px > right) {
+                vx[i] = -vx[i];
+            }
+            boolean o = py < top || py > bottom;
+            out[i] = o;
+            gone += o ? 1 : 0;
+        }
+        return gone;
+    }
+}
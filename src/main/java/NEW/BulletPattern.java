@@ -0,0 +1,118 @@
+package NEW;
+
+/**
+ * Declarative BOSS bullet pattern (pure data): Kind + a few numbers, compiled once into an emission table
+ * The table lists, in emission order, the tick and velocity of every bullet the pattern fires,
+ * so playing a pattern at runtime is a cursor walk with no trigonometry per bullet
+ */
+final class BulletPattern {
+    /** Pattern kinds */
+    enum Kind {
+        RING,       // Volleys of bullets evenly spaced around a full circle (each volley rotated by spinDeg)
+        SPIRAL,     // Rotating arms: every interval ticks each arm fires, the arms turn by spinDeg per shot
+        AIMED_FAN,  // Volleys of bullets spread over spreadDeg, centered on the player at emission time
+        HOMING      // Volleys of bullets in a downward arc that steer toward the player for homingTicks
+    }
+
+    final Kind kind;
+    final int bullets;       // Bullets per volley (RING/AIMED_FAN/HOMING) or number of arms (SPIRAL)
+    final int volleys;       // Number of volleys (SPIRAL: number of shots per arm)
+    final int interval;      // Ticks between volleys
+    final double speed;      // Bullet speed (pixels per tick)
+    final double spreadDeg;  // Fan/arc width in degrees (AIMED_FAN, HOMING)
+    final double spinDeg;    // Rotation per volley in degrees (RING, SPIRAL)
+    final int homingTicks;   // How long bullets steer toward the player (HOMING only)
+    final int restTicks;     // Pause after the pattern before the next one starts
+
+    private BulletPattern(Kind kind, int bullets, int volleys, int interval, double speed,
+                          double spreadDeg, double spinDeg, int homingTicks, int restTicks) {
+        this.kind = kind;
+        this.bullets = bullets;
+        this.volleys = volleys;
+        this.interval = interval;
+        this.speed = speed;
+        this.spreadDeg = spreadDeg;
+        this.spinDeg = spinDeg;
+        this.homingTicks = homingTicks;
+        this.restTicks = restTicks;
+    }
+
+    static BulletPattern ring(int bullets, int volleys, int interval, double speed, double spinDeg, int restTicks) {
+        return new BulletPattern(Kind.RING, bullets, volleys, interval, speed, 0, spinDeg, 0, restTicks);
+    }
+
+    static BulletPattern spiral(int arms, int shots, int interval, double speed, double spinDeg, int restTicks) {
+        return new BulletPattern(Kind.SPIRAL, arms, shots, interval, speed, 0, spinDeg, 0, restTicks);
+    }
+
+    static BulletPattern aimedFan(int bullets, int volleys, int interval, double speed, double spreadDeg, int restTicks) {
+        return new BulletPattern(Kind.AIMED_FAN, bullets, volleys, interval, speed, spreadDeg, 0, 0, restTicks);
+    }
+
+    static BulletPattern homing(int bullets, int volleys, int interval, double speed, double spreadDeg,
+                                int homingTicks, int restTicks) {
+        return new BulletPattern(Kind.HOMING, bullets, volleys, interval, speed, spreadDeg, 0, homingTicks, restTicks);
+    }
+
+    /**
+     * Compile the pattern into its emission table
+     * Angles use screen coordinates (0 = right, 90 = straight down); aimed patterns store angles relative to the aim
+     * @return Emission table (sorted by tick)
+     */
+    Table compile() {
+        int total = bullets * volleys;
+        Table table = new Table(total, kind == Kind.AIMED_FAN, kind == Kind.HOMING ? homingTicks : 0,
+                (volleys - 1) * interval + restTicks);
+        int n = 0;
+        for (int v = 0; v < volleys; v++) {
+            for (int b = 0; b < bullets; b++) {
+                double angleDeg;
+                switch (kind) {
+                    case RING:
+                    case SPIRAL:
+                        angleDeg = 90 + b * 360.0 / bullets + v * spinDeg;
+                        break;
+                    case AIMED_FAN:
+                        angleDeg = fanOffset(b); // Relative to the aim direction
+                        break;
+                    default: // HOMING: Downward arc, steering does the aiming
+                        angleDeg = 90 + fanOffset(b);
+                        break;
+                }
+                double rad = Math.toRadians(angleDeg);
+                table.ticks[n] = v * interval;
+                table.vx[n] = Math.cos(rad) * speed;
+                table.vy[n] = Math.sin(rad) * speed;
+                n++;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Angle offset of bullet b inside a fan of spreadDeg degrees (centered on 0)
+     */
+    private double fanOffset(int b) {
+        return bullets == 1 ? 0 : -spreadDeg / 2 + b * spreadDeg / (bullets - 1);
+    }
+
+    /**
+     * Compiled emission table: Bullet i is fired ticks[i] ticks after the pattern starts with velocity (vx[i], vy[i])
+     */
+    static final class Table {
+        final int[] ticks;
+        final double[] vx, vy;
+        final boolean aimed;      // True: velocities are relative to the direction toward the player
+        final int homingTicks;    // > 0: Bullets steer toward the player for this many ticks
+        final int length;         // Ticks from pattern start to the start of the next pattern
+
+        Table(int size, boolean aimed, int homingTicks, int length) {
+            this.ticks = new int[size];
+            this.vx = new double[size];
+            this.vy = new double[size];
+            this.aimed = aimed;
+            this.homingTicks = homingTicks;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package NEW;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Micro-benchmark: Bullet-vs-enemy hit tests as done in checkCombatAndGameOver (every bullet against every enemy)
+ * Compares the old rule (box test only) with the box test followed by ThunderFighter.hitAt (alpha mask)
+ * Both run the same ThunderFighter.insideBox scan; the mask is only consulted for the bullets inside the box,
+ * so the extra cost should stay within a few percent
+ *
+ * Usage: java NEW.CollisionBench [bullets=600] [enemies=40] [rounds=2000]
+ */
+public final class CollisionBench {
+
+    private CollisionBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * One hit-test pass over every bullet-enemy pair (a hit records the bullet, standing in for damage + removal)
+     * Old rule (useMask false): Plain box test; new rule (useMask true): The same box test, then the sprite's
+     * alpha mask for the bullets inside the box (as in shootAt). Both rules share this one compiled loop, so the
+     * comparison measures the mask and not two differently compiled copies of the box scan
+     */
+    private static int hits(Archetype bullets, Archetype enemies, boolean useMask, int[] inside, int[] hitLog) {
+        int hits = 0;
+        for (int e = 0; e < enemies.count; e++) {
+            double ex = enemies.x[e], ey = enemies.y[e];
+            int n = ThunderFighter.insideBox(bullets.x, bullets.y, bullets.span, 0, bullets.count,
+                    ex, ey, enemies.w[e], inside);
+            if (n == 0) {
+                continue;
+            }
+            CollisionMask mask = useMask ? ThunderFighter.maskOf(enemies, e) : null; // Once per enemy, not per bullet
+            for (int k = 0; k < n; k++) {
+                int b = inside[k];
+                if (ThunderFighter.hitAt(mask, ex, ey, bullets.x[b], bullets.y[b])) {
+                    hitLog[hits++ % hitLog.length] = b;
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional bullet count, enemy count and number of rounds
+     */
+    public static void main(String[] args) {
+        int bulletCount = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+        int enemyCount = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        if (SpriteMasks.ENEMY1 == null || SpriteMasks.ENEMY2 == null) {
+            System.out.println("Enemy sprites not found on the classpath (add src/main/resources)");
+            return;
+        }
+
+        // Bullets spread over the playfield, enemies in horde rows (8 lanes, like handleEnemyHorde)
+        Random random = new Random(1);
+        Archetype bullets = new Archetype("bullet", Archetype.POSITION | Archetype.SWARM, bulletCount);
+        Archetype enemies = new Archetype("enemy", Archetype.POSITION | Archetype.SIZE | Archetype.SPRITE, enemyCount);
+        for (int i = 0; i < bulletCount; i++) {
+            int row = bullets.add();
+            bullets.x[row] = random.nextDouble() * ThunderFighter.WIDTH;
+            bullets.y[row] = random.nextDouble() * ThunderFighter.HEIGHT;
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            int row = enemies.add();
+            enemies.x[row] = (i % 8) * (ThunderFighter.WIDTH / 8.0) + 2;
+            enemies.y[row] = (i / 8) * 90.0 + random.nextDouble() * 20;
+            enemies.w[row] = enemies.h[row] = 65;
+            enemies.kind[row] = random.nextInt(2);
+        }
+        int[] inside = new int[bulletCount];
+        int[] hitLog = new int[bulletCount];
+
+        // Warm-up passes until both loops are fully compiled (the first passes still run OSR code), then
+        // measured passes; both variants run on the same data and each reports its median pass
+        int warmups = 5, passes = 9;
+        double[] boxNanos = new double[passes], maskNanos = new double[passes];
+        int boxCount = 0, maskCount = 0;
+        for (int pass = -warmups; pass < passes; pass++) {
+            long boxSum = 0, maskSum = 0;
+            for (int r = 0; r < rounds; r++) {
+                boolean boxFirst = (r & 1) == 0; // Alternate the order, so neither variant always runs on a cold cache
+                long t0 = System.nanoTime();
+                if (boxFirst) {
+                    boxCount = hits(bullets, enemies, false, inside, hitLog);
+                } else {
+                    maskCount = hits(bullets, enemies, true, inside, hitLog);
+                }
+                long t1 = System.nanoTime();
+                if (boxFirst) {
+                    maskCount = hits(bullets, enemies, true, inside, hitLog);
+                } else {
+                    boxCount = hits(bullets, enemies, false, inside, hitLog);
+                }
+                long t2 = System.nanoTime();
+                boxSum += boxFirst ? t1 - t0 : t2 - t1;
+                maskSum += boxFirst ? t2 - t1 : t1 - t0;
+            }
+            if (pass >= 0) {
+                boxNanos[pass] = boxSum;
+                maskNanos[pass] = maskSum;
+            }
+        }
+
+        double pairs = (double) bulletCount * enemyCount * rounds;
+        double box = median(boxNanos), mask = median(maskNanos);
+        System.out.printf("%d bullets x %d enemies: box %.2f ns/pair (%d hits), box+mask %.2f ns/pair (%d hits), overhead %+.1f%%%n",
+                bulletCount, enemyCount, box / pairs, boxCount, mask / pairs, maskCount, 100.0 * (mask - box) / box);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,128 @@
+package NEW;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.imageio.ImageIO;
+
+/**
+ * Pixel-accurate collision mask: One bit per pixel of a sprite at the size it is drawn (1 = opaque)
+ * Rows are packed into 64-bit words, so overlap tests AND whole words instead of single pixels
+ * Masks are built once from the PNG's alpha channel and shared by every entity using that sprite
+ */
+final class CollisionMask {
+    private static final int ALPHA_THRESHOLD = 32; // Pixels more transparent than this do not collide
+
+    final int width, height;     // Mask size (= drawn sprite size in pixels)
+    private final int words;     // 64-bit words per row
+    private final long[] bits;   // Row-major bitset: bit (x & 63) of bits[y * words + (x >>> 6)]
+
+    /**
+     * Constructor for CollisionMask (empty; bits are set by the factory)
+     * @param width Mask width (pixels)
+     * @param height Mask height (pixels)
+     */
+    private CollisionMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.words = (width + 63) >>> 6;
+        this.bits = new long[words * height];
+    }
+
+    /**
+     * Build a mask for a sprite resource scaled to the size it is drawn at
+     * Decoded with ImageIO, so masks also exist in headless runs (no JavaFX toolkit needed)
+     * @param resource Classpath resource name (e.g. "boss.png")
+     * @param width Drawn width (pixels)
+     * @param height Drawn height (pixels)
+     * @return Mask, or null if the resource is missing/unreadable (callers fall back to the box test)
+     */
+    static CollisionMask fromResource(String resource, int width, int height) {
+        try (InputStream in = CollisionMask.class.getResourceAsStream("/" + resource)) {
+            if (in == null) {
+                return null;
+            }
+            BufferedImage image = ImageIO.read(in);
+            if (image == null) {
+                return null;
+            }
+            int srcW = image.getWidth();
+            int srcH = image.getHeight();
+            int[] argb = image.getRGB(0, 0, srcW, srcH, null, 0, srcW);
+            return fromArgb(argb, srcW, srcH, width, height);
+        } catch (IOException e) {
+            System.out.println("Collision mask loading failed for " + resource + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Build a mask from ARGB pixels, scaled (nearest pixel, like drawImage stretching) to the drawn size
+     * @param argb Source pixels (row-major, srcW * srcH)
+     * @param srcW Source width
+     * @param srcH Source height
+     * @param width Drawn width
+     * @param height Drawn height
+     * @return New mask
+     */
+    static CollisionMask fromArgb(int[] argb, int srcW, int srcH, int width, int height) {
+        CollisionMask mask = new CollisionMask(width, height);
+        for (int y = 0; y < height; y++) {
+            int sy = Math.min(srcH - 1, (int) ((y + 0.5) * srcH / height)); // Sample at the pixel center
+            for (int x = 0; x < width; x++) {
+                int sx = Math.min(srcW - 1, (int) ((x + 0.5) * srcW / width));
+                if ((argb[sy * srcW + sx] >>> 24) >= ALPHA_THRESHOLD) {
+                    mask.bits[y * mask.words + (x >>> 6)] |= 1L << (x & 63);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Point test: Is the pixel at (x, y) (relative to the mask's top-left corner) opaque?
+     * Only for points already inside the mask (after the coarse box test passed): No bounds checks,
+     * which keeps the hot collision loop as small as the plain box test
+     * @param x X offset inside the sprite (0 <= x < width)
+     * @param y Y offset inside the sprite (0 <= y < height)
+     * @return True if the point hits an opaque pixel
+     */
+    boolean containsInside(double x, double y) {
+        int ix = (int) x;
+        return ((bits[(int) y * words + (ix >>> 6)] >>> ix) & 1L) != 0; // Shift distance uses ix & 63
+    }
+
+    /**
+     * Mask-vs-mask test with word-wide AND: Do any opaque pixels of both sprites overlap?
+     * @param other The other mask
+     * @param dx X of other's top-left corner relative to this mask's top-left corner
+     * @param dy Y of other's top-left corner relative to this mask's top-left corner
+     * @return True if the sprites overlap on at least one opaque pixel
+     */
+    boolean overlaps(CollisionMask other, int dx, int dy) {
+        int rowStart = Math.max(0, dy);
+        int rowEnd = Math.min(height, dy + other.height);
+        for (int row = rowStart; row < rowEnd; row++) {
+            int thisRow = row * words;
+            int otherRow = (row - dy) * other.words;
+            for (int w = 0; w < other.words; w++) {
+                long src = other.bits[otherRow + w];
+                if (src == 0) {
+                    continue;
+                }
+                // Bit i of this word lands at x = w * 64 + i + dx in this mask: split across two target words
+                int x0 = (w << 6) + dx;
+                int target = Math.floorDiv(x0, 64);
+                int shift = Math.floorMod(x0, 64);
+                if (target >= 0 && target < words && (bits[thisRow + target] & (src << shift)) != 0) {
+                    return true;
+                }
+                if (shift != 0 && target + 1 >= 0 && target + 1 < words
+                        && (bits[thisRow + target + 1] & (src >>> (64 - shift))) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package NEW;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Endless-mode soak run: Simulates hours of headless endless play and checks that the heap stays flat
+ * The autopilot plays in god mode (the run never ends), so BOSS cycles, spawn ceilings and cleanup are all exercised
+ * Used heap is sampled after a full GC every 10 simulated minutes; growth after warm-up must stay below a limit
+ *
+ * Usage: java NEW.EndlessSoak [hours=4] [maxGrowthMb=16]
+ * Exit code 0 = heap flat, 1 = heap grew beyond the limit
+ */
+public final class EndlessSoak {
+    private static final long FRAMES_PER_MINUTE = 60 * 60;        // 60 FPS simulation clock
+    private static final long SAMPLE_EVERY = 10 * FRAMES_PER_MINUTE; // Heap sample interval (10 simulated minutes)
+    private static final long WARM_UP = 30 * FRAMES_PER_MINUTE;    // Samples before this are warm-up (JIT, list growth)
+
+    private EndlessSoak() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Used heap after a full garbage collection (live data only)
+     * @param memory Platform memory bean
+     * @return Used heap in bytes
+     */
+    private static long liveHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional simulated hours and allowed heap growth (MB)
+     */
+    public static void main(String[] args) {
+        double hours = args.length > 0 ? Double.parseDouble(args[0]) : 4;
+        long maxGrowth = (args.length > 1 ? Long.parseLong(args[1]) : 16) * 1024 * 1024;
+        long totalFrames = (long) (hours * 60 * FRAMES_PER_MINUTE);
+
+        ThunderFighter game = new ThunderFighter(42);
+        game.setHeadless(true);
+        game.setEndlessMode(true);
+        game.setGodMode(true);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = -1;   // Live heap at the end of warm-up
+        long peak = 0;        // Highest live heap after warm-up
+        long startTime = System.nanoTime();
+
+        for (long frame = 1; frame <= totalFrames; frame++) {
+            game.setCannonX(game.autopilotX());
+            game.runFrame(frame * ThunderFighter.FRAME_NANOS);
+
+            if (frame % SAMPLE_EVERY == 0) {
+                long heap = liveHeap(memory);
+                GameMonitor m = game.monitor();
+                System.out.printf("t=%4d min  heap=%6.1f MB  cycle=%d  score=%d  units=%d  enemies=%d  bossShots=%d%n",
+                        frame / FRAMES_PER_MINUTE, heap / 1048576.0, game.bossCycle() + 1, m.getScore(),
+                        m.getPlayerMobSize(), m.getEnemyMobSize(), m.getBossProjectilesSize());
+                if (frame >= WARM_UP) {
+                    if (baseline < 0) {
+                        baseline = heap;
+                    }
+                    peak = Math.max(peak, heap);
+                }
+            }
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        long growth = baseline < 0 ? 0 : peak - baseline;
+        System.out.printf("Simulated %.1f h (%d frames) in %.0f s; heap growth after warm-up: %.1f MB (limit %.1f MB)%n",
+                hours, totalFrames, seconds, growth / 1048576.0, maxGrowth / 1048576.0);
+        if (growth > maxGrowth) {
+            System.out.println("FAIL: heap is not flat");
+            System.exit(1);
+        }
+        System.out.println("PASS: heap is flat");
+    }
+}
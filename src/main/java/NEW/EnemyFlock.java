@@ -0,0 +1,276 @@
+package NEW;
+
+import java.util.Arrays;
+
+/**
+ * Boids-style steering for enemy formations in structure-of-arrays form (centers and velocities in primitive arrays)
+ * Each agent steers by separation, alignment and cohesion with its neighbors, avoids obstacle boxes (gates) and
+ * swarms toward a target point (the player's cannon); neighbors come from a uniform grid rebuilt every step
+ * (counting sort by cell, like BossBulletField), so a step costs O(n * neighbors) instead of O(n^2)
+ * The counting sort also copies centers and velocities into cell order: The cells of one grid row are one contiguous
+ * run of those arrays, so a neighbor query reads at most three short sequential runs
+ * Velocities are computed for all agents first and applied afterwards: The result does not depend on agent order
+ * Capacity is fixed at construction: The flock never grows (hard memory ceiling)
+ */
+final class EnemyFlock {
+    static final double RADIUS = 48;          // Perception radius (pixels): Neighbors farther away are ignored
+    private static final double SEPARATION_RADIUS = 40; // Neighbors closer than this push the agent away
+    private static final double AVOID_MARGIN = 50;      // Obstacles closer than this push the agent away
+    private static final double SEPARATION_WEIGHT = 0.9;
+    private static final double ALIGNMENT_WEIGHT = 0.06;
+    private static final double COHESION_WEIGHT = 0.004;
+    private static final double SEEK_WEIGHT = 0.03;
+    private static final double AVOID_WEIGHT = 1.2;
+    static final double MAX_SPEED = 1.6;      // Pixels per step
+    static final double MIN_DESCENT = 0.3;    // Agents always drift down at least this fast (the horde keeps coming)
+    private static final int CELL = (int) RADIUS; // Grid cell size: A 3x3 block of cells covers the perception radius
+    private static final int GRID_W = ThunderFighter.WIDTH / CELL;   // 10 columns
+    private static final int GRID_H = ThunderFighter.HEIGHT / CELL + 1; // 17 rows
+
+    final int capacity;
+    final double[] x, y;          // Center of each agent
+    final double[] vx, vy;        // Velocity (pixels per step)
+    int count = 0;                // Live agents: indices [0, count)
+
+    private final double[] nextVx, nextVy;  // Steered velocities (applied after every agent has been steered)
+
+    // Uniform grid over the playfield (agents are binned by their center, clamped to the border cells)
+    private final int[] cellStart = new int[GRID_W * GRID_H + 1]; // Agents of cell c: cellItems[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellItems;                                // Agent index of each cell-ordered slot
+    private final int[] itemCell;                                 // Cell of each agent (scratch for the counting sort)
+    private final double[] sortedX, sortedY, sortedVx, sortedVy;  // Centers and velocities in cell order
+
+    // Neighbor sums of the agent being steered (scratch, reset per agent)
+    private double sepX, sepY, sumVx, sumVy, sumX, sumY;
+    private int neighbors;
+
+    /**
+     * Constructor for EnemyFlock
+     * @param capacity Maximum number of agents
+     */
+    EnemyFlock(int capacity) {
+        this.capacity = capacity;
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.vx = new double[capacity];
+        this.vy = new double[capacity];
+        this.nextVx = new double[capacity];
+        this.nextVy = new double[capacity];
+        this.cellItems = new int[capacity];
+        this.itemCell = new int[capacity];
+        this.sortedX = new double[capacity];
+        this.sortedY = new double[capacity];
+        this.sortedVx = new double[capacity];
+        this.sortedVy = new double[capacity];
+    }
+
+    /**
+     * Add one agent
+     * @return False if the flock is full (the agent is dropped)
+     */
+    boolean add(double x, double y, double vx, double vy) {
+        if (count == capacity) {
+            return false;
+        }
+        this.x[count] = x;
+        this.y[count] = y;
+        this.vx[count] = vx;
+        this.vy[count] = vy;
+        count++;
+        return true;
+    }
+
+    void clear() {
+        count = 0;
+    }
+
+    /**
+     * Steer and move every agent one step (neighbors from the grid)
+     * @param targetX X coordinate the flock swarms toward
+     * @param targetY Y coordinate the flock swarms toward
+     * @param obstacles Boxes to avoid (POSITION | SIZE rows, removed rows are skipped; null = none)
+     */
+    void step(double targetX, double targetY, Archetype obstacles) {
+        rebuildGrid();
+        for (int i = 0; i < count; i++) {
+            beginAgent();
+            double ax = x[i], ay = y[i];
+            int c0 = clampCol(ax - RADIUS), c1 = clampCol(ax + RADIUS);
+            int r0 = clampRow(ay - RADIUS), r1 = clampRow(ay + RADIUS);
+            for (int r = r0; r <= r1; r++) {
+                // Cells c0..c1 of row r are one contiguous run of the cell-ordered arrays
+                for (int k = cellStart[r * GRID_W + c0], end = cellStart[r * GRID_W + c1 + 1]; k < end; k++) {
+                    int j = cellItems[k];
+                    if (j != i) {
+                        accumulate(i, ax, ay, j, sortedX[k], sortedY[k], sortedVx[k], sortedVy[k]);
+                    }
+                }
+            }
+            steer(i, targetX, targetY, obstacles);
+        }
+        move();
+    }
+
+    /**
+     * Same rule as step(), but every agent looks at every other agent (O(n^2) reference for benchmarks)
+     */
+    void stepAllPairs(double targetX, double targetY, Archetype obstacles) {
+        for (int i = 0; i < count; i++) {
+            beginAgent();
+            for (int j = 0; j < count; j++) {
+                if (j != i) {
+                    accumulate(i, x[i], y[i], j, x[j], y[j], vx[j], vy[j]);
+                }
+            }
+            steer(i, targetX, targetY, obstacles);
+        }
+        move();
+    }
+
+    private void beginAgent() {
+        sepX = 0;
+        sepY = 0;
+        sumVx = 0;
+        sumVy = 0;
+        sumX = 0;
+        sumY = 0;
+        neighbors = 0;
+    }
+
+    /**
+     * Add neighbor j (center jx, jy, velocity jvx, jvy) to the sums of agent i (ignored outside the perception radius)
+     */
+    private void accumulate(int i, double ax, double ay, int j, double jx, double jy, double jvx, double jvy) {
+        double dx = ax - jx;
+        double dy = ay - jy;
+        double d2 = dx * dx + dy * dy;
+        if (d2 >= RADIUS * RADIUS) {
+            return;
+        }
+        if (d2 < SEPARATION_RADIUS * SEPARATION_RADIUS) {
+            // Push away, stronger the closer the neighbor (coincident agents split along the index order)
+            double d = Math.sqrt(d2);
+            if (d > 1e-6) {
+                double push = (SEPARATION_RADIUS - d) / (SEPARATION_RADIUS * d);
+                sepX += dx * push;
+                sepY += dy * push;
+            } else {
+                sepX += i < j ? -1 : 1;
+            }
+        }
+        sumVx += jvx;
+        sumVy += jvy;
+        sumX += jx;
+        sumY += jy;
+        neighbors++;
+    }
+
+    /**
+     * Combine the neighbor sums, obstacle avoidance and target seeking into agent i's next velocity
+     */
+    private void steer(int i, double targetX, double targetY, Archetype obstacles) {
+        double ax = x[i], ay = y[i];
+        double svx = vx[i], svy = vy[i];
+        svx += sepX * SEPARATION_WEIGHT;
+        svy += sepY * SEPARATION_WEIGHT;
+        if (neighbors > 0) {
+            svx += (sumVx / neighbors - vx[i]) * ALIGNMENT_WEIGHT;
+            svy += (sumVy / neighbors - vy[i]) * ALIGNMENT_WEIGHT;
+            svx += (sumX / neighbors - ax) * COHESION_WEIGHT;
+            svy += (sumY / neighbors - ay) * COHESION_WEIGHT;
+        }
+
+        // Seek: Normalized pull toward the target (swarm toward the player)
+        double tx = targetX - ax, ty = targetY - ay;
+        double td = Math.sqrt(tx * tx + ty * ty);
+        if (td > 1e-6) {
+            svx += tx / td * SEEK_WEIGHT;
+            svy += ty / td * SEEK_WEIGHT;
+        }
+
+        // Avoid: Push away from the nearest point of every obstacle box within the margin
+        if (obstacles != null) {
+            for (int r = 0; r < obstacles.count; r++) {
+                if (obstacles.isRemoved(r)) {
+                    continue;
+                }
+                double nx = Math.max(obstacles.x[r], Math.min(ax, obstacles.x[r] + obstacles.w[r]));
+                double ny = Math.max(obstacles.y[r], Math.min(ay, obstacles.y[r] + obstacles.h[r]));
+                double ox = ax - nx, oy = ay - ny;
+                double o2 = ox * ox + oy * oy;
+                if (o2 < AVOID_MARGIN * AVOID_MARGIN) {
+                    double od = Math.sqrt(o2);
+                    if (od > 1e-6) {
+                        double push = (AVOID_MARGIN - od) / (AVOID_MARGIN * od) * AVOID_WEIGHT;
+                        svx += ox * push;
+                        svy += oy * push;
+                    } else {
+                        svy -= AVOID_WEIGHT; // Inside the box: Back out upward (the box falls past)
+                    }
+                }
+            }
+        }
+
+        // Limit speed, keep descending
+        double speed = Math.sqrt(svx * svx + svy * svy);
+        if (speed > MAX_SPEED) {
+            svx *= MAX_SPEED / speed;
+            svy *= MAX_SPEED / speed;
+        }
+        nextVx[i] = svx;
+        nextVy[i] = Math.max(MIN_DESCENT, svy);
+    }
+
+    /**
+     * Apply the steered velocities and keep agents inside the side walls
+     */
+    private void move() {
+        for (int i = 0; i < count; i++) {
+            double px = x[i] + nextVx[i];
+            double pvx = nextVx[i];
+            if (px < 0 || px > ThunderFighter.WIDTH) {
+                px = Math.max(0, Math.min(ThunderFighter.WIDTH, px));
+                pvx = -pvx;
+            }
+            x[i] = px;
+            y[i] += nextVy[i];
+            vx[i] = pvx;
+            vy[i] = nextVy[i];
+        }
+    }
+
+    private void rebuildGrid() {
+        int[] cellCount = cellStart; // Counting pass reuses cellStart (shifted into starts below)
+        Arrays.fill(cellCount, 0);
+        for (int i = 0; i < count; i++) {
+            int cell = clampRow(y[i]) * GRID_W + clampCol(x[i]);
+            itemCell[i] = cell;
+            cellCount[cell + 1]++;
+        }
+        // Prefix sums turn counts into cell start offsets, then scatter agent indices into their cells
+        for (int c = 0; c < GRID_W * GRID_H; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        for (int i = 0; i < count; i++) {
+            int k = cellStart[itemCell[i]]++;
+            cellItems[k] = i;
+            sortedX[k] = x[i];
+            sortedY[k] = y[i];
+            sortedVx[k] = vx[i];
+            sortedVy[k] = vy[i];
+        }
+        // Scattering advanced each start to the next cell's start: shift back by one cell
+        for (int c = GRID_W * GRID_H; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    private static int clampCol(double px) {
+        return Math.max(0, Math.min(GRID_W - 1, (int) Math.floor(px / CELL)));
+    }
+
+    private static int clampRow(double py) {
+        return Math.max(0, Math.min(GRID_H - 1, (int) Math.floor(py / CELL)));
+    }
+}
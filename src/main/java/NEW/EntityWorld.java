@@ -0,0 +1,133 @@
+package NEW;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entity-component world: The archetypes of the game plus the systems that run over their columns
+ * New entity types are declared here with createArchetype() and pick up every system whose components they have
+ */
+final class EntityWorld {
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private boolean[] outOfBounds = new boolean[0]; // Scratch of integrate() (grows to the largest archetype once)
+
+    /**
+     * Declare an archetype
+     * @param name Archetype name
+     * @param components Component bits (Archetype.POSITION | ...)
+     * @param capacity Maximum number of entities of this archetype
+     * @return The new archetype
+     */
+    Archetype createArchetype(String name, int components, int capacity) {
+        Archetype a = new Archetype(name, components, capacity);
+        archetypes.add(a);
+        return a;
+    }
+
+    /**
+     * @return All archetypes (in declaration order)
+     */
+    List<Archetype> archetypes() {
+        return Collections.unmodifiableList(archetypes);
+    }
+
+    // --- Systems ---
+
+    /**
+     * Movement system: position += velocity for every row
+     * @param a Archetype with POSITION and VELOCITY
+     */
+    static void move(Archetype a) {
+        double[] x = a.x, y = a.y, vx = a.vx, vy = a.vy;
+        for (int i = 0; i < a.count; i++) {
+            x[i] += vx[i];
+            y[i] += vy[i];
+        }
+    }
+
+    /**
+     * Bullet integration system: One BulletKernel pass over the columns (position += velocity, vx flips at the side
+     * walls); rows that left the playfield vertically are removed (readable until the archetype's next compact())
+     * @param a Archetype with POSITION and VELOCITY
+     * @param kernel Integration kernel (BulletKernel.INSTANCE in the game)
+     * @param left Left wall
+     * @param right Right wall
+     * @param top Top line (rows above it are removed)
+     * @param bottom Bottom line (rows below it are removed)
+     */
+    void integrate(Archetype a, BulletKernel kernel, double left, double right, double top, double bottom) {
+        if (outOfBounds.length < a.capacity) {
+            outOfBounds = new boolean[a.capacity];
+        }
+        boolean[] out = outOfBounds;
+        int gone = kernel.integrate(a.x, a.y, a.vx, a.vy, a.count, left, right, top, bottom, out);
+        for (int i = 0; i < a.count && gone > 0; i++) {
+            if (out[i]) {
+                a.remove(i);
+                gone--;
+            }
+        }
+    }
+
+    /**
+     * Formation system (broad phase): Split the rows into runs of consecutive rows sharing a group and compute the
+     * bounding box of each run (SWARM rows included up to their last member), so one box test can reject a whole
+     * volley before its rows are tested
+     * @param a Archetype with POSITION and FORMATION (compacted: no removed rows)
+     * @param start Receives the first row of each run, plus start[runs] = a.count (capacity + 1 entries)
+     * @param box Receives minX, minY, maxX, maxY of each run (4 entries per run)
+     * @return Number of runs
+     */
+    static int formations(Archetype a, int[] start, double[] box) {
+        double[] x = a.x, y = a.y, span = a.span;
+        int[] group = a.group;
+        int runs = 0;
+        for (int i = 0; i < a.count; i++) {
+            int b = 4 * (runs - 1);
+            double right = span != null ? x[i] + span[i] : x[i]; // SWARM rows reach to their last member
+            if (i > 0 && group[i] == group[i - 1]) {
+                box[b] = Math.min(box[b], x[i]);
+                box[b + 1] = Math.min(box[b + 1], y[i]);
+                box[b + 2] = Math.max(box[b + 2], right);
+                box[b + 3] = Math.max(box[b + 3], y[i]);
+                continue;
+            }
+            start[runs] = i;
+            b += 4;
+            box[b] = x[i];
+            box[b + 1] = y[i];
+            box[b + 2] = right;
+            box[b + 3] = y[i];
+            runs++;
+        }
+        start[runs] = a.count;
+        return runs;
+    }
+
+    /**
+     * Broad-phase test of one run against the open box (left, top)-(right, bottom)
+     * @param box Run boxes from formations()
+     * @param run Run index
+     * @return False only if no row of the run can be strictly inside the box
+     */
+    static boolean mayOverlap(double[] box, int run, double left, double top, double right, double bottom) {
+        int b = 4 * run;
+        return box[b + 2] > left && box[b] < right && box[b + 3] > top && box[b + 1] < bottom;
+    }
+
+    /**
+     * Cleanup system: Remove rows whose top edge is below a line, then compact the archetype
+     * @param a Archetype with POSITION
+     * @param bottom Line (rows with y > bottom are removed)
+     */
+    static void cullBelow(Archetype a, double bottom) {
+        double[] y = a.y;
+        for (int i = 0; i < a.count; i++) {
+            if (y[i] > bottom) {
+                a.remove(i);
+            }
+        }
+        a.compact();
+    }
+}
@@ -0,0 +1,124 @@
+package NEW;
+
+import java.util.Random;
+
+/**
+ * Benchmark: One EnemyFlock step (boids steering + movement) with grid neighbor queries vs all pairs
+ * The flock starts as a dense formation band above the plane, with two gate pairs in its way; each round restores
+ * the same starting state (untimed) and times STEPS steps. Before timing, one step from the same state is taken
+ * both ways and the results are compared (they differ only by floating-point summation order)
+ * The grid path must stay within the simulation budget (4 ms per step for 2000 enemies); exit code 1 otherwise
+ *
+ * Usage: java NEW.FlockBench [counts=500,2000,4000] [rounds=10] [budgetMs=4]
+ */
+public final class FlockBench {
+    private static final int STEPS = 60;       // Steps per timed round (one second of play)
+
+    private FlockBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Starting state: Agents spread over the upper 3/4 of the playfield, drifting down with a little jitter
+     */
+    private static double[][] formation(int n) {
+        Random random = new Random(n);
+        double[][] f = new double[4][n];
+        for (int i = 0; i < n; i++) {
+            f[0][i] = random.nextDouble() * ThunderFighter.WIDTH;
+            f[1][i] = -50 + random.nextDouble() * ThunderFighter.HEIGHT * 0.75;
+            f[2][i] = (random.nextDouble() - 0.5) * 0.4;
+            f[3][i] = 0.5;
+        }
+        return f;
+    }
+
+    private static void load(EnemyFlock flock, double[][] f) {
+        flock.clear();
+        for (int i = 0; i < f[0].length; i++) {
+            flock.add(f[0][i], f[1][i], f[2][i], f[3][i]);
+        }
+    }
+
+    /**
+     * Two gate pairs across the screen (like handleGates spawns them)
+     */
+    private static Archetype gatePairs() {
+        Archetype gates = new Archetype("gate", Archetype.POSITION | Archetype.SIZE, 4);
+        for (int pair = 0; pair < 2; pair++) {
+            for (int side = 0; side < 2; side++) {
+                int row = gates.add();
+                gates.x[row] = side * ThunderFighter.WIDTH / 2.0;
+                gates.y[row] = 150 + pair * 300;
+                gates.w[row] = ThunderFighter.WIDTH / 2.0;
+                gates.h[row] = 60;
+            }
+        }
+        return gates;
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional comma-separated enemy counts, number of rounds and budget per step (ms)
+     */
+    public static void main(String[] args) {
+        String[] counts = (args.length > 0 ? args[0] : "500,2000,4000").split(",");
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        double budgetMs = args.length > 2 ? Double.parseDouble(args[2]) : 4;
+        double targetX = ThunderFighter.WIDTH / 2.0, targetY = ThunderFighter.HEIGHT - 60;
+        Archetype gates = gatePairs();
+        boolean overBudget = false;
+
+        for (String c : counts) {
+            int n = Integer.parseInt(c.trim());
+            double[][] f = formation(n);
+            EnemyFlock grid = new EnemyFlock(n);
+            EnemyFlock pairs = new EnemyFlock(n);
+
+            // Cross-check: One step both ways from the same state
+            load(grid, f);
+            load(pairs, f);
+            grid.step(targetX, targetY, gates);
+            pairs.stepAllPairs(targetX, targetY, gates);
+            double maxDiff = 0;
+            for (int i = 0; i < n; i++) {
+                maxDiff = Math.max(maxDiff, Math.abs(grid.x[i] - pairs.x[i]) + Math.abs(grid.y[i] - pairs.y[i]));
+            }
+            if (maxDiff > 1e-9) {
+                System.out.printf("Grid and all-pairs steps differ by %.3g px (%d enemies)%n", maxDiff, n);
+                System.exit(1);
+            }
+
+            long gridNanos = Long.MAX_VALUE, pairNanos = Long.MAX_VALUE;
+            for (int r = 0; r < rounds; r++) {
+                load(grid, f);
+                long t0 = System.nanoTime();
+                for (int s = 0; s < STEPS; s++) {
+                    grid.step(targetX, targetY, gates);
+                }
+                long t1 = System.nanoTime();
+                gridNanos = Math.min(gridNanos, t1 - t0);
+                if (n <= 4000) { // All pairs only where it finishes in reasonable time
+                    load(pairs, f);
+                    t0 = System.nanoTime();
+                    for (int s = 0; s < STEPS; s++) {
+                        pairs.stepAllPairs(targetX, targetY, gates);
+                    }
+                    pairNanos = Math.min(pairNanos, System.nanoTime() - t0);
+                }
+            }
+            double gridMs = gridNanos / 1e6 / STEPS;
+            String pairText = pairNanos == Long.MAX_VALUE ? "skipped" : String.format("%.3f ms/step", pairNanos / 1e6 / STEPS);
+            String verdict = "";
+            if (n <= 2000) { // The budget is set for up to 2000 enemies
+                boolean within = gridMs <= budgetMs;
+                overBudget |= !within;
+                verdict = String.format(within ? "  (within %.1f ms budget)" : "  OVER %.1f ms budget", budgetMs);
+            }
+            System.out.printf("%5d enemies: grid %.3f ms/step, all pairs %s%s%n", n, gridMs, pairText, verdict);
+        }
+        if (overBudget) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package NEW;
+
+/**
+ * One slot of the GameEventBus ring (OOP: Encapsulation)
+ * Slots are allocated once with the ring and overwritten in place by every publish, so publishing allocates nothing
+ * Handlers must copy what they need inside onEvent(): The slot is reused once the ring wraps around
+ */
+final class GameEvent {
+    // Event types
+    static final int ENEMY_KILLED = 0;    // kind: KIND_ENEMY/KIND_BOSS, amount: score awarded, value: enemy HP at death
+    static final int GATE_CHARGED = 1;    // kind: GATE_*, amount: charge after this bullet, value: required charge
+    static final int GATE_TRIGGERED = 2;  // kind: GATE_* (blue gates trigger per bullet passing through)
+    static final int CHEST_BROKEN = 3;    // (x, y): chest center
+    static final int PLAYER_HIT = 4;      // (x, y): plane center
+    static final int BOSS_ROAR = 5;       // (x, y): BOSS center, value: BOSS HP
+    static final int SHOT_FIRED = 6;      // amount: bullets fired in the volley
+    static final int TYPE_COUNT = 7;
+
+    // Event kinds
+    static final int KIND_ENEMY = 0;
+    static final int KIND_BOSS = 1;
+    static final int GATE_ATK = 0;        // Blue gate (ATK x2)
+    static final int GATE_BURST = 1;      // Purple gate (BURST)
+    static final int GATE_GIANT = 2;      // Purple gate (GIANT)
+
+    int type;        // One of the event types above
+    int kind;        // Sub-type (see the event types)
+    int amount;      // Integer payload (see the event types)
+    double x, y;     // Where it happened (screen coordinates)
+    double value;    // Numeric payload (see the event types)
+}
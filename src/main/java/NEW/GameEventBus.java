@@ -0,0 +1,249 @@
+package NEW;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Typed game event bus: A preallocated single-producer ring buffer with batched consumers (no locks)
+ * The game thread publishes into the next free slot and advances the cursor; every subscription keeps its own
+ * sequence and processes all events up to the cursor in one batch (on the game thread or on its own thread)
+ * The producer only waits when the slowest subscription is a full ring behind; a subscription without a consumer
+ * thread belongs to the producer thread (it is polled there), so waiting for it could never end: When one of those is
+ * the slowest, the producer drains it inline instead (its handler then runs inside publish, earlier than its next poll)
+ */
+final class GameEventBus {
+    private static final int SPIN_TRIES = 100;          // Idle polls spent spinning before yielding
+    private static final int YIELD_TRIES = 100;         // Idle polls spent yielding before parking
+    private static final long PARK_NANOS = 50_000;      // Park time once a consumer thread is idle (50 us)
+
+    private final GameEvent[] ring;    // Preallocated slots (reused in place)
+    private final int mask;            // capacity - 1 (capacity is a power of two)
+    private final Sequence cursor = new Sequence(); // Last published sequence (-1 = none)
+    private volatile Subscription[] gating = new Subscription[0]; // All subscriptions (producer waits on the slowest)
+
+    // Producer-only state (single producer: never touched by consumers)
+    private long next = -1;            // Last claimed sequence
+    private long cachedMinGate = -1;   // Slowest subscription at the last check (avoids scanning every publish)
+    private boolean drainingInline = false; // Inside an inline drain (a handler publishing into a full ring)
+
+    /**
+     * Constructor for GameEventBus
+     * @param capacity Number of ring slots (power of two)
+     */
+    GameEventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.ring = new GameEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new GameEvent();
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Subscribe a handler; it sees every event published after this call
+     * @param handler Event handler
+     * @return Subscription to poll (or to run on its own thread)
+     */
+    synchronized Subscription subscribe(GameEventHandler handler) {
+        Subscription subscription = new Subscription(handler, cursor.get());
+        Subscription[] updated = Arrays.copyOf(gating, gating.length + 1);
+        updated[gating.length] = subscription;
+        gating = updated;
+        return subscription;
+    }
+
+    /**
+     * Remove a subscription (the producer no longer waits for it; stop its consumer thread first)
+     * @param subscription Subscription returned by subscribe()
+     */
+    synchronized void unsubscribe(Subscription subscription) {
+        Subscription[] updated = new Subscription[gating.length];
+        int n = 0;
+        for (Subscription s : gating) {
+            if (s != subscription) {
+                updated[n++] = s;
+            }
+        }
+        gating = Arrays.copyOf(updated, n);
+    }
+
+    /**
+     * Publish one event (producer thread only; allocates nothing)
+     * @param type Event type (GameEvent.ENEMY_KILLED, ...)
+     * @param kind Event kind (GameEvent.KIND_*, GameEvent.GATE_*)
+     * @param amount Integer payload
+     * @param x Event X coordinate
+     * @param y Event Y coordinate
+     * @param value Numeric payload
+     */
+    void publish(int type, int kind, int amount, double x, double y, double value) {
+        long seq = next + 1;
+        long wrapPoint = seq - ring.length; // The slot being overwritten held this sequence
+        if (wrapPoint > cachedMinGate) {
+            long min;
+            int idle = 0;
+            while (wrapPoint > (min = minGatingSequence())) {
+                if (!drainInline(wrapPoint)) {
+                    idle = idle(idle); // Ring full: Wait for the slowest consumer thread (back-pressure)
+                }
+            }
+            cachedMinGate = min;
+        }
+        GameEvent e = ring[(int) seq & mask];
+        e.type = type;
+        e.kind = kind;
+        e.amount = amount;
+        e.x = x;
+        e.y = y;
+        e.value = value;
+        next = seq;
+        cursor.lazySet(seq); // Release: Slot writes become visible before the new cursor
+    }
+
+    /**
+     * Process every event published since the subscription's last poll, in one batch (at most maxBatch events)
+     * @param subscription Subscription to advance (one thread per subscription)
+     * @param maxBatch Largest number of events handled in this call
+     * @return Number of events handled
+     */
+    int poll(Subscription subscription, int maxBatch) {
+        long current = subscription.sequence.get();
+        long available = cursor.get(); // Acquire: Pairs with the producer's lazySet
+        if (available <= current) {
+            return 0;
+        }
+        long end = Math.min(available, current + maxBatch);
+        GameEventHandler handler = subscription.handler;
+        for (long seq = current + 1; seq <= end; seq++) {
+            handler.onEvent(ring[(int) seq & mask], seq, seq == end);
+        }
+        subscription.sequence.lazySet(end); // Frees the slots for the producer once, for the whole batch
+        return (int) (end - current);
+    }
+
+    /**
+     * Run a subscription on its own daemon thread (spins, then yields, then parks while idle)
+     * @param subscription Subscription to drain
+     * @param name Thread name
+     * @return Started thread (stop it with Subscription.stop())
+     */
+    Thread startConsumer(Subscription subscription, String name) {
+        Thread thread = new Thread(() -> {
+            int idle = 0;
+            while (subscription.running) {
+                if (poll(subscription, ring.length) > 0) {
+                    idle = 0;
+                } else {
+                    idle = idle(idle);
+                }
+            }
+            poll(subscription, Integer.MAX_VALUE); // Drain what was published before stop()
+        }, name);
+        thread.setDaemon(true);
+        subscription.thread = thread;
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * @return Sequence of the last published event (-1 = none yet)
+     */
+    long cursor() {
+        return cursor.get();
+    }
+
+    private long minGatingSequence() {
+        long min = cursor.get();
+        for (Subscription s : gating) {
+            min = Math.min(min, s.sequence.get());
+        }
+        return min;
+    }
+
+    /**
+     * Ring full: Drain the subscriptions polled by the producer thread that hold the slot back
+     * @param wrapPoint Sequence the next slot held (every subscription must be past it)
+     * @return False if none of them was behind (the slowest is a consumer thread: wait for it)
+     * @throws IllegalStateException If a handler running in an inline drain publishes into the full ring
+     */
+    private boolean drainInline(long wrapPoint) {
+        boolean drained = false;
+        for (Subscription s : gating) {
+            if (s.thread == null && s.sequence.get() < wrapPoint) {
+                if (drainingInline) {
+                    throw new IllegalStateException("Event ring (" + ring.length + " slots) full while its own "
+                            + "handler publishes: Raise the capacity");
+                }
+                drainingInline = true;
+                try {
+                    poll(s, Integer.MAX_VALUE);
+                } finally {
+                    drainingInline = false;
+                }
+                drained = true;
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Idle strategy shared by the waiting producer and consumer threads
+     * @param idle Number of idle rounds so far
+     * @return Updated number of idle rounds
+     */
+    private static int idle(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idle + 1;
+    }
+
+    /**
+     * Sequence counter padded to its own cache line (producer and consumers write different counters)
+     */
+    @SuppressWarnings("unused")
+    static final class Sequence extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+        private long p1, p2, p3, p4, p5, p6, p7; // Padding: Keeps neighbouring sequences off this cache line
+
+        Sequence() {
+            super(-1);
+        }
+
+        Sequence(long initial) {
+            super(initial);
+        }
+    }
+
+    /**
+     * One subscriber's position in the ring
+     */
+    static final class Subscription {
+        final GameEventHandler handler;
+        final Sequence sequence;       // Last event handled by this subscription
+        volatile boolean running = true;
+        volatile Thread thread = null; // Consumer thread (null when polled by the producer thread)
+
+        Subscription(GameEventHandler handler, long start) {
+            this.handler = handler;
+            this.sequence = new Sequence(start);
+        }
+
+        /**
+         * Stop the consumer thread after it drained everything published so far
+         */
+        void stop() throws InterruptedException {
+            running = false;
+            if (thread != null) {
+                thread.join();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package NEW;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Throughput benchmark for the GameEventBus
+ * 1. Game-thread mode: Publish a frame's worth of events, then drain three subscriptions in batches (like runFrame)
+ * 2. Threaded mode: One producer, consumer threads draining concurrently (telemetry/achievements style)
+ * Reports events per second and the bytes the producer thread allocated while publishing (expected: 0)
+ *
+ * Usage: java NEW.GameEventBusBench [events=20000000] [consumerThreads=2]
+ * Exit code 0 = publishing allocated nothing, 1 = the producer allocated
+ */
+public final class GameEventBusBench {
+    private static final int RING_SIZE = 2048;
+    private static final int EVENTS_PER_FRAME = 1000; // Busy frame: Hundreds of gate charges, kills and hits
+
+    private GameEventBusBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Consumer doing a little work per event (keeps the JIT from removing the loop)
+     */
+    private static final class Counter implements GameEventHandler {
+        long events = 0;
+        double sum = 0;
+        long batches = 0;
+
+        @Override
+        public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+            events++;
+            sum += event.value + event.amount;
+            if (endOfBatch) {
+                batches++;
+            }
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final long PROBE_BYTES = probeOverhead(); // What a pair of allocatedBytes() calls allocates by itself
+
+    /**
+     * Bytes allocated by the current thread so far, minus the probe's own allocation when used as a delta
+     */
+    private static long allocatedBytes() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static long probeOverhead() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long before = allocatedBytes();
+            overhead = Math.min(overhead, allocatedBytes() - before);
+        }
+        return overhead;
+    }
+
+    /**
+     * Publish events with varying payloads (types cycle through all event types)
+     */
+    private static void publish(GameEventBus bus, long from, long count) {
+        for (long i = from; i < from + count; i++) {
+            bus.publish((int) (i % GameEvent.TYPE_COUNT), (int) (i & 3), (int) i, i & 511, i & 1023, i * 0.5);
+        }
+    }
+
+    /**
+     * Game-thread mode: Frames of EVENTS_PER_FRAME events, each followed by one batch per subscription
+     */
+    private static long[] gameThreadRun(long events) {
+        GameEventBus bus = new GameEventBus(RING_SIZE);
+        Counter[] counters = {new Counter(), new Counter(), new Counter()};
+        GameEventBus.Subscription[] subs = new GameEventBus.Subscription[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            subs[i] = bus.subscribe(counters[i]);
+        }
+        long allocBefore = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (long done = 0; done < events; done += EVENTS_PER_FRAME) {
+            publish(bus, done, EVENTS_PER_FRAME);
+            for (GameEventBus.Subscription s : subs) {
+                bus.poll(s, RING_SIZE);
+            }
+        }
+        long nanos = System.nanoTime() - t0;
+        long allocated = allocatedBytes() - allocBefore - PROBE_BYTES;
+        return new long[] {nanos, allocated, counters[0].events};
+    }
+
+    /**
+     * Threaded mode: The producer publishes continuously while consumer threads drain
+     */
+    private static long[] threadedRun(long events, int consumers) throws InterruptedException {
+        GameEventBus bus = new GameEventBus(RING_SIZE);
+        Counter[] counters = new Counter[consumers];
+        GameEventBus.Subscription[] subs = new GameEventBus.Subscription[consumers];
+        for (int i = 0; i < consumers; i++) {
+            counters[i] = new Counter();
+            subs[i] = bus.subscribe(counters[i]);
+            bus.startConsumer(subs[i], "event-consumer-" + i);
+        }
+        long allocBefore = allocatedBytes();
+        long t0 = System.nanoTime();
+        publish(bus, 0, events);
+        long allocated = allocatedBytes() - allocBefore - PROBE_BYTES; // Producer side only (before waiting for consumers)
+        for (GameEventBus.Subscription s : subs) {
+            s.stop();
+        }
+        long nanos = System.nanoTime() - t0;
+        long batches = 0;
+        for (Counter c : counters) {
+            if (c.events != events) {
+                throw new IllegalStateException("consumer saw " + c.events + " of " + events + " events");
+            }
+            batches += c.batches;
+        }
+        return new long[] {nanos, allocated, events, batches / Math.max(1, consumers)};
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional number of events and consumer threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long events = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000L;
+        int consumers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        gameThreadRun(events / 10); // Warm-up (JIT)
+        long[] game = gameThreadRun(events);
+        System.out.printf("game thread: %d events x 3 subscribers in %.0f ms: %.1f M events/s, producer allocated %d bytes%n",
+                game[2], game[0] / 1e6, game[2] * 1e3 / game[0], game[1]);
+
+        threadedRun(events / 10, consumers); // Warm-up (JIT, thread start-up)
+        long[] threaded = threadedRun(events, consumers);
+        System.out.printf("threaded: %d events x %d consumer threads in %.0f ms: %.1f M events/s, avg batch %.1f, producer allocated %d bytes%n",
+                threaded[2], consumers, threaded[0] / 1e6, threaded[2] * 1e3 / threaded[0],
+                (double) threaded[2] / threaded[3], threaded[1]);
+
+        if (game[1] > 0 || threaded[1] > 0) {
+            System.out.println("FAIL: publishing allocated memory");
+            System.exit(1);
+        }
+        System.out.println("PASS: publishing is allocation-free");
+    }
+}
@@ -0,0 +1,16 @@
+package NEW;
+
+/**
+ * Subscriber of the GameEventBus (audio, effects, telemetry, achievements, game rules)
+ * Called once per event, in publish order, with batches ending at endOfBatch
+ */
+@FunctionalInterface
+interface GameEventHandler {
+    /**
+     * Handle one event
+     * @param event Ring slot holding the event (valid only during this call)
+     * @param sequence Sequence number of the event (0, 1, 2, ... in publish order)
+     * @param endOfBatch True for the last event of the current batch (flush point for buffered work)
+     */
+    void onEvent(GameEvent event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,131 @@
+package NEW;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom JDK Flight Recorder events for the ThunderFighter game loop
+ * Lets JDK Mission Control (or "jcmd <pid> JFR.start") profile frames, phases, spawns and BOSS fights
+ * JFR events are disabled by default: when no recording is active, begin()/commit() are near-free
+ */
+final class GameFlightEvents {
+
+    private GameFlightEvents() {
+        // Holder class only (no instances)
+    }
+
+    // --- Event: One Full Frame ---
+    /**
+     * Duration of one AnimationTimer frame plus the entity list sizes at the end of that frame
+     */
+    @Name("NEW.ThunderFighter.Frame")
+    @Label("Frame")
+    @Category({"ThunderFighter", "Game Loop"})
+    @Description("Duration of one game-loop frame and the entity list sizes at its end")
+    @StackTrace(false)
+    static final class FrameEvent extends Event {
+        @Label("Frame Number")
+        long frame;              // Sequential frame number since game start
+
+        @Label("Player Units")
+        int playerMob;           // Size of playerMob (player's bullets)
+
+        @Label("Enemies")
+        int enemyMob;            // Size of enemyMob (normal enemies + BOSS)
+
+        @Label("BOSS Projectiles")
+        int bossProjectiles;     // Size of bossProjectiles
+
+        @Label("Gates")
+        int gates;               // Size of gates
+
+        @Label("Chests")
+        int chests;              // Size of chests
+
+        @Label("Score")
+        int score;               // Player's score at the end of the frame
+    }
+
+    // --- Event: One handle* Phase ---
+    /**
+     * Duration of one game-logic phase (handleFiring, handleGates, ..., drawUI) inside a frame
+     */
+    @Name("NEW.ThunderFighter.Phase")
+    @Label("Game Phase")
+    @Category({"ThunderFighter", "Game Loop"})
+    @Description("Duration of one handle* phase inside a frame")
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;            // Name of the phase method (e.g. "handlePlayerUnits")
+
+        @Label("Frame Number")
+        long frame;              // Frame this phase belongs to
+    }
+
+    // --- Event: Spawn Burst ---
+    /**
+     * Emitted whenever a group of entities is spawned at once (horde, gate pair, chest, BURST bullets, BOSS shots)
+     */
+    @Name("NEW.ThunderFighter.SpawnBurst")
+    @Label("Spawn Burst")
+    @Category({"ThunderFighter", "Gameplay"})
+    @Description("A group of entities spawned in one go")
+    @StackTrace(false)
+    static final class SpawnBurstEvent extends Event {
+        @Label("Kind")
+        String kind;             // What was spawned ("HORDE", "FLOCK", "GATES", "CHEST", "BURST", "BOSS_SHOT")
+
+        @Label("Count")
+        int count;               // Number of entities spawned
+    }
+
+    // --- Event: BOSS Phase Change ---
+    /**
+     * Emitted when the BOSS fight changes phase (spawned, roar, defeated)
+     */
+    @Name("NEW.ThunderFighter.BossPhase")
+    @Label("BOSS Phase")
+    @Category({"ThunderFighter", "Gameplay"})
+    @Description("BOSS fight phase change")
+    @StackTrace(false)
+    static final class BossPhaseEvent extends Event {
+        @Label("Phase")
+        String phase;            // New phase ("SPAWNED", "ROAR", "DEFEATED")
+
+        @Label("BOSS HP")
+        double hp;               // BOSS health at the moment of the change
+    }
+
+    /**
+     * Commit a spawn burst event (skips allocation entirely when no recording wants it)
+     * @param kind What was spawned
+     * @param count Number of entities spawned
+     */
+    static void spawnBurst(String kind, int count) {
+        SpawnBurstEvent event = new SpawnBurstEvent();
+        if (event.isEnabled()) {
+            event.kind = kind;
+            event.count = count;
+            event.commit();
+        }
+    }
+
+    /**
+     * Commit a BOSS phase change event
+     * @param phase New phase name
+     * @param hp BOSS health at the moment of the change
+     */
+    static void bossPhase(String phase, double hp) {
+        BossPhaseEvent event = new BossPhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase;
+            event.hp = hp;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package NEW;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * JMX MBean implementation: Live counters and controls for the game loop
+ * The game thread publishes a snapshot once per frame; JMX threads only read volatile fields
+ * (no locking and no access to the entity lists from outside the JavaFX thread)
+ * Also subscribes to the game event bus and counts gameplay events (kills, gates, chests, hits, roars)
+ */
+public class GameMonitor implements GameMonitorMBean, GameEventHandler {
+    static final String OBJECT_NAME = "NEW:type=ThunderFighter,name=GameMonitor"; // JMX name of the MBean
+
+    // Quality tiers (controls how many purely visual layers are drawn)
+    static final int QUALITY_LOW = 0;     // No bullet glow, no engine flame, no muzzle flash
+    static final int QUALITY_MEDIUM = 1;  // No bullet glow
+    static final int QUALITY_HIGH = 2;    // All effects (default)
+
+    // Snapshot published by the game thread once per frame
+    private volatile double fps = 0;
+    private volatile long frameCount = 0;
+    private volatile int playerMobSize = 0;
+    private volatile int enemyMobSize = 0;
+    private volatile int bossProjectilesSize = 0;
+    private volatile int score = 0;
+    private volatile double difficultyMultiplier = 1.0;
+
+    // Gameplay event counters (written by the game thread from the event bus, read by JMX threads)
+    private final long[] eventCounts = new long[GameEvent.TYPE_COUNT]; // Running totals per event type
+    private volatile long enemiesKilled = 0;
+    private volatile long gatesTriggered = 0;
+    private volatile long chestsBroken = 0;
+    private volatile long playerHits = 0;
+    private volatile long bossRoars = 0;
+
+    // Controls written by JMX clients, read by the game thread
+    private volatile boolean paused = false;
+    private volatile int qualityTier = QUALITY_HIGH;
+
+    private volatile PlayerInput input = null; // Live input (source of latency statistics), null when headless
+
+    // FPS measurement (game thread only)
+    private long fpsWindowStart = 0; // Start of the current one-second window (nanoseconds)
+    private int fpsWindowFrames = 0; // Frames counted in the current window
+
+    /**
+     * Publish the end-of-frame state (called once per frame from the game thread)
+     * @param now Frame timestamp (nanoseconds, from AnimationTimer)
+     */
+    void publish(long now, long frame, int playerMob, int enemyMob, int bossShots, int score, double difficulty) {
+        this.frameCount = frame;
+        this.playerMobSize = playerMob;
+        this.enemyMobSize = enemyMob;
+        this.bossProjectilesSize = bossShots;
+        this.score = score;
+        this.difficultyMultiplier = difficulty;
+        countFrame(now);
+    }
+
+    /**
+     * Publish a paused pulse (called instead of publish() while paused): The entity snapshot and frame count hold,
+     * the FPS window keeps counting, so JMX clients see the loop is still alive
+     * @param now Pulse timestamp (nanoseconds, from AnimationTimer)
+     */
+    void publishPaused(long now) {
+        countFrame(now);
+    }
+
+    /**
+     * Count one frame in the current one-second FPS window (stable value, unlike per-frame 1/dt)
+     */
+    private void countFrame(long now) {
+        if (fpsWindowStart == 0) {
+            fpsWindowStart = now;
+        }
+        fpsWindowFrames++;
+        long elapsed = now - fpsWindowStart;
+        if (elapsed >= 1_000_000_000L) {
+            fps = fpsWindowFrames * 1e9 / elapsed;
+            fpsWindowFrames = 0;
+            fpsWindowStart = now;
+        }
+    }
+
+    /**
+     * Count one gameplay event; the volatile snapshot is refreshed once per batch
+     */
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+        eventCounts[event.type]++;
+        if (endOfBatch) {
+            enemiesKilled = eventCounts[GameEvent.ENEMY_KILLED];
+            gatesTriggered = eventCounts[GameEvent.GATE_TRIGGERED];
+            chestsBroken = eventCounts[GameEvent.CHEST_BROKEN];
+            playerHits = eventCounts[GameEvent.PLAYER_HIT];
+            bossRoars = eventCounts[GameEvent.BOSS_ROAR];
+        }
+    }
+
+    /**
+     * Connect the live input so its latency probe and smoothing are visible over JMX
+     * @param input Live player input
+     */
+    void attachInput(PlayerInput input) {
+        this.input = input;
+    }
+
+    /**
+     * Register this monitor with the platform MBean server
+     * Failures are reported but never stop the game (monitoring is optional)
+     */
+    void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name); // Replace a monitor left over from a previous game instance
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            System.out.println("JMX monitor registration failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public double getFps() {
+        return fps;
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public int getPlayerMobSize() {
+        return playerMobSize;
+    }
+
+    @Override
+    public int getEnemyMobSize() {
+        return enemyMobSize;
+    }
+
+    @Override
+    public int getBossProjectilesSize() {
+        return bossProjectilesSize;
+    }
+
+    @Override
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public double getDifficultyMultiplier() {
+        return difficultyMultiplier;
+    }
+
+    @Override
+    public long getEnemiesKilled() {
+        return enemiesKilled;
+    }
+
+    @Override
+    public long getGatesTriggered() {
+        return gatesTriggered;
+    }
+
+    @Override
+    public long getChestsBroken() {
+        return chestsBroken;
+    }
+
+    @Override
+    public long getPlayerHits() {
+        return playerHits;
+    }
+
+    @Override
+    public long getBossRoars() {
+        return bossRoars;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    @Override
+    public int getQualityTier() {
+        return qualityTier;
+    }
+
+    @Override
+    public void setQualityTier(int tier) {
+        this.qualityTier = Math.max(QUALITY_LOW, Math.min(QUALITY_HIGH, tier));
+    }
+
+    @Override
+    public double getInputLatencyMeanMs() {
+        PlayerInput in = input;
+        return in == null ? 0 : in.latencyMs(-1);
+    }
+
+    @Override
+    public double getInputLatencyP99Ms() {
+        PlayerInput in = input;
+        return in == null ? 0 : in.latencyMs(0.99);
+    }
+
+    @Override
+    public double getInputLatencyMaxMs() {
+        PlayerInput in = input;
+        return in == null ? 0 : in.latencyMs(1.0);
+    }
+
+    @Override
+    public double getInputSmoothingMs() {
+        PlayerInput in = input;
+        return in == null ? 0 : in.smoothingMs();
+    }
+
+    @Override
+    public void setInputSmoothingMs(double ms) {
+        PlayerInput in = input;
+        if (in != null) {
+            in.setSmoothingMs(ms);
+        }
+    }
+}
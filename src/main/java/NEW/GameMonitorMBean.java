@@ -0,0 +1,72 @@
+package NEW;
+
+/**
+ * JMX management interface for a running ThunderFighter game (standard MBean naming: GameMonitor + "MBean")
+ * Read-only attributes expose live game-loop counters; writable attributes act as remote controls
+ * Registered as "NEW:type=ThunderFighter,name=GameMonitor" so JConsole / JMC can browse it
+ */
+public interface GameMonitorMBean {
+
+    /** @return Frames rendered during the last full second */
+    double getFps();
+
+    /** @return Number of frames since game start */
+    long getFrameCount();
+
+    /** @return Current size of playerMob (player's bullets, shown as "Forces") */
+    int getPlayerMobSize();
+
+    /** @return Current size of enemyMob (normal enemies + BOSS) */
+    int getEnemyMobSize();
+
+    /** @return Current size of bossProjectiles */
+    int getBossProjectilesSize();
+
+    /** @return Player's score */
+    int getScore();
+
+    /** @return Current difficulty multiplier (1.0 + score / 4000) */
+    double getDifficultyMultiplier();
+
+    /** @return Enemies (and BOSSes) killed since game start */
+    long getEnemiesKilled();
+
+    /** @return Gate activations since game start (blue gates count once per bullet passing through) */
+    long getGatesTriggered();
+
+    /** @return Treasure chests opened since game start */
+    long getChestsBroken();
+
+    /** @return BOSS bullets that hit the plane since game start */
+    long getPlayerHits();
+
+    /** @return BOSS roars since game start */
+    long getBossRoars();
+
+    /** @return True if the game loop is paused */
+    boolean isPaused();
+
+    /** @param paused True to freeze the game loop, false to resume */
+    void setPaused(boolean paused);
+
+    /** @return Current visual quality tier (0 = LOW, 1 = MEDIUM, 2 = HIGH) */
+    int getQualityTier();
+
+    /** @param tier New visual quality tier (clamped to 0..2) */
+    void setQualityTier(int tier);
+
+    /** @return Mean input-to-frame latency over the last 256 input events (milliseconds) */
+    double getInputLatencyMeanMs();
+
+    /** @return 99th percentile input-to-frame latency over the last 256 input events (milliseconds) */
+    double getInputLatencyP99Ms();
+
+    /** @return Worst input-to-frame latency over the last 256 input events (milliseconds) */
+    double getInputLatencyMaxMs();
+
+    /** @return Input smoothing time constant (milliseconds, 0 = raw input) */
+    double getInputSmoothingMs();
+
+    /** @param ms New input smoothing time constant (milliseconds, 0 = raw input) */
+    void setInputSmoothingMs(double ms);
+}
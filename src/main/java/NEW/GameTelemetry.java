@@ -0,0 +1,312 @@
+package NEW;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Per-run gameplay telemetry: Compact fixed-size records, written to a compressed columnar file off the game thread
+ * The game thread copies each record into a preallocated block (no allocation, no I/O, never blocks);
+ * full blocks (or every FLUSH_TICKS) go to a background writer that encodes them column by column,
+ * deflates them and appends them to the file through a FileChannel; blocks then return to the free pool
+ * If the writer falls a whole pool behind, records are dropped (and counted) instead of stalling the frame
+ *
+ * Record: tick, type, kind, x, y (1/8 pixel), value
+ * File: Header (magic "TFTL", version, seed), then one chunk per block:
+ *     record count, raw size, compressed size, deflate(ticks as varint deltas | types | kinds | xs | ys | values)
+ * Read by TelemetryAggregator (heatmaps and per-run statistics over many files)
+ */
+final class GameTelemetry implements GameEventHandler, AutoCloseable {
+    // Record types: GameEvent types are recorded as-is; telemetry-only types follow them
+    static final int BOSS_SPAWNED = GameEvent.TYPE_COUNT;         // (x, y): BOSS spawn point
+    static final int BOSS_FIGHT_ENDED = GameEvent.TYPE_COUNT + 1; // value: Fight duration (ticks)
+    static final int BUFF_ENDED = GameEvent.TYPE_COUNT + 2;       // kind: BUFF_*, value: Buff duration (ticks)
+    static final int RUN_ENDED = GameEvent.TYPE_COUNT + 3;        // value: Final score
+
+    // Buff kinds (BUFF_ENDED)
+    static final int BUFF_SCATTER = 0;
+    static final int BUFF_DAMAGE = 1;
+    static final int BUFF_GIANT = 2;
+
+    // File format (shared with TelemetryAggregator)
+    static final int MAGIC = 0x5446544C;      // "TFTL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int CHUNK_HEADER_SIZE = 12;
+    static final float XY_SCALE = 8;          // Coordinates are stored as shorts in 1/8 pixel
+
+    private static final int BLOCK_RECORDS = 4096;   // Records per block (one chunk in the file)
+    private static final int BLOCKS = 4;             // Blocks in the pool (game thread fills one, writer drains the rest)
+    private static final int FLUSH_TICKS = 600;      // Hand over a partial block every 10 seconds (bounds data lost on a crash)
+    private static final int ATK_GATE_TICKS = 30;    // Blue gates trigger per bullet: Record one trigger per gate pass
+
+    /**
+     * Fixed-size records of one chunk, stored column by column (OOP: Encapsulation)
+     */
+    static final class Block {
+        final int[] ticks = new int[BLOCK_RECORDS];
+        final byte[] types = new byte[BLOCK_RECORDS];
+        final byte[] kinds = new byte[BLOCK_RECORDS];
+        final short[] xs = new short[BLOCK_RECORDS];
+        final short[] ys = new short[BLOCK_RECORDS];
+        final float[] values = new float[BLOCK_RECORDS];
+        int count = 0;
+    }
+
+    private final BlockingQueue<Block> free = new ArrayBlockingQueue<>(BLOCKS);
+    private final BlockingQueue<Block> full = new ArrayBlockingQueue<>(BLOCKS + 1);
+    private final Block poison = new Block(); // Tells the writer to finish (queued after the last block)
+    private final FileChannel channel;
+    private final Thread writer;
+    private volatile IOException writeError = null;
+
+    // Game-thread state
+    private Block current;             // Block being filled (null while the pool is exhausted)
+    private int tick = 0;              // Tick stamped on records
+    private int lastFlushTick = 0;
+    private int lastAtkTick = Integer.MIN_VALUE;
+    private final int[] buffStart = {-1, -1, -1}; // Tick each Buff became active (-1 = inactive)
+    private boolean bossActive = false;
+    private int bossStart = -1;
+    private long recorded = 0;
+    private long dropped = 0;
+
+    /**
+     * Create the telemetry file and start the background writer
+     * @param file Telemetry file of this run
+     * @param seed Seed of the run (stored in the header)
+     * @throws IOException If the file cannot be created
+     */
+    GameTelemetry(Path file, long seed) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(seed).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        for (int i = 0; i < BLOCKS; i++) {
+            free.add(new Block());
+        }
+        current = free.poll();
+        writer = new Thread(this::writeLoop, "telemetry-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Per-frame bookkeeping (game thread, before this frame's events are polled): Buff and BOSS fight durations
+     * @param game Game being recorded
+     * @param frame Current frame number
+     */
+    void frame(ThunderFighter game, long frame) {
+        tick = (int) frame;
+        trackBuff(BUFF_SCATTER, game.scatterBuffTimer());
+        trackBuff(BUFF_DAMAGE, game.damageBuffTimer());
+        trackBuff(BUFF_GIANT, game.giantBuffTimer());
+        boolean boss = game.isBossSpawned();
+        if (boss && !bossActive) {
+            bossStart = tick;
+            record(BOSS_SPAWNED, 0, ThunderFighter.WIDTH / 2.0, 0, 0);
+        }
+        bossActive = boss;
+        if (tick - lastFlushTick >= FLUSH_TICKS) {
+            handOver();
+        }
+    }
+
+    private void trackBuff(int buff, int timer) {
+        if (timer > 0 && buffStart[buff] < 0) {
+            buffStart[buff] = tick;
+        } else if (timer == 0 && buffStart[buff] >= 0) {
+            record(BUFF_ENDED, buff, 0, 0, tick - buffStart[buff]);
+            buffStart[buff] = -1;
+        }
+    }
+
+    /**
+     * Event bus subscriber (game thread): Records kills, gate choices, chests, hits and roars
+     */
+    @Override
+    public void onEvent(GameEvent e, long sequence, boolean endOfBatch) {
+        switch (e.type) {
+            case GameEvent.ENEMY_KILLED:
+                record(e.type, e.kind, e.x, e.y, e.amount);
+                if (e.kind == GameEvent.KIND_BOSS && bossStart >= 0) {
+                    record(BOSS_FIGHT_ENDED, 0, e.x, e.y, tick - bossStart);
+                    bossStart = -1;
+                }
+                break;
+            case GameEvent.GATE_TRIGGERED:
+                if (e.kind == GameEvent.GATE_ATK) {
+                    if (tick - lastAtkTick < ATK_GATE_TICKS) {
+                        break; // Same blue gate, next bullet
+                    }
+                    lastAtkTick = tick;
+                }
+                record(e.type, e.kind, e.x, e.y, 0);
+                break;
+            case GameEvent.CHEST_BROKEN:
+            case GameEvent.PLAYER_HIT:
+            case GameEvent.BOSS_ROAR:
+                record(e.type, e.kind, e.x, e.y, e.value);
+                break;
+            default:
+                break; // GATE_CHARGED, SHOT_FIRED: Too frequent, not needed by the analytics
+        }
+    }
+
+    /**
+     * Append one record to the current block (game thread; drops the record if the pool is exhausted)
+     */
+    void record(int type, int kind, double x, double y, double value) {
+        Block b = current;
+        if (b == null && (b = current = free.poll()) == null) {
+            dropped++;
+            return;
+        }
+        int i = b.count;
+        b.ticks[i] = tick;
+        b.types[i] = (byte) type;
+        b.kinds[i] = (byte) kind;
+        b.xs[i] = quantize(x);
+        b.ys[i] = quantize(y);
+        b.values[i] = (float) value;
+        b.count = i + 1;
+        recorded++;
+        if (b.count == BLOCK_RECORDS) {
+            handOver();
+        }
+    }
+
+    private static short quantize(double v) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(v * XY_SCALE)));
+    }
+
+    /**
+     * Pass the current block to the writer (game thread; never blocks)
+     */
+    private void handOver() {
+        lastFlushTick = tick;
+        if (current != null && current.count > 0) {
+            full.offer(current); // Capacity exceeds the pool size: Always succeeds
+            current = free.poll();
+        }
+    }
+
+    /**
+     * @return Records accepted so far
+     */
+    long recorded() {
+        return recorded;
+    }
+
+    /**
+     * @return Records dropped because the writer fell behind
+     */
+    long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Record the end of the run, write everything still buffered and close the file
+     * @param score Final score
+     */
+    void finish(int score) throws IOException {
+        record(RUN_ENDED, 0, 0, 0, score);
+        close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        handOver();
+        full.offer(poison);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    /**
+     * Writer thread: Encode, compress and append blocks until the poison block arrives
+     */
+    private void writeLoop() {
+        ByteBuffer raw = ByteBuffer.allocate(BLOCK_RECORDS * 16).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] packed = new byte[BLOCK_RECORDS * 16 + 64];
+        ByteBuffer chunkHeader = ByteBuffer.allocate(CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            while (true) {
+                Block b = full.take();
+                if (b == poison) {
+                    break;
+                }
+                if (writeError == null) {
+                    try {
+                        encode(b, raw);
+                        deflater.reset();
+                        deflater.setInput(raw.array(), 0, raw.position());
+                        deflater.finish();
+                        int packedLength = deflater.deflate(packed);
+                        chunkHeader.clear();
+                        chunkHeader.putInt(b.count).putInt(raw.position()).putInt(packedLength).flip();
+                        ByteBuffer body = ByteBuffer.wrap(packed, 0, packedLength);
+                        while (chunkHeader.hasRemaining() || body.hasRemaining()) {
+                            channel.write(new ByteBuffer[] {chunkHeader, body});
+                        }
+                    } catch (IOException e) {
+                        writeError = e; // Reported by close(); later blocks are recycled unwritten
+                    }
+                }
+                b.count = 0;
+                free.offer(b);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Columnar encoding: Similar values sit next to each other, which deflate compresses far better than rows
+     */
+    private static void encode(Block b, ByteBuffer raw) {
+        raw.clear();
+        int previous = 0;
+        for (int i = 0; i < b.count; i++) {
+            putVarInt(raw, b.ticks[i] - previous); // Ticks never decrease: Small non-negative deltas
+            previous = b.ticks[i];
+        }
+        raw.put(b.types, 0, b.count);
+        raw.put(b.kinds, 0, b.count);
+        for (int i = 0; i < b.count; i++) {
+            raw.putShort(b.xs[i]);
+        }
+        for (int i = 0; i < b.count; i++) {
+            raw.putShort(b.ys[i]);
+        }
+        for (int i = 0; i < b.count; i++) {
+            raw.putFloat(b.values[i]);
+        }
+    }
+
+    private static void putVarInt(ByteBuffer out, int v) {
+        while ((v & ~0x7F) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+}
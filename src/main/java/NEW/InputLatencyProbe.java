@@ -0,0 +1,70 @@
+package NEW;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.scene.Scene;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.stage.Stage;
+import javax.management.JMX;
+import javax.management.ObjectName;
+
+/**
+ * Input latency probe: Plays the live game (JavaFX stage, AnimationTimer, real pulses) and feeds it mouse moves
+ * at random times from a stimulus thread; every move is dispatched through the scene like a real mouse event
+ * Reads the game's own latency probe (event arrival -> end of the first frame showing it) through its JMX MBean
+ * Runs under a headless toolkit too (-Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw)
+ *
+ * Usage: java NEW.InputLatencyProbe [seconds=20] [seed=1]
+ */
+public final class InputLatencyProbe {
+    private static final int MIN_GAP_MS = 3;   // Shortest pause between two mouse moves
+    private static final int MAX_GAP_MS = 40;  // Longest pause (moves land at every phase of the 16.7 ms pulse)
+
+    private InputLatencyProbe() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional duration in seconds and stimulus seed
+     */
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 1);
+
+        AtomicReference<Scene> scene = new AtomicReference<>();
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        Platform.startup(() -> {
+            Stage stage = new Stage();
+            new ThunderFighter(1).start(stage);
+            scene.set(stage.getScene());
+            started.complete(null);
+        });
+        started.get();
+
+        // Stimulus: Mouse moves at random times and positions (stamped by the game's handler when dispatched)
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        int moves = 0;
+        while (System.nanoTime() < end) {
+            Thread.sleep(MIN_GAP_MS + random.nextInt(MAX_GAP_MS - MIN_GAP_MS + 1));
+            double x = 40 + random.nextDouble() * (ThunderFighter.WIDTH - 80);
+            Platform.runLater(() -> Event.fireEvent(scene.get(), new MouseEvent(MouseEvent.MOUSE_MOVED, x, 600, x, 600,
+                    MouseButton.NONE, 0, false, false, false, false, false, false, false, false, false, false, null)));
+            moves++;
+        }
+        Thread.sleep(100); // Let the last move reach the screen
+
+        GameMonitorMBean monitor = JMX.newMBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName(GameMonitor.OBJECT_NAME), GameMonitorMBean.class);
+        System.out.printf("%d mouse moves in %d s: latency mean %.2f ms, p99 %.2f ms, max %.2f ms (last 256 frames)%n",
+                moves, seconds, monitor.getInputLatencyMeanMs(), monitor.getInputLatencyP99Ms(),
+                monitor.getInputLatencyMaxMs());
+        Platform.exit();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,341 @@
+package NEW;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+/**
+ * Scenario-based performance regression suite: Whole-frame cost of scripted gameplay situations
+ * Every scenario plays a fixed-seed headless game for a fixed number of ticks with a script driving the game rules,
+ * records p50 / p99 tick time, max tick time and bytes allocated per tick over REPEATS runs, and compares them with stored
+ * baselines (src/main/resources/perf/baselines.properties)
+ * p50 is taken over samples of TICKS_PER_SAMPLE consecutive ticks (mean tick time of the sample): A single 2 us tick is
+ * mostly timer and cache noise, ten of them are a stable measurement
+ * p99 and max are taken over single ticks: A descheduled thread or a compiler thread taking the core spoils one tick,
+ * and 36 of them are needed to move p99
+ * Each of FORKS worker JVMs measures every scenario REPEATS times and keeps p50 / allocation of the best run and p99 / max
+ * of the median run; the suite takes the median over the JVMs (JIT decisions differ per JVM, and with them the whole
+ * run, by up to a third)
+ * Gated (a value above the baseline by more than its relative tolerance fails the run): p50, p99 and allocation per tick
+ * Reported only: max, a single tick that a GC pause or a descheduled thread lands on
+ * Baselines are machine-specific: Record them on the machine that runs the suite (--record)
+ *
+ * Usage: java NEW.PerfScenarios [--record] [baselines file]
+ * Exit code 0 = within baselines, 1 = regression, 2 = baseline missing
+ */
+public final class PerfScenarios {
+    private static final int TICKS = 3600;                 // One simulated minute per scenario
+    private static final int TICKS_PER_SAMPLE = 10;        // Ticks timed as one latency sample (averages out timer and cache jitter)
+    private static final int SAMPLES = TICKS / TICKS_PER_SAMPLE;
+    private static final int WARM_UP_PASSES = 2;           // Unmeasured passes over all scenarios (JIT, escape analysis)
+    private static final int REPEATS = 5;                  // Measured runs per scenario and JVM (p50 / allocation: best run, p99: median run)
+    private static final int FORKS = 5;                    // Worker JVMs (gated value: median over the JVMs)
+    private static final String WORKER = "--worker";
+    private static final String BASELINE_RESOURCE = "/perf/baselines.properties";
+
+    // Tolerances of the gated metrics, relative to the baseline: Allowed = baseline x (1 + tolerance) + slack
+    private static final double P50_TOLERANCE = 0.25;
+    private static final double P99_TOLERANCE = 0.50;
+    private static final double ALLOC_TOLERANCE = 0.10;
+    private static final double ALLOC_SLACK_BYTES = 8;     // Absolute floor for the near-zero baselines (half of the smallest object)
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private PerfScenarios() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * One scripted situation: Setup before the first tick, script before every tick
+     */
+    private static final class Scenario {
+        final String name;
+        final long seed;
+        final BiConsumer<ThunderFighter, Integer> script; // (game, tick) -> scripted actions for this tick
+
+        Scenario(String name, long seed, BiConsumer<ThunderFighter, Integer> script) {
+            this.name = name;
+            this.seed = seed;
+            this.script = script;
+        }
+    }
+
+    /**
+     * The scenario catalogue (names are the baseline keys)
+     */
+    private static Scenario[] scenarios() {
+        Random chestX = new Random(5);
+        return new Scenario[] {
+                // Normal opening: Hordes every 2 seconds, single shots, autopilot only
+                new Scenario("early_horde", 11, (game, tick) -> { }),
+
+                // Scatter Buff at full fire count plus a one-bullet BURST gate mid-screen every 3 ticks:
+                // 35-bullet bursts keep playerMob at the 600-unit cap
+                new Scenario("burst_storm", 12, (game, tick) -> {
+                    if (tick == 0) {
+                        game.setFireCount(12);
+                    }
+                    game.setBuffTimers(420, 0, 0);
+                    if (tick % 3 == 0) {
+                        game.spawnGate(0, 450, ThunderFighter.WIDTH, GameEvent.GATE_BURST, 1);
+                    }
+                }),
+
+                // Giant bullets shredding a steady stream of chests
+                new Scenario("chest_farm", 13, (game, tick) -> {
+                    if (tick == 0) {
+                        game.setFireCount(6);
+                    }
+                    game.setBuffTimers(0, 0, 420);
+                    if (tick % 20 == 0) {
+                        game.spawnChest(chestX.nextDouble() * (ThunderFighter.WIDTH - 80));
+                    }
+                }),
+
+                // BOSS fight from the first tick, roaring (bullet pushback) four times a second
+                new Scenario("boss_roar", 14, (game, tick) -> {
+                    if (tick == 0) {
+                        game.setFireCount(8);
+                    }
+                    game.startBossFight();
+                    if (tick % 15 == 0) {
+                        game.forceBossRoar();
+                    }
+                })
+        };
+    }
+
+    /**
+     * Play one scenario
+     * @return {p50 us (over samples), p99 us, max us (single ticks), allocated bytes per tick}
+     */
+    private static double[] run(Scenario scenario) {
+        ThunderFighter game = new ThunderFighter(scenario.seed);
+        game.setHeadless(true);
+        game.setEndlessMode(true);
+        game.setGodMode(true);
+
+        long[] samples = new long[SAMPLES];
+        long[] ticks = new long[TICKS];
+        long allocBefore = THREADS.getCurrentThreadAllocatedBytes();
+        for (int tick = 0; tick < TICKS; tick++) {
+            long t0 = System.nanoTime();
+            scenario.script.accept(game, tick);
+            game.setCannonX(game.autopilotX());
+            game.runFrame((tick + 1) * ThunderFighter.FRAME_NANOS);
+            ticks[tick] = System.nanoTime() - t0;
+            samples[tick / TICKS_PER_SAMPLE] += ticks[tick];
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocBefore;
+
+        Arrays.sort(samples);
+        Arrays.sort(ticks);
+        return new double[] {
+                samples[SAMPLES / 2] / 1e3 / TICKS_PER_SAMPLE,
+                ticks[(int) Math.ceil(TICKS * 0.99) - 1] / 1e3,
+                ticks[TICKS - 1] / 1e3,
+                (double) allocated / TICKS
+        };
+    }
+
+    private static Properties loadBaselines(Path file) throws IOException {
+        Properties baselines = new Properties();
+        if (file != null) {
+            if (Files.exists(file)) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    baselines.load(in);
+                }
+            }
+        } else {
+            try (InputStream in = PerfScenarios.class.getResourceAsStream(BASELINE_RESOURCE)) {
+                if (in != null) {
+                    baselines.load(in);
+                }
+            }
+        }
+        return baselines;
+    }
+
+    /**
+     * Print a reported (not gated) metric next to its baseline
+     */
+    private static void report(Properties baselines, String key, double value, String unit) {
+        String stored = baselines.getProperty(key);
+        System.out.printf("  %-28s %10.2f %s  baseline %10s  (reported only)%n", key, value, unit,
+                stored == null ? "-" : String.format("%.2f", Double.parseDouble(stored)));
+    }
+
+    /**
+     * Compare one metric with its baseline
+     * @return 0 = ok, 1 = regression, 2 = no baseline
+     */
+    private static int check(Properties baselines, String key, double value, double tolerance, double slack, String unit) {
+        String stored = baselines.getProperty(key);
+        if (stored == null) {
+            System.out.printf("  %-28s %10.2f %s  (no baseline)%n", key, value, unit);
+            return 2;
+        }
+        double baseline = Double.parseDouble(stored);
+        double allowed = baseline * (1 + tolerance) + slack;
+        boolean ok = value <= allowed;
+        System.out.printf("  %-28s %10.2f %s  baseline %10.2f  allowed %10.2f  %s%n",
+                key, value, unit, baseline, allowed, ok ? "ok" : "REGRESSION");
+        return ok ? 0 : 1;
+    }
+
+    /**
+     * Warm up, then play every scenario REPEATS times in this JVM
+     * @return [scenario] {p50 us (best run), p99 us (median run), max us (median run), bytes per tick (best run)}
+     */
+    private static double[][] measure() {
+        for (int pass = 0; pass < WARM_UP_PASSES; pass++) {
+            for (Scenario s : scenarios()) {
+                run(s); // Warm-up pass, results discarded
+            }
+        }
+
+        int count = scenarios().length;
+        double[][] result = new double[count][];
+        for (int i = 0; i < count; i++) {
+            double[][] runs = new double[4][REPEATS]; // [metric][run]
+            for (int r = 0; r < REPEATS; r++) {
+                double[] next = run(scenarios()[i]); // Fresh script each run (scenario-local random state starts over)
+                for (int k = 0; k < next.length; k++) {
+                    runs[k][r] = next[k];
+                }
+            }
+            for (double[] metric : runs) {
+                Arrays.sort(metric);
+            }
+            result[i] = new double[] {runs[0][0], runs[1][REPEATS / 2], runs[2][REPEATS / 2], runs[3][0]};
+        }
+        return result;
+    }
+
+    /**
+     * Worker side: Measure all scenarios, answer with one "name<TAB>p50<TAB>p99<TAB>max<TAB>alloc" line per scenario
+     * Game output goes to stderr, stdout carries results only
+     */
+    private static void worker() throws IOException {
+        PrintStream results = new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8");
+        System.setOut(System.err);
+        Scenario[] scenarios = scenarios();
+        double[][] measured = measure();
+        for (int i = 0; i < scenarios.length; i++) {
+            double[] m = measured[i];
+            results.println(scenarios[i].name + "\t" + m[0] + "\t" + m[1] + "\t" + m[2] + "\t" + m[3]);
+        }
+    }
+
+    /**
+     * Measure all scenarios in a fresh worker JVM (same classpath and JVM options)
+     * @return [scenario] metrics as returned by measure()
+     */
+    private static double[][] fork() throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(PerfScenarios.class.getName());
+        command.add(WORKER);
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+        Scenario[] scenarios = scenarios();
+        double[][] result = new double[scenarios.length][];
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < scenarios.length; i++) {
+                String line = in.readLine();
+                String[] f = line == null ? new String[0] : line.split("\t");
+                if (f.length != 5 || !f[0].equals(scenarios[i].name)) {
+                    throw new IOException("Worker JVM failed (" + (line == null ? "no result" : line) + ")");
+                }
+                result[i] = new double[4];
+                for (int k = 0; k < 4; k++) {
+                    result[i][k] = Double.parseDouble(f[k + 1]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional --record flag and baselines file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(WORKER)) {
+            worker();
+            return;
+        }
+        boolean record = args.length > 0 && args[0].equals("--record");
+        String fileArg = args.length > (record ? 1 : 0) ? args[record ? 1 : 0] : null;
+        Path file = fileArg != null ? Paths.get(fileArg) : (record ? Paths.get("src/main/resources/perf/baselines.properties") : null);
+
+        int count = scenarios().length;
+        double[][][] forks = new double[count][4][FORKS]; // [scenario][metric][fork]
+        for (int f = 0; f < FORKS; f++) {
+            System.out.printf("JVM %d/%d%n", f + 1, FORKS);
+            double[][] measured = fork();
+            for (int i = 0; i < count; i++) {
+                for (int k = 0; k < 4; k++) {
+                    forks[i][k][f] = measured[i][k];
+                }
+            }
+        }
+
+        Properties baselines = record ? new Properties() : loadBaselines(file);
+        int status = 0;
+        for (int i = 0; i < count; i++) {
+            double[] m = new double[4];
+            for (int k = 0; k < 4; k++) {
+                Arrays.sort(forks[i][k]);
+                m[k] = forks[i][k][FORKS / 2]; // Median JVM
+            }
+            Scenario s = scenarios()[i];
+            System.out.println(s.name);
+            if (record) {
+                baselines.setProperty(s.name + ".p50_us", String.format("%.2f", m[0]));
+                baselines.setProperty(s.name + ".p99_us", String.format("%.2f", m[1]));
+                baselines.setProperty(s.name + ".max_us", String.format("%.2f", m[2]));
+                baselines.setProperty(s.name + ".alloc_bytes_per_tick", String.format("%.0f", m[3]));
+                System.out.printf("  p50 %.2f us  p99 %.2f us  max %.2f us  alloc %.0f B/tick%n", m[0], m[1], m[2], m[3]);
+                continue;
+            }
+            status = Math.max(status, check(baselines, s.name + ".p50_us", m[0], P50_TOLERANCE, 0, "us"));
+            status = Math.max(status, check(baselines, s.name + ".p99_us", m[1], P99_TOLERANCE, 0, "us"));
+            status = Math.max(status, check(baselines, s.name + ".alloc_bytes_per_tick", m[3], ALLOC_TOLERANCE, ALLOC_SLACK_BYTES, "B "));
+            report(baselines, s.name + ".max_us", m[2], "us");
+        }
+
+        if (record) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                baselines.store(out, "PerfScenarios baselines (" + TICKS + " ticks per scenario, " + TICKS_PER_SAMPLE
+                        + " ticks per sample); re-record with --record");
+            }
+            System.out.println("Baselines written to " + file);
+            return;
+        }
+        System.out.println(status == 0 ? "PASS: all scenarios within baselines"
+                : status == 1 ? "FAIL: performance regression" : "FAIL: missing baselines (run with --record)");
+        System.exit(status);
+    }
+}
@@ -0,0 +1,162 @@
+package NEW;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Player input: Mouse position and keyboard (LEFT/RIGHT or A/D)
+ * Every input event is stamped with System.nanoTime() when it arrives; the game samples the input once per frame, at
+ * frame start (JavaFX delivers events between pulses, so nothing newer can arrive while the frame runs)
+ * Built-in latency probe: Measures the delay from an input event to the end of the first frame that reflects it
+ * Thread-safety: Events arrive on the JavaFX thread; the latency statistics are also read from JMX threads
+ */
+final class PlayerInput {
+    private static final double AXIS_SPEED = 540;   // Plane speed while a LEFT/RIGHT key is held (pixels per second)
+    private static final int PROBE_WINDOW = 256;    // Latency samples kept for statistics (ring buffer)
+
+    private final double minX, maxX;                // Allowed range of the plane's X coordinate
+
+    // Raw input (written by event handlers / polling threads)
+    private volatile double mouseTargetX;           // Last mouse X (absolute target)
+    private volatile boolean leftPressed, rightPressed; // Keyboard axis keys
+    private volatile double smoothingMs;            // Smoothing time constant (0 = raw input, lowest latency)
+
+    // Sampled state (game thread only)
+    private double targetX;                         // Target X after applying mouse + keyboard input
+    private double smoothedX;                       // Output X after smoothing (what the plane uses)
+    private long lastSampleNanos = 0;               // Time of the previous sample (for time-based integration)
+
+    // Latency probe: event time of the oldest input not yet shown on screen (0 = none pending)
+    private final AtomicLong pendingEventNanos = new AtomicLong(0);
+    private long reflectedEventNanos = 0;           // Event picked up by this frame's sample (game thread)
+    private final long[] latencies = new long[PROBE_WINDOW]; // Recent event-to-frame latencies (nanoseconds)
+    private int latencyCount = 0;                   // Total samples recorded (ring index = count % window)
+
+    /**
+     * Constructor for PlayerInput
+     * @param startX Initial X coordinate of the plane
+     * @param minX Smallest allowed X coordinate
+     * @param maxX Largest allowed X coordinate
+     * @param smoothingMs Smoothing time constant in milliseconds (0 = no smoothing)
+     */
+    PlayerInput(double startX, double minX, double maxX, double smoothingMs) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.mouseTargetX = startX;
+        this.targetX = startX;
+        this.smoothedX = startX;
+        this.smoothingMs = smoothingMs;
+    }
+
+    /**
+     * Mouse moved: The plane follows the pointer directly
+     * @param x Mouse X coordinate
+     * @param eventNanos Arrival time of the event (System.nanoTime())
+     */
+    void onMouseMoved(double x, long eventNanos) {
+        mouseTargetX = x;
+        markEvent(eventNanos);
+    }
+
+    /**
+     * Keyboard key pressed or released (LEFT/A and RIGHT/D act as a digital axis)
+     * @param left True for a "left" key, false for a "right" key
+     * @param pressed True on key press, false on release
+     * @param eventNanos Arrival time of the event (System.nanoTime())
+     */
+    void onKey(boolean left, boolean pressed, long eventNanos) {
+        if (left) {
+            leftPressed = pressed;
+        } else {
+            rightPressed = pressed;
+        }
+        markEvent(eventNanos);
+    }
+
+    /**
+     * Remember the oldest input event not yet reflected on screen (for the latency probe)
+     * @param eventNanos Arrival time of the event
+     */
+    private void markEvent(long eventNanos) {
+        pendingEventNanos.compareAndSet(0, eventNanos);
+    }
+
+    /**
+     * Sample the input at frame start: Apply mouse target, integrate keyboard movement and smoothing up to the given time
+     * This frame reflects every input event received so far
+     * @param nowNanos Sample time (System.nanoTime())
+     * @return Plane X coordinate to use
+     */
+    double sample(long nowNanos) {
+        double dt = (lastSampleNanos == 0) ? 0 : (nowNanos - lastSampleNanos) / 1e9;
+        lastSampleNanos = nowNanos;
+
+        // Absolute mouse target, moved further by the keyboard
+        double axis = (rightPressed ? 1 : 0) - (leftPressed ? 1 : 0);
+        if (axis != 0) {
+            mouseTargetX = Math.max(minX, Math.min(maxX, mouseTargetX + axis * AXIS_SPEED * dt));
+        }
+        targetX = Math.max(minX, Math.min(maxX, mouseTargetX));
+
+        // Exponential smoothing with a time constant (frame-rate independent); 0 ms = follow input exactly
+        double tau = smoothingMs / 1000.0;
+        if (tau <= 0) {
+            smoothedX = targetX;
+        } else if (dt > 0) {
+            smoothedX += (targetX - smoothedX) * (1 - Math.exp(-dt / tau));
+        }
+
+        reflectedEventNanos = pendingEventNanos.getAndSet(0); // This frame will show everything up to now
+        return smoothedX;
+    }
+
+    /**
+     * The frame that used the last sample has finished drawing: Record the input latency it resolved
+     * @param nowNanos Time drawing finished (System.nanoTime())
+     */
+    void frameDrawn(long nowNanos) {
+        if (reflectedEventNanos != 0) {
+            synchronized (latencies) {
+                latencies[latencyCount % PROBE_WINDOW] = nowNanos - reflectedEventNanos;
+                latencyCount++;
+            }
+            reflectedEventNanos = 0;
+        }
+    }
+
+    /**
+     * Latency statistic over the recent probe window
+     * @param percentile Percentile to report (0.5 = median, 0.99 = p99, 1.0 = max); negative = mean
+     * @return Latency in milliseconds (0 if nothing measured yet)
+     */
+    double latencyMs(double percentile) {
+        long[] window;
+        synchronized (latencies) {
+            window = Arrays.copyOf(latencies, Math.min(latencyCount, PROBE_WINDOW));
+        }
+        if (window.length == 0) {
+            return 0;
+        }
+        if (percentile < 0) {
+            long sum = 0;
+            for (long l : window) {
+                sum += l;
+            }
+            return sum / (double) window.length / 1e6;
+        }
+        Arrays.sort(window);
+        int index = (int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1);
+        return window[Math.max(0, index)] / 1e6;
+    }
+
+    double smoothingMs() {
+        return smoothingMs;
+    }
+
+    /**
+     * @param ms New smoothing time constant in milliseconds (0 = no smoothing)
+     */
+    void setSmoothingMs(double ms) {
+        smoothingMs = Math.max(0, ms);
+    }
+}
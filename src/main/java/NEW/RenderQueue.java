@@ -0,0 +1,349 @@
+package NEW;
+
+import java.util.Arrays;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+/**
+ * Deferred draw commands sorted by state before they reach the canvas
+ * Update loops submit compact commands (layer, material, rectangle) instead of drawing; flush() sorts them by a
+ * 16-bit key (layer << 8 | material) with an LSD radix sort and draws them in that order, setting fill, stroke,
+ * line width and font only when they actually change
+ * A material is one draw operation plus its canvas state (an image, a fill paint, a stroke paint and width, or a text
+ * fill and font), registered once up front; inside a layer, materials draw in registration order, so e.g. all enemy
+ * sprites go out grouped by image, then all HP-bar backgrounds, then all bars
+ * The radix sort is stable: Commands with the same key keep their submission order
+ * Commands live in primitive arrays of fixed capacity (no allocation per frame); commands beyond it are dropped
+ */
+final class RenderQueue {
+    // Draw operations (one per material)
+    static final int FILL_RECT = 0;
+    static final int FILL_OVAL = 1;
+    static final int STROKE_RECT = 2;
+    static final int STROKE_OVAL = 3;
+    static final int IMAGE = 4;
+    static final int TEXT = 5;
+
+    static final int MAX_LAYERS = 256;
+    static final int MAX_MATERIALS = 256;
+    private static final int RADIX_BITS = 8;
+    private static final int KEY_PASSES = 2;       // 16-bit keys: 2 passes of 8 bits
+
+    // Materials (index = material id)
+    private final int[] matOp = new int[MAX_MATERIALS];
+    private final Paint[] matPaint = new Paint[MAX_MATERIALS]; // Fill (FILL_*, TEXT) or stroke (STROKE_*) paint
+    private final double[] matLineWidth = new double[MAX_MATERIALS];
+    private final Font[] matFont = new Font[MAX_MATERIALS];
+    private final Image[] matImage = new Image[MAX_MATERIALS];
+    private int materials = 0;
+
+    // Commands of the current frame (index = submission order)
+    final int capacity;
+    private final int[] keys;
+    private final double[] x, y, w, h;
+    private final Object[] text;                   // TEXT commands: String to draw (cleared by flush)
+    private final Paint[] paint;                   // Optional paint override (null = the material's paint)
+    private int count = 0;
+    private long dropped = 0;                      // Commands lost to a full queue (total)
+
+    // Radix sort scratch
+    private int[] order, scratch;
+    private final int[] buckets = new int[(1 << RADIX_BITS) + 1];
+    private boolean sorting = true;
+
+    // Canvas state as last set by flush() (null / NaN = unknown: set on first use)
+    private Paint fill, stroke;
+    private double lineWidth;
+    private Font font;
+    private int stateChanges = 0;                  // State setter calls issued by the last flush
+    private int flushed = 0;                       // Commands drawn by the last flush
+
+    /**
+     * Constructor for RenderQueue
+     * @param capacity Maximum commands per frame
+     */
+    RenderQueue(int capacity) {
+        this.capacity = capacity;
+        this.keys = new int[capacity];
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.w = new double[capacity];
+        this.h = new double[capacity];
+        this.text = new Object[capacity];
+        this.paint = new Paint[capacity];
+        this.order = new int[capacity];
+        this.scratch = new int[capacity];
+    }
+
+    // --- Materials (register once; ids are small ints, assigned in draw order) ---
+
+    /**
+     * @return Material drawing an image (x, y, w, h = destination rectangle)
+     */
+    int imageMaterial(Image image) {
+        return material(IMAGE, null, 0, null, image);
+    }
+
+    /**
+     * @param op FILL_RECT or FILL_OVAL
+     * @return Material filling a shape
+     */
+    int fillMaterial(int op, Paint fill) {
+        return material(op, fill, 0, null, null);
+    }
+
+    /**
+     * @param op STROKE_RECT or STROKE_OVAL
+     * @return Material outlining a shape
+     */
+    int strokeMaterial(int op, Paint stroke, double lineWidth) {
+        return material(op, stroke, lineWidth, null, null);
+    }
+
+    /**
+     * @return Material drawing text (x, y = baseline origin)
+     */
+    int textMaterial(Paint fill, Font font) {
+        return material(TEXT, fill, 0, font, null);
+    }
+
+    private int material(int op, Paint p, double lw, Font f, Image image) {
+        if (materials == MAX_MATERIALS) {
+            throw new IllegalStateException("RenderQueue supports " + MAX_MATERIALS + " materials");
+        }
+        int id = materials++;
+        matOp[id] = op;
+        matPaint[id] = p;
+        matLineWidth[id] = lw;
+        matFont[id] = f;
+        matImage[id] = image;
+        return id;
+    }
+
+    // --- Submission (any time before flush) ---
+
+    /**
+     * Submit a shape or image command
+     * @param layer Draw layer (0..MAX_LAYERS - 1, lower layers draw first)
+     * @param material Material id (its registration order decides the order inside the layer)
+     * @param x Left edge
+     * @param y Top edge
+     * @param w Width
+     * @param h Height
+     */
+    void draw(int layer, int material, double x, double y, double w, double h) {
+        int i = next(layer, material);
+        if (i >= 0) {
+            this.x[i] = x;
+            this.y[i] = y;
+            this.w[i] = w;
+            this.h[i] = h;
+        }
+    }
+
+    /**
+     * Submit a fill with a paint of its own (rare, e.g. health-tinted fallback shapes); the material only decides
+     * the operation and the sort position
+     */
+    void drawTinted(int layer, int material, Paint tint, double x, double y, double w, double h) {
+        int i = next(layer, material);
+        if (i >= 0) {
+            this.x[i] = x;
+            this.y[i] = y;
+            this.w[i] = w;
+            this.h[i] = h;
+            paint[i] = tint;
+        }
+    }
+
+    /**
+     * Submit a text command
+     * @param layer Draw layer
+     * @param material TEXT material (fill + font)
+     * @param s Text
+     * @param x Baseline X
+     * @param y Baseline Y
+     */
+    void text(int layer, int material, String s, double x, double y) {
+        int i = next(layer, material);
+        if (i >= 0) {
+            this.x[i] = x;
+            this.y[i] = y;
+            text[i] = s;
+        }
+    }
+
+    private int next(int layer, int material) {
+        if (count == capacity) {
+            dropped++;
+            return -1;
+        }
+        int i = count++;
+        keys[i] = layer << RADIX_BITS | material;
+        return i;
+    }
+
+    // --- Flush ---
+
+    /**
+     * Sort this frame's commands and draw them with the fewest state changes, then empty the queue
+     * @param gc Target GraphicsContext (null = sort and count state changes only, for benchmarks)
+     */
+    void flush(GraphicsContext gc) {
+        if (sorting) {
+            radixSort();
+        } else {
+            for (int i = 0; i < count; i++) {
+                order[i] = i; // Submission order (comparison runs)
+            }
+        }
+        fill = null;
+        stroke = null;
+        lineWidth = Double.NaN;
+        font = null;
+        stateChanges = 0;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            int m = keys[i] & (MAX_MATERIALS - 1);
+            int op = matOp[m];
+            Paint p = paint[i] != null ? paint[i] : matPaint[m];
+            switch (op) {
+                case FILL_RECT:
+                case FILL_OVAL:
+                    useFill(gc, p);
+                    if (gc != null) {
+                        if (op == FILL_RECT) {
+                            gc.fillRect(x[i], y[i], w[i], h[i]);
+                        } else {
+                            gc.fillOval(x[i], y[i], w[i], h[i]);
+                        }
+                    }
+                    break;
+                case STROKE_RECT:
+                case STROKE_OVAL:
+                    useStroke(gc, p, matLineWidth[m]);
+                    if (gc != null) {
+                        if (op == STROKE_RECT) {
+                            gc.strokeRect(x[i], y[i], w[i], h[i]);
+                        } else {
+                            gc.strokeOval(x[i], y[i], w[i], h[i]);
+                        }
+                    }
+                    break;
+                case IMAGE:
+                    if (gc != null) {
+                        gc.drawImage(matImage[m], x[i], y[i], w[i], h[i]);
+                    }
+                    break;
+                default: // TEXT
+                    useFill(gc, p);
+                    if (font != matFont[m]) {
+                        font = matFont[m];
+                        stateChanges++;
+                        if (gc != null) {
+                            gc.setFont(font);
+                        }
+                    }
+                    if (gc != null) {
+                        gc.fillText((String) text[i], x[i], y[i]);
+                    }
+                    text[i] = null;
+                    break;
+            }
+            paint[i] = null;
+        }
+        flushed = count;
+        count = 0;
+    }
+
+    private void useFill(GraphicsContext gc, Paint p) {
+        if (fill != p) {
+            fill = p;
+            stateChanges++;
+            if (gc != null) {
+                gc.setFill(p);
+            }
+        }
+    }
+
+    private void useStroke(GraphicsContext gc, Paint p, double width) {
+        if (stroke != p) {
+            stroke = p;
+            stateChanges++;
+            if (gc != null) {
+                gc.setStroke(p);
+            }
+        }
+        if (lineWidth != width) {
+            lineWidth = width;
+            stateChanges++;
+            if (gc != null) {
+                gc.setLineWidth(width);
+            }
+        }
+    }
+
+    /**
+     * LSD radix sort of command indices by key (8 bits per pass, stable); a pass whose byte is the same for every
+     * command is skipped (e.g. the layer byte when only one layer was submitted)
+     */
+    private void radixSort() {
+        int[] src = order, dst = scratch;
+        for (int i = 0; i < count; i++) {
+            src[i] = i;
+        }
+        int mask = (1 << RADIX_BITS) - 1;
+        for (int pass = 0; pass < KEY_PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            Arrays.fill(buckets, 0);
+            for (int i = 0; i < count; i++) {
+                buckets[((keys[i] >>> shift) & mask) + 1]++;
+            }
+            if (count == 0 || buckets[((keys[0] >>> shift) & mask) + 1] == count) {
+                continue; // All commands share this byte: The pass would not move anything
+            }
+            for (int b = 0; b < mask + 1; b++) {
+                buckets[b + 1] += buckets[b]; // Bucket start offsets
+            }
+            for (int k = 0; k < count; k++) {
+                int i = src[k];
+                dst[buckets[(keys[i] >>> shift) & mask]++] = i;
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        order = src;
+        scratch = dst;
+    }
+
+    /**
+     * Draw in submission order instead of sorted order (A/B comparisons; state changes are still deduplicated)
+     * @param sorting False to skip the sort
+     */
+    void setSorting(boolean sorting) {
+        this.sorting = sorting;
+    }
+
+    /** @return Commands submitted since the last flush */
+    int size() {
+        return count;
+    }
+
+    /** @return Commands dropped because the queue was full (total) */
+    long dropped() {
+        return dropped;
+    }
+
+    /** @return Fill, stroke, line width and font changes issued by the last flush */
+    int stateChanges() {
+        return stateChanges;
+    }
+
+    /** @return Commands drawn by the last flush */
+    int flushed() {
+        return flushed;
+    }
+}
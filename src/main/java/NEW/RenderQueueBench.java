@@ -0,0 +1,125 @@
+package NEW;
+
+import java.util.Arrays;
+import java.util.Random;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * State-change and sort-cost benchmark for the RenderQueue
+ * Submits a frame shaped like the game's (gates, chests, player bullets of mixed looks, enemies of two types with
+ * health bars, BOSS bullets), in the order the update loops submit it, and flushes without a canvas (dry run)
+ * Reports the canvas state changes of the previous immediate-mode drawing (every setter each draw call), of the queue
+ * in submission order, and of the sorted queue, plus the sort + emit time per frame
+ * No JavaFX toolkit is needed: Draw calls are skipped, only the state the queue would set is counted
+ *
+ * Usage: java NEW.RenderQueueBench [bullets=600,5000] [enemies=120] [bossBullets=2000] [frames=2000]
+ */
+public final class RenderQueueBench {
+    private static final int WARM_UP_FRAMES = 500;
+
+    private RenderQueueBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional comma-separated bullet counts, enemy count, BOSS bullet count and frames
+     */
+    public static void main(String[] args) {
+        int[] counts = Arrays.stream((args.length > 0 ? args[0] : "600,5000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int enemies = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        int bossBullets = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int frames = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+
+        System.out.printf("%d enemies, %d BOSS bullets, 4 gates, 3 chests per frame; %d frames%n",
+                enemies, bossBullets, frames);
+        System.out.println("bullets  commands  immediate  queue(unsorted)  queue(sorted)  sort+emit us");
+        for (int bullets : counts) {
+            int commands = 4 * 3 + 3 * 2 + bullets * 2 + enemies * 3 + bossBullets;
+            RenderQueue queue = new RenderQueue(commands);
+            int[] mat = registerMaterials(queue);
+
+            // Previous immediate-mode setters per frame: Gate fill + stroke + fill + font, chest fill + font,
+            // bullet stroke + line width (glow save/alpha/fill/restore already moved to the bloom pass),
+            // enemy bar background fill + bar fill, BOSS bullets none (sprite)
+            int immediate = 4 * 4 + 3 * 2 + bullets * 2 + enemies * 2;
+
+            submitFrame(queue, mat, bullets, enemies, bossBullets, 0);
+            queue.setSorting(false);
+            queue.flush(null);
+            int unsorted = queue.stateChanges();
+
+            queue.setSorting(true);
+            long total = 0;
+            for (int f = 0; f < WARM_UP_FRAMES + frames; f++) {
+                submitFrame(queue, mat, bullets, enemies, bossBullets, f);
+                long t0 = System.nanoTime();
+                queue.flush(null);
+                if (f >= WARM_UP_FRAMES) {
+                    total += System.nanoTime() - t0;
+                }
+            }
+            System.out.printf("%7d %9d %10d %16d %14d %12.1f%n", bullets, queue.flushed(), immediate, unsorted,
+                    queue.stateChanges(), total / 1e3 / frames);
+        }
+    }
+
+    /**
+     * Register materials in the game's order; images are not loaded (dry run: draw calls are skipped)
+     * @return Material ids: gate fill, gate outline, gate text, chest, chest text, 4 bullets, 4 outlines,
+     *         2 enemies, bar background, bar, BOSS bullet
+     */
+    private static int[] registerMaterials(RenderQueue q) {
+        Font font = Font.font("Arial", FontWeight.BOLD, 18);
+        return new int[] {
+                q.fillMaterial(RenderQueue.FILL_RECT, Color.rgb(180, 50, 255, 0.7)),
+                q.strokeMaterial(RenderQueue.STROKE_RECT, Color.WHITE, 1),
+                q.textMaterial(Color.WHITE, font),
+                q.imageMaterial(null),
+                q.textMaterial(Color.WHITE, font),
+                q.imageMaterial(null), q.imageMaterial(null), q.imageMaterial(null), q.imageMaterial(null),
+                q.strokeMaterial(RenderQueue.STROKE_OVAL, Color.RED, 1),
+                q.strokeMaterial(RenderQueue.STROKE_OVAL, Color.VIOLET, 1),
+                q.strokeMaterial(RenderQueue.STROKE_OVAL, Color.CYAN, 1),
+                q.strokeMaterial(RenderQueue.STROKE_OVAL, Color.GOLD, 1),
+                q.imageMaterial(null), q.imageMaterial(null),
+                q.fillMaterial(RenderQueue.FILL_RECT, Color.GRAY),
+                q.fillMaterial(RenderQueue.FILL_RECT, Color.LIME),
+                q.imageMaterial(null)
+        };
+    }
+
+    /**
+     * Submit one frame entity by entity, as the update loops do
+     */
+    private static void submitFrame(RenderQueue q, int[] mat, int bullets, int enemies, int bossBullets, long seed) {
+        Random random = new Random(seed);
+        for (int g = 0; g < 4; g++) {
+            q.draw(0, mat[0], g * 120, 100, 120, 60);
+            q.draw(0, mat[1], g * 120, 100, 120, 60);
+            q.text(0, mat[2], "ATK x 2", g * 120 + 15, 137);
+        }
+        for (int c = 0; c < 3; c++) {
+            q.draw(1, mat[3], c * 150, 200, 40, 40);
+            q.text(1, mat[4], "HP:100", c * 150 + 5, 255);
+        }
+        for (int b = 0; b < bullets; b++) {
+            int look = b % 7 == 0 ? 1 + random.nextInt(3) : 0; // Mostly normal shots, some buffed
+            double x = random.nextDouble() * ThunderFighter.WIDTH, y = random.nextDouble() * ThunderFighter.HEIGHT;
+            q.draw(2, mat[5 + look], x, y, 10, 10);
+            q.draw(2, mat[9 + look], x, y, 10, 10);
+        }
+        for (int e = 0; e < enemies; e++) {
+            double x = random.nextDouble() * ThunderFighter.WIDTH, y = random.nextDouble() * 600;
+            q.draw(3, mat[13 + random.nextInt(2)], x, y, 65, 65);
+            q.draw(3, mat[15], x + 10, y - 8, 45, 5);
+            q.draw(3, mat[16], x + 10, y - 8, 30, 5);
+        }
+        for (int i = 0; i < bossBullets; i++) {
+            q.draw(4, mat[17], random.nextDouble() * ThunderFighter.WIDTH, random.nextDouble() * 800, 15, 15);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package NEW;
+
+import java.util.Arrays;
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Frame-time benchmark per render scale
+ * For each scale, plays the same seeded autopilot run (game logic + drawing at the internal resolution), and forces
+ * every frame to be rasterized and scaled to the window size with a snapshot of the canvas node (render + present)
+ * Reports mean, p99 and worst frame time for every scale
+ * Every scale is played untimed first (WARM_UP_PASSES): Otherwise each scale warms the software rasterizer up for the
+ * next one, and the later scales of a run measure up to 40% faster than on their own
+ *
+ * Usage: java NEW.RenderScaleBench [scales=0.5,0.75,1,1.5,2] [windowScale=1.0] [frames=1200]
+ */
+public final class RenderScaleBench {
+    private static final int WARM_UP_FRAMES = 300; // Frames simulated and drawn before timing starts (JIT, texture caches)
+    private static final int WARM_UP_PASSES = 2;   // Untimed passes over all scales first (the rasterizer compiles per scale)
+
+    private RenderScaleBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Time one scale (must run on the JavaFX application thread)
+     * @return Frame times in milliseconds
+     */
+    private static double[] measure(double renderScale, double windowScale, int frames) {
+        ThunderFighter game = new ThunderFighter(3);
+        game.setEndlessMode(true);
+        game.setGodMode(true);
+        Canvas canvas = ThunderFighter.createCanvas(renderScale, windowScale);
+        game.setGraphicsContext(canvas.getGraphicsContext2D());
+        game.loadImages();
+
+        WritableImage window = new WritableImage((int) Math.round(ThunderFighter.WIDTH * windowScale),
+                (int) Math.round(ThunderFighter.HEIGHT * windowScale));
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.BLACK);
+
+        double[] times = new double[frames];
+        for (int frame = 1; frame <= WARM_UP_FRAMES + frames; frame++) {
+            long t0 = System.nanoTime();
+            game.setCannonX(game.autopilotX());
+            game.runFrame(frame * ThunderFighter.FRAME_NANOS);
+            canvas.snapshot(params, window); // Rasterize at the render scale, then scale to the window (node transform)
+            long dt = System.nanoTime() - t0;
+            if (frame > WARM_UP_FRAMES) {
+                times[frame - WARM_UP_FRAMES - 1] = dt / 1e6;
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional comma-separated render scales, window scale and frames per scale
+     */
+    public static void main(String[] args) throws Exception {
+        String[] scaleArgs = (args.length > 0 ? args[0] : "0.5,0.75,1,1.5,2").split(",");
+        double windowScale = ThunderFighter.clampScale(args.length > 1 ? Double.parseDouble(args[1]) : 1.0);
+        int frames = args.length > 2 ? Integer.parseInt(args[2]) : 1200;
+
+        java.util.concurrent.CompletableFuture<Void> done = new java.util.concurrent.CompletableFuture<>();
+        Platform.startup(() -> {
+            try {
+                System.out.printf("window %dx%d (windowScale %.2f), %d frames per scale%n",
+                        Math.round(ThunderFighter.WIDTH * windowScale), Math.round(ThunderFighter.HEIGHT * windowScale),
+                        windowScale, frames);
+                for (int pass = 0; pass < WARM_UP_PASSES; pass++) {
+                    for (String s : scaleArgs) {
+                        measure(ThunderFighter.clampScale(Double.parseDouble(s.trim())), windowScale, WARM_UP_FRAMES);
+                    }
+                }
+                System.out.println("renderScale  internal    mean ms   p99 ms   max ms");
+                for (String s : scaleArgs) {
+                    double scale = ThunderFighter.clampScale(Double.parseDouble(s.trim()));
+                    double[] times = measure(scale, windowScale, frames);
+                    double mean = Arrays.stream(times).average().orElse(0);
+                    Arrays.sort(times);
+                    System.out.printf("%10.2f  %4dx%-5d %8.3f %8.3f %8.3f%n", scale,
+                            Math.round(ThunderFighter.WIDTH * scale), Math.round(ThunderFighter.HEIGHT * scale),
+                            mean, times[(int) Math.min(times.length - 1, Math.ceil(times.length * 0.99) - 1)],
+                            times[times.length - 1]);
+                }
+                done.complete(null);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        });
+        done.get();
+        Platform.exit();
+    }
+}
@@ -0,0 +1,153 @@
+package NEW;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Recorded game run: Random seed, rule settings + per-frame input (frame timestamp and cannonX)
+ * The game is deterministic given these values, so a replay can be re-simulated frame by frame
+ * Rule settings are those of the system properties thunder.balance, thunder.endless, thunder.flock and thunder.swarmLod
+ * File layout (big-endian): "TFRP" magic, int version, long seed, UTF balance (Balance text form), boolean endless,
+ * boolean flocking, boolean swarmLod, int frameCount, then frameCount x (long now, double cannonX)
+ * Version 1 files (no rule settings) are still read; they replay with the default rules
+ */
+final class ReplayLog {
+    private static final int MAGIC = 0x54465250; // "TFRP" (ThunderFighter RePlay)
+    private static final int VERSION = 2;        // File format version (2: rule settings after the seed)
+
+    private final long seed;                     // Seed the recorded game was constructed with
+    private final Balance balance;               // Balance constants of the recorded game
+    private final boolean endless;               // Endless mode (BOSS cycles repeat)
+    private final boolean flocking;              // Hordes as flocking formations
+    private final boolean swarmLod;              // Straight volleys as swarm rows
+    private long[] frameTimes = new long[4096];  // Frame timestamps (nanoseconds), grows by doubling
+    private double[] cannonXs = new double[4096]; // cannonX value seen by each frame
+    private int frameCount = 0;                  // Number of recorded frames
+
+    /**
+     * Constructor for an empty replay (recording side)
+     * @param seed Seed of the game being recorded
+     * @param balance Balance constants of the game being recorded
+     * @param endless True if the game runs in endless mode
+     * @param flocking True if hordes spawn as flocking formations
+     * @param swarmLod True if straight volleys fly as swarm rows
+     */
+    ReplayLog(long seed, Balance balance, boolean endless, boolean flocking, boolean swarmLod) {
+        this.seed = seed;
+        this.balance = balance;
+        this.endless = endless;
+        this.flocking = flocking;
+        this.swarmLod = swarmLod;
+    }
+
+    /**
+     * Record one frame's input (called at the start of every simulated frame)
+     * @param now Frame timestamp (nanoseconds)
+     * @param cannonX Player's X coordinate as seen by this frame
+     */
+    void record(long now, double cannonX) {
+        if (frameCount == frameTimes.length) {
+            // Grow storage (primitive arrays: 16 bytes per frame, about 3.5 MB per hour at 60 FPS)
+            frameTimes = Arrays.copyOf(frameTimes, frameCount * 2);
+            cannonXs = Arrays.copyOf(cannonXs, frameCount * 2);
+        }
+        frameTimes[frameCount] = now;
+        cannonXs[frameCount] = cannonX;
+        frameCount++;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    Balance balance() {
+        return balance;
+    }
+
+    boolean endless() {
+        return endless;
+    }
+
+    boolean flocking() {
+        return flocking;
+    }
+
+    boolean swarmLod() {
+        return swarmLod;
+    }
+
+    int frameCount() {
+        return frameCount;
+    }
+
+    long frameTime(int frame) {
+        return frameTimes[frame];
+    }
+
+    double cannonX(int frame) {
+        return cannonXs[frame];
+    }
+
+    /**
+     * Write the replay to a file
+     * @param file Destination file (overwritten if it exists)
+     * @throws IOException If the file cannot be written
+     */
+    void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeUTF(balance.toString());
+            out.writeBoolean(endless);
+            out.writeBoolean(flocking);
+            out.writeBoolean(swarmLod);
+            out.writeInt(frameCount);
+            for (int i = 0; i < frameCount; i++) {
+                out.writeLong(frameTimes[i]);
+                out.writeDouble(cannonXs[i]);
+            }
+        }
+    }
+
+    /**
+     * Read a replay from a file
+     * @param file Replay file written by save()
+     * @return Loaded replay
+     * @throws IOException If the file cannot be read or is not a replay
+     */
+    static ReplayLog load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a ThunderFighter replay: " + file);
+            }
+            int version = in.readInt();
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported replay version " + version + ": " + file);
+            }
+            long seed = in.readLong();
+            ReplayLog log;
+            if (version == 1) {
+                log = new ReplayLog(seed, Balance.DEFAULT, false, false, true); // Recorded before rule settings were stored
+            } else {
+                try {
+                    log = new ReplayLog(seed, Balance.parse(in.readUTF()), in.readBoolean(), in.readBoolean(),
+                            in.readBoolean());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Bad balance in replay " + file + ": " + e.getMessage());
+                }
+            }
+            int frames = in.readInt();
+            for (int i = 0; i < frames; i++) {
+                log.record(in.readLong(), in.readDouble());
+            }
+            return log;
+        }
+    }
+}
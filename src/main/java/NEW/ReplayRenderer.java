@@ -0,0 +1,249 @@
+package NEW;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javax.imageio.ImageIO;
+
+/**
+ * Offline replay renderer: Re-simulates a recorded run (ReplayLog) without opening a window and writes every frame as a PNG
+ * Rendering reuses the game's own draw methods (bullets, enemies, BOSS, gates, chests, BOSS bullets) via runFrame()
+ * Pipeline: JavaFX thread simulates + snapshots -> worker pool encodes PNGs in parallel -> writer thread saves in frame order
+ * The pipeline is bounded (fixed pool of pixel buffers), so memory stays flat no matter how long the replay is
+ * A failure anywhere (simulation, encoding, writing) stops the whole pipeline and is rethrown by render()
+ *
+ * Snapshots need the JavaFX toolkit (Platform.startup), which needs a display; on a machine without one, run with
+ * the Monocle headless platform (openjfx-monocle on the classpath) and the software pipeline:
+ *   java -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw NEW.ReplayRenderer ...
+ *
+ * Usage: java NEW.ReplayRenderer <replay.tfr> <outputDir> [scale=1.0] [threads=all cores]
+ */
+public final class ReplayRenderer {
+    private final ReplayLog replay;     // Recorded seed, rule settings + per-frame input
+    private final Path outputDir;       // Directory receiving frame_000000.png, frame_000001.png, ...
+    private final double scale;         // Output resolution relative to the 480x800 game canvas
+    private final int width, height;    // Output resolution (pixels)
+
+    private final ExecutorService encoders;                  // PNG encoding pool (one thread per core by default)
+    private final BlockingQueue<int[]> freeBuffers;          // Recycled pixel buffers (bounds memory use)
+    private final BlockingQueue<Future<byte[]>> pending;     // Encoded frames in submission (= frame) order
+    private static final Future<byte[]> END = CompletableFuture.completedFuture(null); // End-of-stream marker
+    private static final long WAIT_MS = 100;                 // Pipeline waits re-check for a failed writer this often
+
+    /**
+     * Constructor for ReplayRenderer
+     * @param replay Replay to render
+     * @param outputDir Output directory for PNG frames
+     * @param scale Output scale (1.0 = 480x800, 2.0 = 960x1600, ...)
+     * @param threads Number of PNG encoder threads
+     */
+    ReplayRenderer(ReplayLog replay, Path outputDir, double scale, int threads) {
+        this.replay = replay;
+        this.outputDir = outputDir;
+        this.scale = scale;
+        this.width = (int) Math.round(ThunderFighter.WIDTH * scale);
+        this.height = (int) Math.round(ThunderFighter.HEIGHT * scale);
+        this.encoders = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "png-encoder");
+            t.setDaemon(true);
+            return t;
+        });
+        int inFlight = threads * 2; // Enough frames in flight to keep every encoder busy
+        this.freeBuffers = new ArrayBlockingQueue<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            freeBuffers.add(new int[width * height]);
+        }
+        this.pending = new ArrayBlockingQueue<>(inFlight + 1);
+    }
+
+    /**
+     * Simulate and snapshot every recorded frame (must run on the JavaFX application thread)
+     * Blocks when all pixel buffers are in use (back-pressure from the encoders), but never past a writer failure
+     * @param writer Writer of the encoded frames (once it has failed, nothing drains the pipeline any more)
+     * @throws InterruptedException If interrupted while waiting for a free buffer
+     */
+    private void simulateFrames(CompletableFuture<Integer> writer) throws InterruptedException {
+        ThunderFighter game = new ThunderFighter(replay.seed());
+        game.setBalance(replay.balance()); // Recorded rules, whatever this JVM's thunder.* properties say
+        game.setEndlessMode(replay.endless());
+        game.setFlocking(replay.flocking());
+        game.setSwarmLod(replay.swarmLod());
+        Canvas canvas = ThunderFighter.createCanvas(scale, scale); // Game draws in world coordinates at the output size
+        game.setGraphicsContext(canvas.getGraphicsContext2D());
+        game.setBackgroundStreaming(false); // Every background tile decoded on the frame it first shows
+        game.loadImages();
+
+        WritableImage snapshot = new WritableImage(width, height);
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.BLACK);
+
+        for (int frame = 0; frame < replay.frameCount(); frame++) {
+            checkWriter(writer);
+            // Feed recorded input, then run exactly the same frame logic as the live game
+            game.setCannonX(replay.cannonX(frame));
+            game.runFrame(replay.frameTime(frame));
+            canvas.snapshot(params, snapshot);
+
+            int[] pixels;
+            while ((pixels = freeBuffers.poll(WAIT_MS, TimeUnit.MILLISECONDS)) == null) {
+                checkWriter(writer);
+            }
+            int[] frameBuffer = pixels;
+            snapshot.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            Future<byte[]> encoded = encoders.submit(() -> encode(frameBuffer));
+            while (!pending.offer(encoded, WAIT_MS, TimeUnit.MILLISECONDS)) {
+                checkWriter(writer);
+            }
+        }
+        while (!pending.offer(END, WAIT_MS, TimeUnit.MILLISECONDS)) {
+            checkWriter(writer);
+        }
+    }
+
+    /**
+     * Stop the simulation if the writer has stopped (an encoding or I/O failure): Its queue would never drain again
+     * @param writer Writer of the encoded frames
+     */
+    private static void checkWriter(CompletableFuture<Integer> writer) {
+        if (writer.isDone()) {
+            throw new IllegalStateException("Frame writer stopped before the last frame");
+        }
+    }
+
+    /**
+     * Encode one frame to PNG (runs on an encoder thread), then return its pixel buffer to the pool
+     * @param pixels ARGB pixels of the frame (wrapped, not copied)
+     * @return PNG file contents
+     * @throws IOException If encoding fails
+     */
+    private byte[] encode(int[] pixels) throws IOException {
+        try {
+            DirectColorModel model = new DirectColorModel(32, 0xFF0000, 0xFF00, 0xFF, 0xFF000000);
+            WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length),
+                    width, height, width, model.getMasks(), null);
+            BufferedImage image = new BufferedImage(model, raster, false, null);
+            ByteArrayOutputStream png = new ByteArrayOutputStream(width * height);
+            ImageIO.write(image, "png", png);
+            return png.toByteArray();
+        } finally {
+            freeBuffers.add(pixels);
+        }
+    }
+
+    /**
+     * Write encoded frames to disk strictly in frame order (runs on the writer thread)
+     * @return Number of frames written
+     * @throws Exception If encoding or writing a frame fails
+     */
+    private int writeFrames() throws Exception {
+        int written = 0;
+        while (true) {
+            Future<byte[]> next = pending.take();
+            if (next == END) {
+                return written;
+            }
+            byte[] png = next.get(); // Waits for this frame even if later frames finished first
+            Files.write(outputDir.resolve(String.format("frame_%06d.png", written)), png);
+            written++;
+            if (written % 600 == 0) {
+                System.out.println("Rendered " + written + " / " + replay.frameCount() + " frames");
+            }
+        }
+    }
+
+    /**
+     * Simulation failed: Cancel the frames still queued and end the stream, so the writer thread finishes too
+     */
+    private void stopWriter() {
+        Future<byte[]> f;
+        while ((f = pending.poll()) != null) {
+            f.cancel(true);
+        }
+        pending.offer(END);
+    }
+
+    /**
+     * Render the whole replay and report throughput
+     * @throws Exception If simulation, encoding or writing fails
+     */
+    void render() throws Exception {
+        long startTime = System.nanoTime();
+        CompletableFuture<Integer> writer = CompletableFuture.supplyAsync(() -> {
+            try {
+                return writeFrames();
+            } catch (Exception e) {
+                throw new IllegalStateException("Frame writing failed", e);
+            }
+        });
+
+        int frames;
+        try {
+            // JavaFX snapshots must happen on the JavaFX application thread
+            CompletableFuture<Void> simulation = new CompletableFuture<>();
+            Platform.startup(() -> {
+                try {
+                    simulateFrames(writer);
+                    simulation.complete(null);
+                } catch (Throwable t) {
+                    simulation.completeExceptionally(t);
+                }
+            });
+            try {
+                simulation.get();
+            } catch (ExecutionException e) {
+                if (writer.isCompletedExceptionally()) {
+                    writer.join(); // The writer failed first: Its error is the cause, the simulation only stopped
+                }
+                stopWriter();
+                throw e;
+            }
+            frames = writer.get();
+        } finally {
+            encoders.shutdownNow();
+            Platform.exit(); // The JavaFX thread is not a daemon: Without this the JVM would never exit on failure
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("Rendered %d frames at %dx%d in %.1f s (%.1f frames/s)%n",
+                frames, width, height, seconds, frames / seconds);
+    }
+
+    /**
+     * Command-line entry point
+     * @param args replay file, output directory, optional scale, optional encoder thread count
+     * @throws Exception If rendering fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: java NEW.ReplayRenderer <replay.tfr> <outputDir> [scale=1.0] [threads]");
+            return;
+        }
+        ReplayLog replay = ReplayLog.load(Paths.get(args[0]));
+        Path outputDir = Paths.get(args[1]);
+        Files.createDirectories(outputDir);
+        double scale = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        new ReplayRenderer(replay, outputDir, scale, threads).render();
+    }
+}
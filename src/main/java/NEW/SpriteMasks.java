@@ -0,0 +1,18 @@
+package NEW;
+
+/**
+ * Collision masks of every sprite at the size the game draws it (built once, shared by all game instances)
+ * A null mask means the sprite could not be read: hit tests then fall back to the plain box test
+ */
+final class SpriteMasks {
+    static final CollisionMask ENEMY1 = CollisionMask.fromResource("enemy1.png", 65, 65);        // Normal enemy type 0
+    static final CollisionMask ENEMY2 = CollisionMask.fromResource("enemy2.png", 65, 65);        // Normal enemy type 1
+    static final CollisionMask BOSS = CollisionMask.fromResource("boss.png", 180, 180);          // Final BOSS
+    static final CollisionMask PLANE = CollisionMask.fromResource("plane.png", 100, 100);        // Player's plane
+    static final CollisionMask BOSS_BULLET = CollisionMask.fromResource("bossBullet.png", 35, 35); // BOSS bullet
+    static final CollisionMask CHEST = CollisionMask.fromResource("chest.png", 80, 80);          // Treasure chest
+
+    private SpriteMasks() {
+        // Holder class only (no instances)
+    }
+}
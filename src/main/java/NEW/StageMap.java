@@ -0,0 +1,235 @@
+package NEW;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tiled stage background: A tile set (images, or regions of images) and a map of tile ids, row by row
+ * The map is drawn in columns across the playfield; row 0 is the bottom of the stage (shown first), the stage
+ * scrolls downward and loops after its last row. Only the map is kept in memory: tile images are decoded on demand
+ * (StreamedBackground) and live in a bounded TileCache, so a stage can be arbitrarily long and varied
+ *
+ * Text format (UTF-8, '#' starts a comment):
+ * <pre>
+ * columns=4                       Tiles per map row (drawn WIDTH / columns wide)
+ * tileHeight=256                  Drawn tile height (pixels)
+ * tile.0=Road.png@0,0,256,256     Tile id 0: Region x,y,w,h of an image (without "@...": the whole image)
+ * tile.1=forest/a.png             Paths are relative to the stage file's directory (classpath root for resources)
+ * rows                            Map follows, one row per line, TOP of the stage first
+ * 0,1,2,3 x20                     Comma-separated tile ids (-1 = empty); " xN" repeats the row N times
+ * </pre>
+ */
+final class StageMap {
+    /**
+     * One tile of the tile set: Image location plus an optional source region
+     */
+    static final class Tile {
+        final int id;            // Tile id (index into the tile set, cache key)
+        final String path;       // Image location (file path or classpath resource, see StageMap.open)
+        final int x, y, w, h;    // Source region (w = -1: the whole image)
+
+        Tile(int id, String path, int x, int y, int w, int h) {
+            this.id = id;
+            this.path = path;
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+        }
+
+        boolean isRegion() {
+            return w > 0;
+        }
+    }
+
+    final int columns;           // Tiles per row
+    final double tileHeight;     // Drawn tile height (pixels)
+    final Tile[] tiles;          // Tile set (index = tile id)
+    private final int[] map;     // Tile ids, row-major, row 0 = bottom of the stage
+    private final Path baseDir;  // Directory of the stage file (null = classpath resources)
+
+    /**
+     * Constructor for StageMap (also used by tools that generate stages)
+     * @param columns Tiles per row
+     * @param tileHeight Drawn tile height (pixels)
+     * @param tiles Tile set (tiles[i].id must be i)
+     * @param map Tile ids, row-major, row 0 = bottom of the stage (-1 = empty)
+     * @param baseDir Directory tile paths are relative to (null = classpath resources)
+     */
+    StageMap(int columns, double tileHeight, Tile[] tiles, int[] map, Path baseDir) {
+        if (columns <= 0 || tileHeight <= 0 || map.length == 0 || map.length % columns != 0) {
+            throw new IllegalArgumentException("Bad stage: " + columns + " columns, " + map.length + " map entries");
+        }
+        for (int id : map) {
+            if (id < -1 || id >= tiles.length) {
+                throw new IllegalArgumentException("Unknown tile id in stage map: " + id);
+            }
+        }
+        this.columns = columns;
+        this.tileHeight = tileHeight;
+        this.tiles = tiles;
+        this.map = map;
+        this.baseDir = baseDir;
+    }
+
+    int rows() {
+        return map.length / columns;
+    }
+
+    /**
+     * @return Length of one pass over the stage (pixels, before it loops)
+     */
+    double length() {
+        return rows() * tileHeight;
+    }
+
+    /**
+     * @param row Map row (0 = bottom of the stage)
+     * @param column Map column
+     * @return Tile id, or -1 for an empty cell
+     */
+    int tileAt(int row, int column) {
+        return map[row * columns + column];
+    }
+
+    /**
+     * Open a tile's image (file next to the stage file, or classpath resource)
+     * @param tile Tile to open
+     * @return Stream over the encoded image (caller closes it)
+     * @throws IOException If the image cannot be found or opened
+     */
+    InputStream open(Tile tile) throws IOException {
+        if (baseDir != null) {
+            return Files.newInputStream(baseDir.resolve(tile.path));
+        }
+        InputStream in = StageMap.class.getResourceAsStream("/" + tile.path);
+        if (in == null) {
+            throw new IOException("Tile image not found on the classpath: " + tile.path);
+        }
+        return in;
+    }
+
+    /**
+     * Load a stage from a file, or from the classpath if no such file exists
+     * @param location File path or classpath resource name (e.g. "stages/road.stage")
+     * @return Parsed stage
+     * @throws IOException If the stage cannot be read or is malformed
+     */
+    static StageMap load(String location) throws IOException {
+        Path file = Paths.get(location);
+        if (Files.isRegularFile(file)) {
+            Path dir = file.toAbsolutePath().getParent();
+            try (InputStream in = Files.newInputStream(file)) {
+                return parse(in, location, dir);
+            }
+        }
+        try (InputStream in = StageMap.class.getResourceAsStream("/" + location)) {
+            if (in == null) {
+                throw new IOException("Stage not found: " + location);
+            }
+            return parse(in, location, null);
+        }
+    }
+
+    private static StageMap parse(InputStream in, String name, Path dir) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int columns = 0;
+        double tileHeight = 0;
+        List<Tile> tiles = new ArrayList<>();
+        List<int[]> rowsTopFirst = new ArrayList<>();
+        boolean inRows = false;
+        String line;
+        int lineNo = 0;
+        try {
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                int hash = line.indexOf('#');
+                line = (hash >= 0 ? line.substring(0, hash) : line).trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (inRows) {
+                    int repeat = 1;
+                    int x = line.lastIndexOf(" x");
+                    if (x >= 0) {
+                        repeat = Integer.parseInt(line.substring(x + 2).trim());
+                        line = line.substring(0, x).trim();
+                    }
+                    String[] cells = line.split(",");
+                    if (cells.length != columns) {
+                        throw new IOException(name + ":" + lineNo + ": expected " + columns + " tile ids, found " + cells.length);
+                    }
+                    int[] row = new int[columns];
+                    for (int c = 0; c < columns; c++) {
+                        row[c] = Integer.parseInt(cells[c].trim());
+                    }
+                    for (int r = 0; r < repeat; r++) {
+                        rowsTopFirst.add(row);
+                    }
+                } else if (line.equals("rows")) {
+                    inRows = true;
+                } else {
+                    int eq = line.indexOf('=');
+                    if (eq < 0) {
+                        throw new IOException(name + ":" + lineNo + ": expected key=value");
+                    }
+                    String key = line.substring(0, eq).trim();
+                    String value = line.substring(eq + 1).trim();
+                    if (key.equals("columns")) {
+                        columns = Integer.parseInt(value);
+                    } else if (key.equals("tileHeight")) {
+                        tileHeight = Double.parseDouble(value);
+                    } else if (key.startsWith("tile.")) {
+                        tiles.add(parseTile(Integer.parseInt(key.substring(5)), value));
+                    } else {
+                        throw new IOException(name + ":" + lineNo + ": unknown key " + key);
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException(name + ":" + lineNo + ": " + e.getMessage());
+        }
+
+        // Tile ids must be dense (0..n-1); map rows are stored bottom first
+        Tile[] tileSet = new Tile[tiles.size()];
+        for (Tile t : tiles) {
+            if (t.id < 0 || t.id >= tileSet.length || tileSet[t.id] != null) {
+                throw new IOException(name + ": tile ids must be 0.." + (tileSet.length - 1) + " without gaps: " + t.id);
+            }
+            tileSet[t.id] = t;
+        }
+        int[] map = new int[rowsTopFirst.size() * Math.max(1, columns)];
+        for (int r = 0; r < rowsTopFirst.size(); r++) {
+            System.arraycopy(rowsTopFirst.get(rowsTopFirst.size() - 1 - r), 0, map, r * columns, columns);
+        }
+        try {
+            return new StageMap(columns, tileHeight, tileSet, map, dir);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parse "path" or "path@x,y,w,h"
+     */
+    private static Tile parseTile(int id, String value) {
+        int at = value.lastIndexOf('@');
+        if (at < 0) {
+            return new Tile(id, value, 0, 0, -1, -1);
+        }
+        int[] r = Arrays.stream(value.substring(at + 1).split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        if (r.length != 4 || r[2] <= 0 || r[3] <= 0) {
+            throw new NumberFormatException("tile region must be x,y,w,h: " + value);
+        }
+        return new Tile(id, value.substring(0, at), r[0], r[1], r[2], r[3]);
+    }
+}
@@ -0,0 +1,149 @@
+package NEW;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import javax.imageio.ImageIO;
+
+/**
+ * Memory check for the streamed background: Scrolls a long stage of unique tiles and verifies that the heap stays flat
+ * Builds a 50,000-pixel stage (196 rows x 4 columns, every cell its own tile id: 784 tiles, about 200 MB if all were
+ * decoded) over regions of Road.png, scrolls it at the game's 5 pixels per frame through a 16 MB TileCache and
+ * samples the used heap after a full GC as the stage goes by; decoding is done by the tile decoder thread as in the game
+ * Also decodes the shipped road stage through the real image path (StreamedBackground.readTile)
+ * Frames whose visible tiles are not decoded yet wait for the decoder (the check scrolls far faster than 60 FPS)
+ *
+ * Usage: java NEW.StageStreamCheck [stageLength=50000] [cacheMB=16]
+ * Exit code 0 = heap flat and cache within its ceiling, 1 = check failed
+ */
+public final class StageStreamCheck {
+    private static final int COLUMNS = 4;
+    private static final int TILE = 256;               // Source region and drawn tile height (pixels)
+    private static final double SCROLL_SPEED = 5;      // Pixels per frame (ThunderFighter.bgSpeed)
+    private static final int SAMPLES = 10;             // Heap samples over the stage
+    private static final long MAX_HEAP_GROWTH = 8L * 1024 * 1024; // Allowed growth after the first sample (bytes)
+
+    private StageStreamCheck() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional stage length (pixels) and cache ceiling (MB)
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        double stageLength = args.length > 0 ? Double.parseDouble(args[0]) : 50_000;
+        long cacheBytes = (args.length > 1 ? Long.parseLong(args[1]) : 16) * 1024 * 1024;
+        int status = 0;
+
+        // Real image path: Every tile of the shipped stage decodes to its 256x256 region
+        StageMap road = StageMap.load("stages/road.stage");
+        for (StageMap.Tile t : road.tiles) {
+            BufferedImage img = StreamedBackground.readTile(road, t);
+            if (img.getWidth() != t.w || img.getHeight() != t.h) {
+                System.out.println("FAIL: road tile " + t.id + " decoded as " + img.getWidth() + "x" + img.getHeight());
+                status = 1;
+            }
+        }
+        System.out.println("road stage: " + road.tiles.length + " tiles, " + road.rows() + " rows decoded");
+
+        // Synthetic long stage: Unique tile per cell, pixels copied (and tinted per id) from the decoded sheet
+        int rows = (int) Math.ceil(stageLength / TILE);
+        StageMap.Tile[] tiles = new StageMap.Tile[rows * COLUMNS];
+        int[] map = new int[rows * COLUMNS];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = new StageMap.Tile(i, "Road.png", (i % COLUMNS) * TILE, (i / COLUMNS % 4) * TILE, TILE, TILE);
+            map[i] = i;
+        }
+        StageMap stage = new StageMap(COLUMNS, TILE, tiles, map, null);
+        BufferedImage sheet;
+        try (InputStream in = StageStreamCheck.class.getResourceAsStream("/Road.png")) {
+            sheet = ImageIO.read(in);
+        }
+        int sheetW = sheet.getWidth();
+        int[] sheetPixels = sheet.getRGB(0, 0, sheetW, sheet.getHeight(), null, 0, sheetW);
+        long[] decodeNanos = new long[1];
+        StreamedBackground.TileDecoder<int[]> decoder = (s, t) -> {
+            long t0 = System.nanoTime();
+            int[] pixels = new int[t.w * t.h];
+            int tint = (t.id * 0x9E3779B1) & 0x3F3F3F; // Distinct content per tile id
+            for (int y = 0; y < t.h; y++) {
+                int src = (t.y + y) * sheetW + t.x;
+                for (int x = 0; x < t.w; x++) {
+                    pixels[y * t.w + x] = sheetPixels[src + x] ^ tint;
+                }
+            }
+            decodeNanos[0] += System.nanoTime() - t0; // Decoder thread only
+            return pixels;
+        };
+        TileCache<int[]> cache = new TileCache<>(cacheBytes, p -> (long) p.length * 4);
+        StreamedBackground<int[]> bg = new StreamedBackground<>(stage, cache, decoder,
+                ThunderFighter.WIDTH, ThunderFighter.HEIGHT, ThunderFighter.HEIGHT, true);
+
+        long[] drawn = new long[1];
+        StreamedBackground.TileDrawer<int[]> drawer = (tile, x, y, w, h) -> drawn[0]++;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        int frames = (int) Math.ceil(stageLength / SCROLL_SPEED);
+        long[] heap = new long[SAMPLES];
+        int stalls = 0;
+        long maxCacheBytes = 0;
+        long t0 = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            long missingBefore = bg.missingDraws();
+            bg.draw(drawer);
+            if (bg.missingDraws() != missingBefore) {
+                stalls++;
+                do {
+                    Thread.sleep(1); // Visible tiles still decoding: Wait, then draw the frame again
+                    missingBefore = bg.missingDraws();
+                    bg.draw(drawer);
+                } while (bg.missingDraws() != missingBefore);
+            }
+            bg.scroll(SCROLL_SPEED);
+            maxCacheBytes = Math.max(maxCacheBytes, cache.bytes());
+            int sample = (int) ((long) frame * SAMPLES / frames);
+            if ((long) (frame + 1) * SAMPLES / frames != sample) { // Last frame of each tenth of the stage
+                System.gc();
+                heap[sample] = memory.getHeapMemoryUsage().getUsed();
+            }
+        }
+        long elapsed = System.nanoTime() - t0;
+        bg.close();
+
+        long growth = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            growth = Math.max(growth, heap[i] - heap[0]);
+        }
+        System.out.printf("stage %.0f px, %d unique tiles (%.0f MB decoded in total), cache ceiling %d MB%n",
+                stage.length(), tiles.length, tiles.length * (double) TILE * TILE * 4 / (1 << 20), cacheBytes >> 20);
+        System.out.printf("%d frames in %.1f s, %d tiles drawn, %d frames waited for the decoder%n",
+                frames, elapsed / 1e9, drawn[0], stalls);
+        System.out.printf("decoded %d tiles (%.2f ms each), cache peak %.1f MB, %d evictions, %d hits / %d misses%n",
+                bg.decodedTiles(), decodeNanos[0] / 1e6 / Math.max(1, bg.decodedTiles()), maxCacheBytes / 1048576.0,
+                cache.evictions(), cache.hits(), cache.misses());
+        StringBuilder samples = new StringBuilder();
+        for (long h : heap) {
+            samples.append(String.format(" %.1f", h / 1048576.0));
+        }
+        System.out.printf("heap after GC (MB):%s -> growth %.1f MB%n", samples, growth / 1048576.0);
+
+        if (growth > MAX_HEAP_GROWTH) {
+            System.out.printf("FAIL: heap grew %.1f MB while scrolling (allowed %.1f MB)%n",
+                    growth / 1048576.0, MAX_HEAP_GROWTH / 1048576.0);
+            status = 1;
+        }
+        if (maxCacheBytes > cacheBytes) {
+            System.out.println("FAIL: tile cache exceeded its ceiling");
+            status = 1;
+        }
+        if (cache.evictions() == 0 || bg.decodedTiles() < tiles.length) {
+            System.out.println("FAIL: stage was not streamed (" + bg.decodedTiles() + " tiles decoded, "
+                    + cache.evictions() + " evictions)");
+            status = 1;
+        }
+        System.out.println(status == 0 ? "PASS: heap flat while streaming the stage" : "FAIL");
+        System.exit(status);
+    }
+}
@@ -0,0 +1,246 @@
+package NEW;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Scrolling tiled background streamed from a StageMap
+ * Every scroll step requests the tiles of the viewport plus a lookahead band above it (where the stage scrolls in
+ * from); a background thread decodes them into a TileCache, so tiles are usually ready before they become visible
+ * draw() only touches tiles that intersect the viewport; a tile that is not decoded yet is skipped for that frame
+ * Memory stays bounded by the cache ceiling no matter how long the stage is
+ * @param <T> Decoded tile type (JavaFX Image in the game, pixel arrays in tools)
+ */
+final class StreamedBackground<T> implements AutoCloseable {
+    /**
+     * Turns a tile of the stage into a drawable tile (runs on the decoder thread)
+     */
+    interface TileDecoder<T> {
+        T decode(StageMap stage, StageMap.Tile tile) throws IOException;
+    }
+
+    /**
+     * Draws one visible tile (runs on the render thread)
+     */
+    interface TileDrawer<T> {
+        void draw(T tile, double x, double y, double w, double h);
+    }
+
+    private final StageMap stage;
+    private final TileCache<T> cache;
+    private final TileDecoder<T> decoder;
+    private final double viewWidth, viewHeight; // Viewport size (pixels)
+    private final double lookahead;             // Band above the viewport decoded ahead of the scroll (pixels)
+    private double scroll = 0;                  // Distance scrolled, modulo the stage length (pixels)
+
+    private final BlockingQueue<Integer> requests; // Tile ids waiting for the decoder thread
+    private final boolean[] requested;             // Tile queued or being decoded (guarded by this)
+    private final boolean[] failed;                // Tile could not be decoded (never requested again; guarded by this)
+    private final Thread decoderThread;            // null = synchronous mode (tiles decoded on request)
+    private volatile boolean closed = false;
+    private long missingDraws = 0;                 // Visible tiles skipped because they were not decoded yet
+    private volatile long decodedTiles = 0;        // Tiles decoded so far (decoder thread writes)
+
+    /**
+     * Constructor for StreamedBackground
+     * @param stage Stage to show
+     * @param cache Cache for decoded tiles (its ceiling should hold the viewport plus the lookahead band)
+     * @param decoder Tile decoder
+     * @param viewWidth Viewport width (pixels; tiles are drawn viewWidth / columns wide)
+     * @param viewHeight Viewport height (pixels)
+     * @param lookahead Band above the viewport to decode ahead (pixels)
+     * @param background True to decode on a background thread, false to decode synchronously (offline renderers)
+     */
+    StreamedBackground(StageMap stage, TileCache<T> cache, TileDecoder<T> decoder,
+                       double viewWidth, double viewHeight, double lookahead, boolean background) {
+        this.stage = stage;
+        this.cache = cache;
+        this.decoder = decoder;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.lookahead = lookahead;
+        this.requested = new boolean[stage.tiles.length];
+        this.failed = new boolean[stage.tiles.length];
+        int band = (int) Math.ceil((viewHeight + lookahead) / stage.tileHeight) + 1;
+        this.requests = new ArrayBlockingQueue<>(Math.max(16, 2 * band * stage.columns));
+        if (background) {
+            decoderThread = new Thread(this::decodeLoop, "tile-decoder");
+            decoderThread.setDaemon(true);
+            decoderThread.setPriority(Thread.MIN_PRIORITY); // Rendering comes first
+            decoderThread.start();
+        } else {
+            decoderThread = null;
+        }
+        requestTiles();
+    }
+
+    /**
+     * Scroll the stage downward and request the tiles entering the viewport and the lookahead band
+     * @param dy Distance (pixels)
+     */
+    void scroll(double dy) {
+        scroll = (scroll + dy) % stage.length();
+        requestTiles();
+    }
+
+    double scrollY() {
+        return scroll;
+    }
+
+    /**
+     * Draw the tiles that intersect the viewport (bottom row first)
+     * @param drawer Receives every decoded visible tile with its screen rectangle
+     */
+    void draw(TileDrawer<T> drawer) {
+        double w = viewWidth / stage.columns;
+        double h = stage.tileHeight;
+        long first = (long) Math.floor(scroll / h);
+        long last = (long) Math.floor((scroll + viewHeight) / h);
+        for (long k = first; k <= last; k++) {
+            int row = (int) (k % stage.rows());
+            double screenY = viewHeight - ((k + 1) * h - scroll); // Row k spans stage y [k*h, (k+1)*h) above the bottom edge
+            for (int c = 0; c < stage.columns; c++) {
+                int id = stage.tileAt(row, c);
+                if (id < 0) {
+                    continue;
+                }
+                T tile = cache.get(id);
+                if (tile != null) {
+                    drawer.draw(tile, c * w, screenY, w, h);
+                } else {
+                    missingDraws++;
+                    request(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Request every tile of the viewport and the lookahead band that is not cached yet (nearest rows first)
+     */
+    private void requestTiles() {
+        double h = stage.tileHeight;
+        long first = (long) Math.floor(scroll / h);
+        long last = (long) Math.floor((scroll + viewHeight + lookahead) / h);
+        for (long k = first; k <= last; k++) {
+            int row = (int) (k % stage.rows());
+            for (int c = 0; c < stage.columns; c++) {
+                int id = stage.tileAt(row, c);
+                if (id >= 0 && !cache.contains(id)) {
+                    request(id);
+                }
+            }
+        }
+    }
+
+    private void request(int id) {
+        synchronized (this) {
+            if (requested[id] || failed[id] || closed) {
+                return;
+            }
+            requested[id] = true;
+        }
+        if (decoderThread == null) {
+            decode(id);
+        } else if (!requests.offer(id)) {
+            synchronized (this) {
+                requested[id] = false; // Queue full: Asked again on the next scroll step
+            }
+        }
+    }
+
+    private void decodeLoop() {
+        try {
+            while (!closed) {
+                decode(requests.take());
+            }
+        } catch (InterruptedException e) {
+            // close() stops the decoder
+        }
+    }
+
+    private void decode(int id) {
+        boolean ok = false;
+        try {
+            T tile = decoder.decode(stage, stage.tiles[id]);
+            if (tile != null) {
+                cache.put(id, tile);
+                decodedTiles++;
+                ok = true;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Background tile " + id + " (" + stage.tiles[id].path + ") failed: " + e.getMessage());
+        }
+        synchronized (this) {
+            requested[id] = false;
+            failed[id] = !ok;
+        }
+    }
+
+    /**
+     * @return Visible tiles skipped so far because they were not decoded in time
+     */
+    long missingDraws() {
+        return missingDraws;
+    }
+
+    long decodedTiles() {
+        return decodedTiles;
+    }
+
+    TileCache<T> cache() {
+        return cache;
+    }
+
+    /**
+     * Stop the decoder thread (cached tiles stay usable)
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (decoderThread != null) {
+            decoderThread.interrupt();
+            try {
+                decoderThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Read a tile's pixels (only its source region is decoded into memory)
+     * @param stage Stage the tile belongs to
+     * @param tile Tile to read
+     * @return Decoded image
+     * @throws IOException If the image cannot be read
+     */
+    static BufferedImage readTile(StageMap stage, StageMap.Tile tile) throws IOException {
+        try (InputStream in = stage.open(tile); ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                throw new IOException("No image reader for " + tile.path);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (tile.isRegion()) {
+                    param.setSourceRegion(new Rectangle(tile.x, tile.y, tile.w, tile.h));
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
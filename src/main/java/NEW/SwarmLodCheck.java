@@ -0,0 +1,119 @@
+package NEW;
+
+/**
+ * Equivalence and cost check for the swarm level of detail
+ * Runs the same seeded headless game twice (one row per bullet vs one swarm row per straight volley) with the
+ * autopilot, compares a digest of every player bullet (swarm rows expanded to their members), the score and all
+ * enemy/BOSS/gate/chest state after every frame, and reports the simulation time of both runs and the average
+ * number of bullet rows (clusters) per frame
+ *
+ * A fire count above 1 starts both games as if that many chests had been opened (dense volleys from the first shot)
+ *
+ * Usage: java NEW.SwarmLodCheck [minutes=10] [seed=7] [fireCount=1]
+ * Exit code 0 = both runs identical, 1 = the runs diverged
+ */
+public final class SwarmLodCheck {
+
+    private SwarmLodCheck() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Digest of the world state that LOD must not change (bullets in spawn order, enemies, BOSS, gates, chests, score)
+     * @param game Game to digest
+     * @return Order-sensitive hash
+     */
+    private static long digest(ThunderFighter game) {
+        long h = 17;
+        Archetype bullets = game.playerBullets();
+        for (int i = 0; i < bullets.count; i++) {
+            for (long live = bullets.members[i]; live != 0; live &= live - 1) {
+                double x = bullets.memberX(i, Long.numberOfTrailingZeros(live));
+                h = mix(h, x, bullets.y[i], bullets.vx[i], bullets.vy[i], bullets.unitDamage(i) + bullets.w[i]);
+            }
+        }
+        Archetype enemies = game.enemies();
+        for (int e = 0; e < enemies.count; e++) {
+            h = mix(h, enemies.x[e], enemies.y[e], enemies.hp[e], 0, 0);
+        }
+        Archetype boss = game.boss();
+        for (int b = 0; b < boss.count; b++) {
+            h = mix(h, boss.x[b], boss.y[b], boss.hp[b], 0, 0);
+        }
+        Archetype gates = game.gates();
+        for (int g = 0; g < gates.count; g++) {
+            h = mix(h, gates.y[g], gates.charge[g], 0, 0, 0);
+        }
+        Archetype chests = game.chests();
+        for (int c = 0; c < chests.count; c++) {
+            h = mix(h, chests.y[c], chests.hp[c], 0, 0, 0);
+        }
+        return mix(h, game.score(), game.playerHP(), 0, 0, 0);
+    }
+
+    /**
+     * Fold five values into the hash
+     */
+    private static long mix(long h, double a, double b, double c, double d, double e) {
+        h = h * 31 + Double.doubleToLongBits(a);
+        h = h * 31 + Double.doubleToLongBits(b);
+        h = h * 31 + Double.doubleToLongBits(c);
+        h = h * 31 + Double.doubleToLongBits(d);
+        return h * 31 + Double.doubleToLongBits(e);
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional simulated minutes, seed and fire count
+     */
+    public static void main(String[] args) {
+        double minutes = args.length > 0 ? Double.parseDouble(args[0]) : 10;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+        int fireCount = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        long frames = (long) (minutes * 60 * 60);
+
+        ThunderFighter perUnit = new ThunderFighter(seed);
+        ThunderFighter swarm = new ThunderFighter(seed);
+        ThunderFighter[] games = {perUnit, swarm};
+        for (ThunderFighter game : games) {
+            game.setHeadless(true);
+            game.setEndlessMode(true);
+            game.setGodMode(true);
+            if (fireCount > 1) {
+                game.setFireCount(fireCount);
+            }
+        }
+        perUnit.setSwarmLod(false);
+        swarm.setSwarmLod(true);
+
+        long perUnitNanos = 0, swarmNanos = 0;
+        long unitRows = 0, swarmRows = 0, bullets = 0;
+        for (long frame = 1; frame <= frames; frame++) {
+            long now = frame * ThunderFighter.FRAME_NANOS;
+            long t0 = System.nanoTime();
+            perUnit.setCannonX(perUnit.autopilotX());
+            perUnit.runFrame(now);
+            long t1 = System.nanoTime();
+            swarm.setCannonX(swarm.autopilotX());
+            swarm.runFrame(now);
+            long t2 = System.nanoTime();
+            perUnitNanos += t1 - t0;
+            swarmNanos += t2 - t1;
+
+            unitRows += perUnit.playerBullets().count;
+            swarmRows += swarm.playerBullets().count;
+            bullets += swarm.playerUnitCount();
+            if (digest(perUnit) != digest(swarm)) {
+                System.out.printf("FAIL: runs diverged at frame %d (score %d vs %d, forces %d vs %d)%n", frame,
+                        perUnit.score(), swarm.score(), perUnit.playerUnitCount(), swarm.playerUnitCount());
+                System.exit(1);
+            }
+        }
+
+        System.out.printf("%d frames identical; final score %d, cycle %d%n", frames, swarm.score(), swarm.bossCycle() + 1);
+        System.out.printf("avg forces %.1f: per-unit %.1f rows/frame, swarm LOD %.1f rows/frame%n",
+                (double) bullets / frames, (double) unitRows / frames, (double) swarmRows / frames);
+        System.out.printf("simulation: per-unit %.1f us/frame, swarm LOD %.1f us/frame%n",
+                perUnitNanos / 1e3 / frames, swarmNanos / 1e3 / frames);
+    }
+}
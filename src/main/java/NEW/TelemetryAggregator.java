@@ -0,0 +1,275 @@
+package NEW;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Offline analytics over many telemetry files written by GameTelemetry
+ * Streams every file chunk by chunk (memory use does not grow with the number or length of runs) and builds:
+ * an enemy kill heatmap, gate side choices per gate type, Buff durations and BOSS fight durations
+ *
+ * Usage: java NEW.TelemetryAggregator [--pgm heatmap.pgm] file-or-directory...
+ * Directories are searched for *.tftl files
+ */
+public final class TelemetryAggregator {
+    private static final int CELL = 20;                                  // Heatmap cell size (pixels)
+    private static final int COLS = ThunderFighter.WIDTH / CELL;
+    private static final int ROWS = ThunderFighter.HEIGHT / CELL;
+    private static final String SHADES = " .:-=+*#%@";                    // ASCII heatmap, low to high
+    private static final String[] GATE_NAMES = {"ATK", "BURST", "GIANT"};
+    private static final String[] BUFF_NAMES = {"Scatter", "Damage", "Giant"};
+
+    private final long[] kills = new long[COLS * ROWS];
+    private final long[][] gateSides = new long[GATE_NAMES.length][2];   // [gate kind][0 = left, 1 = right]
+    private final long[] buffCount = new long[BUFF_NAMES.length];
+    private final long[] buffTicks = new long[BUFF_NAMES.length];
+    private final long[] buffMax = new long[BUFF_NAMES.length];
+    private long runs, records, chunks, enemyKills, bossKills, chests, hits, roars;
+    private long bossFights, bossTicks, bossMin = Long.MAX_VALUE, bossMax, scoreSum;
+
+    // Reusable decode buffers (grow to the largest chunk seen)
+    private byte[] packed = new byte[0];
+    private byte[] raw = new byte[0];
+    private final Inflater inflater = new Inflater();
+
+    private TelemetryAggregator() {
+        // Instances only through main
+    }
+
+    /**
+     * Stream one telemetry file into the aggregates
+     * @param file Telemetry file
+     * @throws IOException If the file cannot be read or is not a telemetry file
+     */
+    private void add(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(GameTelemetry.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (!readFully(channel, header) || header.getInt(0) != GameTelemetry.MAGIC
+                    || header.getInt(4) != GameTelemetry.VERSION) {
+                throw new IOException("Not a telemetry file (version " + GameTelemetry.VERSION + "): " + file);
+            }
+            runs++;
+            ByteBuffer chunkHeader = ByteBuffer.allocate(GameTelemetry.CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (readFully(channel, chunkHeader.clear())) {
+                int count = chunkHeader.getInt(0);
+                int rawLength = chunkHeader.getInt(4);
+                int packedLength = chunkHeader.getInt(8);
+                if (packed.length < packedLength) {
+                    packed = new byte[packedLength];
+                }
+                if (raw.length < rawLength) {
+                    raw = new byte[rawLength];
+                }
+                if (!readFully(channel, ByteBuffer.wrap(packed, 0, packedLength))) {
+                    System.out.println(file + ": Truncated last chunk skipped (run still being written or crashed)");
+                    break;
+                }
+                inflater.reset();
+                inflater.setInput(packed, 0, packedLength);
+                try {
+                    if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+                        throw new IOException("Corrupt chunk in " + file);
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupt chunk in " + file, e);
+                }
+                decode(ByteBuffer.wrap(raw, 0, rawLength).order(ByteOrder.LITTLE_ENDIAN), count);
+                chunks++;
+            }
+        }
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decode one columnar chunk (layout: see GameTelemetry) and fold its records into the aggregates
+     */
+    private void decode(ByteBuffer in, int count) {
+        in.position(0);
+        for (int i = 0; i < count; i++) {
+            readVarInt(in); // Tick deltas: Not needed by these aggregates (durations are recorded as values)
+        }
+        int types = in.position();
+        int kinds = types + count;
+        int xs = kinds + count;
+        int ys = xs + 2 * count;
+        int values = ys + 2 * count;
+        for (int i = 0; i < count; i++) {
+            int type = in.get(types + i);
+            int kind = in.get(kinds + i);
+            double x = in.getShort(xs + 2 * i) / GameTelemetry.XY_SCALE;
+            double y = in.getShort(ys + 2 * i) / GameTelemetry.XY_SCALE;
+            double value = in.getFloat(values + 4 * i);
+            accept(type, kind, x, y, value);
+        }
+        records += count;
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return v;
+            }
+        }
+    }
+
+    private void accept(int type, int kind, double x, double y, double value) {
+        switch (type) {
+            case GameEvent.ENEMY_KILLED:
+                if (kind == GameEvent.KIND_BOSS) {
+                    bossKills++;
+                } else {
+                    enemyKills++;
+                    int col = (int) Math.max(0, Math.min(COLS - 1, x / CELL));
+                    int row = (int) Math.max(0, Math.min(ROWS - 1, y / CELL));
+                    kills[row * COLS + col]++;
+                }
+                break;
+            case GameEvent.GATE_TRIGGERED:
+                if (kind >= 0 && kind < GATE_NAMES.length) {
+                    gateSides[kind][x < ThunderFighter.WIDTH / 2.0 ? 0 : 1]++;
+                }
+                break;
+            case GameEvent.CHEST_BROKEN:
+                chests++;
+                break;
+            case GameEvent.PLAYER_HIT:
+                hits++;
+                break;
+            case GameEvent.BOSS_ROAR:
+                roars++;
+                break;
+            case GameTelemetry.BUFF_ENDED:
+                if (kind >= 0 && kind < BUFF_NAMES.length) {
+                    buffCount[kind]++;
+                    buffTicks[kind] += (long) value;
+                    buffMax[kind] = Math.max(buffMax[kind], (long) value);
+                }
+                break;
+            case GameTelemetry.BOSS_FIGHT_ENDED:
+                bossFights++;
+                bossTicks += (long) value;
+                bossMin = Math.min(bossMin, (long) value);
+                bossMax = Math.max(bossMax, (long) value);
+                break;
+            case GameTelemetry.RUN_ENDED:
+                scoreSum += (long) value;
+                break;
+            default:
+                break; // BOSS_SPAWNED and unknown types (newer writers)
+        }
+    }
+
+    /**
+     * Print the aggregates and the ASCII kill heatmap
+     */
+    private void report() {
+        System.out.printf("%d runs, %d chunks, %d records; mean final score %.0f%n",
+                runs, chunks, records, runs > 0 ? (double) scoreSum / runs : 0);
+        System.out.printf("Kills: %d enemies, %d BOSSes; %d chests, %d player hits, %d BOSS roars%n",
+                enemyKills, bossKills, chests, hits, roars);
+        for (int k = 0; k < GATE_NAMES.length; k++) {
+            long total = gateSides[k][0] + gateSides[k][1];
+            System.out.printf("Gate %-5s: %d taken, left %.0f%% / right %.0f%%%n", GATE_NAMES[k], total,
+                    total > 0 ? 100.0 * gateSides[k][0] / total : 0, total > 0 ? 100.0 * gateSides[k][1] / total : 0);
+        }
+        for (int b = 0; b < BUFF_NAMES.length; b++) {
+            System.out.printf("Buff %-7s: %d times, mean %.0f ticks, max %d ticks%n", BUFF_NAMES[b], buffCount[b],
+                    buffCount[b] > 0 ? (double) buffTicks[b] / buffCount[b] : 0, buffMax[b]);
+        }
+        if (bossFights > 0) {
+            System.out.printf("BOSS fights: %d, mean %.1f s, fastest %.1f s, longest %.1f s%n", bossFights,
+                    bossTicks / 60.0 / bossFights, bossMin / 60.0, bossMax / 60.0);
+        }
+
+        long peak = 1;
+        for (long k : kills) {
+            peak = Math.max(peak, k);
+        }
+        System.out.println("Enemy kill heatmap (" + CELL + " px cells, peak " + peak + "):");
+        StringBuilder line = new StringBuilder();
+        for (int row = 0; row < ROWS; row++) {
+            line.setLength(0);
+            line.append('|');
+            for (int col = 0; col < COLS; col++) {
+                long k = kills[row * COLS + col];
+                line.append(k == 0 ? ' ' : SHADES.charAt((int) Math.min(SHADES.length() - 1, 1 + k * (SHADES.length() - 1) / peak)));
+            }
+            System.out.println(line.append('|'));
+        }
+    }
+
+    /**
+     * Write the kill heatmap as an 8-bit greyscale PGM image (one pixel per cell)
+     * @param file Output image
+     */
+    private void writePgm(Path file) throws IOException {
+        long peak = 1;
+        for (long k : kills) {
+            peak = Math.max(peak, k);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(("P5\n" + COLS + " " + ROWS + "\n255\n").getBytes(java.nio.charset.StandardCharsets.US_ASCII));
+            for (long k : kills) {
+                out.write((int) (255 * k / peak));
+            }
+        }
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional --pgm output, then telemetry files or directories
+     */
+    public static void main(String[] args) throws IOException {
+        Path pgm = null;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--pgm") && i + 1 < args.length) {
+                pgm = Paths.get(args[++i]);
+            } else if (Files.isDirectory(Paths.get(args[i]))) {
+                try (Stream<Path> found = Files.walk(Paths.get(args[i]))) {
+                    files.addAll(found.filter(p -> p.toString().endsWith(".tftl")).sorted().collect(Collectors.toList()));
+                }
+            } else {
+                files.add(Paths.get(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.out.println("Usage: java NEW.TelemetryAggregator [--pgm heatmap.pgm] file-or-directory...");
+            return;
+        }
+        TelemetryAggregator aggregator = new TelemetryAggregator();
+        for (Path file : files) {
+            aggregator.add(file);
+        }
+        aggregator.inflater.end();
+        aggregator.report();
+        if (pgm != null) {
+            aggregator.writePgm(pgm);
+            System.out.println("Heatmap image: " + pgm);
+        }
+    }
+}
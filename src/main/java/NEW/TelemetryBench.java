@@ -0,0 +1,103 @@
+package NEW;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Benchmark: Game-thread cost of GameTelemetry, plus sample telemetry files for TelemetryAggregator
+ * Plays the same fixed-seed headless endless runs with and without telemetry (alternating, best of the repeats)
+ * and reports the mean frame time difference as a share of a 60 FPS frame; the recording must stay below 1%
+ * Also times record() in isolation (the per-record cost the collision loops pay through the event subscriber)
+ *
+ * Usage: java NEW.TelemetryBench [runs=3] [minutes=10] [output directory=temp directory]
+ */
+public final class TelemetryBench {
+    private static final double FRAME_BUDGET_NANOS = 1e9 / 60; // One 60 FPS frame
+    private static final double LIMIT_PERCENT = 1.0;           // Allowed game-thread overhead
+    private static final int REPEATS = 3;
+
+    private TelemetryBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Play one run (endless, god mode, autopilot)
+     * @param seed Run seed
+     * @param ticks Frames to play
+     * @param telemetryFile Telemetry output (null = no telemetry)
+     * @return Total frame nanoseconds
+     */
+    private static long play(long seed, int ticks, Path telemetryFile) throws Exception {
+        ThunderFighter game = new ThunderFighter(seed);
+        game.setHeadless(true);
+        game.setEndlessMode(true);
+        game.setGodMode(true);
+        GameTelemetry telemetry = telemetryFile != null ? new GameTelemetry(telemetryFile, seed) : null;
+        game.setTelemetry(telemetry);
+        long nanos = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            game.setCannonX(game.autopilotX());
+            long t0 = System.nanoTime();
+            game.runFrame((tick + 1) * ThunderFighter.FRAME_NANOS);
+            nanos += System.nanoTime() - t0;
+        }
+        if (telemetry != null && telemetry.dropped() > 0) {
+            System.out.println("  " + telemetry.dropped() + " records dropped (writer behind)");
+        }
+        game.setTelemetry(null); // Writes the rest and closes the file
+        return nanos;
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional run count, minutes per run and output directory
+     */
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int ticks = (int) (60 * 60 * (args.length > 1 ? Double.parseDouble(args[1]) : 10));
+        Path dir = args.length > 2 ? Files.createDirectories(Path.of(args[2])) : Files.createTempDirectory("thunder-telemetry");
+
+        // Warm-up (JIT) on a short run of each variant
+        play(99, 3600, null);
+        play(99, 3600, dir.resolve("warmup.tmp"));
+        Files.deleteIfExists(dir.resolve("warmup.tmp"));
+
+        long framesOff = Long.MAX_VALUE, framesOn = Long.MAX_VALUE;
+        for (int repeat = 0; repeat < REPEATS; repeat++) {
+            long off = 0, on = 0;
+            for (int run = 0; run < runs; run++) {
+                off += play(run + 1, ticks, null);
+                on += play(run + 1, ticks, dir.resolve("run" + (run + 1) + ".tftl"));
+            }
+            framesOff = Math.min(framesOff, off);
+            framesOn = Math.min(framesOn, on);
+        }
+        double totalFrames = (double) runs * ticks;
+        double overhead = (framesOn - framesOff) / totalFrames;
+
+        // Isolated record() cost (bursts of 64 records, about one busy frame's worth)
+        Path micro = dir.resolve("micro.tmp");
+        GameTelemetry probe = new GameTelemetry(micro, 0);
+        int bursts = 20_000;
+        long t0 = System.nanoTime();
+        for (int b = 0; b < bursts; b++) {
+            for (int i = 0; i < 64; i++) {
+                probe.record(GameEvent.ENEMY_KILLED, GameEvent.KIND_ENEMY, i * 7, b % 800, 20);
+            }
+        }
+        double recordNanos = (System.nanoTime() - t0) / (bursts * 64.0);
+        probe.close();
+        Files.deleteIfExists(micro);
+
+        long bytes = 0;
+        for (int run = 0; run < runs; run++) {
+            bytes += Files.size(dir.resolve("run" + (run + 1) + ".tftl"));
+        }
+        System.out.printf("%d runs x %d ticks: frame %.1f us without, %.1f us with telemetry (%+.2f us, %.3f%% of a 60 FPS frame, limit %.0f%%)%n",
+                runs, ticks, framesOff / totalFrames / 1e3, framesOn / totalFrames / 1e3, overhead / 1e3,
+                100 * overhead / FRAME_BUDGET_NANOS, LIMIT_PERCENT);
+        System.out.printf("record(): %.1f ns per record; files: %d bytes total in %s%n", recordNanos, bytes, dir);
+        System.out.println("Aggregate with: java NEW.TelemetryAggregator " + dir);
+        System.exit(100 * overhead / FRAME_BUDGET_NANOS < LIMIT_PERCENT ? 0 : 1);
+    }
+}
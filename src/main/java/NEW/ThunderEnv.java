@@ -0,0 +1,156 @@
+package NEW;
+
+import java.util.Arrays;
+
+/**
+ * Gym-style training environment on top of the ThunderFighter game rules (headless, deterministic per seed)
+ * reset(seed) starts a new run, step(action) advances it and returns the reward
+ * Observation: A GRID_W x GRID_H grid with CHANNELS layers, written straight into a caller-owned float[] slice
+ * Reward: Score gained minus HP_PENALTY per lost HP (minus TERMINAL_PENALTY on game over)
+ */
+final class ThunderEnv {
+    // Actions (discrete): Steer left, hold position, steer right
+    static final int ACTION_LEFT = 0;
+    static final int ACTION_STAY = 1;
+    static final int ACTION_RIGHT = 2;
+    static final int NUM_ACTIONS = 3;
+    private static final double MOVE_SPEED = 9.0;     // Plane movement per frame when steering (pixels)
+
+    // Observation grid (20x20 pixel cells over the 480x800 playfield)
+    static final int CELL = 20;
+    static final int GRID_W = ThunderFighter.WIDTH / CELL;   // 24 columns
+    static final int GRID_H = ThunderFighter.HEIGHT / CELL;  // 40 rows
+    static final int CHANNELS = 5;  // 0 = player bullets, 1 = enemies (HP ratio), 2 = BOSS bullets, 3 = gates/chests, 4 = plane
+    static final int OBS_SIZE = GRID_W * GRID_H * CHANNELS;  // Floats per observation (channel-major layout)
+
+    // Reward shaping
+    private static final float HP_PENALTY = 200f;       // Reward lost per player HP lost
+    private static final float TERMINAL_PENALTY = 1000f; // Extra reward lost on game over
+    static final int MAX_EPISODE_FRAMES = 60 * 60 * 10;  // Episodes are truncated after 10 simulated minutes
+
+    private final int frameSkip;       // Game frames simulated per step (action is repeated)
+    private ThunderFighter game;       // Current run
+    private long frame;                // Frames simulated in the current run
+    private int lastScore;             // Score at the previous step (reward = delta)
+    private int lastHP;                // Player HP at the previous step
+    private boolean done;              // True once the current episode has ended
+
+    /**
+     * Constructor for ThunderEnv
+     * @param frameSkip Game frames simulated per step (1 = every frame)
+     */
+    ThunderEnv(int frameSkip) {
+        this.frameSkip = Math.max(1, frameSkip);
+    }
+
+    /**
+     * Start a new run
+     * @param seed Seed for the run (same seed + same actions = same episode)
+     * @param obs Observation buffer (written at offset, OBS_SIZE floats)
+     * @param offset Start of this environment's slice in obs
+     */
+    void reset(long seed, float[] obs, int offset) {
+        game = new ThunderFighter(seed);
+        game.setHeadless(true);
+        frame = 0;
+        lastScore = 0;
+        lastHP = game.playerHP();
+        done = false;
+        observe(obs, offset);
+    }
+
+    /**
+     * Advance the run by one step (frameSkip game frames with the same action)
+     * @param action ACTION_LEFT, ACTION_STAY or ACTION_RIGHT
+     * @param obs Observation buffer (written at offset, OBS_SIZE floats)
+     * @param offset Start of this environment's slice in obs
+     * @return Reward for this step
+     */
+    float step(int action, float[] obs, int offset) {
+        double move = (action == ACTION_LEFT) ? -MOVE_SPEED : (action == ACTION_RIGHT) ? MOVE_SPEED : 0;
+        for (int i = 0; i < frameSkip && !game.isFinished(); i++) {
+            game.setCannonX(Math.max(0, Math.min(ThunderFighter.WIDTH, game.cannonX() + move)));
+            frame++;
+            game.runFrame(frame * ThunderFighter.FRAME_NANOS);
+        }
+
+        int score = game.score();
+        int hp = game.playerHP();
+        float reward = (score - lastScore) - HP_PENALTY * Math.max(0, lastHP - hp);
+        lastScore = score;
+        lastHP = hp;
+        if (game.isFinished()) {
+            done = true;
+            if (!game.isVictory()) {
+                reward -= TERMINAL_PENALTY;
+            }
+        } else if (frame >= MAX_EPISODE_FRAMES) {
+            done = true; // Truncated (time limit), no terminal penalty
+        }
+        observe(obs, offset);
+        return reward;
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Write the observation grid into obs[offset .. offset + OBS_SIZE)
+     * @param obs Observation buffer
+     * @param offset Start of this environment's slice
+     */
+    private void observe(float[] obs, int offset) {
+        Arrays.fill(obs, offset, offset + OBS_SIZE, 0f);
+        Archetype bullets = game.playerBullets();
+        for (int i = 0; i < bullets.count; i++) {
+            for (long live = bullets.members[i]; live != 0; live &= live - 1) {
+                mark(obs, offset, 0, bullets.memberX(i, Long.numberOfTrailingZeros(live)), bullets.y[i], 1, 1, 1f);
+            }
+        }
+        markEnemies(obs, offset, game.enemies());
+        markEnemies(obs, offset, game.boss());
+        BossBulletField shots = game.bossShots();
+        for (int i = 0; i < shots.count; i++) {
+            mark(obs, offset, 2, shots.x[i], shots.y[i], BossBulletField.SIZE, BossBulletField.SIZE, 1f);
+        }
+        Archetype gates = game.gates();
+        for (int g = 0; g < gates.count; g++) {
+            mark(obs, offset, 3, gates.x[g], gates.y[g], gates.w[g], gates.h[g],
+                    gates.kind[g] != GameEvent.GATE_ATK ? 1f : 0.5f);
+        }
+        Archetype chests = game.chests();
+        for (int c = 0; c < chests.count; c++) {
+            mark(obs, offset, 3, chests.x[c], chests.y[c], chests.w[c], chests.h[c], 0.25f);
+        }
+        mark(obs, offset, 4, game.cannonX() - 50, ThunderFighter.HEIGHT - 120, 100, 100, 1f);
+    }
+
+    /**
+     * Mark enemies or the BOSS on channel 1 (value = HP ratio)
+     */
+    private static void markEnemies(float[] obs, int offset, Archetype a) {
+        for (int e = 0; e < a.count; e++) {
+            mark(obs, offset, 1, a.x[e], a.y[e], a.w[e], a.h[e], (float) Math.max(0, a.hp[e] / a.maxHp[e]));
+        }
+    }
+
+    /**
+     * Mark every grid cell covered by a box (clipped to the playfield); keeps the maximum value per cell
+     */
+    private static void mark(float[] obs, int offset, int channel, double x, double y, double w, double h, float value) {
+        int c0 = Math.max(0, (int) (x / CELL));
+        int c1 = Math.min(GRID_W - 1, (int) ((x + w) / CELL));
+        int r0 = Math.max(0, (int) (y / CELL));
+        int r1 = Math.min(GRID_H - 1, (int) ((y + h) / CELL));
+        int base = offset + channel * GRID_W * GRID_H;
+        for (int r = r0; r <= r1; r++) {
+            int row = base + r * GRID_W;
+            for (int c = c0; c <= c1; c++) {
+                if (obs[row + c] < value) {
+                    obs[row + c] = value;
+                }
+            }
+        }
+    }
+}
@@ -11,12 +11,18 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.scene.image.Image;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.KeyCode;
+import javafx.scene.transform.Scale;
 import java.util.Random;
 import javafx.scene.media.AudioClip;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 
@@ -26,47 +32,120 @@ import javafx.scene.media.MediaPlayer;
  * Core features: Player control, enemy/BOSS spawning, bullet system, buff mechanics, collision detection, sound effects, and visual effects
  */
 public class ThunderFighter extends Application {
-    // Game window constants - fixed resolution for consistent display
-    private static final int WIDTH = 480;       // Game window width (pixels)
-    private static final int HEIGHT = 800;      // Game window height (pixels)
+    // World size - all game coordinates use this space; the pixel resolution is set by the render/window scales
+    static final int WIDTH = 480;               // World width (pixels at render scale 1.0)
+    static final int HEIGHT = 800;              // World height (pixels at render scale 1.0)
+    static final double MIN_SCALE = 0.25;       // Smallest render/window scale accepted
+    static final double MAX_SCALE = 4.0;        // Largest render/window scale accepted
     private static final int DEAD_LINE = HEIGHT - 120; // Deadline line: Enemies crossing this trigger game over
     private static final int TOP_CLEANUP_LINE = 50;   // Top cleanup line: Bullets above this are removed to save memory
-    private static final int BOSS_TRIGGER_SCORE = 3000; // Score required to spawn the final BOSS
+    static final long FRAME_NANOS = 1_000_000_000L / 60; // Frame step for headless runs (60 FPS simulation clock)
+
+    // Hard entity ceilings: Memory stays bounded even in hours-long endless runs
+    private static final int MAX_PLAYER_UNITS = 600;     // Player bullet ceiling (no new bullets beyond this)
+    private static final int MAX_ENEMIES = 120;          // Enemy ceiling (horde spawns pause at this size)
+    private static final int MAX_FLOCK_ENEMIES = 400;    // Enemy ceiling with flocking formations
+    private static final int MAX_BOSS_PROJECTILES = 6000; // bossBullets capacity (BOSS patterns hold fire beyond this)
+    private static final int MAX_GATES = 8;              // gates ceiling (4 gate pairs on screen at most)
+    private static final int MAX_CHESTS = 6;             // chests ceiling
+    private static final int MAX_FIRE_COUNT = 12;        // baseFireCount ceiling (chests stop adding bullets)
+    private static final double ENDLESS_CYCLE_DIFFICULTY = 0.5; // Extra difficulty multiplier per endless cycle
 
     // Player-related variables
     private double cannonX = WIDTH / 2.0; // X-coordinate of the player's plane (follows mouse movement)
-    private List<MobUnit> playerMob = new ArrayList<>(); // List to store player's bullets (encapsulation of bullet objects)
-    private List<EnemyUnit> enemyMob = new ArrayList<>(); // List to store enemy units (encapsulation of enemy objects)
-    private List<BossProjectile> bossProjectiles = new ArrayList<>(); // List to store BOSS's bullets (separate from normal bullets for modular management)
-    private List<Gate> gates = new ArrayList<>(); // List to store evolution gates (modular design for buff system)
-    private List<Chest> chests = new ArrayList<>(); // List to store treasure chests (modular design for power-up system)
+    private PlayerInput input = null;     // Live input (mouse/keyboard + latency probe); null in replays and tools
+    private boolean isFiring = false;     // Flag: True if the player fired this frame (muzzle flash)
+    private final BossBulletField bossBullets = new BossBulletField(MAX_BOSS_PROJECTILES); // BOSS's bullets (primitive arrays + hit grid, separate from normal bullets)
+    private final BossPatternEngine bossPatterns = new BossPatternEngine(); // BOSS bullet-hell phases (compiled pattern tables)
+    private final int[] bossHitCandidates = new int[MAX_BOSS_PROJECTILES]; // Scratch buffer for grid queries (no per-frame allocation)
+    private final EnemyFlock flock = new EnemyFlock(MAX_FLOCK_ENEMIES); // Steering of flocking formations (enemy centers + grid)
+    private static final int FLOCK_HORDE_SIZE = 24;      // Enemies per flocking formation (4 rows of 6)
+
+    // Entity-component world: Every entity type is an archetype of dense component columns (BOSS bullets: BossBulletField)
+    private static final double GATE_SPEED = 2.2;  // Gates fall faster than enemies/chests (encourages quick decisions)
+    private static final double GATE_HEIGHT = 60;  // Fixed height for gates (consistent visual size)
+    private static final double CHEST_SPEED = 1.5; // Chests fall faster than normal enemies (encourages prioritizing)
+    private static final double CHEST_SIZE = 80;   // Size of the chest (adjusted for visibility)
+    private static final double CHEST_HP = 5;      // Health: Requires 5 bullet hits to open (balanced challenge)
+    private final EntityWorld world = new EntityWorld();
+    // Evolution gates: kind = GameEvent.GATE_* (blue ATK gates apply instantly, purple BURST/GIANT gates charge up)
+    private final Archetype gates = world.createArchetype("gate",
+            Archetype.POSITION | Archetype.SIZE | Archetype.VELOCITY | Archetype.CHARGE | Archetype.SPRITE, MAX_GATES);
+    // Treasure chests: Opening one permanently increases the base fire count
+    private final Archetype chests = world.createArchetype("chest",
+            Archetype.POSITION | Archetype.SIZE | Archetype.VELOCITY | Archetype.HEALTH, MAX_CHESTS);
+    // Player bullets: Center position; swarm LOD flies each straight volley as one SWARM row (count + combined damage)
+    private static final int PLAYER_BULLET_CAPACITY = MAX_PLAYER_UNITS + 2; // The last scatter volley may overshoot by 2
+    private static final int PASSED_GATE = 1;      // Bullet flag: Already buffed by an ATK gate (prevents repeated buffing)
+    private static final double VOLLEY_SPACING = 12; // X distance between the bullets of one volley
+    private final Archetype playerBullets = world.createArchetype("bullet", Archetype.POSITION | Archetype.SIZE
+            | Archetype.VELOCITY | Archetype.DAMAGE | Archetype.FLAGS | Archetype.FORMATION | Archetype.SWARM,
+            PLAYER_BULLET_CAPACITY);
+    private final int[] runStart = new int[PLAYER_BULLET_CAPACITY + 1];  // Formation runs of this frame (broad phase)
+    private final double[] runBox = new double[4 * PLAYER_BULLET_CAPACITY];
+    private final int[] boxRows = new int[PLAYER_BULLET_CAPACITY];       // Bullets inside one enemy's box (shootAt)
+    private int lastGroup = 0;                     // Formation group of the newest bullets
+    private static final int BURST_SHOTS = 35;     // Bullets per BURST Buff
+    private final double[] burstShots = new double[4 * BURST_SHOTS * MAX_GATES]; // BURST bullets of this frame (x, y, vx, vy)
+    private int burstCount = 0;
+    // Normal enemies: kind = sprite (0 or 1); velocity = lane speed, or the flocking steering
+    private final Archetype enemies = world.createArchetype("enemy", Archetype.POSITION | Archetype.SIZE
+            | Archetype.VELOCITY | Archetype.HEALTH | Archetype.SPRITE, MAX_FLOCK_ENEMIES);
+    // The final BOSS: Own archetype whose BossAI component drives its abilities (one row during the fight)
+    private static final int AI_ROAR = 1, AI_ATTACK = 2; // BossAI due bits
+    private final Archetype boss = world.createArchetype("boss",
+            Archetype.POSITION | Archetype.SIZE | Archetype.HEALTH | Archetype.BOSS_AI, 1);
+    private final Archetype[] targets = {enemies, boss}; // Archetypes hit by player bullets (in this order)
 
     // Game state flags (encapsulation of game status)
     private boolean isGameOver = false;   // Flag: True when game over (player loses)
     private boolean isVictory = false;    // Flag: True when player defeats BOSS (win)
     private boolean bossSpawned = false;  // Flag: True when BOSS is spawned
-    private EnemyUnit finalBoss = null;   // Reference to the final BOSS object (polymorphism: same EnemyUnit class, different behavior)
 
     // Game progress variables
     private int score = 0;                // Player's score (increments by defeating enemies)
     private int playerHP = 2;             // Player's health points (2 lives by default)
-    private int invincibleTimer = 0;      // Invincibility frame timer: Prevents repeated damage after being hit
+    private long invincibleTimer = TimerWheel.NONE; // Invincibility timer: Prevents repeated damage after being hit (pending = invincible)
     private double difficultyMultiplier = 1.0; // Difficulty multiplier: Increases with score (dynamic difficulty)
+    private Balance balance = Balance.parse(System.getProperty("thunder.balance")); // BOSS trigger, HP, gate and Buff tuning (-Dthunder.balance="bossHp=2000;...")
     private int baseFireCount = 1;        // Base number of bullets fired per shot (increases by opening chests)
 
+    // Endless mode (arcade cabinets): Each BOSS kill starts a new, harder cycle instead of ending the game
+    private boolean endlessMode = Boolean.getBoolean("thunder.endless"); // Enabled with -Dthunder.endless=true
+    private int bossCycle = 0;            // Number of BOSSes defeated so far (endless mode)
+    private int cycleStartScore = 0;      // Score at the start of the current cycle (progress restarts each cycle)
+    private boolean godMode = false;      // Attract/soak mode: Player cannot lose (leaking enemies are removed)
+    private boolean headless = false;     // True when simulating without drawing (soak tests, offline tools)
+    private boolean swarmLod = Boolean.parseBoolean(System.getProperty("thunder.swarmLod", "true")); // Straight volleys fly as one swarm row (-Dthunder.swarmLod=false: one row per bullet)
+    private boolean flocking = Boolean.getBoolean("thunder.flock"); // Hordes fly as boids formations (-Dthunder.flock=true) instead of fixed lanes
+
+    // Timer wheel: Every countdown (fire rate, spawns, Buffs, invincibility, BOSS abilities) is a timer keyed on frameNumber
+    // Idle frames cost one empty slot check instead of one decrement per countdown; callbacks only raise flags
+    private static final int FIRE_TICKS = 15;         // Fire interval (15 frames = 250ms > the old 240ms cooldown)
+    private static final int GATE_SPAWN_TICKS = 361;  // Gate pair interval (first frame past 6 seconds)
+    private static final int HORDE_SPAWN_TICKS = 121; // Horde interval (first frame past 2 seconds)
+    private static final int INVINCIBLE_TICKS = 60;   // Invincibility after a hit (1 second)
+    private static final int BOSS_ROAR_TICKS = 181;   // BOSS roar interval (every 181st update)
+    private static final int BOSS_ATTACK_TICKS = 101; // BOSS tracking shot interval (every 101st update)
+    private static final TimerWheel.Callback EXPIRE = arg -> { }; // State timers: Pending = active, nothing to do on expiry
+    private final TimerWheel timers = new TimerWheel(16);
+    private boolean fireDue, gateSpawnDue, hordeSpawnDue; // Raised by timers, consumed by handle* (BOSS abilities: BossAI)
+    private final TimerWheel.Callback onFireDue = arg -> fireDue = true;
+    private final TimerWheel.Callback onGateSpawnDue = arg -> gateSpawnDue = true;
+    private final TimerWheel.Callback onHordeSpawnDue = arg -> hordeSpawnDue = true;
+    private final TimerWheel.Callback onBossRoarDue = row -> boss.due[row] |= AI_ROAR;     // arg = BOSS row
+    private final TimerWheel.Callback onBossAttackDue = row -> boss.due[row] |= AI_ATTACK;
+    private final long fireTimer = timers.schedule(FIRE_TICKS, FIRE_TICKS, onFireDue, 0);
+
     // Buff system variables (encapsulation of temporary power-ups)
-    private int scatterBuffTimer = 0;     // Timer for Scatter Buff (counts down to 0 when buff expires)
-    private int dmgBuffTimer = 0;         // Timer for Damage Buff (counts down to 0 when buff expires)
-    private int giantBuffTimer = 0;       // Timer for Giant Bullet Buff (counts down to 0 when buff expires)
-    private static final int BUFF_DURATION = 420; // Buff duration (420 frames = 7 seconds at 60FPS)
-    private boolean hasScatterBuff = false; // Flag: True when Scatter Buff is active
-    private boolean hasDmgBuff = false;   // Flag: True when Damage Buff is active
-    private boolean hasGiantBuff = false; // Flag: True when Giant Bullet Buff is active
+    // Buff durations count shots: Each Buff is a timer that expires right after its last buffed shot
+    private static final int BUFF_SCATTER = 0, BUFF_DAMAGE = 1, BUFF_GIANT = 2;
+    private final long[] buffTimers = {TimerWheel.NONE, TimerWheel.NONE, TimerWheel.NONE};
 
     // Utility objects (encapsulated for reuse)
-    private Random random = new Random(); // Random number generator for spawning enemies/chests
-    // Timers for controlling spawn intervals (prevents spawning too frequently)
-    private long lastFireTime = 0, lastGateSpawnTime = 0, lastHordeSpawnTime = 0;
+    private final long seed;              // Seed of this run (recorded in replays for exact re-simulation)
+    private final Random random;          // Random number generator for spawning enemies/chests (seeded)
+    private long frameNanos = 0;          // Timestamp of the current frame (simulation clock, replaces wall clock)
     private GraphicsContext gc;           // JavaFX GraphicsContext: Used for drawing all game elements
 
     // Image resources (static so internal classes can access them)
@@ -75,11 +154,47 @@ public class ThunderFighter extends Application {
     private int engineFireTimer = 0;      // Timer for engine flame animation (controls blinking frequency)
     private boolean isEngineFireBright = false; // Flag: Controls engine flame brightness (blinking effect)
 
-    // Scrolling road background variables (visual enhancement)
-    private Image roadBgImage;            // Top-down road background sprite
-    private double bgY1 = 0;              // Y-coordinate of the first background image (for seamless scrolling)
-    private double bgY2 = 0;              // Y-coordinate of the second background image (for seamless scrolling)
+    // Scrolling background: Tiled stage streamed through a bounded tile cache (visual enhancement)
+    private static final String DEFAULT_STAGE = "stages/road.stage"; // Classpath stage (-Dthunder.stage=<file> overrides)
+    private static final long DEFAULT_BG_CACHE_MB = 24;  // Decoded tile ceiling (-Dthunder.bgCacheMB overrides)
+    private StreamedBackground<Image> stageBackground;   // null = no background (stage missing or not loaded yet)
+    private boolean streamBackground = true;             // False = decode tiles synchronously (offline renderers)
     private double bgSpeed = 5;           // Background scrolling speed (higher = faster road movement)
+    private BloomPass bloom;              // Glow post-process (hardware renderers only, see BloomPass.preferred)
+    private boolean bloomActive = false;  // Glow goes through the bloom pass this frame (HIGH quality with a pass)
+    private final StreamedBackground.TileDrawer<Image> drawTile =
+            (tile, x, y, w, h) -> gc.drawImage(tile, x, y, w, h); // Preallocated: No lambda per frame
+
+    // Render queue: Entity draws are queued per frame, sorted by layer + material and flushed with few state changes
+    // Layers draw in this order (same order as the phases that used to draw directly)
+    private static final int LAYER_GATES = 0;
+    private static final int LAYER_CHESTS = 1;
+    private static final int LAYER_PLAYER_BULLETS = 2;
+    private static final int LAYER_ENEMIES = 3;
+    private static final int LAYER_BOSS_BULLETS = 4;
+    // Commands per frame: 2-3 per player bullet, 4 per enemy, up to 2 per BOSS bullet, plus gates and chests
+    private static final int RENDER_QUEUE_CAPACITY = 16384;
+    // Bullet looks (index into LASER_COLORS and the bullet materials)
+    private static final int BULLET_NORMAL = 0;
+    private static final int BULLET_SCATTER = 1;
+    private static final int BULLET_DAMAGE = 2;
+    private static final int BULLET_GIANT = 3;
+    private static final Color[] LASER_COLORS = {
+            Color.rgb(255, 50, 50),  // Red color for Normal Bullet
+            Color.rgb(180, 0, 255),  // Purple color for Scatter Bullet
+            Color.rgb(0, 190, 255),  // Cyan color for High-Damage Bullet
+            Color.rgb(255, 215, 0)   // Gold color for Giant Bullet
+    };
+    private RenderQueue renderQueue;      // null until the materials are registered (drawing games only)
+    // Material ids (registered in draw order inside each layer; -1 = not used)
+    private int matGatePurple, matGateBlue, matGateOutline, matGateText;
+    private int matChest, matChestText;
+    private final int[] matBulletGlow = new int[4];
+    private final int[] matBullet = new int[4];
+    private final int[] matBulletOutline = new int[4];
+    private int matRoarRing, matBoss, matRoarWarning, matEnemyFallback, matBarBack, matBar;
+    private final int[] matEnemy = new int[2];
+    private int matBossBullet, matBossBulletOutline;
 
     // Enemy and bullet sprites (modular design for visual customization)
     private Image enemyImage1;            // Sprite for enemy type 1
@@ -91,621 +206,1355 @@ public class ThunderFighter extends Application {
     private Image bossImage;              // Sprite for the final BOSS
     private Image chestImage;             // Sprite for treasure chests
     private Image bossBulletImage;        // Sprite for BOSS's bullets
+    private AssetPack assets;             // Pre-decoded sprites (null = decode the PNG resources)
 
     // Audio resources (enhance game experience)
     private AudioClip shootSound;         // Sound effect for shooting
     private MediaPlayer bgmPlayer;        // Background music player
 
-    // --- Inner Class: Player's Bullet (MobUnit) ---
-    /**
-     * Encapsulates the player's bullet objects (OOP: Encapsulation)
-     * Contains attributes (position, velocity, damage, size) and methods (update, draw)
-     * Polymorphism: Different bullet behaviors are handled via Buff flags in the draw method
-     */
-    class MobUnit {
-        double x, y;       // X and Y coordinates of the bullet
-        double vx, vy;     // Horizontal and vertical velocity (controls bullet direction and speed)
-        double damage;     // Damage value of the bullet (varies with Buffs)
-        double size;       // Size of the bullet (varies with Buffs)
-        boolean hasPassedGate = false; // Flag: True if the bullet has passed through an ATK gate (prevents repeated buffing)
-
-        /**
-         * Constructor for MobUnit (player's bullet)
-         * @param x Initial X coordinate
-         * @param y Initial Y coordinate
-         * @param vx Horizontal velocity (positive = right, negative = left)
-         * @param vy Vertical velocity (negative = up, positive = down)
-         * @param dmg Damage value of the bullet
-         * @param sz Size of the bullet (pixels)
-         */
-        MobUnit(double x, double y, double vx, double vy, double dmg, double sz) {
-            this.x = x;
-            this.y = y;
-            this.vx = vx;
-            this.vy = vy;
-            this.damage = dmg;
-            this.size = sz;
-        }
-
-        /**
-         * Update bullet position per frame
-         * Handles boundary collision: Bullet bounces horizontally when hitting left/right edges
-         */
-        void update() {
-            x += vx;
-            y += vy;
-            // Bounce off left/right edges of the screen
-            if (x < 0 || x > WIDTH - 10) {
-                vx = -vx;
-            }
+    // Live telemetry (JMX counters/controls + JFR events, near-zero cost when nobody is watching)
+    private final GameMonitor monitor = new GameMonitor(); // JMX MBean: fps, entity counts, pause, quality tier
+    private long frameNumber = 0;         // Sequential frame counter (tags JFR events)
+    private int qualityTier = GameMonitor.QUALITY_HIGH; // Visual quality tier for this frame (set via JMX)
+
+    // Game event bus: Collision loops publish events; rules, audio and counters consume them once per frame
+    private static final int EVENT_RING_SIZE = 2048; // Ring slots (> events per frame: ~2 per player bullet + kills)
+    private final GameEventBus events = new GameEventBus(EVENT_RING_SIZE);
+    private final GameEventBus.Subscription ruleEvents = events.subscribe(this::applyEvent);  // Score, buffs, HP
+    private final GameEventBus.Subscription audioEvents = events.subscribe(this::playEventSound); // Sound effects
+    private final GameEventBus.Subscription statsEvents = events.subscribe(monitor);          // JMX event counters
+
+    // Render resolution: The game renders at WIDTH x HEIGHT x renderScale and is scaled to the window in one pass
+    // (-Dthunder.renderScale=0.5 for weak machines / software rendering, -Dthunder.windowScale=1.6 for 1440p cabinets)
+    private final double renderScale = clampScale(Double.parseDouble(System.getProperty("thunder.renderScale", "1.0")));
+    private final double windowScale = clampScale(Double.parseDouble(System.getProperty("thunder.windowScale", "1.0")));
+
+    // Replay recording (seed + per-frame input, re-simulated offline by ReplayRenderer)
+    private ReplayLog replayLog = null;   // Active recording (null when not recording)
+    private String replayPath = null;     // File the recording is saved to when the run ends
+
+    // Shared world-state export for external tools (memory-mapped, one snapshot per frame; null = off)
+    private WorldStateExporter exporter = null;
+
+    // Per-run gameplay telemetry (compressed columnar file written off the game thread; null = off)
+    private GameTelemetry telemetry = null;
+    private GameEventBus.Subscription telemetryEvents = null;
+
+    // --- Entities: Player Bullets, Enemies and the BOSS (rows of the bullet / enemy / boss archetypes) ---
+    /**
+     * Spawn one player bullet row (caller checks the MAX_PLAYER_UNITS ceiling)
+     * @param x Center X coordinate
+     * @param y Center Y coordinate
+     * @param vx Horizontal velocity (positive = right, negative = left)
+     * @param vy Vertical velocity (negative = up, positive = down)
+     * @param dmg Damage of the bullet (varies with Buffs)
+     * @param size Size of the bullet (pixels, varies with Buffs)
+     * @param group Formation group (bullets of one volley share it in swarm LOD mode)
+     */
+    private void addBullet(double x, double y, double vx, double vy, double dmg, double size, int group) {
+        int row = playerBullets.add();
+        if (row < 0) {
+            return; // PLAYER_BULLET_CAPACITY reached
         }
+        playerBullets.x[row] = x;
+        playerBullets.y[row] = y;
+        playerBullets.vx[row] = vx;
+        playerBullets.vy[row] = vy;
+        playerBullets.w[row] = size;
+        playerBullets.h[row] = size;
+        playerBullets.damage[row] = dmg;
+        playerBullets.group[row] = group;
+        playerBullets.units[row] = 1;
+        playerBullets.members[row] = 1;
+    }
 
-        /**
-         * Draw the bullet on the canvas (OOP: Polymorphism via Buff states)
-         * Selects bullet sprite and laser color based on active Buffs
-         * Adds visual effects (glow, stroke) to enhance player experience
-         * @param gc GraphicsContext for drawing
-         * @param game Reference to the main game class (to access Buff flags and images)
-         */
-        void draw(GraphicsContext gc, ThunderFighter game) {
-            Image useBulletImage = null;
-            Color laserColor; // Laser color (matches bullet type for visual consistency)
-
-            // 1. Select bullet sprite and laser color based on active Buffs (polymorphism)
-            if (game.giantBuffTimer > 0) {
-                useBulletImage = game.bulletGiant;
-                laserColor = Color.rgb(255, 215, 0); // Gold color for Giant Bullet
-            } else if (game.scatterBuffTimer > 0) {
-                useBulletImage = game.bulletScatter;
-                laserColor = Color.rgb(180, 0, 255); // Purple color for Scatter Bullet
-            } else if (game.dmgBuffTimer > 0) {
-                useBulletImage = game.bulletDamage;
-                laserColor = Color.rgb(0, 190, 255); // Cyan color for High-Damage Bullet
-            } else {
-                useBulletImage = game.bulletNormal;
-                laserColor = Color.rgb(255, 50, 50); // Red color for Normal Bullet
-            }
+    /**
+     * Spawn a straight volley as one swarm row: units bullets VOLLEY_SPACING apart, moving straight up together
+     * (caller checks the MAX_PLAYER_UNITS ceiling and that every bullet is inside the side walls: none bounces)
+     * @param left X coordinate of the leftmost bullet
+     * @param y Y coordinate of every bullet
+     * @param vy Vertical velocity
+     * @param dmg Damage of each bullet
+     * @param size Size of each bullet
+     * @param units Number of bullets (1 to 64)
+     * @param group Formation group
+     */
+    private void addSwarm(double left, double y, double vy, double dmg, double size, int units, int group) {
+        int row = playerBullets.add();
+        if (row < 0) {
+            return; // PLAYER_BULLET_CAPACITY reached
+        }
+        playerBullets.x[row] = left;
+        playerBullets.y[row] = y;
+        playerBullets.vy[row] = vy;
+        playerBullets.w[row] = size;
+        playerBullets.h[row] = size;
+        playerBullets.damage[row] = dmg * units; // Combined damage
+        playerBullets.group[row] = group;
+        playerBullets.units[row] = units;
+        playerBullets.members[row] = -1L >>> (64 - units);
+        playerBullets.spread[row] = VOLLEY_SPACING;
+        playerBullets.span[row] = VOLLEY_SPACING * (units - 1);
+    }
 
-            double drawSize = this.size; // Use the bullet's size (varies with Buffs)
+    /**
+     * Queue one player bullet (OOP: Polymorphism via Buff states)
+     * Selects bullet sprite and laser color based on active Buffs, adds glow and stroke to enhance visibility
+     * @param queue Render queue of this frame
+     * @param px Bullet X coordinate
+     * @param py Bullet Y coordinate
+     * @param drawSize Size of the bullet (varies with Buffs)
+     */
+    private void drawShot(RenderQueue queue, double px, double py, double drawSize) {
+        // 1. Select bullet look (sprite + laser color) based on active Buffs (polymorphism)
+        int look;
+        if (giantBuffTimer() > 0) {
+            look = BULLET_GIANT;
+        } else if (scatterBuffTimer() > 0) {
+            look = BULLET_SCATTER;
+        } else if (damageBuffTimer() > 0) {
+            look = BULLET_DAMAGE;
+        } else {
+            look = BULLET_NORMAL;
+        }
+        Color laserColor = LASER_COLORS[look]; // Laser color (matches bullet type for visual consistency)
 
-            // --- Visual Effects: Glow, Sprite, and Stroke ---
-            // 2. Draw outer glow (simulates laser brightness, enhances visual appeal)
-            gc.save(); // Save current GraphicsContext state (avoids affecting other draws)
-            gc.setGlobalAlpha(0.4); // Transparency for soft glow
-            gc.setFill(laserColor);
+        // --- Visual Effects: Glow, Sprite, and Stroke ---
+        // 2. Outer glow (simulates laser brightness; HIGH quality only)
+        // Bloom pass: No draw call per bullet, the glow of all bullets is blurred and drawn once per frame
+        // Otherwise (software renderer): One translucent oval per bullet, queued under the sprite
+        if (qualityTier >= GameMonitor.QUALITY_HIGH) {
             double glowSize = drawSize + 10; // Glow is larger than the bullet
-            gc.fillOval(this.x - glowSize/2, this.y - glowSize/2, glowSize, glowSize);
-            gc.restore(); // Restore original state
-
-            // 3. Draw bullet sprite (fallback to solid circle if image fails to load)
-            if (useBulletImage != null && !useBulletImage.isError()) {
-                // Center the sprite on the bullet's (x,y) coordinate
-                gc.drawImage(useBulletImage,
-                        this.x - drawSize/2,
-                        this.y - drawSize/2,
-                        drawSize,
-                        drawSize);
+            if (bloomActive) {
+                bloom.emitPoint(px, py, glowSize, laserColor, 0.4); // 0.4 = soft glow
             } else {
-                // Fallback: Draw solid circle if image is missing (ensures game functionality)
-                gc.setFill(laserColor);
-                gc.fillOval(this.x, this.y, drawSize, drawSize);
+                queue.draw(LAYER_PLAYER_BULLETS, matBulletGlow[look], px - glowSize/2, py - glowSize/2, glowSize, glowSize);
             }
+        }
 
-            // 4. Draw outline stroke (highlights bullet shape, improves visibility)
-            gc.setStroke(laserColor.brighter()); // Brighter color for contrast
-            gc.setLineWidth(1); // Thin stroke for sharpness
-            gc.strokeOval(this.x - drawSize/2, this.y - drawSize/2, drawSize, drawSize);
-        }
-    }
-
-    // --- Inner Class: BOSS's Projectile ---
-    /**
-     * Encapsulates the final BOSS's bullet objects (OOP: Encapsulation)
-     * Separated from player's bullets for modular management (different behavior and collision rules)
-     */
-    class BossProjectile {
-        double x, y;       // X and Y coordinates of the BOSS bullet
-        double vx, vy;     // Horizontal and vertical velocity (tracks player's position)
-        double size = 35;  // Size of BOSS bullet (larger than normal bullets for visibility)
-
-        /**
-         * Constructor for BossProjectile
-         * @param x Initial X coordinate (spawns at BOSS's cannon position)
-         * @param y Initial Y coordinate (spawns at BOSS's bottom edge)
-         * @param vx Horizontal velocity (calculated to track player)
-         * @param vy Vertical velocity (downward, constant speed)
-         */
-        BossProjectile(double x, double y, double vx, double vy) {
-            this.x = x;
-            this.y = y;
-            this.vx = vx;
-            this.vy = vy;
-        }
-
-        /**
-         * Update BOSS bullet position per frame (follows player's horizontal movement)
-         */
-        void update() {
-            x += vx;
-            y += vy;
-        }
-
-        /**
-         * Draw BOSS bullet on the canvas (fallback to solid circle if image fails)
-         * @param gc GraphicsContext for drawing
-         */
-        void draw(GraphicsContext gc) {
-            // 1. Draw sprite if available (priority: visual consistency)
-            if (bossBulletImage != null && !bossBulletImage.isError()) {
-                gc.drawImage(bossBulletImage, x, y, size, size);
-            } else {
-                // 2. Fallback: Draw purple circle with outline (ensures functionality)
-                gc.setFill(Color.web("#8A2BE2")); // Dark purple core
-                gc.fillOval(x, y, size, size);
-                gc.setStroke(Color.web("#EE82EE")); // Light purple outline
-                gc.setLineWidth(3);
-                gc.strokeOval(x, y, size, size);
+        // 3. Queue bullet sprite centered on (px, py) (material = solid circle if the image failed to load)
+        queue.draw(LAYER_PLAYER_BULLETS, matBullet[look], px - drawSize/2, py - drawSize/2, drawSize, drawSize);
+
+        // 4. Queue outline stroke (brighter laser color, thin: highlights bullet shape, improves visibility)
+        queue.draw(LAYER_PLAYER_BULLETS, matBulletOutline[look], px - drawSize/2, py - drawSize/2, drawSize, drawSize);
+    }
+
+    /**
+     * Spawn one normal enemy row (enters at the lane speed; flocking formations steer it from there)
+     * @param x Initial X coordinate
+     * @param y Initial Y coordinate
+     */
+    private void addEnemy(double x, double y) {
+        int row = enemies.add();
+        if (row < 0) {
+            return; // MAX_FLOCK_ENEMIES reached
+        }
+        enemies.x[row] = x;
+        enemies.y[row] = y;
+        enemies.kind[row] = random.nextInt(2); // Randomly select enemy type (0 or 1, different sprites)
+        enemies.w[row] = 65; // Fixed size for normal enemies (matches sprite dimensions)
+        enemies.h[row] = 65;
+        enemies.vy[row] = 0.5; // Constant downward movement in lane mode
+        // Dynamic health: Increases with score and difficulty multiplier (progressive difficulty)
+        enemies.maxHp[row] = balance.enemyHp(cycleScore(), difficultyMultiplier);
+        enemies.hp[row] = enemies.maxHp[row]; // Set current health to maximum on spawn
+    }
+
+    /**
+     * BossAI system: Movement, roar, tracking shots and bullet-hell patterns of one BOSS row
+     * Ability intervals run on the timer wheel (see spawnBoss); their callbacks mark the abilities due
+     * @param row BOSS row
+     */
+    private void updateBoss(int row) {
+        double size = boss.w[row];
+        // BOSS movement: Slow horizontal oscillation (sin wave) + downward spawn
+        boss.x[row] += Math.sin(frameNanos / 1_200_000_000.0) * 1.2; // Frame clock (deterministic in replays)
+        if (boss.y[row] < 70) { // BOSS spawns off-screen top, moves down to 70px Y
+            boss.y[row] += 0.4;
+        }
+        // Keep BOSS within screen boundaries (prevents off-screen escape)
+        if (boss.x[row] < 0) {
+            boss.x[row] = 0;
+        }
+        if (boss.x[row] > WIDTH - size) {
+            boss.x[row] = WIDTH - size;
+        }
+        double x = boss.x[row], y = boss.y[row];
+
+        // --- BOSS Unique Abilities ---
+        // 1. "Roar" ability: Pushes back all player bullets within range (area control)
+        if ((boss.due[row] & AI_ROAR) != 0) { // Every 181 frames (about 3 seconds at 60FPS)
+            boss.due[row] &= ~AI_ROAR;
+            pushBackBullets(row); // Trigger bullet pushback effect
+        }
+
+        // 2. Tracking Bullets: Dual-shot homing bullets (targets player's position)
+        if ((boss.due[row] & AI_ATTACK) != 0) { // Every 101 frames (about 1.67 seconds at 60FPS)
+            boss.due[row] &= ~AI_ATTACK;
+            double targetX = cannonX; // Target player's current X coordinate
+            double bossBottomY = y + size; // Spawn bullets at BOSS's bottom edge
+            double bulletSpeedY = 5.0; // Vertical speed of BOSS bullets (faster than normal)
+
+            // Dual-shot logic: Spawn two bullets (left and right cannons of BOSS)
+            // Left cannon bullet
+            double originX1 = x + 30; // Left spawn point (adjusted for BOSS sprite)
+            // Calculate horizontal velocity to track player (smooth homing)
+            double dx1 = (targetX - originX1) / (HEIGHT / bulletSpeedY * 0.8);
+
+            // Right cannon bullet
+            double originX2 = x + size - 30; // Right spawn point (adjusted for BOSS sprite)
+            double dx2 = (targetX - originX2) / (HEIGHT / bulletSpeedY * 0.8);
+
+            // Add both bullets to the BOSS bullet field (modular management, capped)
+            if (bossBullets.count + 2 <= MAX_BOSS_PROJECTILES) {
+                bossBullets.spawn(originX1, bossBottomY, dx1, bulletSpeedY, 0);
+                bossBullets.spawn(originX2, bossBottomY, dx2, bulletSpeedY, 0);
+                GameFlightEvents.spawnBurst("BOSS_SHOT", 2);
             }
         }
+
+        // 3. Bullet-hell patterns (rings, spirals, fans, homing) once the BOSS has fully entered the screen
+        if (y >= 70) {
+            double hp = boss.hp[row];
+            bossPatterns.update(x + size / 2, y + size, cannonX, HEIGHT - 70, hp / boss.maxHp[row], hp, bossBullets);
+        }
     }
 
-    // --- Inner Class: Enemy Unit (Including BOSS) ---
-    /**
-     * Encapsulates enemy units (normal enemies and BOSS) (OOP: Polymorphism)
-     * Normal enemies and BOSS share the same base class but have different behaviors (update method)
-     * Contains attributes (position, size, health) and methods (update, draw, pushBackBullets)
-     */
-    class EnemyUnit {
-        double x, y;       // X and Y coordinates of the enemy
-        double size;       // Size of the enemy (larger for BOSS)
-        double hp;         // Current health points
-        double maxHp;      // Maximum health points (for health bar display)
-        boolean isBoss;    // Flag: True if this is the final BOSS (triggers unique behavior)
-        int attackCooldown = 0; // Cooldown timer for BOSS attacks (prevents spamming)
-        int roarTimer = 0; // Timer for BOSS's "roar" ability (pushes back player's bullets)
-        private int enemyType; // Type of normal enemy (0 or 1, uses different sprites)
-
-        /**
-         * Constructor for EnemyUnit (handles both normal enemies and BOSS)
-         * @param x Initial X coordinate
-         * @param y Initial Y coordinate
-         * @param isBoss Flag: True if creating a BOSS, false for normal enemies
-         */
-        EnemyUnit(double x, double y, boolean isBoss) {
-            this.x = x;
-            this.y = y;
-            this.isBoss = isBoss;
-
-            // Initialize normal enemy properties (polymorphism: different from BOSS)
-            if (!isBoss) {
-                this.enemyType = random.nextInt(2); // Randomly select enemy type (0 or 1)
-                this.size = 65; // Fixed size for normal enemies (matches sprite dimensions)
-                // Dynamic health: Increases with score and difficulty multiplier (progressive difficulty)
-                double baseHp = 8; // Base health (adjustable: 5-10 for balanced early game)
-                double scoreBonus = score / 60.0; // Health scales with player's progress
-                this.maxHp = (1.2 + (score / 150.0)) * difficultyMultiplier;
-            } else {
-                // Initialize BOSS properties (polymorphism: unique from normal enemies)
-                this.size = 180; // Larger size for BOSS (visually dominant)
-                this.maxHp = 2500 * difficultyMultiplier; // High health for challenging fight
+    /**
+     * BOSS's "Roar" ability: Pushes back player's bullets in a large radius
+     * Adds visual effect (red circle) to indicate ability activation
+     * @param row BOSS row
+     */
+    private void pushBackBullets(int row) {
+        double x = boss.x[row], y = boss.y[row], size = boss.w[row];
+        GameFlightEvents.bossPhase("ROAR", boss.hp[row]); // JFR: BOSS entered its roar phase
+        events.publish(GameEvent.BOSS_ROAR, GameEvent.KIND_BOSS, 0, x + size/2, y + size/2, boss.hp[row]);
+
+        // Queue red outline circle (visual feedback for ability activation)
+        if (!headless) {
+            renderQueue.draw(LAYER_ENEMIES, matRoarRing, x - 50, y - 50, size + 100, size + 100);
+        }
+
+        // Swarm rows with a member in range split first: Pushed bullets fly apart
+        double cx = x + size/2, cy = y + size/2;
+        for (int i = playerBullets.count - 1; i >= 0; i--) {
+            if (playerBullets.members[i] != 1 && !playerBullets.isRemoved(i) && swarmInRange(i, cx, cy, 250)) {
+                playerBullets.split(i); // Rows behind i move down: They were already checked
             }
-            this.hp = maxHp; // Set current health to maximum on spawn
-        }
-
-        /**
-         * Update enemy state per frame (OOP: Polymorphism - different logic for BOSS/normal enemies)
-         * Handles movement, attack, and ability cooldowns
-         */
-        void update() {
-            if (isBoss) {
-                // BOSS movement: Slow horizontal oscillation (sin wave) + downward spawn
-                x += Math.sin(System.currentTimeMillis() / 1200.0) * 1.2;
-                if (y < 70) { // BOSS spawns off-screen top, moves down to 70px Y
-                    y += 0.4;
-                }
-                // Keep BOSS within screen boundaries (prevents off-screen escape)
-                if (x < 0) {
-                    x = 0;
-                }
-                if (x > WIDTH - size) {
-                    x = WIDTH - size;
-                }
+        }
 
-                // --- BOSS Unique Abilities ---
-                roarTimer++;     // Increment roar ability timer
-                attackCooldown++; // Increment attack cooldown timer
+        // Push back all player bullets within 250px radius of BOSS
+        for (int i = 0; i < playerBullets.count; i++) {
+            if (playerBullets.members[i] != 1) {
+                continue; // Swarm row with every member out of range
+            }
+            // Calculate distance between bullet and BOSS center
+            double dx = playerBullets.x[i] - (x + size/2);
+            double dy = playerBullets.y[i] - (y + size/2);
+            double dist = Math.sqrt(dx*dx + dy*dy);
+
+            // If bullet is within range, push it back (reverse direction + speed boost)
+            if (dist < 250) {
+                playerBullets.vx[i] = (dx / dist) * 8; // Horizontal push (away from BOSS)
+                playerBullets.vy[i] = Math.abs(playerBullets.vy[i]); // Vertical push (downward, away from BOSS)
+            }
+        }
+    }
 
-                // 1. "Roar" ability: Pushes back all player bullets within range (area control)
-                if (roarTimer > 180) { // Activate every 180 frames (3 seconds at 60FPS)
-                    roarTimer = 0; // Reset timer
-                    pushBackBullets(); // Trigger bullet pushback effect
-                }
+    /**
+     * Is any member of a swarm row closer than radius to (cx, cy)? (same distance rule as pushBackBullets)
+     */
+    private boolean swarmInRange(int row, double cx, double cy, double radius) {
+        double dy = playerBullets.y[row] - cy;
+        for (long live = playerBullets.members[row]; live != 0; live &= live - 1) {
+            double dx = playerBullets.memberX(row, Long.numberOfTrailingZeros(live)) - cx;
+            if (Math.sqrt(dx*dx + dy*dy) < radius) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                // 2. Tracking Bullets: Dual-shot homing bullets (targets player's position)
-                if (attackCooldown > 100) { // Fire every 100 frames (1.67 seconds at 60FPS)
-                    attackCooldown = 0; // Reset cooldown
-                    double targetX = cannonX; // Target player's current X coordinate
-                    double bossBottomY = y + size; // Spawn bullets at BOSS's bottom edge
-                    double bulletSpeedY = 5.0; // Vertical speed of BOSS bullets (faster than normal)
-
-                    // Dual-shot logic: Spawn two bullets (left and right cannons of BOSS)
-                    // Left cannon bullet
-                    double originX1 = x + 30; // Left spawn point (adjusted for BOSS sprite)
-                    // Calculate horizontal velocity to track player (smooth homing)
-                    double dx1 = (targetX - originX1) / (HEIGHT / bulletSpeedY * 0.8);
-
-                    // Right cannon bullet
-                    double originX2 = x + size - 30; // Right spawn point (adjusted for BOSS sprite)
-                    double dx2 = (targetX - originX2) / (HEIGHT / bulletSpeedY * 0.8);
-
-                    // Add both bullets to the BOSS projectile list (modular management)
-                    bossProjectiles.add(new BossProjectile(originX1, bossBottomY, dx1, bulletSpeedY));
-                    bossProjectiles.add(new BossProjectile(originX2, bossBottomY, dx2, bulletSpeedY));
-                }
-            } else {
-                // Normal enemy movement: Constant downward movement (simple, consistent)
-                y += 0.5;
+    /**
+     * Alpha mask of an enemy or BOSS sprite (looked up once per enemy, not once per bullet)
+     * @param a Enemy or BOSS archetype
+     * @param row Row of the enemy or BOSS
+     * @return Mask, or null if the sprite is missing (hitAt then falls back to the box test)
+     */
+    static CollisionMask maskOf(Archetype a, int row) {
+        return a.has(Archetype.BOSS_AI) ? SpriteMasks.BOSS
+                : (a.kind[row] == 0 ? SpriteMasks.ENEMY1 : SpriteMasks.ENEMY2);
+    }
+
+    /**
+     * Coarse box test over a range of bullets: Collect the rows whose line (x .. x + span) reaches into the enemy's
+     * box; for a single bullet (span 0) this is the plain point-in-box test
+     * This is the whole per-pair cost of a hit test (the same loop as the plain box test); the alpha
+     * mask is then consulted only for the few rows collected here
+     * @param px Bullet X column (leftmost member of a swarm row)
+     * @param py Bullet Y column
+     * @param span Swarm span column (0 for single bullets)
+     * @param from First bullet row
+     * @param to End of the bullet rows (exclusive)
+     * @param x Enemy X coordinate
+     * @param y Enemy Y coordinate
+     * @param size Enemy size
+     * @param inside Output: Rows inside the box, in row order
+     * @return Number of rows written to inside
+     */
+    static int insideBox(double[] px, double[] py, double[] span, int from, int to, double x, double y, double size,
+                         int[] inside) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            if (px[i] + span[i] > x && px[i] < x + size && py[i] > y && py[i] < y + size) {
+                inside[n++] = i;
             }
         }
+        return n;
+    }
 
-        /**
-         * BOSS's "Roar" ability: Pushes back player's bullets in a large radius
-         * Adds visual effect (red circle) to indicate ability activation
-         */
-        private void pushBackBullets() {
-            // Draw red outline circle (visual feedback for ability activation)
-            gc.setStroke(Color.RED);
-            gc.setLineWidth(5);
-            gc.strokeOval(x - 50, y - 50, size + 100, size + 100);
-
-            // Push back all player bullets within 250px radius of BOSS
-            for (MobUnit u : playerMob) {
-                // Calculate distance between bullet and BOSS center
-                double dx = u.x - (x + size/2);
-                double dy = u.y - (y + size/2);
-                double dist = Math.sqrt(dx*dx + dy*dy);
-
-                // If bullet is within range, push it back (reverse direction + speed boost)
-                if (dist < 250) {
-                    u.vx = (dx / dist) * 8; // Horizontal push (away from BOSS)
-                    u.vy = Math.abs(u.vy); // Vertical push (downward, away from BOSS)
-                }
+    /**
+     * Fine hit test for a bullet that passed insideBox: Does it hit an opaque part of the sprite?
+     * (bullets flying through transparent corners of the sprite no longer hit)
+     * @param mask Enemy's mask (maskOf), or null to accept every bullet inside the box
+     * @param x Enemy X coordinate
+     * @param y Enemy Y coordinate
+     * @param px Bullet X coordinate (inside the enemy's box)
+     * @param py Bullet Y coordinate (inside the enemy's box)
+     * @return True if the bullet hits an opaque part of the sprite
+     */
+    static boolean hitAt(CollisionMask mask, double x, double y, double px, double py) {
+        return mask == null || mask.containsInside(px - x, py - y);
+    }
+
+    /**
+     * Queue one enemy or BOSS (OOP: Polymorphism - different visuals for BOSS/normal enemies)
+     * Includes health bar, sprite, and ability effects (roar warning)
+     * @param queue Render queue of this frame
+     * @param a Enemy or BOSS archetype
+     * @param row Row of the enemy or BOSS
+     */
+    private void drawEnemy(RenderQueue queue, Archetype a, int row) {
+        double x = a.x[row], y = a.y[row], size = a.w[row];
+        double hpRatio = Math.max(0, a.hp[row] / a.maxHp[row]); // Health ratio (0.0 to 1.0) for health bar
+
+        if (a == boss) {
+            // Queue BOSS sprite (material = dark blue rectangle if the image failed)
+            queue.draw(LAYER_ENEMIES, matBoss, x, y, size, size); // BOSS sprite (180x180)
+
+            // 2. Roar ability visual warning: Red outline when ability is about to activate
+            if (timers.remaining(boss.roarTimer[row]) <= 60) { // Show warning in the last 60 frames of roar cooldown
+                // Outline slightly larger than BOSS sprite for visibility
+                queue.draw(LAYER_ENEMIES, matRoarWarning, x - 5, y - 5, size + 10, size + 10);
             }
+        } else if (matEnemy[a.kind[row]] >= 0) {
+            // Normal enemy sprite (select based on the enemy type)
+            queue.draw(LAYER_ENEMIES, matEnemy[a.kind[row]], x, y, 65, 65);
+        } else {
+            // Fallback: Solid rectangle (color fades with health: Red → Dark red as health drops)
+            queue.drawTinted(LAYER_ENEMIES, matEnemyFallback, Color.color(1.0, 0.2 * hpRatio, 0.2 * hpRatio),
+                    x, y, size, size);
         }
 
-        /**
-         * Draw enemy on the canvas (OOP: Polymorphism - different visuals for BOSS/normal enemies)
-         * Includes health bar, sprite, and ability effects (roar warning)
-         * @param gc GraphicsContext for drawing
-         */
-        void draw(GraphicsContext gc) {
-            double hpRatio = Math.max(0, hp / maxHp); // Health ratio (0.0 to 1.0) for health bar
+        // Health bar (centered above the sprite, 70% of its size): Gray background, green current health
+        // Every bar background goes out in one run, then every bar (materials registered after the sprites)
+        double bloodBarWidth = size * 0.7;
+        double bloodBarX = x + (size - bloodBarWidth) / 2; // Horizontal center
+        queue.draw(LAYER_ENEMIES, matBarBack, bloodBarX, y - 8, bloodBarWidth, 5);
+        queue.draw(LAYER_ENEMIES, matBar, bloodBarX, y - 8, bloodBarWidth * hpRatio, 5);
+    }
 
-            if (isBoss) {
-                // Draw BOSS sprite (fallback to solid rectangle if image fails)
-                if (bossImage != null && !bossImage.isError()) {
-                    gc.drawImage(bossImage, x, y, size, size); // Draw BOSS sprite (180x180)
-                } else {
-                    // Fallback: Dark blue rectangle (ensures BOSS is visible)
-                    gc.setFill(Color.DARKSLATEBLUE);
-                    gc.fillRect(x, y, size, size);
-                }
+    // --- Entities: Treasure Chests and Evolution Gates (rows of the chests / gates archetypes) ---
+    /**
+     * Spawn one evolution gate row
+     * @param x Left edge
+     * @param y Top edge (normal spawns use -100, off-screen top)
+     * @param w Width of the gate
+     * @param kind GameEvent.GATE_ATK (blue, instant), GATE_BURST or GATE_GIANT (purple, chargeable)
+     * @param maxCharge Required charge for purple gates (ignored for blue)
+     */
+    private void addGate(double x, double y, double w, int kind, int maxCharge) {
+        int row = gates.add();
+        if (row < 0) {
+            return; // MAX_GATES reached
+        }
+        gates.x[row] = x;
+        gates.y[row] = y;
+        gates.w[row] = w;
+        gates.h[row] = GATE_HEIGHT;
+        gates.vy[row] = GATE_SPEED;
+        gates.kind[row] = kind;
+        gates.maxCharge[row] = maxCharge;
+    }
 
-                // 2. Roar ability visual warning: Red outline when ability is about to activate
-                if (roarTimer > 120) { // Show warning in the last 60 frames of roar cooldown
-                    gc.setStroke(Color.RED);
-                    gc.setLineWidth(3);
-                    // Outline slightly larger than BOSS sprite for visibility
-                    gc.strokeRect(x - 5, y - 5, size + 10, size + 10);
+    /**
+     * Spawn one treasure chest row
+     * @param x Left edge
+     * @param y Top edge (spawns off-screen top)
+     */
+    private void addChest(double x, double y) {
+        int row = chests.add();
+        if (row < 0) {
+            return; // MAX_CHESTS reached
+        }
+        chests.x[row] = x;
+        chests.y[row] = y;
+        chests.w[row] = CHEST_SIZE;
+        chests.h[row] = CHEST_SIZE;
+        chests.vy[row] = CHEST_SPEED;
+        chests.hp[row] = CHEST_HP;
+        chests.maxHp[row] = CHEST_HP;
+    }
+
+    /**
+     * Hit test for a player bullet at (px, py) against a chest: Coarse box test, then the chest sprite's alpha mask
+     * @param row Chest row
+     * @param px Bullet X coordinate
+     * @param py Bullet Y coordinate
+     * @return True if the bullet hits an opaque part of the chest
+     */
+    private boolean chestHitAt(int row, double px, double py) {
+        double cx = chests.x[row], cy = chests.y[row], size = chests.w[row];
+        if (!(px > cx && px < cx + size && py > cy && py < cy + size)) {
+            return false;
+        }
+        return SpriteMasks.CHEST == null || SpriteMasks.CHEST.containsInside(px - cx, py - cy);
+    }
+
+    /**
+     * Queue one chest (sprite + health text)
+     * @param queue Render queue of this frame
+     * @param row Chest row
+     */
+    private void drawChest(RenderQueue queue, int row) {
+        double x = chests.x[row], y = chests.y[row], size = chests.w[row];
+        // 1. Chest sprite (material = gold rectangle if the image failed)
+        queue.draw(LAYER_CHESTS, matChest, x, y, size, size);
+        // 2. Health text (below chest, centered, white bold font for visibility)
+        queue.text(LAYER_CHESTS, matChestText, "HP:" + (int) chests.hp[row], x + size/2 - 15, y + size + 15);
+    }
+
+    /**
+     * Queue one gate (transparent color + text + outline)
+     * @param queue Render queue of this frame
+     * @param row Gate row
+     */
+    private void drawGate(RenderQueue queue, int row) {
+        double x = gates.x[row], y = gates.y[row], w = gates.w[row], h = gates.h[row];
+        int kind = gates.kind[row];
+        boolean isPurple = kind != GameEvent.GATE_ATK;
+        // Semi-transparent rectangle (purple for chargeable, blue for instant) with a white outline
+        queue.draw(LAYER_GATES, isPurple ? matGatePurple : matGateBlue, x, y, w, h);
+        queue.draw(LAYER_GATES, matGateOutline, x, y, w, h);
+        // Text (buff type + charge progress for purple gates), centered horizontally and vertically in the gate
+        String display = isPurple
+                ? (kind == GameEvent.GATE_BURST ? "BURST" : "GIANT") + ": " + gates.charge[row] + "/" + gates.maxCharge[row]
+                : "ATK x 2";
+        queue.text(LAYER_GATES, matGateText, display, x + w / 2 - 45, y + h / 2 + 7);
+    }
+
+    /**
+     * Default constructor used by JavaFX launch(): Seeds the game from the clock (a new run each launch)
+     */
+    public ThunderFighter() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Constructor with an explicit seed (replays and offline tools re-simulate the exact same run)
+     * @param seed Seed for the game's random number generator (spawns, enemy types, gate types)
+     */
+    ThunderFighter(long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+        // First gate pair and horde (each spawn schedules the next one)
+        timers.schedule(GATE_SPAWN_TICKS, onGateSpawnDue, 0);
+        timers.schedule(HORDE_SPAWN_TICKS, onHordeSpawnDue, 0);
+    }
+
+    /**
+     * Override JavaFX Application's start method (entry point for GUI)
+     * Initializes game window, resources (images/audio), and starts animation loop
+     * @param stage JavaFX Stage (main window)
+     */
+    @Override
+    public void start(Stage stage) {
+        // Initialize JavaFX UI components (Pane + Canvas at the internal render resolution)
+        Pane root = new Pane();
+        Canvas canvas = createCanvas(renderScale, windowScale);
+        gc = canvas.getGraphicsContext2D(); // Get GraphicsContext for drawing (already maps world coordinates)
+        root.getChildren().add(canvas);
+
+        // Create game scene (window size = world size x windowScale)
+        Scene scene = new Scene(root, WIDTH * windowScale, HEIGHT * windowScale);
+        // Player input: Mouse and LEFT/RIGHT (A/D) keys, each event stamped on arrival
+        // Optional smoothing (-Dthunder.inputSmoothingMs=40); default 0 = raw input, lowest latency
+        input = new PlayerInput(cannonX, 0, WIDTH, Double.parseDouble(System.getProperty("thunder.inputSmoothingMs", "0")));
+        scene.setOnMouseMoved(e -> input.onMouseMoved(e.getX() / windowScale, System.nanoTime())); // Window -> world X
+        scene.setOnMouseDragged(e -> input.onMouseMoved(e.getX() / windowScale, System.nanoTime()));
+        scene.setOnKeyPressed(e -> handleKey(e.getCode(), true));
+        scene.setOnKeyReleased(e -> handleKey(e.getCode(), false));
+
+        // Expose live counters and controls to JMX clients (JConsole, JDK Mission Control)
+        monitor.attachInput(input);
+        monitor.register();
+
+        // Optional replay recording: -Dthunder.record=run.tfr saves seed + per-frame input for ReplayRenderer
+        String recordPath = System.getProperty("thunder.record");
+        if (recordPath != null) {
+            replayLog = new ReplayLog(seed, balance, endlessMode, flocking, swarmLod); // Rules the run is played with
+            replayPath = recordPath;
+        }
+
+        // Optional gameplay telemetry: -Dthunder.telemetry=run.tftl (aggregate runs with TelemetryAggregator)
+        String telemetryPath = System.getProperty("thunder.telemetry");
+        if (telemetryPath != null) {
+            try {
+                setTelemetry(new GameTelemetry(Paths.get(telemetryPath), seed));
+            } catch (IOException e) {
+                System.out.println("Telemetry disabled: " + e.getMessage());
+            }
+        }
+
+        // Optional world-state export: -Dthunder.export=/dev/shm/thunder.tfws (read with WorldStateReader)
+        String exportPath = System.getProperty("thunder.export");
+        if (exportPath != null) {
+            try {
+                exporter = new WorldStateExporter(Paths.get(exportPath));
+            } catch (IOException e) {
+                System.out.println("World-state export disabled: " + e.getMessage());
+            }
+        }
+
+        try {
+            // Load image resources (sprites for player, enemies, bullets, etc.)
+            loadImages();
+
+            // Load shooting sound effect (WAV format)
+            String soundPath = new File("Shoot.wav").toURI().toString();
+            shootSound = new AudioClip(soundPath);
+            shootSound.setVolume(0.2); // Set volume (0.0 = mute, 1.0 = max)
+
+            System.out.println("Shoot sound loaded successfully!");
+
+            // Load and play background music (BGM)
+            String bgmPath = new File("bgm.wav").toURI().toString();
+            Media bgmMedia = new Media(bgmPath);
+            bgmPlayer = new MediaPlayer(bgmMedia);
+            bgmPlayer.setCycleCount(MediaPlayer.INDEFINITE); // Loop BGM indefinitely
+            bgmPlayer.setVolume(0.5); // BGM volume (lower than sound effects for balance)
+            bgmPlayer.play(); // Start playing BGM
+
+            System.out.println("BGM loaded and playing successfully!");
+        } catch (Exception e) {
+            // Catch and print resource loading errors (debugging aid)
+            System.out.println("Image/Audio loading exception: " + e.getMessage());
+        }
+
+        // Start JavaFX AnimationTimer (core game loop: runs 60 times per second)
+        Font pausedFont = Font.font("Arial", FontWeight.BOLD, 40); // Created once (the pause screen redraws every pulse)
+        new AnimationTimer() {
+            /**
+             * Handle game logic and rendering per frame
+             * @param now Current timestamp (nanoseconds, used for timing)
+             */
+            @Override
+            public void handle(long now) {
+                // Paused via JMX: Keep the last frame on screen and skip all game logic
+                if (monitor.isPaused()) {
+                    gc.setFill(Color.WHITE);
+                    gc.setFont(pausedFont);
+                    gc.fillText("PAUSED", WIDTH / 2.0 - 80, HEIGHT / 2.0);
+                    monitor.publishPaused(now); // FPS keeps counting pulses (counters hold: nothing changes)
+                    return;
                 }
+                runFrame(now);
+            }
+        }.start();
 
-                // 3. Health bar: Draw below BOSS (centered, visual feedback for progress)
-                double bloodBarWidth = size * 0.7; // Health bar width = 70% of BOSS size
-                double bloodBarX = x + (size - bloodBarWidth) / 2; // Center health bar horizontally
-                // Gray background (max health)
-                gc.setFill(Color.GRAY);
-                gc.fillRect(bloodBarX, y - 8, bloodBarWidth, 5);
-                // Green foreground (current health, scales with hpRatio)
-                gc.setFill(Color.LIME);
-                gc.fillRect(bloodBarX, y - 8, bloodBarWidth * hpRatio, 5);
-            } else {
-                // Draw normal enemy (random sprite selection + health bar)
-                boolean isImage1Valid = enemyImage1 != null && !enemyImage1.isError();
-                boolean isImage2Valid = enemyImage2 != null && !enemyImage2.isError();
-
-                // Draw sprite if available (select based on enemyType)
-                if (isImage1Valid && isImage2Valid) {
-                    if (enemyType == 0) {
-                        gc.drawImage(enemyImage1, x, y, 65, 65); // Draw enemy type 1 sprite
-                    } else {
-                        gc.drawImage(enemyImage2, x, y, 65, 65); // Draw enemy type 2 sprite
-                    }
-                } else {
-                    // Fallback: Solid rectangle (color fades with health)
-                    gc.setFill(Color.color(1.0, 0.2 * hpRatio, 0.2 * hpRatio)); // Red → Dark red as health drops
-                    gc.fillRect(x, y, size, size);
+        // Configure and show main game window
+        stage.setScene(scene);
+        stage.setTitle("Thunder Fighter: BOSS Dual Strike Edition"); // English window title
+        stage.show();
+    }
+
+    /**
+     * Create the game canvas for a render scale and window scale
+     * The canvas holds renderScale x the world size in pixels and its GraphicsContext maps world coordinates onto it,
+     * so every draw method keeps using world coordinates; a node transform then scales the finished frame to the window
+     * (one texture scale while the scene is composited, no extra copy)
+     * @param renderScale Internal resolution relative to the world size (e.g. 0.5 = 240x400 pixels)
+     * @param windowScale Window size relative to the world size (e.g. 1.6 = 768x1280 window)
+     * @return Canvas ready to draw on
+     */
+    static Canvas createCanvas(double renderScale, double windowScale) {
+        Canvas canvas = new Canvas(Math.round(WIDTH * renderScale), Math.round(HEIGHT * renderScale));
+        canvas.getGraphicsContext2D().setTransform(renderScale, 0, 0, renderScale, 0, 0); // World -> render pixels
+        double present = windowScale / renderScale; // Render pixels -> window pixels
+        canvas.getTransforms().setAll(new Scale(present, present, 0, 0));
+        return canvas;
+    }
+
+    /**
+     * Clamp a render/window scale to the supported range
+     * @param scale Requested scale
+     * @return Scale within MIN_SCALE .. MAX_SCALE
+     */
+    static double clampScale(double scale) {
+        return Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale));
+    }
+
+    /**
+     * Keyboard axis: LEFT/A steer left, RIGHT/D steer right (other keys are ignored)
+     * @param code Key that was pressed or released
+     * @param pressed True on press, false on release
+     */
+    private void handleKey(KeyCode code, boolean pressed) {
+        if (code == KeyCode.LEFT || code == KeyCode.A) {
+            input.onKey(true, pressed, System.nanoTime());
+        } else if (code == KeyCode.RIGHT || code == KeyCode.D) {
+            input.onKey(false, pressed, System.nanoTime());
+        }
+    }
+
+    /**
+     * Window closed: Save the replay (if recording) and report the measured input latency
+     */
+    @Override
+    public void stop() {
+        saveReplay();
+        setExporter(null);
+        setTelemetry(null);
+        if (stageBackground != null) {
+            stageBackground.close(); // Stop the tile decoder thread
+        }
+        if (bloom != null) {
+            bloom.close(); // Stop the blur threads
+        }
+        if (input != null) {
+            // Report measured input latency (event arrival -> end of the first frame showing it)
+            System.out.printf("Input latency: mean %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                    input.latencyMs(-1), input.latencyMs(0.99), input.latencyMs(1.0));
+        }
+    }
+
+    /**
+     * Load all sprite images (shared by the live game and the offline ReplayRenderer)
+     * Images are loaded synchronously so the first frame already has them
+     */
+    void loadImages() {
+        openAssetPack();
+        playerPlaneImage = loadImage("plane.png");
+        enemyImage1 = loadImage("enemy1.png");
+        enemyImage2 = loadImage("enemy2.png");
+        bulletGiant = loadImage("bulletGiant.png");   // Giant Bullet sprite
+        bulletNormal = loadImage("bulletNormal.png"); // Normal Bullet sprite
+        bulletScatter = loadImage("bulletScatter.png"); // Scatter Bullet sprite
+        bulletDamage = loadImage("bulletDamage.png"); // High-Damage Bullet sprite
+        bossImage = loadImage("boss.png"); // BOSS sprite
+        chestImage = loadImage("chest.png"); // Treasure Chest sprite
+        bossBulletImage = loadImage("bossBullet.png"); // BOSS Bullet sprite
+
+        loadBackground();
+        registerMaterials();
+        if (bloom == null && BloomPass.preferred()) {
+            bloom = new BloomPass(Integer.getInteger("thunder.bloomThreads",
+                    Math.min(4, Runtime.getRuntime().availableProcessors())));
+        }
+
+        // Validate enemy image loading (debug feedback for resource issues)
+        if (enemyImage1.isError() || enemyImage2.isError()) {
+            System.out.println("Enemy image loading failed: "
+                    + (enemyImage1.isError() ? "enemy1 error: " + enemyImage1.getException().getMessage() : "")
+                    + (enemyImage2.isError() ? "enemy2 error: " + enemyImage2.getException().getMessage() : ""));
+        } else {
+            System.out.println("Both enemy images loaded successfully!");
+        }
+    }
+
+    /**
+     * Map the pre-decoded asset pack if one was built (java NEW.AssetPack); without it, PNGs are decoded as before
+     * -Dthunder.assets=<file> selects the pack (default assets.tfap in the working directory)
+     */
+    private void openAssetPack() {
+        if (assets != null) {
+            return;
+        }
+        Path file = Paths.get(System.getProperty("thunder.assets", AssetPack.DEFAULT_FILE));
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            assets = AssetPack.open(file);
+            System.out.println("Asset pack mapped: " + file);
+        } catch (IOException e) {
+            System.out.println("Asset pack ignored (decoding PNGs instead): " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load a sprite: Mapped pixels from the asset pack when it holds an up-to-date copy, else decode the PNG resource
+     * @param name Resource name of the PNG
+     * @return Image
+     */
+    private Image loadImage(String name) {
+        if (assets != null && assets.contains(name) && assets.isFresh(name)) {
+            return assets.image(name); // Wraps the mapped pixels: No decoding
+        }
+        return new Image(name);
+    }
+
+    /**
+     * Create the render queue and register every material (after the images are loaded: a sprite that failed to
+     * load is replaced by its fallback shape here, once, instead of being checked on every draw)
+     * Inside a layer, materials draw in registration order
+     */
+    private void registerMaterials() {
+        RenderQueue q = new RenderQueue(RENDER_QUEUE_CAPACITY);
+        Font gateFont = Font.font("Arial", FontWeight.BOLD, 18);
+        Font chestFont = Font.font("Arial", FontWeight.BOLD, 14);
+
+        // Gates: Semi-transparent fill (purple = chargeable, blue = instant), white outline, then text
+        matGatePurple = q.fillMaterial(RenderQueue.FILL_RECT, Color.rgb(180, 50, 255, 0.7));
+        matGateBlue = q.fillMaterial(RenderQueue.FILL_RECT, Color.rgb(0, 80, 200, 0.6));
+        matGateOutline = q.strokeMaterial(RenderQueue.STROKE_RECT, Color.WHITE, 1);
+        matGateText = q.textMaterial(Color.WHITE, gateFont);
+
+        // Chests: Sprite (gold rectangle fallback), then health text
+        matChest = isLoaded(chestImage) ? q.imageMaterial(chestImage) : q.fillMaterial(RenderQueue.FILL_RECT, Color.GOLD);
+        matChestText = q.textMaterial(Color.WHITE, chestFont);
+
+        // Player bullets: Per-entity glow (no bloom pass), sprites grouped by look (solid circle fallback), then
+        // outlines in the brighter laser color
+        Image[] bulletImages = {bulletNormal, bulletScatter, bulletDamage, bulletGiant};
+        for (int look = 0; look < 4; look++) {
+            Color laser = LASER_COLORS[look];
+            matBulletGlow[look] = q.fillMaterial(RenderQueue.FILL_OVAL,
+                    Color.color(laser.getRed(), laser.getGreen(), laser.getBlue(), 0.4)); // 0.4 = soft glow
+        }
+        for (int look = 0; look < 4; look++) {
+            matBullet[look] = isLoaded(bulletImages[look]) ? q.imageMaterial(bulletImages[look])
+                    : q.fillMaterial(RenderQueue.FILL_OVAL, LASER_COLORS[look]);
+        }
+        for (int look = 0; look < 4; look++) {
+            matBulletOutline[look] = q.strokeMaterial(RenderQueue.STROKE_OVAL, LASER_COLORS[look].brighter(), 1);
+        }
+
+        // Enemies: Roar ring under the BOSS, sprites grouped by image, roar warning, then all bar backgrounds, all bars
+        matRoarRing = q.strokeMaterial(RenderQueue.STROKE_OVAL, Color.RED, 5);
+        matBoss = isLoaded(bossImage) ? q.imageMaterial(bossImage)
+                : q.fillMaterial(RenderQueue.FILL_RECT, Color.DARKSLATEBLUE);
+        boolean enemySprites = isLoaded(enemyImage1) && isLoaded(enemyImage2); // Both or neither (as before)
+        matEnemy[0] = enemySprites ? q.imageMaterial(enemyImage1) : -1;
+        matEnemy[1] = enemySprites ? q.imageMaterial(enemyImage2) : -1;
+        matEnemyFallback = q.fillMaterial(RenderQueue.FILL_RECT, Color.RED); // Tinted per enemy (health)
+        matRoarWarning = q.strokeMaterial(RenderQueue.STROKE_RECT, Color.RED, 3);
+        matBarBack = q.fillMaterial(RenderQueue.FILL_RECT, Color.GRAY);
+        matBar = q.fillMaterial(RenderQueue.FILL_RECT, Color.LIME);
+
+        // BOSS bullets: Sprite, or dark purple core with a light purple outline
+        if (isLoaded(bossBulletImage)) {
+            matBossBullet = q.imageMaterial(bossBulletImage);
+            matBossBulletOutline = -1;
+        } else {
+            matBossBullet = q.fillMaterial(RenderQueue.FILL_OVAL, Color.web("#8A2BE2"));
+            matBossBulletOutline = q.strokeMaterial(RenderQueue.STROKE_OVAL, Color.web("#EE82EE"), 3);
+        }
+        q.setSorting(!"false".equals(System.getProperty("thunder.sortDraws"))); // -Dthunder.sortDraws=false: A/B
+        renderQueue = q;
+    }
+
+    private static boolean isLoaded(Image image) {
+        return image != null && !image.isError();
+    }
+
+    /**
+     * Open the background stage; its tiles are decoded while the stage scrolls, not up front
+     */
+    private void loadBackground() {
+        String location = System.getProperty("thunder.stage", DEFAULT_STAGE);
+        try {
+            StageMap stage = StageMap.load(location);
+            long cacheBytes = Long.getLong("thunder.bgCacheMB", DEFAULT_BG_CACHE_MB) * 1024 * 1024;
+            TileCache<Image> cache = new TileCache<>(cacheBytes,
+                    tile -> (long) tile.getWidth() * (long) tile.getHeight() * 4); // 32-bit pixels
+            stageBackground = new StreamedBackground<>(stage, cache, this::decodeTile,
+                    WIDTH, HEIGHT, HEIGHT, streamBackground); // Decode one screen ahead of the scroll
+        } catch (IOException e) {
+            System.out.println("Background stage loading failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decode one background tile into a JavaFX image (runs on the tile decoder thread)
+     * Tiles of images in the asset pack are copied from the mapped pixels instead of decoding the PNG
+     */
+    private Image decodeTile(StageMap stage, StageMap.Tile tile) throws IOException {
+        AssetPack pack = assets;
+        if (pack != null && pack.contains(tile.path) && pack.isFresh(tile.path)) {
+            int w = tile.isRegion() ? tile.w : pack.width(tile.path);
+            int h = tile.isRegion() ? tile.h : pack.height(tile.path);
+            int[] premultiplied = pack.region(tile.path, tile.isRegion() ? tile.x : 0, tile.isRegion() ? tile.y : 0, w, h);
+            WritableImage image = new WritableImage(w, h);
+            image.getPixelWriter().setPixels(0, 0, w, h, PixelFormat.getIntArgbPreInstance(), premultiplied, 0, w);
+            return image;
+        }
+        BufferedImage pixels = StreamedBackground.readTile(stage, tile);
+        int w = pixels.getWidth();
+        int h = pixels.getHeight();
+        int[] argb = pixels.getRGB(0, 0, w, h, null, 0, w);
+        WritableImage image = new WritableImage(w, h);
+        image.getPixelWriter().setPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), argb, 0, w);
+        return image;
+    }
+
+    /**
+     * Decode background tiles on the calling thread instead of a background thread (call before loadImages)
+     * Offline renderers need every tile on the frame it first becomes visible (identical output on every run)
+     * @param streaming False to decode synchronously
+     */
+    void setBackgroundStreaming(boolean streaming) {
+        streamBackground = streaming;
+    }
+
+    /**
+     * Redirect all drawing to another GraphicsContext (offline tools render into their own Canvas)
+     * @param gc Target GraphicsContext
+     */
+    void setGraphicsContext(GraphicsContext gc) {
+        this.gc = gc;
+    }
+
+    /**
+     * Set the player's X position (replays feed recorded input instead of mouse events)
+     * @param x New X coordinate of the player's plane
+     */
+    void setCannonX(double x) {
+        cannonX = x;
+    }
+
+    /**
+     * Switch drawing off (or back on) for simulation-only runs
+     * @param headless True to skip all drawing
+     */
+    void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    /**
+     * Enable or disable endless mode (BOSS cycles repeat instead of ending in victory)
+     * @param endless True for endless mode
+     */
+    void setEndlessMode(boolean endless) {
+        this.endlessMode = endless;
+    }
+
+    /**
+     * Enable or disable attract/soak mode (the player cannot lose)
+     * @param godMode True to make the player invulnerable
+     */
+    void setGodMode(boolean godMode) {
+        this.godMode = godMode;
+    }
+
+    /**
+     * Enable or disable the swarm level of detail (one swarm row per straight volley vs one row per bullet)
+     * Both settings give identical results; only the cost per frame differs
+     * @param swarmLod True to merge volleys into swarms
+     */
+    void setSwarmLod(boolean swarmLod) {
+        this.swarmLod = swarmLod;
+    }
+
+    /**
+     * Enable or disable flocking formations (boids steering toward the plane vs straight fall in 8 lanes)
+     * @param flocking True to spawn hordes as flocking formations
+     */
+    void setFlocking(boolean flocking) {
+        this.flocking = flocking;
+    }
+
+    /**
+     * Replace the balance constants (parameter sweeps play the same seed under different rules)
+     * @param balance Balance to play with (applies to spawns and gates from the next frame on)
+     */
+    void setBalance(Balance balance) {
+        this.balance = balance;
+    }
+
+    // --- Scenario hooks: Scripted situations for headless tools (performance scenarios, tests of game rules) ---
+    /**
+     * Set the number of bullets per shot (as if chests had been opened)
+     * @param count Bullets per shot (clamped to 1 .. MAX_FIRE_COUNT)
+     */
+    void setFireCount(int count) {
+        baseFireCount = Math.max(1, Math.min(MAX_FIRE_COUNT, count));
+    }
+
+    /**
+     * Set the remaining Buff durations (in shots; 0 = Buff off)
+     * @param scatter Scatter Buff duration
+     * @param damage Damage Buff duration
+     * @param giant Giant Bullet Buff duration
+     */
+    void setBuffTimers(int scatter, int damage, int giant) {
+        setBuff(BUFF_SCATTER, scatter);
+        setBuff(BUFF_DAMAGE, damage);
+        setBuff(BUFF_GIANT, giant);
+    }
+
+    /**
+     * Frame of the next shot that has not been fired yet (this frame's shot while handleFiring has not run)
+     * @return Frame number
+     */
+    private long nextShotTick() {
+        return fireDue ? frameNumber : timers.deadline(fireTimer);
+    }
+
+    /**
+     * Remaining duration of a Buff
+     * @param buff BUFF_SCATTER, BUFF_DAMAGE or BUFF_GIANT
+     * @return Buffed shots left (0 = Buff off)
+     */
+    private int buffShots(int buff) {
+        long lastShot = timers.deadline(buffTimers[buff]) - 1; // Timer expires on the frame after the last buffed shot
+        long next = nextShotTick();
+        return lastShot < next ? 0 : (int) ((lastShot - next) / FIRE_TICKS) + 1;
+    }
+
+    /**
+     * (Re)start a Buff so that it covers the next shots
+     * @param buff BUFF_SCATTER, BUFF_DAMAGE or BUFF_GIANT
+     * @param shots Number of buffed shots (0 = Buff off)
+     */
+    private void setBuff(int buff, int shots) {
+        timers.cancel(buffTimers[buff]);
+        buffTimers[buff] = TimerWheel.NONE;
+        if (shots > 0) {
+            long expiry = nextShotTick() + (long) (shots - 1) * FIRE_TICKS + 1;
+            buffTimers[buff] = timers.schedule(expiry - timers.now(), EXPIRE, buff);
+        }
+    }
+
+    /**
+     * Spawn one evolution gate (ignored at the MAX_GATES ceiling)
+     * @param x Left edge of the gate
+     * @param y Top edge of the gate (normal spawns use -100)
+     * @param w Width of the gate
+     * @param kind GameEvent.GATE_ATK (blue), GATE_BURST or GATE_GIANT (purple, chargeable)
+     * @param maxCharge Required charge (purple gates)
+     */
+    void spawnGate(double x, double y, double w, int kind, int maxCharge) {
+        addGate(x, y, w, kind, maxCharge);
+    }
+
+    /**
+     * Spawn one treasure chest at the top of the screen (ignored at the MAX_CHESTS ceiling)
+     * @param x Left edge of the chest
+     */
+    void spawnChest(double x) {
+        addChest(x, -50);
+    }
+
+    /**
+     * Start the BOSS fight now (no-op while a BOSS is already spawned)
+     */
+    void startBossFight() {
+        if (!bossSpawned) {
+            spawnBoss();
+        }
+    }
+
+    /**
+     * Make the BOSS roar on its next update (pushes back nearby player bullets)
+     */
+    void forceBossRoar() {
+        if (boss.count > 0) {
+            timers.cancel(boss.roarTimer[0]);
+            boss.roarTimer[0] = timers.schedule(1, BOSS_ROAR_TICKS, onBossRoarDue, 0); // Due on the next update
+        }
+    }
+
+    /**
+     * Export the world state after every frame (replaces and closes the previous exporter)
+     * @param exporter Exporter to write to (null = stop exporting)
+     */
+    void setExporter(WorldStateExporter exporter) {
+        if (this.exporter != null) {
+            try {
+                this.exporter.close();
+            } catch (IOException e) {
+                System.out.println("World-state export close failed: " + e.getMessage());
+            }
+        }
+        this.exporter = exporter;
+    }
+
+    /**
+     * Record gameplay telemetry from the next frame on (finishes and closes the previous recorder)
+     * @param telemetry Recorder to feed (null = stop recording)
+     */
+    void setTelemetry(GameTelemetry telemetry) {
+        if (this.telemetry != null) {
+            events.poll(telemetryEvents, EVENT_RING_SIZE); // Events published since the last dispatch
+            events.unsubscribe(telemetryEvents);
+            try {
+                this.telemetry.finish(score);
+            } catch (IOException e) {
+                System.out.println("Telemetry write failed: " + e.getMessage());
+            }
+        }
+        this.telemetry = telemetry;
+        telemetryEvents = telemetry != null ? events.subscribe(telemetry) : null;
+    }
+
+    /**
+     * @return Live counters of this game (published once per frame, also in headless runs)
+     */
+    GameMonitor monitor() {
+        return monitor;
+    }
+
+    /**
+     * @return Number of BOSSes defeated so far (endless mode)
+     */
+    int bossCycle() {
+        return bossCycle;
+    }
+
+    /**
+     * Simple scripted pilot (attract mode, soak runs): Aim at the lowest enemy, sidestep nearby BOSS bullets
+     * @return X coordinate the plane should move to this frame
+     */
+    double autopilotX() {
+        // Target the enemy closest to the dead line (the most dangerous one)
+        double x = WIDTH / 2.0;
+        double targetY = -Double.MAX_VALUE;
+        for (Archetype a : targets) {
+            for (int e = 0; e < a.count; e++) {
+                if (a.y[e] > targetY) {
+                    targetY = a.y[e];
+                    x = a.x[e] + a.w[e] / 2;
                 }
+            }
+        }
 
-                // Health bar for normal enemies (centered above sprite)
-                double bloodBarWidth = size * 0.7; // 70% of enemy size for health bar
-                double bloodBarX = x + (size - bloodBarWidth) / 2; // Horizontal center
-                // Gray background (max health)
-                gc.setFill(Color.GRAY);
-                gc.fillRect(bloodBarX, y - 8, bloodBarWidth, 5);
-                // Green foreground (current health)
-                gc.setFill(Color.LIME);
-                gc.fillRect(bloodBarX, y - 8, bloodBarWidth * hpRatio, 5);
+        // Sidestep the first BOSS bullet that is about to reach the plane's row
+        for (int i = 0; i < bossBullets.count; i++) {
+            double px = bossBullets.x[i] + BossBulletField.SIZE / 2;
+            if (bossBullets.y[i] > HEIGHT - 300 && Math.abs(px - x) < 40) {
+                x += (px < x) ? 60 : -60;
+                break;
             }
         }
+        return Math.max(20, Math.min(WIDTH - 20, x));
     }
 
-    // --- Inner Class: Treasure Chest ---
     /**
-     * Encapsulates treasure chest objects (OOP: Encapsulation)
-     * When destroyed by player's bullets, increases base fire count (permanent power-up)
-     * Contains health (requires multiple hits to open) and visual properties
+     * @return Game event bus (tools subscribe here, e.g. achievements or telemetry on their own thread)
      */
-    class Chest {
-        double x, y;       // X and Y coordinates of the chest
-        double size = 80;  // Size of the chest (adjusted for visibility)
-        double hp = 5;     // Health: Requires 5 bullet hits to open (balanced challenge)
+    GameEventBus events() {
+        return events;
+    }
 
-        /**
-         * Constructor for Chest
-         * @param x Initial X coordinate (random within screen width)
-         * @param y Initial Y coordinate (spawns off-screen top)
-         */
-        Chest(double x, double y) {
-            this.x = x;
-            this.y = y;
-        }
+    // Read-only views of the world for headless tools (AI training environments, analytics)
+    /**
+     * @return Player bullets (rows: center position, velocity, size, damage, formation group, swarm members)
+     */
+    Archetype playerBullets() {
+        return playerBullets;
+    }
 
-        /**
-         * Update chest position per frame (constant downward movement)
-         */
-        void update() {
-            y += 1.5; // Faster than normal enemies (encourages player to prioritize)
-        }
+    /**
+     * @return Normal enemies (rows: position, size, health, kind = sprite)
+     */
+    Archetype enemies() {
+        return enemies;
+    }
 
-        /**
-         * Draw chest on the canvas (sprite + health text)
-         * @param gc GraphicsContext for drawing
-         */
-        void draw(GraphicsContext gc) {
-            // 1. Draw chest sprite (fallback to gold rectangle if image fails)
-            if (chestImage != null && !chestImage.isError()) {
-                gc.drawImage(chestImage, x, y, size, size);
-            } else {
-                gc.setFill(Color.GOLD);
-                gc.fillRect(x, y, size, size);
-            }
+    /**
+     * @return The BOSS (one row during the BOSS fight, else empty)
+     */
+    Archetype boss() {
+        return boss;
+    }
 
-            // 2. Draw health text (below chest, white bold font for visibility)
-            gc.setFill(Color.WHITE);
-            gc.setFont(Font.font("Arial", FontWeight.BOLD, 14)); // Bold font for readability
-            // Center text horizontally below the chest
-            gc.fillText("HP:" + (int)hp, x + size/2 - 15, y + size + 15);
-        }
-    }
-
-    // --- Inner Class: Evolution Gate ---
-    /**
-     * Encapsulates evolution gate objects (OOP: Encapsulation)
-     * Two types: Purple (BURST/GIANT Buff) and Blue (ATK x2 Buff)
-     * Purple gates require bullet "charging" (collect X bullets) to activate
-     * Blue gates apply ATK buff immediately when bullets pass through
-     */
-    class Gate {
-        double x, y;       // X and Y coordinates of the gate
-        double w, h;       // Width and height of the gate
-        String op;         // Buff type for purple gates ("BURST" or "GIANT")
-        boolean isPurple;  // Flag: True = purple gate (chargeable), False = blue gate (instant)
-        int currentCharge = 0; // Current charge (for purple gates: bullets collected)
-        int maxCharge;     // Required charge to activate purple gate
-
-        /**
-         * Constructor for Gate
-         * @param x Initial X coordinate
-         * @param y Initial Y coordinate (spawns off-screen top)
-         * @param w Width of the gate
-         * @param op Buff type (for purple) or "ATK" (for blue)
-         * @param isPurple Flag: True = purple gate, False = blue gate
-         * @param maxCharge Required charge for purple gate (ignored for blue)
-         */
-        Gate(double x, double y, double w, String op, boolean isPurple, int maxCharge) {
-            this.x = x;
-            this.y = y;
-            this.w = w;
-            this.h = 60; // Fixed height for gates (consistent visual size)
-            this.op = op;
-            this.isPurple = isPurple;
-            this.maxCharge = maxCharge;
-        }
-
-        /**
-         * Update gate position per frame (constant downward movement)
-         */
-        void update() {
-            y += 2.2; // Faster than enemies/chests (encourages quick decision-making)
-        }
-
-        /**
-         * Draw gate on the canvas (transparent color + text + outline)
-         * @param gc GraphicsContext for drawing
-         */
-        void draw(GraphicsContext gc) {
-            // Draw semi-transparent rectangle (purple for chargeable, blue for instant)
-            gc.setFill(isPurple ? Color.rgb(180, 50, 255, 0.7) : Color.rgb(0, 80, 200, 0.6));
-            gc.fillRect(x, y, w, h);
-            // White outline for visibility
-            gc.setStroke(Color.WHITE);
-            gc.strokeRect(x, y, w, h);
-            // Draw text (buff type + charge progress for purple gates)
-            gc.setFill(Color.WHITE);
-            gc.setFont(Font.font("Arial", FontWeight.BOLD, 18)); // Bold font for readability
-            String display = isPurple ? op + ": " + currentCharge + "/" + maxCharge : "ATK x 2";
-            // Center text horizontally and vertically in the gate
-            gc.fillText(display, x + w / 2 - 45, y + h / 2 + 7);
-        }
+    /**
+     * @return Number of enemies including the BOSS
+     */
+    int enemyCount() {
+        return enemies.count + boss.count;
+    }
+
+    BossBulletField bossShots() {
+        return bossBullets;
     }
 
     /**
-     * Override JavaFX Application's start method (entry point for GUI)
-     * Initializes game window, resources (images/audio), and starts animation loop
-     * @param stage JavaFX Stage (main window)
+     * @return Evolution gates (rows: position, size, charge, kind = GameEvent.GATE_*)
      */
-    @Override
-    public void start(Stage stage) {
-        // Initialize JavaFX UI components (Pane + Canvas)
-        Pane root = new Pane();
-        Canvas canvas = new Canvas(WIDTH, HEIGHT);
-        gc = canvas.getGraphicsContext2D(); // Get GraphicsContext for drawing
-        root.getChildren().add(canvas);
+    Archetype gates() {
+        return gates;
+    }
+
+    /**
+     * @return Treasure chests (rows: position, size, health)
+     */
+    Archetype chests() {
+        return chests;
+    }
 
-        // Create game scene (fixed size, matches canvas)
-        Scene scene = new Scene(root, WIDTH, HEIGHT);
-        // Bind player's plane X position to mouse movement (intuitive control)
-        scene.setOnMouseMoved(e -> cannonX = e.getX());
+    double cannonX() {
+        return cannonX;
+    }
 
-        try {
-            // Load image resources (sprites for player, enemies, bullets, etc.)
-            playerPlaneImage = new Image("plane.png");
-            enemyImage1 = new Image("enemy1.png");
-            enemyImage2 = new Image("enemy2.png");
-            roadBgImage = new Image("Road.png"); // Top-down road background
-            bulletGiant = new Image("bulletGiant.png");   // Giant Bullet sprite
-            bulletNormal = new Image("bulletNormal.png"); // Normal Bullet sprite
-            bulletScatter = new Image("bulletScatter.png"); // Scatter Bullet sprite
-            bulletDamage = new Image("bulletDamage.png"); // High-Damage Bullet sprite
-            bossImage = new Image("boss.png"); // BOSS sprite
-            chestImage = new Image("chest.png"); // Treasure Chest sprite
-            bossBulletImage = new Image("bossBullet.png"); // BOSS Bullet sprite
+    int score() {
+        return score;
+    }
 
-            // Load shooting sound effect (WAV format)
-            String soundPath = new File("Shoot.wav").toURI().toString();
-            shootSound = new AudioClip(soundPath);
-            shootSound.setVolume(0.2); // Set volume (0.0 = mute, 1.0 = max)
+    int playerHP() {
+        return playerHP;
+    }
 
-            System.out.println("Shoot sound loaded successfully!");
+    boolean isBossSpawned() {
+        return bossSpawned;
+    }
 
-            // Load and play background music (BGM)
-            String bgmPath = new File("bgm.wav").toURI().toString();
-            Media bgmMedia = new Media(bgmPath);
-            bgmPlayer = new MediaPlayer(bgmMedia);
-            bgmPlayer.setCycleCount(MediaPlayer.INDEFINITE); // Loop BGM indefinitely
-            bgmPlayer.setVolume(0.5); // BGM volume (lower than sound effects for balance)
-            bgmPlayer.play(); // Start playing BGM
+    int scatterBuffTimer() {
+        return buffShots(BUFF_SCATTER);
+    }
 
-            System.out.println("BGM loaded and playing successfully!");
+    int damageBuffTimer() {
+        return buffShots(BUFF_DAMAGE);
+    }
+
+    int giantBuffTimer() {
+        return buffShots(BUFF_GIANT);
+    }
+
+    boolean isVictory() {
+        return isVictory;
+    }
+
+    /**
+     * @return True once the run has ended (game over or victory)
+     */
+    boolean isFinished() {
+        return isGameOver || isVictory;
+    }
+
+    /**
+     * Run one full frame: game logic + rendering into the current GraphicsContext
+     * Everything time-dependent uses the frame timestamp (never the wall clock), so feeding the same
+     * seed, timestamps and cannonX values reproduces a run exactly (used by ReplayRenderer)
+     * @param now Frame timestamp (nanoseconds)
+     */
+    void runFrame(long now) {
+        frameNanos = now; // Simulation clock for this frame (BOSS movement reads it)
+        if (input != null) {
+            cannonX = input.sample(System.nanoTime()); // Position used by this frame's logic and drawing
+        }
+        if (replayLog != null) {
+            replayLog.record(now, cannonX); // Record input exactly as this frame sees it
+        }
 
-            // Initialize background positions for seamless scrolling
-            if (roadBgImage != null && !roadBgImage.isError()) {
-                bgY2 = -roadBgImage.getHeight(); // Second background starts above the first
+        GameFlightEvents.FrameEvent frameEvent = new GameFlightEvents.FrameEvent();
+        frameEvent.begin(); // JFR: Time the whole frame (no-op when no recording is active)
+        frameNumber++;
+        qualityTier = monitor.getQualityTier(); // Apply quality tier requested via JMX
+        bloomActive = bloom != null && qualityTier >= GameMonitor.QUALITY_HIGH; // LOW/MEDIUM: Per-entity glow
+
+        // Headless runs (soak tests, tools) skip all drawing; the simulation is unaffected
+        if (!headless) {
+            // Clear screen with black background (prevents trail artifacts)
+            gc.setFill(Color.BLACK);
+            gc.fillRect(0, 0, WIDTH, HEIGHT);
+            if (bloomActive) {
+                bloom.begin(); // Glowing entities emit into the bloom pass while they are drawn
+            }
+            if (renderQueue == null) {
+                registerMaterials(); // Drawing without loadImages(): Every sprite uses its fallback shape
             }
 
-            // Validate enemy image loading (debug feedback for resource issues)
-            if (enemyImage1.isError() || enemyImage2.isError()) {
-                System.out.println("Enemy image loading failed: "
-                        + (enemyImage1.isError() ? "enemy1 error: " + enemyImage1.getException().getMessage() : "")
-                        + (enemyImage2.isError() ? "enemy2 error: " + enemyImage2.getException().getMessage() : ""));
-            } else {
-                System.out.println("Both enemy images loaded successfully!");
+            // --- Streamed Scrolling Background ---
+            if (stageBackground != null) {
+                // Visible tiles only (tiles still being decoded are skipped this frame), then scroll downward;
+                // scrolling requests the tiles entering from above so they are decoded before they show
+                stageBackground.draw(drawTile);
+                stageBackground.scroll(bgSpeed);
             }
-        } catch (Exception e) {
-            // Catch and print resource loading errors (debugging aid)
-            System.out.println("Image/Audio loading exception: " + e.getMessage());
-        }
 
-        // Start JavaFX AnimationTimer (core game loop: runs 60 times per second)
-        new AnimationTimer() {
-            /**
-             * Handle game logic and rendering per frame
-             * @param now Current timestamp (nanoseconds, used for timing)
-             */
-            @Override
-            public void handle(long now) {
-                // Clear screen with black background (prevents trail artifacts)
-                gc.setFill(Color.BLACK);
-                gc.fillRect(0, 0, WIDTH, HEIGHT);
-
-                // --- Seamless Scrolling Background ---
-                if (roadBgImage != null && !roadBgImage.isError()) {
-                    // Draw two background images (for infinite scrolling)
-                    gc.drawImage(roadBgImage, 0, bgY1, WIDTH, roadBgImage.getHeight());
-                    gc.drawImage(roadBgImage, 0, bgY2, WIDTH, roadBgImage.getHeight());
-
-                    // Update background positions (scroll downward)
-                    bgY1 += bgSpeed;
-                    bgY2 += bgSpeed;
-
-                    // Reset background positions when they scroll off-screen (seamless loop)
-                    double bgHeight = roadBgImage.getHeight();
-                    if (bgY1 >= HEIGHT) {
-                        bgY1 = -bgHeight;
-                    }
-                    if (bgY2 >= HEIGHT) {
-                        bgY2 = -bgHeight;
-                    }
-                }
+            // Draw static background elements (cleanup line + dead line)
+            drawBackground();
+        }
 
-                // Draw static background elements (cleanup line + dead line)
-                drawBackground();
+        // If game over or victory, draw result screen and exit loop
+        if (isGameOver || isVictory) {
+            saveReplay(); // Run finished: Write the replay file once (no-op when not recording)
+            if (!headless) {
+                drawResult();
+            }
+            return;
+        }
 
-                // If game over or victory, draw result screen and exit loop
-                if (isGameOver || isVictory) {
-                    drawResult();
-                    return;
-                }
+        timers.advance(frameNumber); // Fire this frame's timers (they only raise flags for the phases below)
+
+        // Core game logic (processed in order per frame, each phase timed as a JFR event)
+        GameFlightEvents.PhaseEvent phase = beginPhase();
+        handleFiring(now);          // Player shooting logic
+        endPhase(phase, "handleFiring");
+        phase = beginPhase();
+        handleGates(now);           // Evolution gate spawning and updates
+        endPhase(phase, "handleGates");
+        phase = beginPhase();
+        handleChests(now);          // Treasure chest spawning and updates
+        endPhase(phase, "handleChests");
+        phase = beginPhase();
+        handlePlayerUnits();        // Player bullet updates and collisions
+        endPhase(phase, "handlePlayerUnits");
+        phase = beginPhase();
+        handleEnemyHorde(now);      // Enemy spawning and updates
+        endPhase(phase, "handleEnemyHorde");
+        phase = beginPhase();
+        handleBossProjectiles();    // BOSS bullet updates and collisions
+        endPhase(phase, "handleBossProjectiles");
+        phase = beginPhase();
+        checkCombatAndGameOver();   // Collision detection (player-enemy/bullets) and game state checks
+        endPhase(phase, "checkCombatAndGameOver");
+        phase = beginPhase();
+        dispatchEvents();           // Rules, audio and counters consume this frame's events (one batch each)
+        endPhase(phase, "dispatchEvents");
+        phase = beginPhase();
+        if (!headless) {
+            renderQueue.flush(gc);  // Draw every queued entity: Sorted by layer and material, few state changes
+            drawPlayer();           // Draw player's plane (engine flame, muzzle flash)
+            if (bloomActive) {
+                bloom.composite(gc); // All glow of the frame: One blur, one additive draw (UI stays unglowed)
+            }
+            drawUI();               // Draw game UI (score, HP, buffs, etc.)
+        }
+        if (input != null) {
+            input.frameDrawn(System.nanoTime()); // Latency probe: Input picked up at frame start is now on screen
+        }
+        endPhase(phase, "drawUI");
 
-                // Core game logic (processed in order per frame)
-                handleFiring(now);          // Player shooting logic
-                handleGates(now);           // Evolution gate spawning and updates
-                handleChests(now);          // Treasure chest spawning and updates
-                handlePlayerUnits();        // Player bullet updates and collisions
-                handleEnemyHorde(now);      // Enemy spawning and updates
-                handleBossProjectiles();    // BOSS bullet updates and collisions
-                checkCombatAndGameOver();   // Collision detection (player-enemy/bullets) and game state checks
-                drawUI();                   // Draw game UI (score, HP, buffs, etc.)
-
-                // Update difficulty multiplier (scales with score: progressive challenge)
-                difficultyMultiplier = 1.0 + (score / 4000.0);
-
-                // Spawn BOSS when score reaches trigger and BOSS not yet spawned
-                if (score >= BOSS_TRIGGER_SCORE && !bossSpawned) {
-                    spawnBoss();
-                }
+        // Update difficulty multiplier (scales with score: progressive challenge; +0.5 per endless cycle)
+        difficultyMultiplier = 1.0 + (cycleScore() / 4000.0) + bossCycle * ENDLESS_CYCLE_DIFFICULTY;
 
-                // Decrement invincibility timer (if active)
-                if (invincibleTimer > 0) {
-                    invincibleTimer--;
-                }
+        // Spawn BOSS when score reaches trigger and BOSS not yet spawned
+        if (cycleScore() >= balance.bossTriggerScore() && !bossSpawned) {
+            spawnBoss();
+        }
 
-                // Update engine flame animation timer (controls blinking)
-                engineFireTimer++;
-                // Toggle flame brightness every 8 frames (adjust for faster/slower blinking)
-                if (engineFireTimer % 8 == 0) {
-                    isEngineFireBright = !isEngineFireBright;
-                    engineFireTimer = 0; // Reset timer to avoid overflow
-                }
-            }
-        }.start();
+        // Update engine flame animation timer (controls blinking)
+        engineFireTimer++;
+        // Toggle flame brightness every 8 frames (adjust for faster/slower blinking)
+        if (engineFireTimer % 8 == 0) {
+            isEngineFireBright = !isEngineFireBright;
+            engineFireTimer = 0; // Reset timer to avoid overflow
+        }
 
-        // Configure and show main game window
-        stage.setScene(scene);
-        stage.setTitle("Thunder Fighter: BOSS Dual Strike Edition"); // English window title
-        stage.show();
+        // Publish live counters (JMX) and close the frame event (JFR)
+        int units = playerUnitCount();
+        monitor.publish(now, frameNumber, units, enemyCount(),
+                bossBullets.count, score, difficultyMultiplier);
+        frameEvent.end();
+        if (frameEvent.shouldCommit()) {
+            frameEvent.frame = frameNumber;
+            frameEvent.playerMob = units;
+            frameEvent.enemyMob = enemyCount();
+            frameEvent.bossProjectiles = bossBullets.count;
+            frameEvent.gates = gates.count;
+            frameEvent.chests = chests.count;
+            frameEvent.score = score;
+            frameEvent.commit();
+        }
+        if (exporter != null) {
+            exporter.export(this, frameNumber); // Shared snapshot for external tools (after all logic of the frame)
+        }
     }
 
     /**
-     * Spawn the final BOSS (triggers when score reaches BOSS_TRIGGER_SCORE)
+     * Spawn the final BOSS (triggers when score reaches the balance's BOSS trigger score)
      * Clears all normal enemies to focus on BOSS fight
      */
     private void spawnBoss() {
         bossSpawned = true; // Mark BOSS as spawned
-        enemyMob.clear();   // Clear all normal enemies (BOSS fight phase)
+        enemies.clear();    // Clear all normal enemies (BOSS fight phase)
         // Spawn BOSS at center-top (off-screen, moves down to 70px Y)
-        finalBoss = new EnemyUnit(WIDTH / 2.0 - 90, -200, true);
-        enemyMob.add(finalBoss); // Add BOSS to enemy list (reuses enemy update/draw logic)
+        int row = boss.add();
+        boss.x[row] = WIDTH / 2.0 - 90;
+        boss.y[row] = -200;
+        boss.w[row] = 180; // Larger size for BOSS (visually dominant)
+        boss.h[row] = 180;
+        boss.maxHp[row] = balance.bossHp(difficultyMultiplier); // High health for challenging fight
+        boss.hp[row] = boss.maxHp[row];
+        // BossAI: Ability intervals (the callbacks mark the abilities due for updateBoss)
+        boss.roarTimer[row] = timers.schedule(BOSS_ROAR_TICKS, BOSS_ROAR_TICKS, onBossRoarDue, row);
+        boss.attackTimer[row] = timers.schedule(BOSS_ATTACK_TICKS, BOSS_ATTACK_TICKS, onBossAttackDue, row);
+        GameFlightEvents.bossPhase("SPAWNED", boss.hp[row]); // JFR: BOSS fight begins
+    }
+
+    /**
+     * Score gained in the current cycle (equals score outside endless mode)
+     * Drives per-cycle progress: enemy HP, gate requirement and BOSS trigger restart each cycle
+     * @return Score since the current cycle began
+     */
+    private int cycleScore() {
+        return score - cycleStartScore;
+    }
+
+    /**
+     * Endless mode: Start the next BOSS cycle after the BOSS is defeated
+     * Progress restarts, while difficultyMultiplier keeps a permanent bonus per completed cycle
+     */
+    private void startNextCycle() {
+        bossCycle++;
+        cycleStartScore = score; // Progress to the next BOSS restarts from here
+        bossSpawned = false;     // Normal hordes resume until the next BOSS trigger
+        bossBullets.clear();     // Leftover BOSS bullets vanish with their BOSS
+        bossPatterns.reset();    // Next BOSS starts again from its first phase
+        GameFlightEvents.bossPhase("CYCLE_" + (bossCycle + 1), 0);
+    }
+
+    /**
+     * Write the recorded replay to disk (once) and stop recording
+     */
+    private void saveReplay() {
+        if (replayLog == null) {
+            return;
+        }
+        try {
+            replayLog.save(Paths.get(replayPath));
+            System.out.println("Replay saved: " + replayPath + " (" + replayLog.frameCount() + " frames)");
+        } catch (IOException e) {
+            System.out.println("Replay saving failed: " + e.getMessage());
+        }
+        replayLog = null;
+    }
+
+    /**
+     * Start timing one game-logic phase (JFR PhaseEvent, near-free when no recording is active)
+     * @return Started phase event, to be passed to endPhase()
+     */
+    private GameFlightEvents.PhaseEvent beginPhase() {
+        GameFlightEvents.PhaseEvent event = new GameFlightEvents.PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop timing one game-logic phase and commit it if a recording wants it
+     * @param event Phase event returned by beginPhase()
+     * @param name Name of the phase method
+     */
+    private void endPhase(GameFlightEvents.PhaseEvent event, String name) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = name;
+            event.frame = frameNumber;
+            event.commit();
+        }
     }
 
     /**
@@ -723,65 +1572,93 @@ public class ThunderFighter extends Application {
 
     /**
      * Handle player shooting logic: Controls bullet spawning, Buff timers, and visual effects
-     * @param now Current timestamp (nanoseconds, used to control fire rate)
+     * @param now Current timestamp (nanoseconds; the fire rate runs on the timer wheel)
      */
     private void handleFiring(long now) {
-        boolean isFiring = false; // Flag: True if player is shooting this frame
-
-        // Control fire rate: 240ms cooldown (prevents spamming)
-        if (now - lastFireTime > 240 * 1_000_000L) {
-            // Play shooting sound effect (if loaded)
-            if (shootSound != null) {
-                shootSound.play();
-            }
-
-            // Determine bullet damage and size based on active Buffs
-            double currentDmg = (dmgBuffTimer > 0) ? 2.0 : 1.0; // Double damage with Damage Buff
-            double currentSize = (giantBuffTimer > 0) ? 36.0 : 15.0; // Larger size with Giant Buff
-
-            // Spawn bullets based on base fire count (increases with chests)
-            for (int i = 0; i < baseFireCount; i++) {
-                // Horizontal offset for multiple bullets (spreads left/right)
-                double xOffset = (i - (baseFireCount - 1) / 2.0) * 12;
-
-                // Scatter Buff: Spawn 3 bullets per fire (left/center/right)
-                if (scatterBuffTimer > 0) {
-                    for (int j = -1; j <= 1; j++) {
-                        // Add scatter bullets to playerMob list (different horizontal velocities)
-                        playerMob.add(new MobUnit(cannonX + xOffset, HEIGHT - 60, j * 2.2, -10.5, currentDmg, currentSize));
+        isFiring = false; // Reset per frame: True if player is shooting this frame
+
+        // Control fire rate: One shot every FIRE_TICKS frames (prevents spamming)
+        if (fireDue) {
+            // Determine bullet damage and size based on active Buffs (this shot still counts as pending)
+            boolean scatterBuff = buffShots(BUFF_SCATTER) > 0;
+            double currentDmg = (buffShots(BUFF_DAMAGE) > 0) ? 2.0 : 1.0; // Double damage with Damage Buff
+            double currentSize = (buffShots(BUFF_GIANT) > 0) ? 36.0 : 15.0; // Larger size with Giant Buff
+            fireDue = false; // Shot taken: Buff durations now count from the next shot
+
+            // Swarm LOD: The whole volley is one formation group (box-tested as one until it nears something)
+            int volley = ++lastGroup;
+            int units = playerUnitCount();
+            int unitsBefore = units;
+            // Bullets spread left/right VOLLEY_SPACING apart, centered on the cannon
+            double left = cannonX - (baseFireCount - 1) / 2.0 * VOLLEY_SPACING;
+            int straight = Math.min(baseFireCount, MAX_PLAYER_UNITS - units); // Bullets of a normal shot
+
+            // Swarm LOD: A straight volley is one row (count + combined damage) while every bullet is inside the side
+            // walls (x never changes, so none of them bounces); the same bullets as the per-bullet loop below
+            if (swarmLod && !scatterBuff && straight > 1
+                    && left >= 0 && left + VOLLEY_SPACING * (straight - 1) <= WIDTH - 10) {
+                addSwarm(left, HEIGHT - 60, -9.0, currentDmg, currentSize, straight, volley);
+                units += straight;
+            } else {
+                // Spawn bullets based on base fire count (increases with chests)
+                for (int i = 0; i < baseFireCount && units < MAX_PLAYER_UNITS; i++) {
+                    // Horizontal position of this bullet (spreads left/right)
+                    double bulletX = left + VOLLEY_SPACING * i;
+
+                    // Scatter Buff: Spawn 3 bullets per fire (left/center/right)
+                    if (scatterBuff) {
+                        for (int j = -1; j <= 1; j++) {
+                            // Add scatter bullets (different horizontal velocities)
+                            addBullet(bulletX, HEIGHT - 60, j * 2.2, -10.5, currentDmg, currentSize,
+                                    swarmLod ? volley : ++lastGroup);
+                            units++;
+                        }
+                    } else {
+                        // Normal fire: Spawn 1 bullet per fire (straight upward)
+                        addBullet(bulletX, HEIGHT - 60, 0, -9.0, currentDmg, currentSize,
+                                swarmLod ? volley : ++lastGroup);
+                        units++;
                     }
-                } else {
-                    // Normal fire: Spawn 1 bullet per fire (straight upward)
-                    playerMob.add(new MobUnit(cannonX + xOffset, HEIGHT - 60, 0, -9.0, currentDmg, currentSize));
-                }
-            }
-
-            // Update Buff timers (decrement if active, reset flags when expired)
-            if (scatterBuffTimer > 0) {
-                scatterBuffTimer--;
-                if (scatterBuffTimer == 0) {
-                    hasScatterBuff = false;
-                }
-            }
-            if (dmgBuffTimer > 0) {
-                dmgBuffTimer--;
-                if (dmgBuffTimer == 0) {
-                    hasDmgBuff = false;
-                }
-            }
-            if (giantBuffTimer > 0) {
-                giantBuffTimer--;
-                if (giantBuffTimer == 0) {
-                    hasGiantBuff = false;
                 }
             }
+            // Shooting sound effect is played by the audio subscriber
+            events.publish(GameEvent.SHOT_FIRED, 0, units - unitsBefore, cannonX, HEIGHT - 60, 0);
 
-            lastFireTime = now; // Update last fire time (control cooldown)
             isFiring = true; // Mark as firing (trigger muzzle flash effect)
         }
+    }
+
+    // Engine flame and muzzle flash colors (opaque: opacity is passed to emitGlow separately)
+    private static final Color FLAME_OUTER_BRIGHT = Color.rgb(255, 105, 97);
+    private static final Color FLAME_CORE_BRIGHT = Color.rgb(255, 165, 0);
+    private static final Color FLAME_CENTER_BRIGHT = Color.rgb(255, 255, 0, 0.9);
+    private static final Color FLAME_OUTER_DIM = Color.rgb(255, 90, 97);
+    private static final Color FLAME_CORE_DIM = Color.rgb(255, 140, 0);
+    private static final Color FLAME_CENTER_DIM = Color.rgb(255, 220, 0, 0.6);
+    private static final Color MUZZLE_YELLOW = Color.rgb(255, 255, 0);
+    private static final Color MUZZLE_BLUE = Color.rgb(20, 187, 225);
+
+    /**
+     * Emit an oval glow into the bloom pass, or draw it as a translucent oval when bloom is off this frame
+     */
+    private void emitGlow(double x, double y, double w, double h, Color color, double alpha) {
+        if (bloomActive) {
+            bloom.emitOval(x, y, w, h, color, alpha);
+        } else {
+            gc.save();
+            gc.setGlobalAlpha(alpha);
+            gc.setFill(color);
+            gc.fillOval(x, y, w, h);
+            gc.restore();
+        }
+    }
 
-        // Draw player's plane (with invincibility blinking and engine flame)
-        if (invincibleTimer % 4 == 0) { // Blink when invincible (visible every 4 frames)
+    /**
+     * Draw the player's plane (with invincibility blinking, engine flame and muzzle flash)
+     * Called after the render queue is flushed, so the plane is drawn on top of every entity
+     */
+    private void drawPlayer() {
+        if (timers.remaining(invincibleTimer) % 4 == 0) { // Blink when invincible (visible every 4 frames)
             if (playerPlaneImage != null && !playerPlaneImage.isError()) {
                 // Draw player plane sprite (centered on mouse X, fixed Y position)
                 gc.drawImage(
@@ -796,42 +1673,37 @@ public class ThunderFighter extends Application {
                 double engineX = cannonX - 2; // Engine X position (center of plane's tail)
                 double engineY = (HEIGHT - 100) + 60; // Engine Y position (bottom of plane)
 
-                // Toggle flame brightness based on isEngineFireBright flag
-                if (isEngineFireBright) {
-                    // Bright flame (3 layers: outer glow → core → center)
-                    gc.setFill(Color.rgb(255, 105, 97, 0.4)); // Outer red glow (soft)
-                    gc.fillOval(engineX - 17, engineY, 40, 50);
-                    gc.setFill(Color.rgb(255, 165, 0, 0.7)); // Middle orange (core flame)
-                    gc.fillOval(engineX - 12, engineY + 5, 30, 45);
-                    gc.setFill(Color.rgb(255, 255, 0, 0.9)); // Inner yellow (bright center)
+                // Toggle flame brightness based on isEngineFireBright flag (skipped at LOW quality)
+                // The outer layers are glow (bloom pass or translucent ovals, see emitGlow); the center is drawn
+                if (qualityTier == GameMonitor.QUALITY_LOW) {
+                    // LOW quality: No flame layers (saves 3 translucent ovals per frame)
+                } else if (isEngineFireBright) {
+                    // Bright flame (outer glow → core emitted, bright center drawn)
+                    emitGlow(engineX - 17, engineY, 40, 50, FLAME_OUTER_BRIGHT, 0.4); // Outer red glow (soft)
+                    emitGlow(engineX - 12, engineY + 5, 30, 45, FLAME_CORE_BRIGHT, 0.7); // Middle orange (core flame)
+                    gc.setFill(FLAME_CENTER_BRIGHT); // Inner yellow (bright center)
                     gc.fillOval(engineX - 8, engineY + 10, 20, 40);
                 } else {
-                    // Dim flame (3 layers: softer than bright state)
-                    gc.setFill(Color.rgb(255, 90, 97, 0.2)); // Outer red glow (dim)
-                    gc.fillOval(engineX - 17, engineY, 40, 40);
-                    gc.setFill(Color.rgb(255, 140, 0, 0.4)); // Middle orange (dim)
-                    gc.fillOval(engineX - 12, engineY + 5, 30, 35);
-                    gc.setFill(Color.rgb(255, 220, 0, 0.6)); // Inner yellow (dim)
+                    // Dim flame (softer than bright state)
+                    emitGlow(engineX - 17, engineY, 40, 40, FLAME_OUTER_DIM, 0.2); // Outer red glow (dim)
+                    emitGlow(engineX - 12, engineY + 5, 30, 35, FLAME_CORE_DIM, 0.4); // Middle orange (dim)
+                    gc.setFill(FLAME_CENTER_DIM); // Inner yellow (dim)
                     gc.fillOval(engineX - 8, engineY + 10, 20, 30);
                 }
 
                 // --- Muzzle Flash Effect (Triggers When Firing) ---
-                if (isFiring) {
-                    // Left cannon flash (3 layers: white core → yellow → blue)
+                if (isFiring && qualityTier > GameMonitor.QUALITY_LOW) {
+                    // Left cannon flash (white core drawn, yellow and blue halo emitted as glow)
                     gc.setFill(Color.WHITE);
                     gc.fillOval((cannonX - 50) + 22, (HEIGHT - 100) + 6, 4, 30);
-                    gc.setFill(Color.rgb(255, 255, 0, 0.8));
-                    gc.fillOval((cannonX - 50) + 20, (HEIGHT - 100) + 4, 8, 32);
-                    gc.setFill(Color.rgb(20, 187, 225, 0.9));
-                    gc.fillOval((cannonX - 50) + 20, (HEIGHT - 100) + 2, 10, 40);
+                    emitGlow((cannonX - 50) + 20, (HEIGHT - 100) + 4, 8, 32, MUZZLE_YELLOW, 0.8);
+                    emitGlow((cannonX - 50) + 20, (HEIGHT - 100) + 2, 10, 40, MUZZLE_BLUE, 0.9);
 
                     // Right cannon flash (symmetric to left)
                     gc.setFill(Color.WHITE);
                     gc.fillOval((cannonX - 50) + 70, (HEIGHT - 100) + 6, 4, 30);
-                    gc.setFill(Color.rgb(255, 255, 0, 0.8));
-                    gc.fillOval((cannonX - 50) + 70, (HEIGHT - 100) + 4, 8, 32);
-                    gc.setFill(Color.rgb(20, 187, 225, 0.9));
-                    gc.fillOval((cannonX - 50) + 70, (HEIGHT - 100) + 2, 10, 40);
+                    emitGlow((cannonX - 50) + 70, (HEIGHT - 100) + 4, 8, 32, MUZZLE_YELLOW, 0.8);
+                    emitGlow((cannonX - 50) + 70, (HEIGHT - 100) + 2, 10, 40, MUZZLE_BLUE, 0.9);
 
                     // Optional: Thin white outline for flash (enhances visibility)
                     gc.setStroke(Color.WHITE);
@@ -842,9 +1714,9 @@ public class ThunderFighter extends Application {
             } else {
                 // Fallback: Draw solid rectangle if plane sprite fails (ensures playability)
                 // Color changes with active Buffs (visual feedback)
-                if (scatterBuffTimer > 0) {
+                if (scatterBuffTimer() > 0) {
                     gc.setFill(Color.GOLD);
-                } else if (dmgBuffTimer > 0) {
+                } else if (damageBuffTimer() > 0) {
                     gc.setFill(Color.RED);
                 } else {
                     gc.setFill(Color.DODGERBLUE);
@@ -856,65 +1728,101 @@ public class ThunderFighter extends Application {
 
     /**
      * Handle BOSS bullet updates and collisions with player
-     * Removes bullets that go off-screen or hit the player
+     * All bullets advance in one pass over the field (off-screen bullets are dropped there), then only the bullets
+     * in the grid cells around the plane are hit-tested instead of scanning every bullet
      */
     private void handleBossProjectiles() {
-        // Use iterator to safely remove bullets during iteration
-        Iterator<BossProjectile> it = bossProjectiles.iterator();
-        while (it.hasNext()) {
-            BossProjectile p = it.next();
-            p.update(); // Update bullet position
-            p.draw(gc); // Draw bullet
-
-            // Collision detection: BOSS bullet hits player (if not invincible)
-            if (invincibleTimer <= 0 && p.y > HEIGHT - 75 && Math.abs(p.x + p.size/2 - cannonX) < 30) {
-                playerHP--; // Decrease player health
-                invincibleTimer = 60; // Grant 1 second (60 frames) invincibility
-                it.remove(); // Remove the bullet (prevents multiple hits)
-                // Trigger game over if player health drops to 0 or below
-                if (playerHP <= 0) {
-                    isGameOver = true;
-                }
-            } else if (p.y > HEIGHT) {
-                // Remove bullet if it goes off-screen bottom (saves memory)
-                it.remove();
+        bossBullets.update(cannonX); // Move bullets, drop off-screen ones, rebuild the hit grid
+        if (!headless) {
+            drawBossBullets();
+        }
+
+        // Collision detection: BOSS bullet hits player (if not invincible)
+        if (timers.isPending(invincibleTimer)) {
+            return;
+        }
+        // Coarse window (bullet top-left): y > HEIGHT - 75 and |x + size/2 - cannonX| < 30
+        double half = BossBulletField.SIZE / 2;
+        int n = bossBullets.query(cannonX - 30 - half, HEIGHT - 75, cannonX + 30 - half, HEIGHT, bossHitCandidates);
+        for (int k = 0; k < n; k++) {
+            int i = bossHitCandidates[k];
+            double bx = bossBullets.x[i], by = bossBullets.y[i];
+            if (by > HEIGHT - 75 && Math.abs(bx + half - cannonX) < 30 && hitsPlane(bx, by)) {
+                invincibleTimer = timers.schedule(INVINCIBLE_TICKS, EXPIRE, 0); // Grant 1 second (60 frames) invincibility
+                bossBullets.remove(i); // Remove the bullet (prevents multiple hits)
+                events.publish(GameEvent.PLAYER_HIT, 0, 0, cannonX, HEIGHT - 70, 0); // HP loss applied by applyEvent
+                break; // Invincible now: The remaining candidates cannot hit this frame
+            }
+        }
+    }
+
+    /**
+     * Queue all BOSS bullets (fallback to solid circles with an outline if the sprite failed to load)
+     */
+    private void drawBossBullets() {
+        double size = BossBulletField.SIZE;
+        for (int i = 0; i < bossBullets.count; i++) {
+            renderQueue.draw(LAYER_BOSS_BULLETS, matBossBullet, bossBullets.x[i], bossBullets.y[i], size, size);
+            if (matBossBulletOutline >= 0) {
+                renderQueue.draw(LAYER_BOSS_BULLETS, matBossBulletOutline, bossBullets.x[i], bossBullets.y[i], size, size);
             }
         }
     }
 
+    /**
+     * Exact BOSS bullet vs plane test (after the coarse window): ANDs the two sprites' alpha masks word by word
+     * so shots passing the plane's transparent wing gaps no longer count as hits
+     * @param bx BOSS bullet X coordinate (top-left of its sprite)
+     * @param by BOSS bullet Y coordinate (top-left of its sprite)
+     * @return True if opaque pixels of the bullet and the plane overlap
+     */
+    private boolean hitsPlane(double bx, double by) {
+        CollisionMask plane = SpriteMasks.PLANE;
+        CollisionMask shot = SpriteMasks.BOSS_BULLET;
+        if (plane == null || shot == null) {
+            return true; // No masks available: The coarse window alone decides (previous behavior)
+        }
+        // Plane sprite is drawn at (cannonX - 50, HEIGHT - 120), bullet sprite at (bx, by)
+        return plane.overlaps(shot, (int) Math.round(bx - (cannonX - 50)), (int) Math.round(by - (HEIGHT - 120)));
+    }
+
     /**
      * Handle evolution gate spawning and updates
      * Spawns gates at fixed intervals (6 seconds) with random positions/types
-     * @param now Current timestamp (nanoseconds, used to control spawn rate)
+     * @param now Current timestamp (nanoseconds; the spawn rate runs on the timer wheel)
      */
     private void handleGates(long now) {
-        // Spawn gate every 6 seconds (6000ms = 6000 * 1e6 nanoseconds)
-        if (now - lastGateSpawnTime > 6000 * 1_000_000L) {
+        // Spawn gate every 6 seconds (GATE_SPAWN_TICKS frames; waits for room when the gate pool is full)
+        if (gateSpawnDue && gates.count + 2 <= MAX_GATES) {
             // Dynamic charge requirement: Increases with score (progressive challenge)
-            int currentReq = Math.min(35, 10 + (score / 120));
+            int currentReq = balance.gateRequirement(cycleScore());
             boolean purpleOnLeft = random.nextBoolean(); // Randomly place purple gate on left/right
-            String purpleMode = random.nextBoolean() ? "BURST" : "GIANT"; // Random purple gate type
+            int purpleMode = random.nextBoolean() ? GameEvent.GATE_BURST : GameEvent.GATE_GIANT; // Random purple gate type
 
             // Spawn two gates (split screen: left + right)
             if (purpleOnLeft) {
                 // Left: Purple gate (BURST/GIANT), Right: Blue gate (ATK x2)
-                gates.add(new Gate(0, -100, WIDTH / 2.0, purpleMode, true, currentReq));
-                gates.add(new Gate(WIDTH / 2.0, -100, WIDTH / 2.0, "ATK", false, 0));
+                addGate(0, -100, WIDTH / 2.0, purpleMode, currentReq);
+                addGate(WIDTH / 2.0, -100, WIDTH / 2.0, GameEvent.GATE_ATK, 0);
             } else {
                 // Left: Blue gate (ATK x2), Right: Purple gate (BURST/GIANT)
-                gates.add(new Gate(0, -100, WIDTH / 2.0, "ATK", false, 0));
-                gates.add(new Gate(WIDTH / 2.0, -100, WIDTH / 2.0, purpleMode, true, currentReq));
+                addGate(0, -100, WIDTH / 2.0, GameEvent.GATE_ATK, 0);
+                addGate(WIDTH / 2.0, -100, WIDTH / 2.0, purpleMode, currentReq);
             }
 
-            lastGateSpawnTime = now; // Update last spawn time (control interval)
+            gateSpawnDue = false;
+            timers.schedule(GATE_SPAWN_TICKS, onGateSpawnDue, 0); // Next pair (control interval)
+            GameFlightEvents.spawnBurst("GATES", 2);
         }
 
-        // Update and draw gates; remove gates that go off-screen (saves memory)
-        gates.removeIf(g -> {
-            g.update();
-            g.draw(gc);
-            return g.y > HEIGHT;
-        });
+        // Move and draw gates; remove gates that go off-screen (movement and cleanup systems)
+        EntityWorld.move(gates);
+        if (!headless) {
+            for (int g = 0; g < gates.count; g++) {
+                drawGate(renderQueue, g);
+            }
+        }
+        EntityWorld.cullBelow(gates, HEIGHT);
     }
 
     /**
@@ -926,105 +1834,145 @@ public class ThunderFighter extends Application {
         // Random spawn: 1/850 chance per frame (balanced rarity)
         if (random.nextInt(850) == 0) {
             // Spawn chest at random X (within screen width) and off-screen top Y
-            chests.add(new Chest(random.nextDouble() * (WIDTH - 40), -50));
+            if (!chests.isFull()) {
+                addChest(random.nextDouble() * (WIDTH - 40), -50);
+                GameFlightEvents.spawnBurst("CHEST", 1);
+            }
         }
 
-        // Update and draw chests; remove chests that go off-screen (saves memory)
-        chests.removeIf(c -> {
-            c.update();
-            c.draw(gc);
-            return c.y > HEIGHT;
-        });
+        // Move and draw chests; remove chests that go off-screen (movement and cleanup systems)
+        EntityWorld.move(chests);
+        if (!headless) {
+            for (int c = 0; c < chests.count; c++) {
+                drawChest(renderQueue, c);
+            }
+        }
+        EntityWorld.cullBelow(chests, HEIGHT);
     }
 
     /**
      * Handle player bullet updates, gate interactions, and chest interactions
      * Manages bullet lifecycle (spawn → update → collision → removal)
+     * Swarm LOD: A swarm row moves and is culled as one row; before any of its members can be inside a gate or
+     * chest it splits back into one row per bullet, and a formation whose bounding box misses every gate and chest
+     * skips the per-bullet tests below. The rules still run per bullet, so both LOD settings give identical results
      */
     private void handlePlayerUnits() {
-        List<MobUnit> newUnits = new ArrayList<>(); // Temporary list for BURST buff bullets
-        Iterator<MobUnit> it = playerMob.iterator(); // Safe iteration for bullet removal
-
-        while (it.hasNext()) {
-            MobUnit u = it.next();
-            u.update(); // Update bullet position
-            u.draw(gc, this); // Draw bullet (polymorphic based on Buffs)
-
-            // Remove bullets that go off-screen top (cleanup line)
-            if (u.y < TOP_CLEANUP_LINE) {
-                it.remove();
-                continue;
+        // Movement system: All bullets in one kernel pass (bounce off the left/right edges); bullets past the top
+        // cleanup line or the bottom edge are removed after they were queued for this frame
+        world.integrate(playerBullets, BulletKernel.INSTANCE, 0, WIDTH - 10, TOP_CLEANUP_LINE, HEIGHT);
+        if (!headless) {
+            for (int i = 0; i < playerBullets.count; i++) {
+                double y = playerBullets.y[i], size = playerBullets.w[i];
+                for (long live = playerBullets.members[i]; live != 0; live &= live - 1) {
+                    // Look follows Buffs
+                    drawShot(renderQueue, playerBullets.memberX(i, Long.numberOfTrailingZeros(live)), y, size);
+                }
             }
-            // Remove bullets that go off-screen bottom (saves memory)
-            if (u.y > HEIGHT) {
-                it.remove();
-                continue;
+        }
+        playerBullets.compact();
+
+        // Swarm rows reaching into a gate or chest split into single bullets (rows behind i move down: already checked)
+        for (int i = playerBullets.count - 1; i >= 0; i--) {
+            if (playerBullets.members[i] != 1 && nearGateOrChest(playerBullets.x[i], playerBullets.y[i],
+                    playerBullets.x[i] + playerBullets.span[i], playerBullets.y[i])) {
+                playerBullets.split(i);
             }
+        }
 
-            boolean removed = false; // Flag: True if bullet is removed (gate/chest interaction)
-
-            // Check collision with evolution gates
-            for (Gate g : gates) {
-                // Bullet is inside the gate's bounds
-                if (u.x > g.x && u.x < g.x + g.w && u.y < g.y + g.h && u.y > g.y) {
-                    if (g.isPurple) {
-                        // Purple gate: Charge up with bullet (increase charge count)
-                        g.currentCharge++;
-                        // Activate Buff if charge reaches max
-                        if (g.currentCharge >= g.maxCharge) {
-                            if (g.op.equals("BURST")) {
-                                // BURST Buff: Spawn 35 spread bullets at gate position
-                                triggerBurst(g.x + g.w/2, g.y + g.h/2, newUnits);
-                                scatterBuffTimer = BUFF_DURATION*2; // Activate Scatter Buff
-                                hasScatterBuff = true;
-                            } else {
-                                // GIANT Buff: Activate Giant Bullet Buff
-                                giantBuffTimer = BUFF_DURATION;
-                                hasGiantBuff = true;
-                                // Reduce duration of other Buffs (prevents stacking)
-                                scatterBuffTimer /= 2;
-                                dmgBuffTimer /= 2;
+        int runs = EntityWorld.formations(playerBullets, runStart, runBox);
+        for (int run = 0; run < runs; run++) {
+            int b = 4 * run;
+            if (!nearGateOrChest(runBox[b], runBox[b + 1], runBox[b + 2], runBox[b + 3])) {
+                continue; // Formation is clear of every gate and chest
+            }
+            for (int i = runStart[run]; i < runStart[run + 1]; i++) {
+                if (playerBullets.members[i] != 1) {
+                    continue; // Swarm row clear of every gate and chest (split above otherwise)
+                }
+                double ux = playerBullets.x[i], uy = playerBullets.y[i];
+                boolean removed = false; // Flag: True if bullet is removed (gate/chest interaction)
+
+                // Check collision with evolution gates
+                for (int g = 0; g < gates.count; g++) {
+                    double gx = gates.x[g], gy = gates.y[g], gw = gates.w[g], gh = gates.h[g];
+                    // Bullet is inside the gate's bounds
+                    if (ux > gx && ux < gx + gw && uy < gy + gh && uy > gy) {
+                        int gateKind = gates.kind[g];
+                        if (gateKind != GameEvent.GATE_ATK) {
+                            // Purple gate: Charge up with bullet (increase charge count)
+                            int charge = ++gates.charge[g];
+                            events.publish(GameEvent.GATE_CHARGED, gateKind, charge, gx + gw/2, gy + gh/2, gates.maxCharge[g]);
+                            // Activate Buff if charge reaches max (Buff timers are applied by applyEvent)
+                            if (charge >= gates.maxCharge[g]) {
+                                if (gateKind == GameEvent.GATE_BURST) {
+                                    // BURST Buff: Spawn 35 spread bullets at gate position
+                                    triggerBurst(gx + gw/2, gy + gh/2);
+                                }
+                                events.publish(GameEvent.GATE_TRIGGERED, gateKind, 0, gx + gw/2, gy + gh/2, 0);
+                                gates.y[g] = 2000; // Move gate off-screen (removed by the next cleanup)
                             }
-                            g.y = 2000; // Move gate off-screen (remove after activation)
+                            playerBullets.remove(i); // Consume bullet for charging
+                            removed = true;
+                            break;
+                        } else if ((playerBullets.flags[i] & PASSED_GATE) == 0) {
+                            // Blue gate: Apply ATK x2 Buff immediately (no charge needed, applied by applyEvent)
+                            playerBullets.flags[i] |= PASSED_GATE; // Mark bullet as having passed gate (prevents repeat buffing)
+                            events.publish(GameEvent.GATE_TRIGGERED, GameEvent.GATE_ATK, 0, ux, uy, 0);
                         }
-                        it.remove(); // Consume bullet for charging
-                        removed = true;
-                        break;
-                    } else if (!u.hasPassedGate) {
-                        // Blue gate: Apply ATK x2 Buff immediately (no charge needed)
-                        u.hasPassedGate = true; // Mark bullet as having passed gate (prevents repeat buffing)
-                        dmgBuffTimer = BUFF_DURATION; // Activate Damage Buff
-                        hasDmgBuff = true;
-                        // Reduce duration of other Buffs (prevents stacking)
-                        scatterBuffTimer /= 2;
-                        giantBuffTimer /= 2;
                     }
                 }
-            }
 
-            // If bullet not removed by gate, check collision with treasure chests
-            if (!removed) {
-                for (Chest c : chests) {
-                    // Bullet is inside the chest's bounds
-                    if (u.x > c.x && u.x < c.x + c.size && u.y > c.y && u.y < c.y + c.size) {
-                        c.hp -= u.damage; // Reduce chest health
-                        it.remove(); // Consume bullet on hit
-                        removed = true;
-                        // Open chest if health drops to 0 or below (permanent fire count increase)
-                        if (c.hp <= 0) {
-                            baseFireCount++; // Increase base bullets per shot
-                            c.y = 2000; // Move chest off-screen (remove after opening)
+                // If bullet not removed by gate, check collision with treasure chests
+                if (!removed) {
+                    for (int c = 0; c < chests.count; c++) {
+                        // Bullet hits the chest (box test + alpha mask)
+                        if (chestHitAt(c, ux, uy)) {
+                            chests.hp[c] -= playerBullets.damage[i]; // Reduce chest health
+                            playerBullets.remove(i); // Consume bullet on hit
+                            // Open chest if health drops to 0 or below (permanent fire count increase)
+                            if (chests.hp[c] <= 0) {
+                                events.publish(GameEvent.CHEST_BROKEN, 0, 0,
+                                        chests.x[c] + chests.w[c]/2, chests.y[c] + chests.h[c]/2, 0);
+                                chests.y[c] = 2000; // Move chest off-screen (removed by the next cleanup)
+                            }
+                            break;
                         }
-                        break;
                     }
                 }
             }
         }
+        playerBullets.compact();
+
+        // Add BURST buff bullets (never beyond MAX_PLAYER_UNITS to prevent memory overload)
+        int units = playerUnitCount();
+        for (int k = 0; k < burstCount && units < MAX_PLAYER_UNITS; k++, units++) {
+            addBullet(burstShots[4 * k], burstShots[4 * k + 1], burstShots[4 * k + 2], burstShots[4 * k + 3],
+                    1.0, 9.0, ++lastGroup); // Small size, low damage; every BURST bullet flies on its own
+        }
+        burstCount = 0;
+    }
 
-        // Add BURST buff bullets to playerMob (limit to 600 to prevent memory overload)
-        if (playerMob.size() < 600) {
-            playerMob.addAll(newUnits);
+    /**
+     * Swarm LOD broad phase: Can any bullet of a formation or swarm row be inside a gate or chest?
+     * @param minX Left edge of the bullets' bounding box
+     * @param minY Top edge of the bullets' bounding box
+     * @param maxX Right edge of the bullets' bounding box
+     * @param maxY Bottom edge of the bullets' bounding box
+     * @return False only if every bullet in the box is clear of every gate and chest
+     */
+    private boolean nearGateOrChest(double minX, double minY, double maxX, double maxY) {
+        for (int g = 0; g < gates.count; g++) {
+            if (maxX > gates.x[g] && minX < gates.x[g] + gates.w[g] && maxY > gates.y[g] && minY < gates.y[g] + gates.h[g]) {
+                return true;
+            }
         }
+        for (int c = 0; c < chests.count; c++) {
+            if (maxX > chests.x[c] && minX < chests.x[c] + chests.w[c] && maxY > chests.y[c] && minY < chests.y[c] + chests.h[c]) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -1035,75 +1983,242 @@ public class ThunderFighter extends Application {
     private void handleEnemyHorde(long now) {
         // If BOSS is spawned, only update BOSS (ignore normal enemy logic)
         if (bossSpawned) {
-            if (finalBoss != null) {
-                finalBoss.update();
-                finalBoss.draw(gc);
+            for (int b = 0; b < boss.count; b++) {
+                updateBoss(b); // BossAI system
+                if (!headless) {
+                    drawEnemy(renderQueue, boss, b);
+                }
             }
             return;
         }
 
-        // Spawn enemy horde every 2 seconds (2000ms = 2000 * 1e6 nanoseconds)
-        if (now - lastHordeSpawnTime > 2000 * 1_000_000L) {
+        // Spawn enemy horde every 2 seconds (HORDE_SPAWN_TICKS frames; a horde due during the BOSS fight waits for it to end)
+        if (hordeSpawnDue && flocking) {
+            // Flocking: One formation (4 rows of 6) above a random spot; steering spreads it out from there
+            int spawned = 0;
+            double left = random.nextDouble() * (WIDTH - 6 * 45.0);
+            for (int i = 0; i < FLOCK_HORDE_SIZE && enemies.count < MAX_FLOCK_ENEMIES; i++) {
+                addEnemy(left + (i % 6) * 45.0, -50 - (i / 6) * 45.0);
+                spawned++;
+            }
+            GameFlightEvents.spawnBurst("FLOCK", spawned);
+            hordeSpawnDue = false;
+            timers.schedule(HORDE_SPAWN_TICKS, onHordeSpawnDue, 0); // Next formation (control interval)
+        } else if (hordeSpawnDue) {
             // Spawn 8 enemies (one per 1/8 screen width)
+            int spawned = 0;
             for (int i = 0; i < 8; i++) {
                 // 60% chance to spawn an enemy in each position (varied hordes)
-                if (random.nextInt(10) < 6) {
-                    enemyMob.add(new EnemyUnit(i * (WIDTH / 8.0) + 2, -50, false));
+                if (random.nextInt(10) < 6 && enemies.count < MAX_ENEMIES) {
+                    addEnemy(i * (WIDTH / 8.0) + 2, -50);
+                    spawned++;
                 }
             }
-            lastHordeSpawnTime = now; // Update last spawn time (control interval)
+            GameFlightEvents.spawnBurst("HORDE", spawned);
+            hordeSpawnDue = false;
+            timers.schedule(HORDE_SPAWN_TICKS, onHordeSpawnDue, 0); // Next horde (control interval)
         }
 
-        // Update and draw all normal enemies
-        enemyMob.forEach(e -> {
-            e.update();
-            e.draw(gc);
-        });
+        // Move all normal enemies (steered formations, or the movement system in lane mode), then draw them
+        if (flocking) {
+            steerFlock();
+        } else {
+            EntityWorld.move(enemies);
+        }
+        if (!headless) {
+            for (int e = 0; e < enemies.count; e++) {
+                drawEnemy(renderQueue, enemies, e);
+            }
+        }
+    }
+
+    /**
+     * Flocking: Steer all normal enemies one step (separation, alignment, cohesion, gate avoidance, swarm toward
+     * the plane); the flock works on enemy centers in primitive arrays and hands the new positions back
+     */
+    private void steerFlock() {
+        flock.clear();
+        for (int e = 0; e < enemies.count; e++) {
+            double half = enemies.w[e] / 2;
+            flock.add(enemies.x[e] + half, enemies.y[e] + half, enemies.vx[e], enemies.vy[e]);
+        }
+        flock.step(cannonX, HEIGHT - 60, gates);
+        for (int e = 0; e < flock.count; e++) {
+            double half = enemies.w[e] / 2;
+            enemies.x[e] = flock.x[e] - half;
+            enemies.y[e] = flock.y[e] - half;
+            enemies.vx[e] = flock.vx[e];
+            enemies.vy[e] = flock.vy[e];
+        }
     }
 
     /**
      * Core collision detection: Player bullets vs enemies/BOSS
      * Checks game over conditions (enemies cross dead line) and victory (BOSS defeated)
+     * Swarm LOD: One box test per formation and enemy; bullets are only tested when the boxes overlap
      */
     private void checkCombatAndGameOver() {
-        // Iterate over enemies (safe removal with iterator)
-        Iterator<EnemyUnit> eIt = enemyMob.iterator();
-        while (eIt.hasNext()) {
-            EnemyUnit e = eIt.next();
-
-            // Game over: Enemy crosses dead line (reaches bottom safe zone)
-            if (e.y + e.size > DEAD_LINE) {
-                isGameOver = true;
-                return;
+        int runs = EntityWorld.formations(playerBullets, runStart, runBox);
+        for (Archetype a : targets) {
+            for (int e = 0; e < a.count && !isGameOver; e++) {
+                // Game over: Enemy crosses dead line (reaches bottom safe zone)
+                if (a.y[e] + a.w[e] > DEAD_LINE) {
+                    if (godMode) {
+                        a.remove(e); // Attract/soak mode: The enemy leaks through instead of ending the run
+                        continue;
+                    }
+                    isGameOver = true;
+                    break;
+                }
+                shootAt(a, e, runs); // Check collision between player bullets and current enemy
             }
+        }
+        // Remove spent bullets and defeated enemies in one pass each (order is kept)
+        playerBullets.compact();
+        enemies.compact();
+        boss.compact();
+    }
 
-            // Check collision between player bullets and current enemy
-            Iterator<MobUnit> pIt = playerMob.iterator();
-            while (pIt.hasNext()) {
-                MobUnit p = pIt.next();
-                // Bullet is inside enemy's bounds (collision detected)
-                if (p.x > e.x && p.x < e.x + e.size && p.y > e.y && p.y < e.y + e.size) {
-                    e.hp -= p.damage; // Reduce enemy health
-                    pIt.remove(); // Remove bullet after hit (prevents multiple hits)
+    /**
+     * Player bullets vs one enemy, in bullet order: Each hit takes the bullet's damage, a lethal hit defeats the enemy
+     * Swarm rows are tested member by member (in spawn order); a hit removes just that member and its damage share
+     * @param a Enemy or BOSS archetype
+     * @param e Row of the enemy
+     * @param runs Formation runs of this frame (EntityWorld.formations)
+     */
+    private void shootAt(Archetype a, int e, int runs) {
+        double ex = a.x[e], ey = a.y[e], size = a.w[e];
+        CollisionMask mask = maskOf(a, e);
+        for (int run = 0; run < runs; run++) {
+            if (!EntityWorld.mayOverlap(runBox, run, ex, ey, ex + size, ey + size)) {
+                continue; // Swarm LOD: One box test rejects the whole formation
+            }
+            int inside = insideBox(playerBullets.x, playerBullets.y, playerBullets.span, runStart[run], runStart[run + 1],
+                    ex, ey, size, boxRows);
+            for (int k = 0; k < inside; k++) {
+                int i = boxRows[k];
+                double py = playerBullets.y[i];
+                for (long live = playerBullets.members[i]; live != 0; live &= live - 1) {
+                    int member = Long.numberOfTrailingZeros(live);
+                    double px = playerBullets.memberX(i, member);
+                    // Bullet hits the enemy (inside the box + alpha mask: collision detected)
+                    if (!(px > ex && px < ex + size) || !hitAt(mask, ex, ey, px, py)) {
+                        continue;
+                    }
+                    a.hp[e] -= playerBullets.unitDamage(i); // Reduce enemy health
+                    playerBullets.removeMember(i, member); // Remove bullet after hit (prevents multiple hits)
 
                     // Enemy defeated: Check if health drops to 0 or below
-                    if (e.hp <= 0) {
-                        if (e.isBoss) {
-                            isVictory = true; // Victory if BOSS is defeated
-                        }
-                        // Add score (1000 for BOSS, 20 for normal enemies)
-                        score += e.isBoss ? 1000 : 20;
-                        e.hp = -100; // Mark enemy for removal (avoids repeated checks)
-                        break;
+                    if (a.hp[e] <= 0) {
+                        defeatEnemy(a, e);
+                        return;
                     }
                 }
             }
+        }
+    }
 
-            // Remove defeated enemy from list (saves memory)
-            if (e.hp == -100) {
-                eIt.remove();
-            }
+    /**
+     * Enemy health dropped to 0 or below: Award score, end or advance the BOSS fight, mark the enemy for removal
+     * @param a Enemy or BOSS archetype
+     * @param e Row of the defeated enemy
+     */
+    private void defeatEnemy(Archetype a, int e) {
+        boolean isBoss = a == boss;
+        double size = a.w[e];
+        // Score (1000 for BOSS, 20 for normal enemies) and victory are applied by applyEvent
+        events.publish(GameEvent.ENEMY_KILLED, isBoss ? GameEvent.KIND_BOSS : GameEvent.KIND_ENEMY,
+                isBoss ? 1000 : 20, a.x[e] + size/2, a.y[e] + size/2, a.hp[e]);
+        if (isBoss) {
+            timers.cancel(boss.roarTimer[e]); // BOSS abilities stop with their BOSS
+            timers.cancel(boss.attackTimer[e]);
+        }
+        a.remove(e); // Removed by the compaction after the collision pass (avoids repeated checks)
+    }
+
+    /**
+     * Deliver this frame's events to the game's own subscribers, each as one batch on the game thread
+     * (runs right after the collision phases, so score, buffs and HP are up to date before the frame ends)
+     */
+    private void dispatchEvents() {
+        events.poll(ruleEvents, EVENT_RING_SIZE);
+        events.poll(audioEvents, EVENT_RING_SIZE);
+        events.poll(statsEvents, EVENT_RING_SIZE);
+        if (telemetry != null) {
+            telemetry.frame(this, frameNumber); // Buff and BOSS fight durations, periodic hand-over to the writer
+            events.poll(telemetryEvents, EVENT_RING_SIZE);
+        }
+    }
+
+    /**
+     * Game rules subscriber: Score, victory, Buff timers, fire count and player health
+     * Events are applied in publish order, so the outcome equals applying them inline in the collision loops
+     */
+    private void applyEvent(GameEvent e, long sequence, boolean endOfBatch) {
+        switch (e.type) {
+            case GameEvent.ENEMY_KILLED:
+                score += e.amount; // Add score (1000 for BOSS, 20 for normal enemies)
+                if (e.kind == GameEvent.KIND_BOSS) {
+                    GameFlightEvents.bossPhase("DEFEATED", e.value);
+                    if (endlessMode) {
+                        startNextCycle(); // Endless mode: A harder cycle begins instead of victory
+                    } else {
+                        isVictory = true; // Victory if BOSS is defeated
+                    }
+                }
+                break;
+            case GameEvent.GATE_TRIGGERED:
+                if (e.kind == GameEvent.GATE_BURST) {
+                    setBuff(BUFF_SCATTER, balance.buffDuration()*2); // Activate Scatter Buff
+                } else if (e.kind == GameEvent.GATE_GIANT) {
+                    // GIANT Buff: Activate Giant Bullet Buff
+                    setBuff(BUFF_GIANT, balance.buffDuration());
+                    // Reduce duration of other Buffs (prevents stacking)
+                    setBuff(BUFF_SCATTER, buffShots(BUFF_SCATTER) / 2);
+                    setBuff(BUFF_DAMAGE, buffShots(BUFF_DAMAGE) / 2);
+                } else {
+                    setBuff(BUFF_DAMAGE, balance.buffDuration()); // Blue gate: Activate Damage Buff
+                    // Reduce duration of other Buffs (prevents stacking)
+                    setBuff(BUFF_SCATTER, buffShots(BUFF_SCATTER) / 2);
+                    setBuff(BUFF_GIANT, buffShots(BUFF_GIANT) / 2);
+                }
+                break;
+            case GameEvent.CHEST_BROKEN:
+                baseFireCount = Math.min(MAX_FIRE_COUNT, baseFireCount + 1); // Increase base bullets per shot (capped)
+                break;
+            case GameEvent.PLAYER_HIT:
+                if (!godMode) {
+                    playerHP--; // Decrease player health (attract/soak mode: hits cost nothing)
+                }
+                // Trigger game over if player health drops to 0 or below
+                if (playerHP <= 0) {
+                    isGameOver = true;
+                }
+                break;
+            default:
+                break; // GATE_CHARGED, BOSS_ROAR, SHOT_FIRED: No rule attached
+        }
+    }
+
+    /**
+     * Audio subscriber: Sound effects for game events
+     */
+    private void playEventSound(GameEvent e, long sequence, boolean endOfBatch) {
+        if (e.type == GameEvent.SHOT_FIRED && shootSound != null) {
+            shootSound.play(); // Play shooting sound effect (if loaded)
+        }
+    }
+
+    /**
+     * Number of player bullets ("Forces"): Every member of a swarm row counts
+     * @return Bullets in the bullet rows
+     */
+    int playerUnitCount() {
+        int units = 0;
+        for (int i = 0; i < playerBullets.count; i++) {
+            units += playerBullets.units[i];
         }
+        return units;
     }
 
     /**
@@ -1111,18 +2226,22 @@ public class ThunderFighter extends Application {
      * Creates a wide-area attack for clearing groups of enemies
      * @param x Spawn X coordinate (center of the evolution gate)
      * @param y Spawn Y coordinate (center of the evolution gate)
-     * @param newUnits Temporary list to store BURST bullets (avoids concurrent modification)
      */
-    private void triggerBurst(double x, double y, List<MobUnit> newUnits) {
-        for (int i = 0; i < 35; i++) {
+    private void triggerBurst(double x, double y) {
+        for (int i = 0; i < BURST_SHOTS; i++) {
             // Random angle between 240° and 300° (downward arc, covers most of the screen)
             double angle = 240 + random.nextDouble() * 60;
             // Calculate bullet velocity based on angle (spread in arc)
             double vx = Math.cos(Math.toRadians(angle)) * 12;
             double vy = Math.sin(Math.toRadians(angle)) * 12;
-            // Add BURST bullet to temporary list (small size, low damage)
-            newUnits.add(new MobUnit(x, y, vx, vy, 1.0, 9.0));
+            // Queue BURST bullet (spawned after the gate pass, which is still walking the bullet rows)
+            int k = 4 * burstCount++;
+            burstShots[k] = x;
+            burstShots[k + 1] = y;
+            burstShots[k + 2] = vx;
+            burstShots[k + 3] = vy;
         }
+        GameFlightEvents.spawnBurst("BURST", BURST_SHOTS);
     }
 
     /**
@@ -1133,8 +2252,11 @@ public class ThunderFighter extends Application {
         // Draw score and progress (yellow bold font, top-left)
         gc.setFill(Color.YELLOW);
         gc.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-        gc.fillText("Forces: " + playerMob.size(), 20, 30); // Number of player bullets
-        gc.fillText("Progress: " + score + " / " + BOSS_TRIGGER_SCORE, 20, 50); // Score to BOSS
+        gc.fillText("Forces: " + playerUnitCount(), 20, 30); // Number of player bullets (swarm members included)
+        gc.fillText("Progress: " + cycleScore() + " / " + balance.bossTriggerScore(), 20, 50); // Score to BOSS
+        if (endlessMode) {
+            gc.fillText("Cycle: " + (bossCycle + 1) + "   Score: " + score, 20, 160); // Endless mode progress
+        }
 
         // Draw player HP (red bold font, top-left)
         gc.setFill(Color.RED);
@@ -1145,20 +2267,20 @@ public class ThunderFighter extends Application {
         gc.fillText("HP: " + hearts, 20, 75);
 
         // Draw evolution gate charge requirement (purple bold font, top-right)
-        int currentReq = Math.min(35, 10 + (score / 120));
+        int currentReq = balance.gateRequirement(cycleScore());
         gc.setFill(Color.VIOLET);
         gc.fillText("Evo Threshold: " + currentReq, WIDTH - 120, 30);
 
         // Draw active Buffs (colored bold font, top-left below HP)
-        if (scatterBuffTimer > 0) {
+        if (scatterBuffTimer() > 0) {
             gc.setFill(Color.GOLD);
             gc.fillText("BUFF: Scatter Burst!", 20, 100);
         }
-        if (dmgBuffTimer > 0) {
+        if (damageBuffTimer() > 0) {
             gc.setFill(Color.RED);
             gc.fillText("BUFF: Damage Boost!", 20, 120);
         }
-        if (giantBuffTimer > 0) {
+        if (giantBuffTimer() > 0) {
             gc.setFill(Color.VIOLET);
             gc.fillText("BUFF: Giant Bullets!", 20, 140);
         }
@@ -0,0 +1,105 @@
+package NEW;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Decoded tiles keyed by tile id, bounded by a memory ceiling (bytes) with least-recently-used eviction
+ * get() counts as a use, so tiles on screen stay while tiles that scrolled away are evicted first
+ * Thread-safe: The decoder thread puts tiles while the render thread gets them
+ * @param <T> Decoded tile type (JavaFX Image in the game, pixel arrays in tools)
+ */
+final class TileCache<T> {
+    private final long maxBytes;                 // Memory ceiling
+    private final ToLongFunction<T> sizeOf;      // Memory held by one decoded tile (bytes)
+    private final LinkedHashMap<Integer, T> tiles = new LinkedHashMap<>(64, 0.75f, true); // Access order = LRU first
+    private long bytes = 0;                      // Memory held by all cached tiles
+    private long hits = 0, misses = 0, evictions = 0;
+
+    /**
+     * Constructor for TileCache
+     * @param maxBytes Memory ceiling (bytes); the newest tile is kept even if it alone exceeds it
+     * @param sizeOf Memory held by one decoded tile (bytes)
+     */
+    TileCache(long maxBytes, ToLongFunction<T> sizeOf) {
+        this.maxBytes = maxBytes;
+        this.sizeOf = sizeOf;
+    }
+
+    /**
+     * Look up a tile (marks it as most recently used)
+     * @param id Tile id
+     * @return Decoded tile, or null if it is not cached
+     */
+    synchronized T get(int id) {
+        T tile = tiles.get(id);
+        if (tile != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return tile;
+    }
+
+    /**
+     * @param id Tile id
+     * @return True if the tile is cached (does not count as a use)
+     */
+    synchronized boolean contains(int id) {
+        return tiles.containsKey(id);
+    }
+
+    /**
+     * Add a decoded tile, evicting least recently used tiles until the cache fits its ceiling again
+     * @param id Tile id
+     * @param tile Decoded tile
+     */
+    synchronized void put(int id, T tile) {
+        T old = tiles.put(id, tile);
+        if (old != null) {
+            bytes -= sizeOf.applyAsLong(old);
+        }
+        bytes += sizeOf.applyAsLong(tile);
+        Iterator<Map.Entry<Integer, T>> it = tiles.entrySet().iterator();
+        while (bytes > maxBytes && tiles.size() > 1) {
+            Map.Entry<Integer, T> eldest = it.next();
+            if (eldest.getKey() == id) {
+                continue; // Never evict the tile just added
+            }
+            bytes -= sizeOf.applyAsLong(eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    synchronized void clear() {
+        tiles.clear();
+        bytes = 0;
+    }
+
+    long maxBytes() {
+        return maxBytes;
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized int size() {
+        return tiles.size();
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,287 @@
+package NEW;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel keyed on simulation ticks (frame numbers)
+ * Four wheels of 64 slots each cover 2^24 ticks (about 77 hours at 60 FPS); a timer sits in the slot of the
+ * coarsest wheel that still resolves its deadline and drops one wheel down when that wheel's slot comes up,
+ * so scheduling, cancelling and firing are O(1) and a tick on which nothing expires only looks at one empty slot
+ * Timers live in preallocated primitive arrays (linked into their slots by index): No allocation per timer
+ * Handles carry a generation, so a stale handle (timer already fired or cancelled) is simply not pending
+ */
+final class TimerWheel {
+    /** Handle value meaning "no timer" (never returned by schedule) */
+    static final long NONE = 0;
+
+    /**
+     * Action run when a timer fires (on the thread calling advance())
+     */
+    interface Callback {
+        /**
+         * @param arg Argument given when the timer was scheduled
+         */
+        void onTimer(int arg);
+    }
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;    // Slots per wheel
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1; // Farther deadlines wait in the top wheel
+    private static final int FIRING = LEVELS * WHEEL_SIZE;    // Sentinel of the list being fired this tick
+    private static final int FIRST_TIMER = FIRING + 1;        // Nodes below this index are list sentinels
+
+    private long now = 0;      // Last tick processed by advance()
+
+    // Nodes: Sentinels (one per slot + FIRING) followed by timers; circular doubly linked lists by index
+    private int[] next, prev;
+    private long[] deadline;   // Tick the timer fires on
+    private int[] period;      // Re-arm interval after firing (0 = one-shot)
+    private int[] arg;         // Callback argument
+    private int[] generation;  // Incremented whenever the node is freed (invalidates old handles)
+    private Callback[] callback;
+    private int freeHead = -1; // Free timer nodes, linked through next[]
+    private int active = 0;    // Pending timers
+
+    /**
+     * Constructor for TimerWheel
+     * @param capacity Initial number of timers (grows by doubling when exceeded)
+     */
+    TimerWheel(int capacity) {
+        int nodes = FIRST_TIMER + Math.max(1, capacity);
+        next = new int[nodes];
+        prev = new int[nodes];
+        deadline = new long[nodes];
+        period = new int[nodes];
+        arg = new int[nodes];
+        generation = new int[nodes];
+        callback = new Callback[nodes];
+        for (int s = 0; s < FIRST_TIMER; s++) {
+            next[s] = s;
+            prev[s] = s;
+        }
+        release(FIRST_TIMER, nodes);
+    }
+
+    /**
+     * @return Last tick processed (timers scheduled now count their delay from here)
+     */
+    long now() {
+        return now;
+    }
+
+    /**
+     * @return Number of pending timers
+     */
+    int size() {
+        return active;
+    }
+
+    /**
+     * Schedule a one-shot timer
+     * @param delay Ticks from now (at least 1: fires during advance() of tick now + delay)
+     * @param callback Action to run
+     * @param arg Argument passed to the action
+     * @return Handle for cancel() / remaining()
+     */
+    long schedule(long delay, Callback callback, int arg) {
+        return schedule(delay, 0, callback, arg);
+    }
+
+    /**
+     * Schedule a repeating timer
+     * @param delay Ticks until the first firing (at least 1)
+     * @param period Ticks between firings (0 = one-shot)
+     * @param callback Action to run
+     * @param arg Argument passed to the action
+     * @return Handle for cancel() / remaining() (stays valid across firings)
+     */
+    long schedule(long delay, int period, Callback callback, int arg) {
+        if (delay < 1 || period < 0) {
+            throw new IllegalArgumentException("delay must be >= 1 and period >= 0: " + delay + ", " + period);
+        }
+        if (freeHead < 0) {
+            grow();
+        }
+        int node = freeHead;
+        freeHead = next[node];
+        deadline[node] = now + delay;
+        this.period[node] = period;
+        this.arg[node] = arg;
+        this.callback[node] = callback;
+        insert(node);
+        active++;
+        return ((long) generation[node] << 32) | node;
+    }
+
+    /**
+     * Cancel a timer (no-op for NONE, fired one-shots and already cancelled timers)
+     * @param handle Timer handle
+     * @return True if a pending timer was cancelled
+     */
+    boolean cancel(long handle) {
+        int node = nodeOf(handle);
+        if (node < 0) {
+            return false;
+        }
+        unlink(node);
+        free(node);
+        return true;
+    }
+
+    /**
+     * @param handle Timer handle
+     * @return True if the timer has not fired (one-shot) or been cancelled yet
+     */
+    boolean isPending(long handle) {
+        return nodeOf(handle) >= 0;
+    }
+
+    /**
+     * @param handle Timer handle
+     * @return Tick the timer fires on next, or -1 if it is not pending
+     */
+    long deadline(long handle) {
+        int node = nodeOf(handle);
+        return node < 0 ? -1 : deadline[node];
+    }
+
+    /**
+     * @param handle Timer handle
+     * @return Ticks until the timer fires next (0 if it is not pending)
+     */
+    long remaining(long handle) {
+        int node = nodeOf(handle);
+        return node < 0 ? 0 : deadline[node] - now;
+    }
+
+    /**
+     * Process every tick up to and including the given one, firing due timers in deadline order
+     * Callbacks may schedule and cancel timers (including their own)
+     * @param tick Tick to advance to (ticks at or before now are ignored)
+     */
+    void advance(long tick) {
+        while (now < tick) {
+            now++;
+            // Entering a new slot of a coarser wheel: Its timers move down to finer wheels
+            for (int level = 1; level < LEVELS; level++) {
+                if ((now & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(level * WHEEL_SIZE + (int) ((now >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+            }
+            int slot = (int) (now & WHEEL_MASK);
+            if (next[slot] == slot) {
+                continue; // Nothing expires on this tick
+            }
+            moveAll(slot, FIRING);
+            while (next[FIRING] != FIRING) {
+                int node = next[FIRING];
+                unlink(node);
+                Callback action = callback[node];
+                int value = arg[node];
+                if (period[node] > 0) {
+                    deadline[node] += period[node];
+                    insert(node);
+                } else {
+                    free(node);
+                }
+                action.onTimer(value);
+            }
+        }
+    }
+
+    /**
+     * Resolve a handle to its node
+     * @return Node index, or -1 if the handle is stale or NONE
+     */
+    private int nodeOf(long handle) {
+        int node = (int) handle;
+        if (handle == NONE || node < FIRST_TIMER || node >= next.length
+                || generation[node] != (int) (handle >>> 32) || callback[node] == null) {
+            return -1;
+        }
+        return node;
+    }
+
+    /**
+     * Link a timer into the slot of the coarsest wheel that resolves its deadline
+     */
+    private void insert(int node) {
+        long delta = deadline[node] - now;
+        long due = delta > MAX_DELTA ? now + MAX_DELTA : deadline[node]; // Far timers wait in the top wheel
+        int level = 0;
+        while (level < LEVELS - 1 && Math.max(delta, 0) >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = level * WHEEL_SIZE + (int) ((due >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        int last = prev[slot];
+        next[last] = node;
+        prev[node] = last;
+        next[node] = slot;
+        prev[slot] = node;
+    }
+
+    private void cascade(int slot) {
+        if (next[slot] == slot) {
+            return;
+        }
+        moveAll(slot, FIRING);
+        while (next[FIRING] != FIRING) {
+            int node = next[FIRING];
+            unlink(node);
+            insert(node);
+        }
+    }
+
+    /**
+     * Move a whole slot list onto the (empty) target sentinel in O(1)
+     */
+    private void moveAll(int from, int to) {
+        int first = next[from], last = prev[from];
+        next[to] = first;
+        prev[first] = to;
+        prev[to] = last;
+        next[last] = to;
+        next[from] = from;
+        prev[from] = from;
+    }
+
+    private void unlink(int node) {
+        next[prev[node]] = next[node];
+        prev[next[node]] = prev[node];
+    }
+
+    private void free(int node) {
+        generation[node]++;
+        callback[node] = null;
+        next[node] = freeHead;
+        freeHead = node;
+        active--;
+    }
+
+    /**
+     * Put nodes [from, to) on the free list
+     */
+    private void release(int from, int to) {
+        for (int node = to - 1; node >= from; node--) {
+            generation[node] = 1; // Handles are never 0 (NONE)
+            next[node] = freeHead;
+            freeHead = node;
+        }
+    }
+
+    private void grow() {
+        int old = next.length;
+        int size = old * 2;
+        next = Arrays.copyOf(next, size);
+        prev = Arrays.copyOf(prev, size);
+        deadline = Arrays.copyOf(deadline, size);
+        period = Arrays.copyOf(period, size);
+        arg = Arrays.copyOf(arg, size);
+        generation = Arrays.copyOf(generation, size);
+        callback = Arrays.copyOf(callback, size);
+        release(old, size);
+    }
+}
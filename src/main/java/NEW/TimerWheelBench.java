@@ -0,0 +1,172 @@
+package NEW;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark: Per-entity cooldowns as TimerWheel timers vs one int counter per entity decremented every frame
+ * Every entity re-arms its cooldown when it expires (like a fire rate or an ability timer); both paths count the
+ * same expirations. Short cooldowns (1-600 frames) fire often, long ones (up to 10 minutes) make most frames idle
+ * Before timing, a randomized schedule/cancel/periodic workload is checked against a naive reference: every timer
+ * must fire exactly on its deadline tick, cancelled timers never fire, remaining() always matches
+ *
+ * Usage: java NEW.TimerWheelBench [entities=1000,10000,100000] [ticks=36000]
+ */
+public final class TimerWheelBench {
+
+    private TimerWheelBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Counter path: Decrement every cooldown each frame, re-arm the ones that reach 0
+     * @return Number of expirations
+     */
+    private static long runCounters(int[] cooldowns, int ticks) {
+        int[] left = cooldowns.clone();
+        long fired = 0;
+        for (int t = 1; t <= ticks; t++) {
+            for (int e = 0; e < left.length; e++) {
+                if (--left[e] == 0) {
+                    left[e] = cooldowns[e];
+                    fired++;
+                }
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Wheel path: One periodic timer per entity, advanced once per frame
+     * @return Number of expirations
+     */
+    private static long runWheel(int[] cooldowns, int ticks) {
+        TimerWheel wheel = new TimerWheel(cooldowns.length);
+        long[] fired = new long[1];
+        TimerWheel.Callback onExpired = arg -> fired[0]++;
+        for (int e = 0; e < cooldowns.length; e++) {
+            wheel.schedule(cooldowns[e], cooldowns[e], onExpired, e);
+        }
+        for (int t = 1; t <= ticks; t++) {
+            wheel.advance(t);
+        }
+        return fired[0];
+    }
+
+    /**
+     * Randomized cross-check against a list of (deadline, period) entries scanned every tick
+     * @return Error message, or null if the wheel matched the reference on every tick
+     */
+    private static String verify(long seed, int ticks) {
+        Random random = new Random(seed);
+        TimerWheel wheel = new TimerWheel(4);
+        int max = 4096;
+        long[] handle = new long[max];
+        long[] due = new long[max];   // Reference deadline (0 = not pending)
+        int[] period = new int[max];
+        boolean[] firedNow = new boolean[max];
+        List<Integer> firedOrder = new ArrayList<>();
+        TimerWheel.Callback onFired = arg -> {
+            firedNow[arg] = true;
+            firedOrder.add(arg);
+        };
+
+        for (long t = 1; t <= ticks; t++) {
+            // Random operations between ticks (short, cross-wheel and beyond-range delays)
+            for (int op = random.nextInt(8); op > 0; op--) {
+                int id = random.nextInt(max);
+                if (due[id] != 0 && random.nextInt(3) == 0) {
+                    if (!wheel.cancel(handle[id])) {
+                        return "tick " + t + ": cancel of pending timer " + id + " failed";
+                    }
+                    due[id] = 0;
+                } else if (due[id] == 0) {
+                    int r = random.nextInt(10);
+                    long delay = r < 6 ? 1 + random.nextInt(64) : r < 9 ? 1 + random.nextInt(300_000) : 1 + random.nextInt(1 << 25);
+                    period[id] = random.nextInt(4) == 0 ? 1 + random.nextInt(5000) : 0;
+                    handle[id] = wheel.schedule(delay, period[id], onFired, id);
+                    due[id] = wheel.now() + delay;
+                }
+            }
+
+            firedOrder.clear();
+            wheel.advance(t);
+            for (int id : firedOrder) {
+                if (due[id] != t) {
+                    return "tick " + t + ": timer " + id + " fired, reference deadline " + due[id];
+                }
+            }
+            int pending = 0;
+            for (int id = 0; id < max; id++) {
+                if (due[id] == t && !firedNow[id]) {
+                    return "tick " + t + ": timer " + id + " missed its deadline";
+                }
+                if (firedNow[id]) {
+                    firedNow[id] = false;
+                    due[id] = period[id] > 0 ? t + period[id] : 0;
+                }
+                if (due[id] != 0) {
+                    pending++;
+                    if (wheel.remaining(handle[id]) != due[id] - t) {
+                        return "tick " + t + ": timer " + id + " remaining " + wheel.remaining(handle[id]) + ", expected " + (due[id] - t);
+                    }
+                } else if (wheel.isPending(handle[id])) {
+                    return "tick " + t + ": stale handle of timer " + id + " still pending";
+                }
+            }
+            if (pending != wheel.size()) {
+                return "tick " + t + ": " + wheel.size() + " pending timers, reference " + pending;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional comma-separated entity counts and number of simulated frames
+     */
+    public static void main(String[] args) {
+        String[] counts = (args.length > 0 ? args[0] : "1000,10000,100000").split(",");
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 36000;
+
+        String error = verify(1, 200_000);
+        if (error != null) {
+            System.out.println("Reference mismatch: " + error);
+            System.exit(1);
+        }
+        System.out.println("Reference check: 200000 ticks of random schedule/cancel/periodic timers, all deadlines exact");
+
+        for (String c : counts) {
+            int n = Integer.parseInt(c.trim());
+            Random random = new Random(n);
+            int[] busy = new int[n];  // Short cooldowns: Something expires on most frames
+            int[] idle = new int[n];  // Long cooldowns: Most frames have nothing due
+            for (int e = 0; e < n; e++) {
+                busy[e] = 1 + random.nextInt(600);
+                idle[e] = 1 + random.nextInt(36000);
+            }
+            for (int[] cooldowns : new int[][] {busy, idle}) {
+                long counterNanos = Long.MAX_VALUE, wheelNanos = Long.MAX_VALUE;
+                long counterFired = 0, wheelFired = 0;
+                for (int round = 0; round < 5; round++) { // Best of 5 (first rounds warm up the JIT)
+                    long t0 = System.nanoTime();
+                    counterFired = runCounters(cooldowns, ticks);
+                    long t1 = System.nanoTime();
+                    wheelFired = runWheel(cooldowns, ticks);
+                    long t2 = System.nanoTime();
+                    counterNanos = Math.min(counterNanos, t1 - t0);
+                    wheelNanos = Math.min(wheelNanos, t2 - t1);
+                }
+                if (counterFired != wheelFired) {
+                    System.out.println("Expiration count mismatch: counters " + counterFired + ", wheel " + wheelFired);
+                    System.exit(1);
+                }
+                System.out.printf("%7d entities, cooldowns up to %5d frames: counters %8.2f us/frame, wheel %8.2f us/frame (%.1fx), %d expirations%n",
+                        n, Arrays.stream(cooldowns).max().getAsInt(), counterNanos / 1e3 / ticks, wheelNanos / 1e3 / ticks,
+                        (double) counterNanos / wheelNanos, wheelFired);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package NEW;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Vectorized training environment: Hundreds of independent ThunderEnv sessions stepped together on a worker pool
+ * All observations live in ONE shared float[] (environment i owns [i * OBS_SIZE, (i + 1) * OBS_SIZE)),
+ * rewards and done flags in shared primitive arrays, so nothing is copied per environment
+ * Finished environments reset automatically (gym "autoreset"): done[i] is true for the step that ended the episode,
+ * and the observation already belongs to the next episode
+ */
+public final class VectorEnv implements AutoCloseable {
+    private final ThunderEnv[] envs;      // Independent game sessions
+    private final float[] observations;   // Shared observation buffer (numEnvs * OBS_SIZE floats)
+    private final float[] rewards;        // Reward of the last step, per environment
+    private final boolean[] dones;        // Episode ended in the last step, per environment
+    private final long[] episodeSeeds;    // Next seed per environment (base seed + episode index stride)
+    private final ExecutorService workers;
+    private final List<Callable<Void>> chunks = new ArrayList<>(); // One pre-built task per worker (no per-step setup)
+    private int[] actions;                // Actions of the step in progress (read by the chunk tasks)
+
+    /**
+     * Constructor for VectorEnv
+     * @param numEnvs Number of parallel sessions
+     * @param threads Worker threads (typically the number of cores)
+     * @param frameSkip Game frames per step
+     */
+    public VectorEnv(int numEnvs, int threads, int frameSkip) {
+        this.envs = new ThunderEnv[numEnvs];
+        this.observations = new float[numEnvs * ThunderEnv.OBS_SIZE];
+        this.rewards = new float[numEnvs];
+        this.dones = new boolean[numEnvs];
+        this.episodeSeeds = new long[numEnvs];
+        for (int i = 0; i < numEnvs; i++) {
+            envs[i] = new ThunderEnv(frameSkip);
+        }
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "vector-env-worker");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // Split environments into one contiguous range per worker (cache-friendly, no sharing between workers)
+        int perChunk = (numEnvs + threads - 1) / threads;
+        for (int start = 0; start < numEnvs; start += perChunk) {
+            int from = start;
+            int to = Math.min(numEnvs, start + perChunk);
+            chunks.add(() -> {
+                stepRange(from, to);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Reset every environment
+     * @param seed Base seed (environment i uses seed + i, later episodes continue with a stride of numEnvs)
+     */
+    public void reset(long seed) {
+        for (int i = 0; i < envs.length; i++) {
+            episodeSeeds[i] = seed + i;
+            envs[i].reset(episodeSeeds[i], observations, i * ThunderEnv.OBS_SIZE);
+            rewards[i] = 0;
+            dones[i] = false;
+        }
+    }
+
+    /**
+     * Step every environment with its action, in parallel across the worker pool
+     * @param actions One action per environment (ThunderEnv.ACTION_*)
+     */
+    public void stepAll(int[] actions) {
+        if (actions.length != envs.length) {
+            throw new IllegalArgumentException("Expected " + envs.length + " actions, got " + actions.length);
+        }
+        this.actions = actions;
+        try {
+            for (Future<Void> f : workers.invokeAll(chunks)) {
+                f.get(); // Propagate failures from worker threads
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stepping environments", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Environment step failed", e.getCause());
+        }
+    }
+
+    /**
+     * Step environments [from, to) (runs on one worker thread)
+     */
+    private void stepRange(int from, int to) {
+        for (int i = from; i < to; i++) {
+            int offset = i * ThunderEnv.OBS_SIZE;
+            ThunderEnv env = envs[i];
+            rewards[i] = env.step(actions[i], observations, offset);
+            dones[i] = env.isDone();
+            if (dones[i]) {
+                episodeSeeds[i] += envs.length; // Fresh, still reproducible seed for the next episode
+                env.reset(episodeSeeds[i], observations, offset);
+            }
+        }
+    }
+
+    public int numEnvs() {
+        return envs.length;
+    }
+
+    /** @return Shared observation buffer (live view, overwritten by every step) */
+    public float[] observations() {
+        return observations;
+    }
+
+    /** @return Shared reward buffer (live view) */
+    public float[] rewards() {
+        return rewards;
+    }
+
+    /** @return Shared done-flag buffer (live view) */
+    public boolean[] dones() {
+        return dones;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Throughput check: Steps random actions through a vector of environments and reports steps per second
+     * Usage: java NEW.VectorEnv [numEnvs=256] [steps=2000] [threads=all cores]
+     * @param args Optional environment count, step count and thread count
+     */
+    public static void main(String[] args) {
+        int numEnvs = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        try (VectorEnv vec = new VectorEnv(numEnvs, threads, 1)) {
+            vec.reset(1);
+            int[] actions = new int[numEnvs];
+            Random policy = new Random(7);
+            long start = System.nanoTime();
+            for (int s = 0; s < steps; s++) {
+                for (int i = 0; i < numEnvs; i++) {
+                    actions[i] = policy.nextInt(ThunderEnv.NUM_ACTIONS);
+                }
+                vec.stepAll(actions);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double rate = (double) numEnvs * steps / seconds;
+            System.out.printf("%d envs x %d steps in %.1f s: %.0f steps/s (%.1f M steps/hour)%n",
+                    numEnvs, steps, seconds, rate, rate * 3600 / 1e6);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package NEW;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Benchmark: Cost of the memory-mapped world-state export on the game thread, with a live reader attached
+ * Plays a fixed-seed headless BOSS fight with a BURST storm (player bullets at the cap plus BOSS bullet patterns)
+ * and times WorldStateExporter.export after every frame; a reader thread meanwhile reads whole frames through
+ * WorldStateReader and counts consistent frames, seqlock retries and tick order violations (must be 0)
+ *
+ * Usage: java NEW.WorldStateExportBench [ticks=3600] [file=temp file]
+ */
+public final class WorldStateExportBench {
+    private static final double FRAME_BUDGET_US = 1e6 / 60; // One 60 FPS frame
+
+    private WorldStateExportBench() {
+        // Command-line tool only (no instances)
+    }
+
+    /**
+     * Reader side: Reads complete frames (all entity coordinates) as fast as it can
+     */
+    private static final class ReaderLoop implements Runnable {
+        private final Path file;
+        private final AtomicBoolean running;
+        long frames, retries, backwards, lastTick = -1;
+        double checksum; // Keeps the coordinate reads alive
+
+        ReaderLoop(Path file, AtomicBoolean running) {
+            this.file = file;
+            this.running = running;
+        }
+
+        @Override
+        public void run() {
+            try (WorldStateReader reader = new WorldStateReader(file)) {
+                while (running.get()) {
+                    if (!reader.begin()) {
+                        Thread.yield(); // Nothing exported yet
+                        continue;
+                    }
+                    long tick = reader.tick();
+                    double sum = 0;
+                    for (int kind = 0; kind < WorldStateReader.KINDS; kind++) {
+                        int n = Math.min(reader.count(kind), reader.capacity(kind)); // Torn counts are caught by validate()
+                        for (int i = 0; i < n; i++) {
+                            sum += reader.x(kind, i) + reader.y(kind, i);
+                        }
+                    }
+                    if (!reader.validate()) {
+                        retries++;
+                        continue;
+                    }
+                    if (tick < lastTick) {
+                        backwards++;
+                    }
+                    if (tick != lastTick) {
+                        frames++;
+                        lastTick = tick;
+                    }
+                    checksum += sum;
+                    Thread.yield(); // Polling reader: Let the game thread run on small machines
+                }
+            } catch (Exception e) {
+                System.out.println("Reader failed: " + e);
+            }
+        }
+    }
+
+    /**
+     * Command-line entry point
+     * @param args Optional tick count and export file
+     */
+    public static void main(String[] args) throws Exception {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 3600;
+        Path file = args.length > 1 ? Paths.get(args[1]) : Files.createTempFile("thunder", ".tfws");
+
+        ThunderFighter game = new ThunderFighter(21);
+        game.setHeadless(true);
+        game.setEndlessMode(true);
+        game.setGodMode(true);
+        game.setFireCount(12);
+        WorldStateExporter exporter = new WorldStateExporter(file);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ReaderLoop readerLoop = new ReaderLoop(file, running);
+        Thread readerThread = new Thread(readerLoop, "world-state-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        long[] exportNanos = new long[ticks];
+        int maxEntities = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            game.startBossFight();
+            game.setBuffTimers(420, 0, 0);
+            if (tick % 3 == 0) {
+                game.spawnGate(0, 450, ThunderFighter.WIDTH, GameEvent.GATE_BURST, 1);
+            }
+            game.setCannonX(game.autopilotX());
+            game.runFrame((tick + 1) * ThunderFighter.FRAME_NANOS);
+            long t0 = System.nanoTime();
+            exporter.export(game, tick);
+            exportNanos[tick] = System.nanoTime() - t0;
+            maxEntities = Math.max(maxEntities, game.playerUnitCount() + game.enemyCount() + game.bossShots().count);
+        }
+        running.set(false);
+        readerThread.join();
+        exporter.close();
+        if (args.length < 2) {
+            Files.deleteIfExists(file);
+        }
+
+        // First half is warm-up (JIT); report the second half
+        long[] measured = Arrays.copyOfRange(exportNanos, ticks / 2, ticks);
+        Arrays.sort(measured);
+        double meanUs = Arrays.stream(measured).average().orElse(0) / 1e3;
+        double p99Us = measured[(int) (measured.length * 0.99)] / 1e3;
+        System.out.printf("Export: mean %.1f us, p99 %.1f us per tick (%.2f%% of a 60 FPS frame), up to %d entities%n",
+                meanUs, p99Us, 100 * meanUs / FRAME_BUDGET_US, maxEntities);
+        System.out.printf("Reader: %d consistent frames, %d seqlock retries, %d out-of-order ticks%n",
+                readerLoop.frames, readerLoop.retries, readerLoop.backwards);
+        System.exit(readerLoop.backwards == 0 ? 0 : 1);
+    }
+}
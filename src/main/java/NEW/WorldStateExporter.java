@@ -0,0 +1,151 @@
+package NEW;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a fixed-layout world snapshot into a memory-mapped file once per tick (layout: see WorldStateReader)
+ * Seqlock double buffer: Tick t goes to slot t % 2; the slot's stamp is odd while it is being written,
+ * and the header's latest tick is published only after the slot is complete, so readers in other processes
+ * always have a whole tick to read the newest frame before the writer comes back to that slot
+ * The game thread never waits for readers and allocates nothing per tick
+ */
+final class WorldStateExporter implements AutoCloseable {
+    // Capacities (entities beyond these are left out of the snapshot)
+    static final int PLAYER_CAPACITY = 1024;   // Player bullet ceiling is 600 (+ one volley / BURST overshoot)
+    static final int ENEMY_CAPACITY = 512;     // Flocking enemy ceiling is 400 (lanes: 120, BOSS fight: the BOSS)
+    static final int BOSS_SHOT_CAPACITY = 6000;
+    static final int GATE_CAPACITY = 8;
+    static final int CHEST_CAPACITY = 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int slotSize;
+    private final int[] capacity = {PLAYER_CAPACITY, ENEMY_CAPACITY, BOSS_SHOT_CAPACITY, GATE_CAPACITY, CHEST_CAPACITY};
+    private final int[] arrayOffset = new int[WorldStateReader.KINDS];
+    private final long[] stamps = new long[2]; // Current stamp of each slot (writer-side copy)
+
+    private int base;    // Slot being written (byte offset)
+    private int kind;    // Entity kind being written
+    private int count;   // Entities of that kind written so far
+
+    /**
+     * Create (or overwrite) the world-state file and map it
+     * @param file Path of the shared file (e.g. on /dev/shm for RAM-only sharing)
+     * @throws IOException If the file cannot be created or mapped
+     */
+    WorldStateExporter(Path file) throws IOException {
+        slotSize = WorldStateReader.layout(capacity, arrayOffset);
+        long size = WorldStateReader.HEADER_SIZE + 2L * slotSize;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        map.putInt(WorldStateReader.H_SLOT_SIZE, slotSize);
+        for (int k = 0; k < WorldStateReader.KINDS; k++) {
+            map.putInt(WorldStateReader.H_CAPACITY + 4 * k, capacity[k]);
+        }
+        WorldStateReader.LONGS.setVolatile(map, WorldStateReader.H_LATEST, -1L);
+        map.putInt(4, WorldStateReader.VERSION);
+        map.putInt(0, WorldStateReader.MAGIC); // Magic last: Readers only accept a fully initialized header
+    }
+
+    /**
+     * Export the game's state for one tick (game thread)
+     * @param game Game to snapshot
+     * @param tick Tick number (frame number)
+     */
+    void export(ThunderFighter game, long tick) {
+        int slot = (int) (tick & 1);
+        base = WorldStateReader.HEADER_SIZE + slot * slotSize;
+        int seq = base + WorldStateReader.S_SEQ;
+        WorldStateReader.LONGS.setVolatile(map, seq, ++stamps[slot]); // Odd: Slot is being written
+        VarHandle.storeStoreFence(); // Plain payload stores below may not become visible before the odd stamp
+
+        map.putLong(base + WorldStateReader.S_TICK, tick);
+        map.putInt(base + WorldStateReader.S_SCORE, game.score());
+        map.putInt(base + WorldStateReader.S_HP, game.playerHP());
+        map.putDouble(base + WorldStateReader.S_CANNON_X, game.cannonX());
+        map.putInt(base + WorldStateReader.S_BUFFS, game.scatterBuffTimer());
+        map.putInt(base + WorldStateReader.S_BUFFS + 4, game.damageBuffTimer());
+        map.putInt(base + WorldStateReader.S_BUFFS + 8, game.giantBuffTimer());
+        map.putInt(base + WorldStateReader.S_CYCLE, game.bossCycle());
+
+        begin(WorldStateReader.PLAYER);
+        Archetype bullets = game.playerBullets();
+        for (int i = 0; i < bullets.count; i++) {
+            for (long live = bullets.members[i]; live != 0; live &= live - 1) { // One entry per bullet (swarm members too)
+                put(bullets.memberX(i, Long.numberOfTrailingZeros(live)), bullets.y[i], bullets.w[i], bullets.h[i],
+                        bullets.unitDamage(i));
+            }
+        }
+        end();
+        begin(WorldStateReader.ENEMY);
+        Archetype enemies = game.enemies();
+        for (int e = 0; e < enemies.count; e++) {
+            put(enemies.x[e], enemies.y[e], enemies.w[e], enemies.h[e], enemies.hp[e]);
+        }
+        Archetype boss = game.boss();
+        for (int b = 0; b < boss.count; b++) {
+            put(boss.x[b], boss.y[b], boss.w[b], boss.h[b], boss.hp[b]);
+        }
+        end();
+        begin(WorldStateReader.BOSS_SHOT);
+        BossBulletField shots = game.bossShots();
+        for (int i = 0; i < shots.count; i++) {
+            put(shots.x[i], shots.y[i], BossBulletField.SIZE, BossBulletField.SIZE, 0);
+        }
+        end();
+        begin(WorldStateReader.GATE);
+        Archetype gates = game.gates();
+        for (int g = 0; g < gates.count; g++) {
+            put(gates.x[g], gates.y[g], gates.w[g], gates.h[g], gates.charge[g]);
+        }
+        end();
+        begin(WorldStateReader.CHEST);
+        Archetype chests = game.chests();
+        for (int c = 0; c < chests.count; c++) {
+            put(chests.x[c], chests.y[c], chests.w[c], chests.h[c], chests.hp[c]);
+        }
+        end();
+
+        WorldStateReader.LONGS.setRelease(map, seq, ++stamps[slot]);         // Even: Slot complete
+        WorldStateReader.LONGS.setRelease(map, WorldStateReader.H_LATEST, tick); // Readers switch to this slot
+    }
+
+    private void begin(int kind) {
+        this.kind = kind;
+        this.count = 0;
+    }
+
+    /**
+     * Append one entity of the current kind (dropped beyond the kind's capacity)
+     */
+    private void put(double x, double y, double w, double h, double hp) {
+        int cap = capacity[kind];
+        if (count == cap) {
+            return;
+        }
+        int offset = base + arrayOffset[kind] + 4 * count;
+        map.putFloat(offset, (float) x);
+        map.putFloat(offset + 4 * cap, (float) y);
+        map.putFloat(offset + 8 * cap, (float) w);
+        map.putFloat(offset + 12 * cap, (float) h);
+        map.putFloat(offset + 16 * cap, (float) hp);
+        count++;
+    }
+
+    private void end() {
+        map.putInt(base + WorldStateReader.S_COUNTS + 4 * kind, count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,250 @@
+package NEW;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader library for the shared world-state file written by WorldStateExporter (also defines the file layout)
+ * The file is mapped once; every read happens directly on the mapped memory (no copies, no sockets)
+ * Reads follow the seqlock protocol:
+ * <pre>
+ *     do {
+ *         reader.begin();
+ *         ... read tick(), score(), x(WorldStateReader.ENEMY, i), ...
+ *     } while (!reader.validate());
+ * </pre>
+ *
+ * File layout (little endian):
+ * <pre>
+ *     Header (128 bytes): magic "TFWS", version, slot size, capacity per entity kind, latest tick (long at 64)
+ *     Slot 0, slot 1 (double buffer, tick t is written to slot t % 2):
+ *         seq (long, odd while the writer is inside the slot), tick, score, playerHP, cannonX,
+ *         scatter/damage/giant buff timers, BOSS cycle, count per entity kind,
+ *         then per entity kind five float arrays [capacity]: x, y, w, h, hp
+ * </pre>
+ * Entity fields: Player bullets (hp = damage), enemies (hp), BOSS bullets (hp = 0), gates (hp = current charge),
+ * chests (hp); (x, y) is the position the game uses for the entity (bullets: center, others: top-left)
+ *
+ * Usage (live viewer): java NEW.WorldStateReader [file=world.tfws]
+ */
+public final class WorldStateReader implements AutoCloseable {
+    // Entity kinds (index into counts and arrays)
+    public static final int PLAYER = 0;
+    public static final int ENEMY = 1;
+    public static final int BOSS_SHOT = 2;
+    public static final int GATE = 3;
+    public static final int CHEST = 4;
+    public static final int KINDS = 5;
+
+    // Layout constants (shared with WorldStateExporter)
+    static final int MAGIC = 0x54465753;       // "TFWS"
+    static final int VERSION = 2;              // 2: ENEMY capacity 512 (was 128)
+    static final int HEADER_SIZE = 128;
+    static final int H_SLOT_SIZE = 8;          // int: bytes per slot
+    static final int H_CAPACITY = 12;          // int[KINDS]: capacity per entity kind
+    static final int H_LATEST = 64;            // long: tick of the last completed slot (-1 = none yet)
+    static final int S_SEQ = 0;                // long: seqlock stamp (odd = being written)
+    static final int S_TICK = 8;               // long
+    static final int S_SCORE = 16;             // int
+    static final int S_HP = 20;                // int
+    static final int S_CANNON_X = 24;          // double
+    static final int S_BUFFS = 32;             // int[3]: scatter, damage, giant Buff timers
+    static final int S_CYCLE = 44;             // int: BOSS cycle (endless mode)
+    static final int S_COUNTS = 48;            // int[KINDS]
+    static final int S_ARRAYS = 128;           // Start of the entity arrays
+    static final int FIELDS = 5;               // x, y, w, h, hp
+    static final int MAX_SPINS = 1 << 20;      // begin() gives up after this many odd stamps (writer died mid-frame)
+
+    /** Long view with memory-ordering access modes (seqlock stamps, latest tick) */
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int slotSize;
+    private final int[] capacity = new int[KINDS];
+    private final int[] arrayOffset = new int[KINDS]; // Offset of the x array of each kind inside a slot
+
+    private int slot = -1;      // Slot of the frame being read (set by begin())
+    private long stamp = -1;    // Stamp seen by begin()
+
+    /**
+     * Compute the array offsets of a slot from the capacities
+     * @param capacity Capacity per entity kind
+     * @param offsets Receives the offset of each kind's x array
+     * @return Slot size in bytes (8-byte aligned)
+     */
+    static int layout(int[] capacity, int[] offsets) {
+        int offset = S_ARRAYS;
+        for (int k = 0; k < KINDS; k++) {
+            offsets[k] = offset;
+            offset += FIELDS * 4 * capacity[k];
+        }
+        return (offset + 7) & ~7;
+    }
+
+    /**
+     * Map an exported world-state file
+     * @param file File written by WorldStateExporter
+     * @throws IOException If the file cannot be mapped or is not a world-state file
+     */
+    public WorldStateReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a world-state file (version " + VERSION + "): " + file);
+        }
+        for (int k = 0; k < KINDS; k++) {
+            capacity[k] = map.getInt(H_CAPACITY + 4 * k);
+        }
+        slotSize = layout(capacity, arrayOffset);
+        if (slotSize != map.getInt(H_SLOT_SIZE)) {
+            channel.close();
+            throw new IOException("Corrupt world-state header: " + file);
+        }
+    }
+
+    /**
+     * Start reading the newest complete frame
+     * @return False if no frame has been exported yet (or the writer stopped inside a frame)
+     */
+    public boolean begin() {
+        for (int spin = 0; spin < MAX_SPINS; spin++) {
+            long latest = (long) LONGS.getAcquire(map, H_LATEST);
+            if (latest < 0) {
+                return false;
+            }
+            slot = (int) (latest & 1);
+            stamp = (long) LONGS.getAcquire(map, slotBase() + S_SEQ);
+            if ((stamp & 1) == 0) {
+                return true;
+            }
+            Thread.onSpinWait(); // Writer is inside this slot (it lapped us): Look again
+        }
+        return false;
+    }
+
+    /**
+     * Finish reading: True if nothing read since begin() was overwritten (the values form one consistent frame)
+     */
+    public boolean validate() {
+        VarHandle.loadLoadFence(); // All reads of the frame complete before the stamp is checked again
+        return stamp == (long) LONGS.getAcquire(map, slotBase() + S_SEQ);
+    }
+
+    private int slotBase() {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    public long tick() {
+        return map.getLong(slotBase() + S_TICK);
+    }
+
+    public int score() {
+        return map.getInt(slotBase() + S_SCORE);
+    }
+
+    public int playerHP() {
+        return map.getInt(slotBase() + S_HP);
+    }
+
+    public double cannonX() {
+        return map.getDouble(slotBase() + S_CANNON_X);
+    }
+
+    /**
+     * @param buff 0 = scatter, 1 = damage, 2 = giant
+     * @return Remaining Buff duration (shots)
+     */
+    public int buffTimer(int buff) {
+        return map.getInt(slotBase() + S_BUFFS + 4 * buff);
+    }
+
+    public int bossCycle() {
+        return map.getInt(slotBase() + S_CYCLE);
+    }
+
+    /**
+     * @param kind Entity kind (PLAYER, ENEMY, BOSS_SHOT, GATE, CHEST)
+     * @return Number of entities of this kind in the frame
+     */
+    public int count(int kind) {
+        return map.getInt(slotBase() + S_COUNTS + 4 * kind);
+    }
+
+    public int capacity(int kind) {
+        return capacity[kind];
+    }
+
+    public float x(int kind, int i) {
+        return field(kind, 0, i);
+    }
+
+    public float y(int kind, int i) {
+        return field(kind, 1, i);
+    }
+
+    public float w(int kind, int i) {
+        return field(kind, 2, i);
+    }
+
+    public float h(int kind, int i) {
+        return field(kind, 3, i);
+    }
+
+    public float hp(int kind, int i) {
+        return field(kind, 4, i);
+    }
+
+    private float field(int kind, int field, int i) {
+        return map.getFloat(slotBase() + arrayOffset[kind] + 4 * (field * capacity[kind] + i));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Live viewer: Prints the newest frame twice a second
+     * @param args Optional world-state file
+     */
+    public static void main(String[] args) throws Exception {
+        Path file = Paths.get(args.length > 0 ? args[0] : "world.tfws");
+        try (WorldStateReader reader = new WorldStateReader(file)) {
+            while (true) {
+                long tick;
+                int score, hp, units, enemies, shots;
+                double x;
+                int retries = -1;
+                do {
+                    retries++;
+                    if (!reader.begin()) {
+                        break;
+                    }
+                    tick = reader.tick();
+                    score = reader.score();
+                    hp = reader.playerHP();
+                    x = reader.cannonX();
+                    units = reader.count(PLAYER);
+                    enemies = reader.count(ENEMY);
+                    shots = reader.count(BOSS_SHOT);
+                    if (reader.validate()) {
+                        System.out.printf("tick %d  score %d  HP %d  cannonX %.1f  units %d  enemies %d  BOSS shots %d  (retries %d)%n",
+                                tick, score, hp, x, units, enemies, shots, retries);
+                        break;
+                    }
+                } while (true);
+                Thread.sleep(500);
+            }
+        }
+    }
+}